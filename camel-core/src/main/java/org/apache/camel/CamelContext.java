@@ -51,6 +51,7 @@ import org.apache.camel.spi.DataType;
 import org.apache.camel.spi.Debugger;
 import org.apache.camel.spi.EndpointRegistry;
 import org.apache.camel.spi.EndpointStrategy;
+import org.apache.camel.spi.ExchangeFactory;
 import org.apache.camel.spi.ExecutorServiceManager;
 import org.apache.camel.spi.FactoryFinder;
 import org.apache.camel.spi.FactoryFinderResolver;
@@ -1598,6 +1599,25 @@ public interface CamelContext extends SuspendableService, RuntimeConfiguration {
      */
     void setInflightRepository(InflightRepository repository);
 
+    /**
+     * Whether the inflight repository should allow browsing each inflight exchange.
+     *
+     * @return <tt>true</tt> if enabled (default), <tt>false</tt> if disabled.
+     */
+    Boolean isInflightRepositoryBrowseEnabled();
+
+    /**
+     * Sets whether the inflight repository should allow browsing each inflight exchange.
+     * <p/>
+     * This is by default enabled. Browsing is needed to find the oldest inflight exchange, and to log details
+     * about the inflight exchanges when a graceful shutdown times out. When disabled then only the number of
+     * inflight exchanges are kept, which has a slightly lower overhead under very heavy load.
+     *
+     * @param inflightRepositoryBrowseEnabled <tt>true</tt> to enable, <tt>false</tt> to disable
+     * @throws IllegalStateException is thrown if the {@link CamelContext} has already been started
+     */
+    void setInflightRepositoryBrowseEnabled(Boolean inflightRepositoryBrowseEnabled) throws IllegalStateException;
+
     /**
      * Gets the {@link org.apache.camel.AsyncProcessor} await manager.
      *
@@ -1829,6 +1849,48 @@ public interface CamelContext extends SuspendableService, RuntimeConfiguration {
      */
     void setUseBreadcrumb(Boolean useBreadcrumb);
 
+    /**
+     * Whether or not copy-on-write is enabled when copying exchanges and messages.
+     * <p/>
+     * When enabled then copies of an {@link Exchange} shares the headers and properties with the exchange it was
+     * copied from, until either of them is changed. This reduces the memory allocations when exchanges are copied
+     * by EIPs such as multicast, splitter, wire tap and the error handler.
+     *
+     * @return <tt>true</tt> if copy-on-write is enabled
+     */
+    Boolean isCopyOnWriteExchange();
+
+    /**
+     * Set whether copy-on-write is enabled when copying exchanges and messages.
+     * <p/>
+     * This is default disabled.
+     *
+     * @param copyOnWriteExchange <tt>true</tt> to enable copy-on-write, <tt>false</tt> to disable
+     */
+    void setCopyOnWriteExchange(Boolean copyOnWriteExchange);
+
+    /**
+     * Whether or not advice fusion is enabled for the internal processors which wraps each node in the routes.
+     * <p/>
+     * When enabled then the advices of each internal processor are fused when the route is started, into a
+     * specialized chain which skips advices which are not active, such as the backlog tracer and debugger when they
+     * are not enabled, and which does not allocate arrays to keep the state of the advices per exchange.
+     * As a consequence the backlog tracer and debugger must be enabled before the routes are started, and a WARN
+     * is logged when they are enabled afterwards.
+     *
+     * @return <tt>true</tt> if advice fusion is enabled
+     */
+    Boolean isAdviceFusion();
+
+    /**
+     * Set whether advice fusion is enabled for the internal processors which wraps each node in the routes.
+     * <p/>
+     * This is default disabled.
+     *
+     * @param adviceFusion <tt>true</tt> to enable advice fusion, <tt>false</tt> to disable
+     */
+    void setAdviceFusion(Boolean adviceFusion);
+
     /**
      * Resolves a component's default name from its java type.
      * <p/>
@@ -2063,6 +2125,17 @@ public interface CamelContext extends SuspendableService, RuntimeConfiguration {
      */
     void setHeadersMapFactory(HeadersMapFactory factory);
 
+    /**
+     * Gets the {@link ExchangeFactory} which consumers use to create exchanges.
+     */
+    ExchangeFactory getExchangeFactory();
+
+    /**
+     * Sets a custom {@link ExchangeFactory} to be used, such as the {@link org.apache.camel.impl.PooledExchangeFactory}
+     * to pool the exchanges of the consumers which support releasing their exchanges.
+     */
+    void setExchangeFactory(ExchangeFactory exchangeFactory);
+
     /**
      * Returns an optional {@link HealthCheckRegistry}, by default no registry is
      * present and it must be explicit activated. Components can register/unregister
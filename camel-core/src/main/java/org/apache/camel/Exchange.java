@@ -237,6 +237,8 @@ public interface Exchange {
     @Deprecated
     String UNIT_OF_WORK_PROCESS_SYNC = "CamelUnitOfWorkProcessSync";
 
+    String XML_PRE_COMPILE  = "CamelXmlPreCompile";
+
     String XSLT_FILE_NAME   = "CamelXsltFileName";
     String XSLT_ERROR       = "CamelXsltError";
     String XSLT_FATAL_ERROR = "CamelXsltFatalError";
@@ -40,6 +40,20 @@ public interface PerformanceCounter {
      */
     void completedExchange(Exchange exchange, long time);
 
+    /**
+     * Executed when an {@link org.apache.camel.Exchange} is complete, with the time it took in a higher resolution,
+     * which is used for the processing time percentiles.
+     * <p/>
+     * The default implementation calls {@link #completedExchange(org.apache.camel.Exchange, long)}.
+     *
+     * @param exchange the exchange
+     * @param time the time it took in millis to complete
+     * @param nanos the time it took in nanos to complete
+     */
+    default void completedExchange(Exchange exchange, long time, long nanos) {
+        completedExchange(exchange, time);
+    }
+
     /**
      * Executed when an {@link org.apache.camel.Exchange} failed.
      *
@@ -204,6 +204,18 @@ public final class CamelOpenMBeanTypes {
                 new OpenType[]{SimpleType.STRING, SimpleType.LONG});
     }
 
+    public static TabularType aggregateLockStripesTabularType() throws OpenDataException {
+        CompositeType ct = aggregateLockStripesCompositeType();
+        return new TabularType("lockStripes", "Lock stripe statistics", ct, new String[]{"index"});
+    }
+
+    public static CompositeType aggregateLockStripesCompositeType() throws OpenDataException {
+        return new CompositeType("stripes", "Stripes",
+                new String[]{"index", "totalIn", "totalCompleted", "contended", "pendingTimeouts"},
+                new String[]{"Index", "Total In", "Total Completed", "Contended", "Pending Timeouts"},
+                new OpenType[]{SimpleType.INTEGER, SimpleType.LONG, SimpleType.LONG, SimpleType.LONG, SimpleType.INTEGER});
+    }
+
     public static TabularType endpointsUtilizationTabularType() throws OpenDataException {
         CompositeType ct = endpointsUtilizationCompositeType();
         return new TabularType("endpointsUtilization", "Endpoint utilization statistics", ct, new String[]{"url"});
@@ -16,6 +16,8 @@
  */
 package org.apache.camel.api.management.mbean;
 
+import javax.management.openmbean.TabularData;
+
 import org.apache.camel.api.management.ManagedAttribute;
 import org.apache.camel.api.management.ManagedOperation;
 
@@ -42,6 +44,9 @@ public interface ManagedAggregateProcessorMBean extends ManagedProcessorMBean {
     @ManagedAttribute(description = "Completion timeout checker interval in millis")
     long getCompletionTimeoutCheckerInterval();
 
+    @ManagedAttribute(description = "Whether the completion timeout checker uses a timing wheel")
+    boolean isCompletionTimeoutTimingWheel();
+
     @ManagedAttribute(description = "Completion size")
     int getCompletionSize();
 
@@ -66,6 +71,9 @@ public interface ManagedAggregateProcessorMBean extends ManagedProcessorMBean {
     @ManagedAttribute(description = "Optimistic locking")
     boolean isOptimisticLocking();
 
+    @ManagedAttribute(description = "Number of lock stripes the correlation keys are spread over")
+    int getLockStripes();
+
     @ManagedAttribute(description = "Whether or not to eager check for completion when a new incoming Exchange has been received")
     boolean isEagerCheckCompletion();
 
@@ -129,6 +137,9 @@ public interface ManagedAggregateProcessorMBean extends ManagedProcessorMBean {
     @ManagedAttribute(description = "Total number of exchanged completed by completion force trigger")
     long getCompletedByForce();
 
+    @ManagedOperation(description = "Statistics of each lock stripe such as the number of exchanges and how often the lock was contended")
+    TabularData lockStripeStatistics();
+
     @ManagedOperation(description = " Reset the statistics counters")
     void resetStatistics();
 
@@ -68,6 +68,30 @@ public interface ManagedCamelContextMBean extends ManagedPerformanceCounterMBean
     @ManagedAttribute(description = "HeadersMapFactory class name")
     String getHeadersMapFactoryClassName();
 
+    @ManagedAttribute(description = "ExchangeFactory class name")
+    String getExchangeFactoryClassName();
+
+    @ManagedAttribute(description = "Whether the ExchangeFactory pools exchanges")
+    boolean isExchangeFactoryPooled();
+
+    @ManagedAttribute(description = "Number of new exchanges created by the pooled ExchangeFactory as the pool was empty")
+    Long getExchangeFactoryCreatedCounter();
+
+    @ManagedAttribute(description = "Number of exchanges acquired (reused) from the pooled ExchangeFactory")
+    Long getExchangeFactoryAcquiredCounter();
+
+    @ManagedAttribute(description = "Number of exchanges released back to the pooled ExchangeFactory")
+    Long getExchangeFactoryReleasedCounter();
+
+    @ManagedAttribute(description = "Number of released exchanges discarded by the pooled ExchangeFactory as the pool was full")
+    Long getExchangeFactoryDiscardedCounter();
+
+    @ManagedAttribute(description = "Number of exchanges released more than once to the pooled ExchangeFactory, which indicates a problem in a consumer")
+    Long getExchangeFactoryDoubleReleasedCounter();
+
+    @ManagedAttribute(description = "Number of exchanges created by the pooled ExchangeFactory which are in use (not released)")
+    Long getExchangeFactoryInUseCount();
+
     @Deprecated
     @ManagedOperation(description = "Gets the value of a Camel global option")
     String getProperty(String key) throws Exception;
@@ -148,6 +172,9 @@ public interface ManagedCamelContextMBean extends ManagedPerformanceCounterMBean
     @ManagedAttribute(description = "Whether allowing access to the original message during routing")
     boolean isAllowUseOriginalMessage();
 
+    @ManagedAttribute(description = "Whether the inflight repository allows browsing each inflight exchange")
+    boolean isInflightRepositoryBrowseEnabled();
+
     @ManagedAttribute(description = "Whether message history is enabled")
     boolean isMessageHistory();
 
@@ -44,9 +44,24 @@ public interface ManagedErrorHandlerMBean {
     @ManagedAttribute(description = "Endpoint Uri for the dead letter channel where dead message is move to", mask = true)
     String getDeadLetterChannelEndpointUri();
 
+    @ManagedAttribute(description = "Route ID of the route using this error handler")
+    String getRouteId();
+
     @ManagedAttribute(description = "Number of Exchanges scheduled for redelivery (waiting to be redelivered in the future)")
     Integer getPendingRedeliveryCount();
 
+    @ManagedAttribute(description = "Maximum number of Exchanges which can be pending for asynchronous delayed redelivery by the route (0 for no limit)")
+    Integer getMaximumPendingRedeliveries();
+
+    @ManagedAttribute(description = "Maximum number of Exchanges which can be pending for asynchronous delayed redelivery by the route (0 for no limit)")
+    void setMaximumPendingRedeliveries(Integer maximum);
+
+    @ManagedAttribute(description = "Number of redeliveries in the route which was rejected as the maximum pending redeliveries was reached")
+    Long getRejectedRedeliveryCount();
+
+    @ManagedAttribute(description = "Whether asynchronous delayed redeliveries are scheduled on the redelivery timing wheel")
+    Boolean getUseRedeliveryTimingWheel();
+
     @ManagedAttribute(description = "RedeliveryPolicy for maximum redeliveries")
     Integer getMaximumRedeliveries();
 
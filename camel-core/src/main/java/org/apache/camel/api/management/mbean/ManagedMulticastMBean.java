@@ -17,6 +17,7 @@
 package org.apache.camel.api.management.mbean;
 
 import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
 
 public interface ManagedMulticastMBean extends ManagedProcessorMBean {
 
@@ -38,4 +39,25 @@ public interface ManagedMulticastMBean extends ManagedProcessorMBean {
     @ManagedAttribute(description = "The total timeout specified in millis, when using parallel processing.")
     Long getTimeout();
 
+    @ManagedAttribute(description = "The maximum number of sub exchanges in flight, when using parallel processing.")
+    Integer getMaxInFlight();
+
+    @ManagedAttribute(description = "If enabled then Camel will aggregate replies in order when using parallel processing in streaming mode.")
+    Boolean isAggregateInOrder();
+
+    @ManagedAttribute(description = "Number of sub exchanges currently in flight, when using a maximum in flight.")
+    Integer getInFlight();
+
+    @ManagedAttribute(description = "The highest number of sub exchanges in flight, when using a maximum in flight.")
+    Integer getPeakInFlight();
+
+    @ManagedAttribute(description = "Number of times creating a sub exchange waited because the maximum number of sub exchanges was in flight.")
+    Long getInFlightWaitCounter();
+
+    @ManagedAttribute(description = "Total time in millis creating sub exchanges waited because the maximum number of sub exchanges was in flight.")
+    Long getInFlightWaitTime();
+
+    @ManagedOperation(description = "Reset the in flight statistics")
+    void resetInFlightStatistics();
+
 }
\ No newline at end of file
@@ -59,6 +59,18 @@ public interface ManagedPerformanceCounterMBean extends ManagedCounterMBean {
     @ManagedAttribute(description = "Delta Processing Time [milliseconds]")
     long getDeltaProcessingTime() throws Exception;
 
+    @ManagedAttribute(description = "50th Percentile Processing Time [microseconds] (requires extended statistics)")
+    long getProcessingTimeP50();
+
+    @ManagedAttribute(description = "90th Percentile Processing Time [microseconds] (requires extended statistics)")
+    long getProcessingTimeP90();
+
+    @ManagedAttribute(description = "99th Percentile Processing Time [microseconds] (requires extended statistics)")
+    long getProcessingTimeP99();
+
+    @ManagedAttribute(description = "99.9th Percentile Processing Time [microseconds] (requires extended statistics)")
+    long getProcessingTimeP999();
+
     @ManagedAttribute(description = "Last Exchange Completed Timestamp")
     Date getLastExchangeCompletedTimestamp();
 
@@ -92,4 +104,10 @@ public interface ManagedPerformanceCounterMBean extends ManagedCounterMBean {
     @ManagedOperation(description = "Dumps the statistics as XML")
     String dumpStatsAsXml(boolean fullStats);
 
+    @ManagedOperation(description = "Processing time at the given percentile [microseconds] (requires extended statistics)")
+    long processingTimePercentile(double percentile);
+
+    @ManagedOperation(description = "Dumps the processing time percentiles of the exchanges completed since the previous interval as XML, and starts a new interval (requires extended statistics)")
+    String dumpProcessingTimeIntervalAsXml();
+
 }
\ No newline at end of file
@@ -85,6 +85,24 @@ public interface ManagedStreamCachingStrategyMBean extends ManagedServiceMBean {
     @ManagedAttribute(description = "Average number of bytes per cached stream for spooled (not in-memory) stream caches.")
     long getCacheSpoolAverageSize();
 
+    @ManagedAttribute(description = "Whether in-memory stream caches are stored in pooled direct buffers and spooled to memory mapped files")
+    boolean isPooled();
+
+    @ManagedAttribute(description = "Maximum number of bytes in idle buffers which the buffer pool keeps for reuse")
+    long getPoolMaxSize();
+
+    @ManagedAttribute(description = "Number of buffers allocated by the buffer pool")
+    long getPoolAllocatedCounter();
+
+    @ManagedAttribute(description = "Number of buffers reused from the buffer pool")
+    long getPoolReusedCounter();
+
+    @ManagedAttribute(description = "Number of bytes in the buffers currently in use from the buffer pool")
+    long getPoolInUseSize();
+
+    @ManagedAttribute(description = "Number of bytes in the idle buffers kept in the buffer pool")
+    long getPoolIdleSize();
+
     @ManagedAttribute(description = "Whether utilization statistics is enabled")
     boolean isStatisticsEnabled();
 
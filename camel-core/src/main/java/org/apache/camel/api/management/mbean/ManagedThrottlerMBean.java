@@ -41,4 +41,10 @@ public interface ManagedThrottlerMBean extends ManagedProcessorMBean {
     @ManagedAttribute(description = "Whether or not throttler throws the ThrottlerRejectedExecutionException when the exchange exceeds the request limit")
     Boolean isRejectExecution();
 
+    @ManagedAttribute(description = "Whether or not throttler uses a token bucket which does not block threads while delaying")
+    Boolean isTokenBucket();
+
+    @ManagedAttribute(description = "Current number of correlation keys which are throttled using their own token bucket")
+    int getCorrelationKeysSize();
+
 }
\ No newline at end of file
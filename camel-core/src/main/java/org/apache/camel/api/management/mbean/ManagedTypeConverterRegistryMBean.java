@@ -35,9 +35,15 @@ public interface ManagedTypeConverterRegistryMBean extends ManagedServiceMBean {
     @ManagedAttribute(description = "Number of type conversion hits by base core converters (successful conversions)")
     long getBaseHitCounter();
 
+    @ManagedAttribute(description = "Number of type conversion attempts where the type converter was resolved from the dispatch table")
+    long getDispatchHitCounter();
+
     @ManagedAttribute(description = "Number of type conversion misses (no suitable type converter)")
     long getMissCounter();
 
+    @ManagedAttribute(description = "Number of type conversion attempts where a previous miss was resolved from the negative cache")
+    long getNegativeCacheHitCounter();
+
     @ManagedAttribute(description = "Number of type conversion failures (failed conversions)")
     long getFailedCounter();
 
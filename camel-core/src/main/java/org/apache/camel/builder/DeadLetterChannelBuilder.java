@@ -59,6 +59,8 @@ public class DeadLetterChannelBuilder extends DefaultErrorHandlerBuilder {
                 getRedeliveryPolicy(), getExceptionPolicyStrategy(), getFailureProcessor(), getDeadLetterUri(), isDeadLetterHandleNewException(),
                 isUseOriginalMessage(), getRetryWhilePolicy(routeContext.getCamelContext()), getExecutorService(routeContext.getCamelContext()),
                 getOnPrepareFailure(), getOnExceptionOccurred());
+        answer.setPendingRedeliveries(getPendingRedeliveries(routeContext));
+        answer.setUseRedeliveryTimingWheel(isUseRedeliveryTimingWheel());
         // configure error handler before we can use it
         configure(routeContext, answer);
         return answer;
@@ -16,6 +16,9 @@
  */
 package org.apache.camel.builder;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 
 import org.apache.camel.CamelContext;
@@ -25,6 +28,7 @@ import org.apache.camel.LoggingLevel;
 import org.apache.camel.Predicate;
 import org.apache.camel.Processor;
 import org.apache.camel.processor.DefaultErrorHandler;
+import org.apache.camel.processor.RedeliveryErrorHandler;
 import org.apache.camel.processor.RedeliveryPolicy;
 import org.apache.camel.spi.ExecutorServiceManager;
 import org.apache.camel.spi.Language;
@@ -54,8 +58,13 @@ public class DefaultErrorHandlerBuilder extends ErrorHandlerBuilderSupport {
     protected boolean asyncDelayedRedelivery;
     protected String executorServiceRef;
     protected ScheduledExecutorService executorService;
+    protected int maximumPendingRedeliveries;
+    protected boolean useRedeliveryTimingWheel;
     protected Processor onPrepareFailure;
     protected Processor onExceptionOccurred;
+    // the pending redeliveries which are shared by the error handlers of each route
+    private final Map<RouteContext, RedeliveryErrorHandler.PendingRedeliveries> pendingRedeliveries =
+            Collections.synchronizedMap(new WeakHashMap<RouteContext, RedeliveryErrorHandler.PendingRedeliveries>());
 
     public DefaultErrorHandlerBuilder() {
     }
@@ -64,11 +73,29 @@ public class DefaultErrorHandlerBuilder extends ErrorHandlerBuilderSupport {
         DefaultErrorHandler answer = new DefaultErrorHandler(routeContext.getCamelContext(), processor, getLogger(), getOnRedelivery(), 
             getRedeliveryPolicy(), getExceptionPolicyStrategy(), getRetryWhilePolicy(routeContext.getCamelContext()),
                 getExecutorService(routeContext.getCamelContext()), getOnPrepareFailure(), getOnExceptionOccurred());
+        answer.setPendingRedeliveries(getPendingRedeliveries(routeContext));
+        answer.setUseRedeliveryTimingWheel(isUseRedeliveryTimingWheel());
         // configure error handler before we can use it
         configure(routeContext, answer);
         return answer;
     }
 
+    /**
+     * Gets the pending redeliveries which are shared by the error handlers of the route, so the
+     * maximum pending redeliveries is a limit for the route rather than for each node in the route.
+     */
+    protected RedeliveryErrorHandler.PendingRedeliveries getPendingRedeliveries(RouteContext routeContext) {
+        synchronized (pendingRedeliveries) {
+            RedeliveryErrorHandler.PendingRedeliveries answer = pendingRedeliveries.get(routeContext);
+            if (answer == null) {
+                answer = new RedeliveryErrorHandler.PendingRedeliveries();
+                answer.setMaximum(getMaximumPendingRedeliveries());
+                pendingRedeliveries.put(routeContext, answer);
+            }
+            return answer;
+        }
+    }
+
     public boolean supportTransacted() {
         return false;
     }
@@ -117,6 +144,8 @@ public class DefaultErrorHandlerBuilder extends ErrorHandlerBuilderSupport {
         other.setUseOriginalMessage(useOriginalMessage);
         other.setAsyncDelayedRedelivery(asyncDelayedRedelivery);
         other.setExecutorServiceRef(executorServiceRef);
+        other.setMaximumPendingRedeliveries(maximumPendingRedeliveries);
+        other.setUseRedeliveryTimingWheel(useRedeliveryTimingWheel);
     }
 
     // Builder methods
@@ -259,6 +288,35 @@ public class DefaultErrorHandlerBuilder extends ErrorHandlerBuilderSupport {
         return this;
     }
 
+    /**
+     * Sets the maximum number of exchanges which can be pending for asynchronous delayed redelivery
+     * by the error handler of the route. When the limit is reached, then further exchanges are not scheduled
+     * for redelivery, but are exhausted with a {@link java.util.concurrent.RejectedExecutionException}.
+     * <p/>
+     * By default there is no limit.
+     *
+     * @param maximumPendingRedeliveries the maximum pending redeliveries, or <tt>0</tt> for no limit
+     * @return the builder
+     */
+    public DefaultErrorHandlerBuilder maximumPendingRedeliveries(int maximumPendingRedeliveries) {
+        setMaximumPendingRedeliveries(maximumPendingRedeliveries);
+        return this;
+    }
+
+    /**
+     * Will schedule asynchronous delayed redeliveries on a timing wheel which is shared by the error handlers
+     * of the {@link CamelContext}, instead of the scheduled thread pool. The timing wheel scales better when
+     * there is a very large number of pending redeliveries, at the expense of rounding the delays up
+     * to the tick duration of the wheel (10 millis).
+     *
+     * @see org.apache.camel.processor.RedeliveryTimingWheel
+     * @return the builder
+     */
+    public DefaultErrorHandlerBuilder redeliveryTimingWheel() {
+        setUseRedeliveryTimingWheel(true);
+        return this;
+    }
+
     /**
      * Sets the logger used for caught exceptions
      *
@@ -539,6 +597,22 @@ public class DefaultErrorHandlerBuilder extends ErrorHandlerBuilderSupport {
         this.executorServiceRef = executorServiceRef;
     }
 
+    public int getMaximumPendingRedeliveries() {
+        return maximumPendingRedeliveries;
+    }
+
+    public void setMaximumPendingRedeliveries(int maximumPendingRedeliveries) {
+        this.maximumPendingRedeliveries = maximumPendingRedeliveries;
+    }
+
+    public boolean isUseRedeliveryTimingWheel() {
+        return useRedeliveryTimingWheel;
+    }
+
+    public void setUseRedeliveryTimingWheel(boolean useRedeliveryTimingWheel) {
+        this.useRedeliveryTimingWheel = useRedeliveryTimingWheel;
+    }
+
     public Processor getOnPrepareFailure() {
         return onPrepareFailure;
     }
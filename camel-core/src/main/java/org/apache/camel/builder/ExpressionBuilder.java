@@ -73,6 +73,7 @@ import org.apache.camel.util.ObjectHelper;
 import org.apache.camel.util.OgnlHelper;
 import org.apache.camel.util.SkipIterator;
 import org.apache.camel.util.StringHelper;
+import org.apache.camel.util.TokenIterator;
 
 /**
  * A helper class for working with <a href="http://camel.apache.org/expression.html">expressions</a>.
@@ -170,6 +171,25 @@ public final class ExpressionBuilder {
      * @return an expression object which will return the header value
      */
     public static Expression headerExpression(final String headerName) {
+        if (!SimpleLanguage.hasSimpleFunction(headerName)) {
+            // the name is a constant so we do not need to evaluate it for every exchange
+            return new ExpressionAdapter() {
+                public Object evaluate(Exchange exchange) {
+                    Object header = exchange.getIn().getHeader(headerName);
+                    if (header == null) {
+                        // fall back on a property
+                        header = exchange.getProperty(headerName);
+                    }
+                    return header;
+                }
+
+                @Override
+                public String toString() {
+                    return "header(" + headerName + ")";
+                }
+            };
+        }
+
         return new ExpressionAdapter() {
             public Object evaluate(Exchange exchange) {
                 String name = simpleExpression(headerName).evaluate(exchange, String.class);
@@ -614,6 +634,20 @@ public final class ExpressionBuilder {
      * @return an expression object which will return the property value
      */
     public static Expression exchangePropertyExpression(final String propertyName) {
+        if (!SimpleLanguage.hasSimpleFunction(propertyName)) {
+            // the name is a constant so we do not need to evaluate it for every exchange
+            return new ExpressionAdapter() {
+                public Object evaluate(Exchange exchange) {
+                    return exchange.getProperty(propertyName);
+                }
+
+                @Override
+                public String toString() {
+                    return "exchangeProperty(" + propertyName + ")";
+                }
+            };
+        }
+
         return new ExpressionAdapter() {
             public Object evaluate(Exchange exchange) {
                 String text = simpleExpression(propertyName).evaluate(exchange, String.class);
@@ -1558,6 +1592,13 @@ public final class ExpressionBuilder {
             public Object evaluate(Exchange exchange) {
                 String text = simpleExpression(token).evaluate(exchange, String.class);
                 Object value = expression.evaluate(exchange, Object.class);
+                if (TokenIterator.isLiteral(text)) {
+                    // no need for the scanner which uses regular expressions
+                    TokenIterator it = ObjectHelper.getTokenIterator(exchange, value, text);
+                    if (it != null) {
+                        return it;
+                    }
+                }
                 Scanner scanner = ObjectHelper.getScanner(exchange, value);
                 scanner.useDelimiter(text);
                 return scanner;
@@ -0,0 +1,738 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.builder.xml;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Evaluates a forward-only subset of XPath as a predicate on a StAX {@link XMLStreamReader},
+ * and stops reading as soon as the outcome of the predicate is decided.
+ * <p/>
+ * The supported subset is a location path of child (<tt>/</tt>) and descendant (<tt>//</tt>) steps with
+ * the name tests <tt>name</tt>, <tt>prefix:name</tt>, <tt>prefix:*</tt> or <tt>*</tt>, which may end
+ * with an attribute (<tt>/@name</tt>) or a <tt>/text()</tt> step. The path may be compared to a string
+ * or number literal using <tt>=</tt> or <tt>!=</tt>. The steps may have a position predicate such as
+ * <tt>[1]</tt> (which must be the first predicate of the step) and attribute predicates such as
+ * <tt>[@name]</tt> or <tt>[@name='value']</tt>. The last step may also have a text predicate such as
+ * <tt>[text()='value']</tt> or <tt>[.='value']</tt>.
+ * <p/>
+ * The predicate is decided when a matching node is found, or when no more elements can match the path.
+ * For example <tt>/soap:Envelope/soap:Header[1]/foo:routing</tt> is decided at the end of the SOAP header,
+ * whereas <tt>/soap:Envelope/soap:Header/foo:routing</tt> must read the rest of the envelope, as there
+ * may be another header.
+ * <p/>
+ * Use {@link #compile(String, NamespaceContext)} to compile an expression, which returns <tt>null</tt>
+ * if the expression is not in the supported subset. An instance is thread safe.
+ */
+final class StreamingXPath {
+
+    private static final int MAX_STEPS = 30;
+
+    private enum Target {
+        ELEMENT, ATTRIBUTE, TEXT
+    }
+
+    private final String text;
+    private final Step[] steps;
+    private final Target target;
+    private final QName attribute;
+    private final Comparison comparison;
+    private final boolean positions;
+
+    private StreamingXPath(String text, Step[] steps, Target target, QName attribute, Comparison comparison) {
+        this.text = text;
+        this.steps = steps;
+        this.target = target;
+        this.attribute = attribute;
+        this.comparison = comparison;
+        boolean found = false;
+        for (Step step : steps) {
+            found |= step.position > 0;
+        }
+        this.positions = found;
+    }
+
+    /**
+     * Compiles the given XPath expression.
+     *
+     * @param text              the XPath expression
+     * @param namespaceContext  the namespaces to resolve the prefixes
+     * @return the compiled expression, or <tt>null</tt> if the expression is not supported
+     */
+    static StreamingXPath compile(String text, NamespaceContext namespaceContext) {
+        try {
+            return new Parser(text, namespaceContext).parse();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Evaluates the predicate on the given reader, which is read until the outcome is decided.
+     */
+    boolean matches(XMLStreamReader reader) throws XMLStreamException {
+        return new Evaluation(reader).evaluate();
+    }
+
+    @Override
+    public String toString() {
+        return "StreamingXPath[" + text + "]";
+    }
+
+    /**
+     * A location step
+     */
+    private static final class Step {
+        private final boolean descendant;
+        private final String namespaceURI;
+        private final String localName;
+        private int position;
+        private final List<Test> tests = new ArrayList<Test>();
+        private Test textTest;
+
+        private Step(boolean descendant, String namespaceURI, String localName) {
+            this.descendant = descendant;
+            this.namespaceURI = namespaceURI;
+            this.localName = localName;
+        }
+
+        boolean matchesName(XMLStreamReader reader) {
+            if (localName != null && !localName.equals(reader.getLocalName())) {
+                return false;
+            }
+            return namespaceURI == null || namespaceURI.equals(emptyIfNull(reader.getNamespaceURI()));
+        }
+
+        boolean matchesAttributes(XMLStreamReader reader) {
+            for (Test test : tests) {
+                String value = attributeValue(reader, test.attribute);
+                if (value == null || (test.comparison != null && !test.comparison.matches(value))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * An attribute or text test in a predicate
+     */
+    private static final class Test {
+        private final QName attribute;
+        private final boolean text;
+        private final Comparison comparison;
+
+        private Test(QName attribute, boolean text, Comparison comparison) {
+            this.attribute = attribute;
+            this.text = text;
+            this.comparison = comparison;
+        }
+    }
+
+    /**
+     * Compares a node value to a literal, using the XPath rules for comparing a node-set
+     */
+    private static final class Comparison {
+        private final boolean notEquals;
+        private final String literal;
+        private final boolean numeric;
+        private final double number;
+
+        private Comparison(boolean notEquals, String literal, boolean numeric) {
+            this.notEquals = notEquals;
+            this.literal = literal;
+            this.numeric = numeric;
+            this.number = numeric ? Double.parseDouble(literal) : Double.NaN;
+        }
+
+        boolean matches(String value) {
+            boolean equal = numeric ? toNumber(value) == number : literal.equals(value);
+            return notEquals != equal;
+        }
+
+        boolean matchesAny(List<String> values) {
+            for (String value : values) {
+                if (matches(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static double toNumber(String value) {
+            String s = value.trim();
+            if (s.isEmpty() || !isNumber(s, s.startsWith("-") ? 1 : 0)) {
+                return Double.NaN;
+            }
+            return Double.parseDouble(s);
+        }
+
+        private static boolean isNumber(String s, int start) {
+            boolean digits = false;
+            boolean dot = false;
+            for (int i = start; i < s.length(); i++) {
+                char ch = s.charAt(i);
+                if (ch >= '0' && ch <= '9') {
+                    digits = true;
+                } else if (ch == '.' && !dot) {
+                    dot = true;
+                } else {
+                    return false;
+                }
+            }
+            return digits;
+        }
+    }
+
+    /**
+     * Captures the text of an element which matched the last step, until the element ends
+     */
+    private static final class Capture {
+        private final int depth;
+        private final String attributeValue;
+        private final StringBuilder value;
+        private final List<String> texts;
+        private StringBuilder segment;
+
+        private Capture(int depth, String attributeValue, boolean needValue, boolean needTexts) {
+            this.depth = depth;
+            this.attributeValue = attributeValue;
+            this.value = needValue ? new StringBuilder() : null;
+            this.texts = needTexts ? new ArrayList<String>() : null;
+        }
+
+        void flush() {
+            if (segment != null) {
+                texts.add(segment.toString());
+                segment = null;
+            }
+        }
+    }
+
+    /**
+     * The state of evaluating a document.
+     * <p/>
+     * For each open element (and the document at depth zero) we keep a bit mask of which steps the element matched,
+     * where bit zero is the document and bit <tt>j + 1</tt> is step <tt>j</tt>, and the union of the masks of the element
+     * and its ancestors, which is used for the descendant steps.
+     */
+    private final class Evaluation {
+        private final XMLStreamReader reader;
+        private final List<Capture> captures = new ArrayList<Capture>();
+        private int[] self = new int[16];
+        private int[] inherited = new int[16];
+        private boolean[] decisive = new boolean[16];
+        private int[][] counts;
+        private int depth;
+
+        Evaluation(XMLStreamReader reader) {
+            this.reader = reader;
+            self[0] = 1;
+            inherited[0] = 1;
+            if (positions) {
+                counts = new int[16][steps.length];
+            }
+        }
+
+        boolean evaluate() throws XMLStreamException {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    flushText();
+                    if (startElement()) {
+                        return true;
+                    }
+                    if (captures.isEmpty() && !canContinue(self[depth], inherited[depth])) {
+                        // nothing in this element can match so skip it
+                        skipElement();
+                        if (closeElement()) {
+                            return false;
+                        }
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    flushText();
+                    if (endElement()) {
+                        return true;
+                    }
+                    if (closeElement()) {
+                        return false;
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    appendText();
+                    break;
+                case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                    // ends the current text node (whereas the XPath engine joins the text around comments)
+                    flushText();
+                    break;
+                default:
+                    break;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Closes the current element.
+         *
+         * @return <tt>true</tt> if no more elements can match, and thus the predicate is decided as not matched
+         */
+        private boolean closeElement() {
+            boolean check = decisive[depth];
+            depth--;
+            // the end of the root element, or an element which matched a step or was counted by a position
+            // predicate, may have exhausted the elements which can match
+            return depth == 0 || (check && !canMatchMore());
+        }
+
+        private boolean startElement() {
+            int parent = depth;
+            depth++;
+            ensureCapacity();
+            if (counts != null) {
+                Arrays.fill(counts[depth], 0);
+            }
+
+            int parentSelf = self[parent];
+            int parentInherited = inherited[parent];
+            int mask = 0;
+            boolean counted = false;
+            int last = steps.length - 1;
+            for (int j = 0; j <= last; j++) {
+                Step step = steps[j];
+                if (!step.matchesName(reader)) {
+                    continue;
+                }
+                int count = 0;
+                if (step.position > 0) {
+                    count = ++counts[parent][j];
+                    counted = true;
+                }
+                int context = step.descendant ? parentInherited : parentSelf;
+                if ((context & (1 << j)) == 0
+                    || (step.position > 0 && count != step.position)
+                    || !step.matchesAttributes(reader)) {
+                    continue;
+                }
+                if (j < last) {
+                    mask |= 1 << (j + 1);
+                } else if (matchedLast(step)) {
+                    return true;
+                }
+            }
+            self[depth] = mask;
+            inherited[depth] = parentInherited | mask;
+            decisive[depth] = mask != 0 || counted;
+            return false;
+        }
+
+        private boolean matchedLast(Step step) {
+            String attributeValue = null;
+            if (target == Target.ATTRIBUTE) {
+                attributeValue = attributeValue(reader, attribute);
+                if (attributeValue == null) {
+                    return false;
+                }
+            }
+            if (step.textTest == null) {
+                if (target == Target.ELEMENT && comparison == null) {
+                    return true;
+                }
+                if (target == Target.ATTRIBUTE) {
+                    return comparison == null || comparison.matches(attributeValue);
+                }
+            }
+            // we need the text of the element to decide
+            boolean needValue = (target == Target.ELEMENT && comparison != null)
+                || (step.textTest != null && !step.textTest.text);
+            boolean needTexts = target == Target.TEXT || (step.textTest != null && step.textTest.text);
+            captures.add(new Capture(depth, attributeValue, needValue, needTexts));
+            return false;
+        }
+
+        private boolean endElement() {
+            boolean matched = false;
+            for (int i = captures.size() - 1; i >= 0; i--) {
+                Capture capture = captures.get(i);
+                if (capture.depth == depth) {
+                    captures.remove(i);
+                    matched |= matches(capture);
+                }
+            }
+            return matched;
+        }
+
+        private boolean matches(Capture capture) {
+            Test textTest = steps[steps.length - 1].textTest;
+            if (textTest != null) {
+                boolean passed = textTest.text
+                    ? textTest.comparison.matchesAny(capture.texts)
+                    : textTest.comparison.matches(capture.value.toString());
+                if (!passed) {
+                    return false;
+                }
+            }
+            switch (target) {
+            case ATTRIBUTE:
+                return comparison == null || comparison.matches(capture.attributeValue);
+            case TEXT:
+                return comparison == null ? !capture.texts.isEmpty() : comparison.matchesAny(capture.texts);
+            default:
+                return comparison == null || comparison.matches(capture.value.toString());
+            }
+        }
+
+        private void appendText() {
+            if (captures.isEmpty()) {
+                return;
+            }
+            char[] chars = reader.getTextCharacters();
+            int start = reader.getTextStart();
+            int length = reader.getTextLength();
+            for (Capture capture : captures) {
+                if (capture.value != null) {
+                    capture.value.append(chars, start, length);
+                }
+                if (capture.texts != null && capture.depth == depth) {
+                    if (capture.segment == null) {
+                        capture.segment = new StringBuilder();
+                    }
+                    capture.segment.append(chars, start, length);
+                }
+            }
+        }
+
+        private void flushText() {
+            for (Capture capture : captures) {
+                if (capture.texts != null && capture.depth == depth) {
+                    capture.flush();
+                }
+            }
+        }
+
+        /**
+         * Whether an element with the given masks, or its descendants, can match the next steps
+         */
+        private boolean canContinue(int mask, int inheritedMask) {
+            for (int j = 0; j < steps.length; j++) {
+                int context = steps[j].descendant ? inheritedMask : mask;
+                if ((context & (1 << j)) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Whether any of the elements which are yet to be read can match
+         */
+        private boolean canMatchMore() {
+            if (!captures.isEmpty()) {
+                return true;
+            }
+            // the document has only one root element, so we only need to check the open elements
+            for (int level = 1; level <= depth; level++) {
+                for (int j = 0; j < steps.length; j++) {
+                    Step step = steps[j];
+                    if (step.descendant) {
+                        if (level == depth && (inherited[level] & (1 << j)) != 0) {
+                            return true;
+                        }
+                    } else if ((self[level] & (1 << j)) != 0 && (step.position == 0 || counts[level][j] < step.position)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private void skipElement() throws XMLStreamException {
+            int level = 1;
+            while (level > 0) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    level++;
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    level--;
+                }
+            }
+        }
+
+        private void ensureCapacity() {
+            if (depth >= self.length) {
+                int size = self.length * 2;
+                self = Arrays.copyOf(self, size);
+                inherited = Arrays.copyOf(inherited, size);
+                decisive = Arrays.copyOf(decisive, size);
+                if (counts != null) {
+                    int[][] copy = Arrays.copyOf(counts, size);
+                    for (int i = counts.length; i < size; i++) {
+                        copy[i] = new int[steps.length];
+                    }
+                    counts = copy;
+                }
+            }
+        }
+    }
+
+    private static String attributeValue(XMLStreamReader reader, QName name) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            if (name.getLocalPart().equals(reader.getAttributeLocalName(i))
+                && name.getNamespaceURI().equals(emptyIfNull(reader.getAttributeNamespace(i)))) {
+                return reader.getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+
+    private static String emptyIfNull(String s) {
+        return s != null ? s : XMLConstants.NULL_NS_URI;
+    }
+
+    /**
+     * Parses the supported subset, and throws {@link IllegalArgumentException} for anything else
+     */
+    private static final class Parser {
+        private final String text;
+        private final NamespaceContext namespaceContext;
+        private int pos;
+
+        Parser(String text, NamespaceContext namespaceContext) {
+            this.text = text;
+            this.namespaceContext = namespaceContext;
+        }
+
+        StreamingXPath parse() {
+            List<Step> steps = new ArrayList<Step>();
+            Target target = Target.ELEMENT;
+            QName attribute = null;
+
+            skipWhitespace();
+            boolean descendant = false;
+            if (accept("//")) {
+                descendant = true;
+            } else {
+                accept("/");
+            }
+            while (true) {
+                skipWhitespace();
+                if (accept("@")) {
+                    if (descendant || steps.isEmpty()) {
+                        throw unsupported();
+                    }
+                    target = Target.ATTRIBUTE;
+                    attribute = parseAttributeName();
+                    break;
+                }
+                if (accept("text()")) {
+                    if (descendant || steps.isEmpty()) {
+                        throw unsupported();
+                    }
+                    target = Target.TEXT;
+                    break;
+                }
+                steps.add(parseStep(descendant));
+                skipWhitespace();
+                if (accept("//")) {
+                    descendant = true;
+                } else if (accept("/")) {
+                    descendant = false;
+                } else {
+                    break;
+                }
+            }
+
+            Comparison comparison = null;
+            skipWhitespace();
+            if (pos < text.length()) {
+                comparison = parseComparison();
+            }
+            skipWhitespace();
+            if (pos < text.length() || steps.size() > MAX_STEPS) {
+                throw unsupported();
+            }
+            // text predicates are only supported on the last step, as we have to read the text to decide
+            for (int i = 0; i < steps.size() - 1; i++) {
+                if (steps.get(i).textTest != null) {
+                    throw unsupported();
+                }
+            }
+            return new StreamingXPath(text, steps.toArray(new Step[steps.size()]), target, attribute, comparison);
+        }
+
+        private Step parseStep(boolean descendant) {
+            String namespaceURI;
+            String localName;
+            if (accept("*")) {
+                namespaceURI = null;
+                localName = null;
+            } else {
+                String name = parseNCName();
+                if (accept(":")) {
+                    namespaceURI = resolve(name);
+                    localName = accept("*") ? null : parseNCName();
+                } else {
+                    namespaceURI = XMLConstants.NULL_NS_URI;
+                    localName = name;
+                }
+            }
+            if (pos < text.length() && (text.charAt(pos) == '(' || text.charAt(pos) == ':')) {
+                // a function, node test or axis
+                throw unsupported();
+            }
+
+            Step step = new Step(descendant, namespaceURI, localName);
+            skipWhitespace();
+            while (accept("[")) {
+                skipWhitespace();
+                if (pos < text.length() && Character.isDigit(text.charAt(pos))) {
+                    int start = pos;
+                    while (pos < text.length() && Character.isDigit(text.charAt(pos))) {
+                        pos++;
+                    }
+                    int position = Integer.parseInt(text.substring(start, pos));
+                    if (position <= 0 || step.position > 0 || !step.tests.isEmpty() || step.textTest != null) {
+                        throw unsupported();
+                    }
+                    step.position = position;
+                } else if (accept("@")) {
+                    QName name = parseAttributeName();
+                    skipWhitespace();
+                    Comparison comparison = peek(']') ? null : parseComparison();
+                    step.tests.add(new Test(name, false, comparison));
+                } else if (step.textTest == null && (accept("text()") || accept("."))) {
+                    boolean textNodes = text.charAt(pos - 1) == ')';
+                    skipWhitespace();
+                    step.textTest = new Test(null, textNodes, parseComparison());
+                } else {
+                    throw unsupported();
+                }
+                skipWhitespace();
+                if (!accept("]")) {
+                    throw unsupported();
+                }
+                skipWhitespace();
+            }
+            return step;
+        }
+
+        private QName parseAttributeName() {
+            String name = parseNCName();
+            if (accept(":")) {
+                return new QName(resolve(name), parseNCName());
+            }
+            return new QName(XMLConstants.NULL_NS_URI, name);
+        }
+
+        private Comparison parseComparison() {
+            boolean notEquals;
+            if (accept("!=")) {
+                notEquals = true;
+            } else if (accept("=")) {
+                notEquals = false;
+            } else {
+                throw unsupported();
+            }
+            skipWhitespace();
+            if (pos >= text.length()) {
+                throw unsupported();
+            }
+            char quote = text.charAt(pos);
+            if (quote == '\'' || quote == '"') {
+                int end = text.indexOf(quote, pos + 1);
+                if (end < 0) {
+                    throw unsupported();
+                }
+                String literal = text.substring(pos + 1, end);
+                pos = end + 1;
+                return new Comparison(notEquals, literal, false);
+            }
+            int start = pos;
+            if (text.charAt(pos) == '-') {
+                pos++;
+            }
+            while (pos < text.length() && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.')) {
+                pos++;
+            }
+            String literal = text.substring(start, pos);
+            if (!Comparison.isNumber(literal, literal.startsWith("-") ? 1 : 0)) {
+                throw unsupported();
+            }
+            return new Comparison(notEquals, literal, true);
+        }
+
+        private String parseNCName() {
+            int start = pos;
+            while (pos < text.length()) {
+                char ch = text.charAt(pos);
+                boolean valid = Character.isLetter(ch) || ch == '_'
+                    || (pos > start && (Character.isDigit(ch) || ch == '-' || ch == '.'));
+                if (!valid) {
+                    break;
+                }
+                pos++;
+            }
+            if (pos == start) {
+                throw unsupported();
+            }
+            return text.substring(start, pos);
+        }
+
+        private String resolve(String prefix) {
+            String uri = namespaceContext != null ? namespaceContext.getNamespaceURI(prefix) : null;
+            if (uri == null || uri.isEmpty()) {
+                throw unsupported();
+            }
+            return uri;
+        }
+
+        private boolean accept(String token) {
+            if (text.startsWith(token, pos)) {
+                pos += token.length();
+                return true;
+            }
+            return false;
+        }
+
+        private boolean peek(char ch) {
+            return pos < text.length() && text.charAt(pos) == ch;
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private IllegalArgumentException unsupported() {
+            return new IllegalArgumentException("Unsupported expression: " + text);
+        }
+    }
+
+}
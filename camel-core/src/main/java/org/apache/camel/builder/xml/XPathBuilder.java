@@ -18,6 +18,7 @@ package org.apache.camel.builder.xml;
 
 import java.io.File;
 import java.io.InputStream;
+import java.io.Reader;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -26,7 +27,11 @@ import java.util.Properties;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
@@ -49,7 +54,11 @@ import org.apache.camel.Expression;
 import org.apache.camel.NoTypeConversionAvailableException;
 import org.apache.camel.Predicate;
 import org.apache.camel.RuntimeExpressionException;
+import org.apache.camel.StreamCache;
 import org.apache.camel.WrappedFile;
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
+import org.apache.camel.api.management.ManagedResource;
 import org.apache.camel.converter.jaxp.ThreadSafeNodeList;
 import org.apache.camel.impl.DefaultExchange;
 import org.apache.camel.spi.Language;
@@ -80,9 +89,16 @@ import static org.apache.camel.builder.xml.Namespaces.isMatchingNamespaceOrEmpty
  * <p/>
  * <b>Important:</b> After configuring the {@link XPathBuilder} its advised to invoke {@link #start()}
  * to prepare the builder before using; though the builder will auto-start on first use.
+ * <p/>
+ * The pool of compiled expressions can be bounded using {@link #poolSize(int)}, and pre-warmed
+ * when the builder is started using {@link #preCompile()}.
+ * <p/>
+ * Predicates can be evaluated in {@link #streaming()} mode, which reads the message using StAX
+ * and stops as soon as the outcome is decided, instead of parsing the entire message.
  *
  * @see XPathConstants#NODESET
  */
+@ManagedResource(description = "Managed XPathBuilder")
 public class XPathBuilder extends ServiceSupport implements Expression, Predicate, NamespaceAware {
     private static final Logger LOG = LoggerFactory.getLogger(XPathBuilder.class);
     private static final String SAXON_OBJECT_MODEL_URI = "http://saxon.sf.net/jaxp/xpath/om";
@@ -93,11 +109,18 @@ public class XPathBuilder extends ServiceSupport implements Expression, Predicat
 
     private final Queue<XPathExpression> pool = new ConcurrentLinkedQueue<XPathExpression>();
     private final Queue<XPathExpression> poolLogNamespaces = new ConcurrentLinkedQueue<XPathExpression>();
+    private final AtomicInteger poolIdle = new AtomicInteger();
+    private final AtomicLong poolHits = new AtomicLong();
+    private final AtomicLong poolMisses = new AtomicLong();
     private final String text;
     private final ThreadLocal<Exchange> exchange = new ThreadLocal<Exchange>();
     private final MessageVariableResolver variableResolver = new MessageVariableResolver(exchange);
     private final Map<String, String> namespaces = new ConcurrentHashMap<String, String>();
     private boolean threadSafety;
+    private volatile int poolSize;
+    private volatile boolean preCompile;
+    private volatile boolean streaming;
+    private volatile StreamingXPath streamingXPath;
     private volatile XPathFactory xpathFactory;
     private volatile Class<?> documentType = Document.class;
     // For some reason the default expression of "a/b" on a document such as
@@ -155,6 +178,12 @@ public class XPathBuilder extends ServiceSupport implements Expression, Predicat
     }
 
     public boolean matches(Exchange exchange) {
+        if (streaming) {
+            Boolean answer = matchesStreaming(exchange);
+            if (answer != null) {
+                return answer;
+            }
+        }
         try {
             Object booleanResult = evaluateAs(exchange, XPathConstants.BOOLEAN);
             return exchange.getContext().getTypeConverter().convertTo(Boolean.class, booleanResult);
@@ -469,6 +498,56 @@ public class XPathBuilder extends ServiceSupport implements Expression, Predicat
         return this;
     }
 
+    /**
+     * Sets the maximum number of compiled XPath expressions to keep in the pool for reuse.
+     * <p/>
+     * When the pool is full, then expressions which are released after use are discarded. Use zero or a negative
+     * number for an unbounded pool, which is the default.
+     *
+     * @param poolSize  the maximum number of pooled expressions
+     * @return the current builder.
+     */
+    public XPathBuilder poolSize(int poolSize) {
+        setPoolSize(poolSize);
+        return this;
+    }
+
+    /**
+     * Whether to compile the XPath expression when this builder is started, instead of on first use.
+     * <p/>
+     * This pre-warms the pool with as many compiled expressions as the {@link #poolSize(int) pool size} (or one if the pool
+     * is unbounded), and also reports an invalid expression when starting.
+     * <p/>
+     * This feature is disabled by default.
+     *
+     * @return the current builder.
+     */
+    public XPathBuilder preCompile() {
+        setPreCompile(true);
+        return this;
+    }
+
+    /**
+     * Whether to evaluate predicates using a streaming StAX based evaluator, which stops reading the message
+     * as soon as the outcome of the predicate is decided, instead of parsing the entire message.
+     * <p/>
+     * The streaming evaluator supports a forward-only subset of XPath, which is a location path of child
+     * and descendant steps (with position, attribute and text predicates) that may end with an attribute or
+     * text step, and may be compared to a literal, such as <tt>/soap:Envelope/soap:Header[1]/foo:routing = 'bar'</tt>.
+     * Other expressions, or messages which are already parsed such as DOM, are evaluated using the XPath engine.
+     * <p/>
+     * Notice the streaming evaluator may decide the outcome before reading an invalid part of the message,
+     * which the XPath engine would report as an error.
+     * <p/>
+     * This feature is disabled by default.
+     *
+     * @return the current builder.
+     */
+    public XPathBuilder streaming() {
+        setStreaming(true);
+        return this;
+    }
+
     // Properties
     // -------------------------------------------------------------------------
 
@@ -496,6 +575,7 @@ public class XPathBuilder extends ServiceSupport implements Expression, Predicat
         this.documentType = documentType;
     }
 
+    @ManagedAttribute(description = "The XPath expression")
     public String getText() {
         return text;
     }
@@ -524,6 +604,54 @@ public class XPathBuilder extends ServiceSupport implements Expression, Predicat
         this.threadSafety = threadSafety;
     }
 
+    @ManagedAttribute(description = "The maximum number of pooled expressions, or zero if unbounded")
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    @ManagedAttribute(description = "Whether the expression is compiled when starting")
+    public boolean isPreCompile() {
+        return preCompile;
+    }
+
+    public void setPreCompile(boolean preCompile) {
+        this.preCompile = preCompile;
+    }
+
+    @ManagedAttribute(description = "Whether predicates are evaluated using streaming")
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    @ManagedAttribute(description = "Number of compiled expressions currently idle in the pool")
+    public int getPoolIdle() {
+        return poolIdle.get();
+    }
+
+    @ManagedAttribute(description = "Number of evaluations which reused a compiled expression from the pool")
+    public long getPoolHits() {
+        return poolHits.get();
+    }
+
+    @ManagedAttribute(description = "Number of evaluations which had to compile a new expression as none was available from the pool")
+    public long getPoolMisses() {
+        return poolMisses.get();
+    }
+
+    @ManagedOperation(description = "Resets the pool statistics")
+    public void resetPoolStatistics() {
+        poolHits.set(0);
+        poolMisses.set(0);
+    }
+
     /**
      * Gets the namespace context, can be <tt>null</tt> if no custom context has been assigned.
      * <p/>
@@ -819,6 +947,7 @@ public class XPathBuilder extends ServiceSupport implements Expression, Predicat
         // pool a pre compiled expression from pool
         XPathExpression xpathExpression = pool.poll();
         if (xpathExpression == null) {
+            poolMisses.incrementAndGet();
             LOG.trace("Creating new XPathExpression as none was available from pool");
             // no avail in pool then create one
             try {
@@ -829,6 +958,8 @@ public class XPathBuilder extends ServiceSupport implements Expression, Predicat
                 throw new RuntimeExpressionException("Cannot create xpath expression", e);
             }
         } else {
+            poolIdle.decrementAndGet();
+            poolHits.incrementAndGet();
             LOG.trace("Acquired XPathExpression from pool");
         }
         try {
@@ -838,11 +969,86 @@ public class XPathBuilder extends ServiceSupport implements Expression, Predicat
             return doInEvaluateAs(xpathExpression, exchange, resultQName);
         } finally {
             // release it back to the pool
+            releaseXPathExpression(xpathExpression);
+        }
+    }
+
+    private void releaseXPathExpression(XPathExpression xpathExpression) {
+        int idle = poolIdle.incrementAndGet();
+        if (poolSize > 0 && idle > poolSize) {
+            poolIdle.decrementAndGet();
+            LOG.trace("Discarded XPathExpression as the pool is full");
+        } else {
             pool.add(xpathExpression);
             LOG.trace("Released XPathExpression back to pool");
         }
     }
 
+    /**
+     * Evaluates the predicate using the streaming evaluator.
+     *
+     * @return the outcome, or <tt>null</tt> if the expression or the message is not supported by the streaming evaluator
+     */
+    protected Boolean matchesStreaming(Exchange exchange) {
+        // ensure we are started, which compiles the streaming evaluator
+        try {
+            start();
+        } catch (Exception e) {
+            throw new RuntimeExpressionException("Error starting XPathBuilder", e);
+        }
+        StreamingXPath evaluator = streamingXPath;
+        if (evaluator == null) {
+            return null;
+        }
+
+        Object obj = ObjectHelper.isNotEmpty(getHeaderName()) ? exchange.getIn().getHeader(getHeaderName()) : exchange.getIn().getBody();
+        if (obj instanceof WrappedFile) {
+            obj = ((WrappedFile<?>) obj).getFile();
+        }
+        // only stream messages which are not already parsed
+        if (!(obj instanceof String || obj instanceof byte[] || obj instanceof InputStream || obj instanceof Reader || obj instanceof File)) {
+            return null;
+        }
+
+        // the underlying input stream, which we need to close to avoid locking files
+        InputStream is = null;
+        XMLStreamReader reader = null;
+        try {
+            if (obj instanceof StreamCache) {
+                ((StreamCache) obj).reset();
+            }
+            if (obj instanceof File || obj instanceof byte[]) {
+                is = exchange.getContext().getTypeConverter().mandatoryConvertTo(InputStream.class, exchange, obj);
+                obj = is;
+            }
+            reader = exchange.getContext().getTypeConverter().mandatoryConvertTo(XMLStreamReader.class, exchange, obj);
+            boolean answer = evaluator.matches(reader);
+            LOG.trace("Done streaming evaluating exchange: {} with result: {}", exchange, answer);
+            return answer;
+        } catch (XMLStreamException e) {
+            String message = getText();
+            if (ObjectHelper.isNotEmpty(getHeaderName())) {
+                message = message + " with headerName " + getHeaderName();
+            }
+            throw new InvalidXPathExpression(message, new XPathExpressionException(e));
+        } catch (Exception e) {
+            throw ObjectHelper.wrapRuntimeCamelException(e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // ignore
+                }
+            }
+            // IOHelper can handle if is is null
+            IOHelper.close(is);
+            if (obj instanceof StreamCache) {
+                ((StreamCache) obj).reset();
+            }
+        }
+    }
+
     private void logNamespaces(Exchange exchange) {
         InputStream is = null;
         NodeList answer = null;
@@ -1245,11 +1451,32 @@ public class XPathBuilder extends ServiceSupport implements Expression, Predicat
         if (simpleFunction == null) {
             simpleFunction = createSimpleFunction();
         }
+
+        if (streaming) {
+            streamingXPath = StreamingXPath.compile(text, namespaceContext);
+            if (streamingXPath == null) {
+                LOG.debug("XPath is not supported by the streaming evaluator, will use the XPath engine: {}", text);
+            }
+        }
+
+        if (preCompile) {
+            // pre-warm the pool so the first evaluations do not have to compile the expression
+            int count = poolSize > 0 ? poolSize : 1;
+            LOG.debug("Pre compiling {} XPathExpression(s) for: {}", count, text);
+            for (int i = 0; i < count; i++) {
+                try {
+                    releaseXPathExpression(createXPathExpression());
+                } catch (XPathExpressionException e) {
+                    throw new InvalidXPathExpression(getText(), e);
+                }
+            }
+        }
     }
 
     @Override
     public void doStop() throws Exception {
         pool.clear();
+        poolIdle.set(0);
         poolLogNamespaces.clear();
     }
 
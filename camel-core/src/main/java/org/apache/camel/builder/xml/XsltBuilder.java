@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.ErrorListener;
@@ -76,6 +77,8 @@ public class XsltBuilder implements Processor {
     private XmlConverter converter = new XmlConverter();
     private Templates template;
     private volatile BlockingQueue<Transformer> transformers;
+    private final AtomicLong transformerCacheHits = new AtomicLong();
+    private final AtomicLong transformerCacheMisses = new AtomicLong();
     private ResultHandlerFactory resultHandlerFactory = new StringResultHandlerFactory();
     private boolean failOnNullBody = true;
     private URIResolver uriResolver;
@@ -274,6 +277,24 @@ public class XsltBuilder implements Processor {
         return this;
     }
 
+    /**
+     * Creates the {@link Transformer}s up front to fill the cache, so the first transformations
+     * do not have to create them.
+     * <p/>
+     * This requires caching to be enabled using {@link #transformerCacheSize(int)}, and a template to be set.
+     */
+    public void preCompileTransformers() throws Exception {
+        BlockingQueue<Transformer> cache = transformers;
+        if (cache == null || getTemplate() == null) {
+            return;
+        }
+        int count = 0;
+        while (cache.remainingCapacity() > 0 && cache.offer(createTransformer())) {
+            count++;
+        }
+        LOG.debug("Pre compiled {} transformers for {}", count, this);
+    }
+
     /**
      * Uses a custom {@link javax.xml.transform.ErrorListener}.
      */
@@ -304,6 +325,33 @@ public class XsltBuilder implements Processor {
         return template;
     }
 
+    /**
+     * Number of transformations which reused a cached {@link Transformer}
+     */
+    public long getTransformerCacheHits() {
+        return transformerCacheHits.get();
+    }
+
+    /**
+     * Number of transformations which had to create a new {@link Transformer} as none was cached
+     */
+    public long getTransformerCacheMisses() {
+        return transformerCacheMisses.get();
+    }
+
+    /**
+     * Number of {@link Transformer}s currently idle in the cache
+     */
+    public int getTransformerCacheIdle() {
+        BlockingQueue<Transformer> cache = transformers;
+        return cache != null ? cache.size() : 0;
+    }
+
+    public void resetTransformerCacheStatistics() {
+        transformerCacheHits.set(0);
+        transformerCacheMisses.set(0);
+    }
+
     public boolean isFailOnNullBody() {
         return failOnNullBody;
     }
@@ -433,7 +481,10 @@ public class XsltBuilder implements Processor {
             t = transformers.poll();
         }
         if (t == null) {
+            transformerCacheMisses.incrementAndGet();
             t = createTransformer();
+        } else {
+            transformerCacheHits.incrementAndGet();
         }
         return t;
     }
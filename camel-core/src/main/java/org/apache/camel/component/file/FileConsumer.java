@@ -20,9 +20,12 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -40,6 +43,10 @@ public class FileConsumer extends GenericFileConsumer<File> {
 
     private String endpointPath;
     private Set<String> extendedAttributes;
+    private FileWatchIndex watchIndex;
+    private boolean watchFailed;
+    private long lastFullScan;
+    private final Set<Path> pendingFiles = new LinkedHashSet<>();
 
     public FileConsumer(FileEndpoint endpoint, Processor processor, GenericFileOperations<File> operations) {
         super(endpoint, processor, operations);
@@ -58,6 +65,13 @@ public class FileConsumer extends GenericFileConsumer<File> {
     protected boolean pollDirectory(String fileName, List<GenericFile<File>> fileList, int depth) {
         log.trace("pollDirectory from fileName: {}", fileName);
 
+        if (depth == 0 && getEndpoint().isWatchDirectory()) {
+            return pollWatchedDirectory(fileName, fileList);
+        }
+        return scanDirectory(fileName, fileList, depth);
+    }
+
+    protected boolean scanDirectory(String fileName, List<GenericFile<File>> fileList, int depth) {
         depth++;
 
         File directory = new File(fileName);
@@ -69,6 +83,16 @@ public class FileConsumer extends GenericFileConsumer<File> {
             return true;
         }
 
+        if (watchIndex != null) {
+            try {
+                watchIndex.register(directory.toPath());
+            } catch (IOException e) {
+                log.warn("Cannot watch directory: {} due {}. Will fallback to scan the directory on every poll.", directory, e.getMessage());
+                watchFailed = true;
+                stopWatching();
+            }
+        }
+
         log.trace("Polling directory: {}", directory.getPath());
         File[] dirFiles = directory.listFiles();
         if (dirFiles == null || dirFiles.length == 0) {
@@ -115,40 +139,12 @@ public class FileConsumer extends GenericFileConsumer<File> {
                     log.trace("Adding valid file: {}", file);
                     // matched file so add
                     if (extendedAttributes != null) {
-                        Path path = file.toPath();
-                        Map<String, Object> allAttributes = new HashMap<>();
-                        for (String attribute : extendedAttributes) {
-                            try {
-                                String prefix = null;
-                                if (attribute.endsWith(":*")) {
-                                    prefix = attribute.substring(0, attribute.length() - 1);
-                                } else if (attribute.equals("*")) {
-                                    prefix = "basic:";
-                                }
-
-                                if (ObjectHelper.isNotEmpty(prefix)) {
-                                    Map<String, Object> attributes = Files.readAttributes(path, attribute);
-                                    if (attributes != null) {
-                                        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
-                                            allAttributes.put(prefix + entry.getKey(), entry.getValue());
-                                        }
-                                    }
-                                } else if (!attribute.contains(":")) {
-                                    allAttributes.put("basic:" + attribute, Files.getAttribute(path, attribute));
-                                } else {
-                                    allAttributes.put(attribute, Files.getAttribute(path, attribute));
-                                }
-                            } catch (IOException e) {
-                                if (log.isDebugEnabled()) {
-                                    log.debug("Unable to read attribute {} on file {}", attribute, file, e);
-                                }
-                            }
-                        }
-
-                        gf.setExtendedAttributes(allAttributes);
+                        gf.setExtendedAttributes(readExtendedAttributes(file));
                     }
 
                     fileList.add(gf);
+                } else if (watchIndex != null && depth >= endpoint.minDepth) {
+                    retryOnNextPoll(file.toPath());
                 }
 
             }
@@ -157,9 +153,196 @@ public class FileConsumer extends GenericFileConsumer<File> {
         return true;
     }
 
+    /**
+     * Polls the directory using the {@link FileWatchIndex} so only the files which has changed since the last poll
+     * are evaluated, with a full scan of the directory on the first poll, when the index is incomplete, or when
+     * the <tt>watchRescanInterval</tt> has elapsed.
+     */
+    protected boolean pollWatchedDirectory(String fileName, List<GenericFile<File>> fileList) {
+        boolean answer;
+        if (isFullScanRequired(fileName)) {
+            log.trace("Full scan of watched directory: {}", fileName);
+            answer = scanDirectory(fileName, fileList, 0);
+            if (!answer) {
+                // the scan was not complete so we must scan again on the next poll
+                lastFullScan = 0;
+            }
+        } else {
+            answer = pollChangedFiles(fileList);
+        }
+
+        if (watchIndex != null) {
+            // remember the files we hand over so they are evaluated again on the next poll,
+            // in case they was not processed (such as exceeding maxMessagesPerPoll or failed)
+            for (GenericFile<File> gf : fileList) {
+                pendingFiles.add(gf.getFile().toPath());
+            }
+        }
+        return answer;
+    }
+
+    private boolean isFullScanRequired(String fileName) {
+        if (watchFailed) {
+            return true;
+        }
+        if (watchIndex != null && !watchIndex.isValid()) {
+            log.debug("Directory is no longer being watched: {}", fileName);
+            stopWatching();
+        }
+        if (watchIndex == null) {
+            File directory = new File(fileName);
+            if (!directory.isDirectory()) {
+                // let the regular scan deal with the directory not existing
+                return true;
+            }
+            FileWatchIndex index = new FileWatchIndex(directory.toPath(), getEndpoint().isRecursive());
+            try {
+                index.start();
+            } catch (IOException e) {
+                log.warn("Cannot watch directory: {} due {}. Will fallback to scan the directory on every poll.", directory, e.getMessage());
+                watchFailed = true;
+                index.stop();
+                return true;
+            }
+            watchIndex = index;
+            lastFullScan = 0;
+        }
+
+        boolean rescan = watchIndex.pollEvents();
+        long now = System.currentTimeMillis();
+        long interval = getEndpoint().getWatchRescanInterval();
+        if (rescan || lastFullScan == 0 || (interval > 0 && now - lastFullScan >= interval)) {
+            lastFullScan = now;
+            // the full scan covers the changed and pending files
+            watchIndex.clearChangedFiles();
+            pendingFiles.clear();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean pollChangedFiles(List<GenericFile<File>> fileList) {
+        for (Path path : pendingFiles) {
+            watchIndex.markChanged(path);
+        }
+        pendingFiles.clear();
+
+        if (getEndpoint().getDoneFileName() != null) {
+            // a new done file may complete files we have seen before, so evaluate its directory again
+            List<Path> directories = new ArrayList<>();
+            for (Iterator<Path> it = watchIndex.changedFiles(); it.hasNext();) {
+                Path path = it.next();
+                if (getEndpoint().isDoneFile(path.getFileName().toString()) && !directories.contains(path.getParent())) {
+                    directories.add(path.getParent());
+                }
+            }
+            for (Path dir : directories) {
+                watchIndex.markChangedDirectory(dir);
+            }
+        }
+
+        if (log.isTraceEnabled()) {
+            log.trace("Found {} changed files in watched directory", watchIndex.size());
+        }
+
+        for (Iterator<Path> it = watchIndex.changedFiles(); it.hasNext();) {
+            // check if we can continue polling in files, the remaining changed files are kept for the next poll
+            if (!canPollMoreFiles(fileList)) {
+                return false;
+            }
+
+            Path path = it.next();
+            it.remove();
+
+            File file = path.toFile();
+            if (!file.exists() || file.isDirectory()) {
+                continue;
+            }
+            int depth = watchIndex.depthOf(path);
+            if (depth < endpoint.minDepth || depth > endpoint.getMaxDepth()) {
+                continue;
+            }
+
+            GenericFile<File> gf = asGenericFile(endpointPath, file, getEndpoint().getCharset(), getEndpoint().isProbeContentType());
+            if (isValidFile(gf, false, null)) {
+                log.trace("Adding valid changed file: {}", file);
+                if (extendedAttributes != null) {
+                    gf.setExtendedAttributes(readExtendedAttributes(file));
+                }
+                fileList.add(gf);
+            } else {
+                retryOnNextPoll(path);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Remembers a file which is not valid when using watchDirectory, as the file may be valid later (such as when it
+     * is no longer in progress, or is accepted by a filter later), so it is evaluated again on the next poll the same
+     * way as a regular scan of the directory would do.
+     */
+    private void retryOnNextPoll(Path path) {
+        // files starting with a dot are never valid
+        if (!path.getFileName().toString().startsWith(".")) {
+            pendingFiles.add(path);
+        }
+    }
+
+    private void stopWatching() {
+        if (watchIndex != null) {
+            watchIndex.stop();
+            watchIndex = null;
+        }
+        pendingFiles.clear();
+    }
+
+    private Map<String, Object> readExtendedAttributes(File file) {
+        Path path = file.toPath();
+        Map<String, Object> allAttributes = new HashMap<>();
+        for (String attribute : extendedAttributes) {
+            try {
+                String prefix = null;
+                if (attribute.endsWith(":*")) {
+                    prefix = attribute.substring(0, attribute.length() - 1);
+                } else if (attribute.equals("*")) {
+                    prefix = "basic:";
+                }
+
+                if (ObjectHelper.isNotEmpty(prefix)) {
+                    Map<String, Object> attributes = Files.readAttributes(path, attribute);
+                    if (attributes != null) {
+                        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+                            allAttributes.put(prefix + entry.getKey(), entry.getValue());
+                        }
+                    }
+                } else if (!attribute.contains(":")) {
+                    allAttributes.put("basic:" + attribute, Files.getAttribute(path, attribute));
+                } else {
+                    allAttributes.put(attribute, Files.getAttribute(path, attribute));
+                }
+            } catch (IOException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Unable to read attribute {} on file {}", attribute, file, e);
+                }
+            }
+        }
+        return allAttributes;
+    }
+
     @Override
     protected boolean isMatched(GenericFile<File> file, String doneFileName, List<File> files) {
         String onlyName = FileUtil.stripPath(doneFileName);
+        if (files == null) {
+            // no directory listing (watched directory) so check the file system
+            File doneFile = new File(new File(file.getAbsoluteFilePath()).getParentFile(), onlyName);
+            if (doneFile.exists()) {
+                return true;
+            }
+            log.trace("Done file: {} does not exist", doneFileName);
+            return false;
+        }
         // the done file name must be among the files
         for (File f : files) {
             if (f.getName().equals(onlyName)) {
@@ -249,6 +432,24 @@ public class FileConsumer extends GenericFileConsumer<File> {
         }
     }
 
+    @Override
+    protected int getConcurrentConsumers() {
+        // the file operations are thread safe
+        return getEndpoint().getConcurrentConsumers();
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        watchFailed = false;
+        super.doStart();
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        stopWatching();
+        super.doStop();
+    }
+
     @Override
     public FileEndpoint getEndpoint() {
         return (FileEndpoint) super.getEndpoint();
@@ -59,6 +59,12 @@ public class FileEndpoint extends GenericFileEndpoint<File> {
     private boolean probeContentType;
     @UriParam(label = "consumer,advanced")
     private String extendedAttributes;
+    @UriParam(label = "consumer,advanced")
+    private boolean watchDirectory;
+    @UriParam(label = "consumer,advanced", defaultValue = "60000")
+    private long watchRescanInterval = 60000;
+    @UriParam(label = "consumer,advanced", defaultValue = "1")
+    private int concurrentConsumers = 1;
     @UriParam(label = "producer,advanced")
     private String chmod;
     @UriParam(label = "producer,advanced")
@@ -251,6 +257,48 @@ public class FileEndpoint extends GenericFileEndpoint<File> {
         this.extendedAttributes = extendedAttributes;
     }
 
+    public boolean isWatchDirectory() {
+        return watchDirectory;
+    }
+
+    /**
+     * Whether the consumer should use a {@link java.nio.file.WatchService} to detect new and changed files,
+     * instead of listing all the files in the directory on every poll. This is beneficial for directories
+     * with a large number of files where only a few files arrive between polls.
+     * The directory is still fully scanned on the first poll, when the file system has lost events, when a new
+     * sub directory is created, and periodically according to the watchRescanInterval option.
+     */
+    public void setWatchDirectory(boolean watchDirectory) {
+        this.watchDirectory = watchDirectory;
+    }
+
+    public long getWatchRescanInterval() {
+        return watchRescanInterval;
+    }
+
+    /**
+     * Interval in millis when using watchDirectory, for how often the consumer should do a full scan of the directory
+     * as a safety net in case the file system did not report all changes. Use 0 or a negative value to only do
+     * a full scan when needed.
+     */
+    public void setWatchRescanInterval(long watchRescanInterval) {
+        this.watchRescanInterval = watchRescanInterval;
+    }
+
+    public int getConcurrentConsumers() {
+        return concurrentConsumers;
+    }
+
+    /**
+     * Number of concurrent threads to process the files gathered by each poll. By default the files are processed
+     * one by one by the polling thread. Each file is processed from start to end by a single thread, which acquires
+     * the exclusive read lock, routes the message, and commits or rollbacks the file (move, delete, idempotent etc.).
+     * The next poll happens when all the files from the previous poll has been processed.
+     */
+    public void setConcurrentConsumers(int concurrentConsumers) {
+        this.concurrentConsumers = concurrentConsumers;
+    }
+
     /**
      * Chmod value must be between 000 and 777; If there is a leading digit like in 0755 we will ignore it.
      */
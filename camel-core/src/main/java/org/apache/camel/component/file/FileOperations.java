@@ -17,16 +17,17 @@
 package org.apache.camel.component.file;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.Writer;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.PosixFilePermission;
 import java.nio.file.attribute.PosixFilePermissions;
@@ -430,12 +431,44 @@ public class FileOperations implements GenericFileOperations<File> {
     }
 
     private void writeFileByFile(File source, File target) throws IOException {
-        Files.copy(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        if (target.exists() && Files.isSameFile(source.toPath(), target.toPath())) {
+            LOG.trace("Source and target is the same file: {}. Will not write the file.", target);
+            return;
+        }
+        try (FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+             FileChannel out = prepareOutputFileChannel(target)) {
+            LOG.debug("Using FileChannel to transfer file: {} to file: {}", source, target);
+            transferFile(in, in.position(), out);
+        }
+    }
+
+    /**
+     * Transfers the content of the file channel from the given position, using {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}
+     * which lets the operating system copy the data directly between the files (such as sendfile on Linux), without
+     * copying the data through buffers in the JVM.
+     */
+    private static void transferFile(FileChannel in, long position, FileChannel out) throws IOException {
+        long size = in.size();
+        while (position < size) {
+            long transferred = in.transferTo(position, size - position, out);
+            if (transferred <= 0) {
+                // the source file was truncated while transferring
+                break;
+            }
+            position += transferred;
+        }
     }
 
     private void writeFileByStream(InputStream in, File target) throws IOException {
-        try (SeekableByteChannel out = prepareOutputFileChannel(target)) {
-            
+        try (FileChannel out = prepareOutputFileChannel(target)) {
+            if (in instanceof FileInputStream) {
+                // we can transfer the remainder of the file directly
+                LOG.debug("Using FileChannel to write file: {}", target);
+                FileChannel channel = ((FileInputStream) in).getChannel();
+                transferFile(channel, channel.position(), out);
+                return;
+            }
+
             LOG.debug("Using InputStream to write file: {}", target);
             int size = endpoint.getBufferSize();
             byte[] buffer = new byte[size];
@@ -487,11 +520,11 @@ public class FileOperations implements GenericFileOperations<File> {
      * Creates and prepares the output file channel. Will position itself in correct position if the file is writable
      * eg. it should append or override any existing content.
      */
-    private SeekableByteChannel prepareOutputFileChannel(File target) throws IOException {
+    private FileChannel prepareOutputFileChannel(File target) throws IOException {
         if (endpoint.getFileExist() == GenericFileExist.Append) {
-            SeekableByteChannel out = Files.newByteChannel(target.toPath(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
             return out.position(out.size());
         }
-        return Files.newByteChannel(target.toPath(), StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.CREATE);
+        return FileChannel.open(target.toPath(), StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.CREATE);
     }
 }
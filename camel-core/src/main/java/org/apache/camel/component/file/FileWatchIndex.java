@@ -0,0 +1,206 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import org.apache.camel.util.IOHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An incremental index of the files that has changed in a watched directory tree, used by the {@link FileConsumer}
+ * when the <tt>watchDirectory</tt> option is enabled.
+ * <p/>
+ * The index is fed by a {@link WatchService} and only keeps the files that has been created or modified since they
+ * were last handed to the consumer, so the consumer does not have to list the entire directory on every poll.
+ * Whenever the index cannot be trusted (events were lost, a new sub directory appeared, or the starting directory
+ * was removed) {@link #pollEvents()} returns <tt>true</tt> to signal the consumer should do a full rescan.
+ * <p/>
+ * This class is not thread safe and is only accessed from the polling thread of the consumer.
+ */
+final class FileWatchIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FileWatchIndex.class);
+
+    private final Path root;
+    private final boolean recursive;
+    private final Map<WatchKey, Path> keys = new HashMap<>();
+    private final Map<Path, WatchKey> directories = new HashMap<>();
+    private final Set<Path> changedFiles = new LinkedHashSet<>();
+    private WatchService watcher;
+    private WatchKey rootKey;
+
+    FileWatchIndex(Path root, boolean recursive) {
+        this.root = root;
+        this.recursive = recursive;
+    }
+
+    /**
+     * Starts watching the starting directory.
+     */
+    void start() throws IOException {
+        watcher = root.getFileSystem().newWatchService();
+        rootKey = register(root);
+    }
+
+    /**
+     * Stops watching and clears the index.
+     */
+    void stop() {
+        IOHelper.close(watcher, "FileWatchIndex", LOG);
+        watcher = null;
+        rootKey = null;
+        keys.clear();
+        directories.clear();
+        changedFiles.clear();
+    }
+
+    /**
+     * Registers the given directory to be watched, if not already registered.
+     *
+     * @return the watch key
+     */
+    WatchKey register(Path dir) throws IOException {
+        WatchKey key = directories.get(dir);
+        if (key != null && key.isValid()) {
+            return key;
+        }
+        key = dir.register(watcher, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+        keys.put(key, dir);
+        directories.put(dir, key);
+        LOG.trace("Watching directory: {}", dir);
+        return key;
+    }
+
+    /**
+     * Drains the pending events from the watch service into the index of changed files.
+     *
+     * @return <tt>true</tt> if the index is incomplete and a full rescan of the directory is needed
+     */
+    boolean pollEvents() {
+        boolean rescan = false;
+        WatchKey key;
+        try {
+            key = watcher.poll();
+        } catch (ClosedWatchServiceException e) {
+            return true;
+        }
+        while (key != null) {
+            Path dir = keys.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                WatchEvent.Kind<?> kind = event.kind();
+                if (kind == OVERFLOW || dir == null) {
+                    LOG.debug("Watch events lost for directory: {}", dir != null ? dir : root);
+                    rescan = true;
+                    continue;
+                }
+                Path path = dir.resolve((Path) event.context());
+                if (kind == ENTRY_DELETE) {
+                    changedFiles.remove(path);
+                } else if (path.toFile().isDirectory()) {
+                    // a new sub directory must be registered and its content may already be there,
+                    // which the full rescan takes care of
+                    if (recursive && kind == ENTRY_CREATE) {
+                        rescan = true;
+                    }
+                } else {
+                    changedFiles.add(path);
+                }
+            }
+            if (!key.reset()) {
+                // the directory is no longer accessible
+                keys.remove(key);
+                if (dir != null) {
+                    directories.remove(dir);
+                }
+                if (key == rootKey) {
+                    rescan = true;
+                }
+            }
+            key = watcher.poll();
+        }
+        return rescan;
+    }
+
+    /**
+     * Whether the starting directory is still being watched
+     */
+    boolean isValid() {
+        return watcher != null && rootKey != null && rootKey.isValid();
+    }
+
+    /**
+     * Marks the file as changed so it is evaluated again on the next poll.
+     */
+    void markChanged(Path path) {
+        changedFiles.add(path);
+    }
+
+    /**
+     * Marks all the files in the given directory as changed.
+     */
+    void markChangedDirectory(Path dir) {
+        File[] files = dir.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (!file.isDirectory()) {
+                    changedFiles.add(dir.resolve(file.getName()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Iterator over the changed files, in the order the changes were detected.
+     * The consumer removes the files from the index as they are evaluated.
+     */
+    Iterator<Path> changedFiles() {
+        return changedFiles.iterator();
+    }
+
+    int size() {
+        return changedFiles.size();
+    }
+
+    void clearChangedFiles() {
+        changedFiles.clear();
+    }
+
+    /**
+     * The depth of the file relative to the starting directory, where files in the starting directory have depth 1.
+     */
+    int depthOf(Path path) {
+        return root.relativize(path).getNameCount();
+    }
+}
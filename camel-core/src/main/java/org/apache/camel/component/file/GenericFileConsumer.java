@@ -22,6 +22,10 @@ import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
 import org.apache.camel.Exchange;
@@ -53,6 +57,7 @@ public abstract class GenericFileConsumer<T> extends ScheduledBatchPollingConsum
     protected volatile boolean prepareOnStartup;
     private final Pattern includePattern;
     private final Pattern excludePattern;
+    private ExecutorService concurrentExecutor;
 
     public GenericFileConsumer(GenericFileEndpoint<T> endpoint, Processor processor, GenericFileOperations<T> operations) {
         super(endpoint, processor);
@@ -197,6 +202,10 @@ public abstract class GenericFileConsumer<T> extends ScheduledBatchPollingConsum
             total = maxMessagesPerPoll;
         }
 
+        if (concurrentExecutor != null && customProcessor == null) {
+            return processBatchConcurrently(exchanges, total);
+        }
+
         for (int index = 0; index < total && isBatchAllowed(); index++) {
             // only loop if we are started (allowed to run)
             // use poll to remove the head so it does not consume memory even after we have processed it
@@ -231,6 +240,70 @@ public abstract class GenericFileConsumer<T> extends ScheduledBatchPollingConsum
         return answer;
     }
 
+    /**
+     * Processes the batch using the thread pool from the <tt>concurrentConsumers</tt> option.
+     * <p/>
+     * Each file is processed from start to end by a single thread (read lock, routing, and commit/rollback),
+     * and this method waits until all the files has been processed, so the next poll does not pick up the same files.
+     *
+     * @param exchanges the exchanges
+     * @param total     the number of exchanges to process
+     * @return number of files that was started to be processed
+     */
+    protected int processBatchConcurrently(Queue<Object> exchanges, int total) {
+        final AtomicInteger pending = new AtomicInteger(total);
+        pendingExchanges = total;
+
+        List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>(total);
+        for (int index = 0; index < total; index++) {
+            final Exchange exchange = (Exchange) exchanges.poll();
+            // add current index and total as properties
+            exchange.setProperty(Exchange.BATCH_INDEX, index);
+            exchange.setProperty(Exchange.BATCH_SIZE, total);
+            exchange.setProperty(Exchange.BATCH_COMPLETE, index == total - 1);
+
+            futures.add(concurrentExecutor.submit(() -> {
+                // update pending number of exchanges
+                pendingExchanges = pending.decrementAndGet();
+
+                // only process if we are started (allowed to run)
+                if (!isBatchAllowed()) {
+                    GenericFile<T> file = getExchangeFileProperty(exchange);
+                    endpoint.getInProgressRepository().remove(file.getAbsoluteFilePath());
+                    return false;
+                }
+                return processExchange(exchange);
+            }));
+        }
+
+        // drain any in progress files which was not part of this batch
+        removeExcessiveInProgressFiles(CastUtils.cast((Deque<?>) exchanges, Exchange.class), 0);
+
+        int answer = 0;
+        for (Future<Boolean> future : futures) {
+            try {
+                if (future.get()) {
+                    answer++;
+                }
+            } catch (InterruptedException e) {
+                log.debug("Interrupted while waiting for {} files to be processed", total);
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                handleException("Error processing file", e.getCause());
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Number of threads to process the files of each poll concurrently, which requires the
+     * {@link GenericFileOperations} to be thread safe. By default the files are processed by the polling thread.
+     */
+    protected int getConcurrentConsumers() {
+        return 1;
+    }
+
     /**
      * Drain any in progress files as we are done with this batch
      *
@@ -712,6 +785,10 @@ public abstract class GenericFileConsumer<T> extends ScheduledBatchPollingConsum
 
     @Override
     protected void doStart() throws Exception {
+        int concurrentConsumers = getConcurrentConsumers();
+        if (concurrentConsumers > 1 && concurrentExecutor == null) {
+            concurrentExecutor = endpoint.getCamelContext().getExecutorServiceManager().newFixedThreadPool(this, endpoint.getEndpointUri(), concurrentConsumers);
+        }
         super.doStart();
     }
 
@@ -719,5 +796,10 @@ public abstract class GenericFileConsumer<T> extends ScheduledBatchPollingConsum
     protected void doStop() throws Exception {
         prepareOnStartup = false;
         super.doStop();
+        if (concurrentExecutor != null) {
+            // let the files being processed complete
+            endpoint.getCamelContext().getExecutorServiceManager().shutdownGraceful(concurrentExecutor);
+            concurrentExecutor = null;
+        }
     }
 }
@@ -0,0 +1,403 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.seda;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * A bounded lock-free multi-producer multi-consumer {@link BlockingQueue} backed by a ring buffer.
+ * <p/>
+ * Each slot in the ring buffer has a sequence number which producers and consumers use to claim the slot
+ * with a single compare-and-set, so the non-blocking {@link #offer(Object)} and {@link #poll()} operations
+ * never take a lock. This avoids the lock contention of {@link java.util.concurrent.LinkedBlockingQueue}
+ * when many threads are sending to the same queue.
+ * <p/>
+ * The {@link WaitStrategy} controls how threads wait when the queue is empty (or full) in the blocking operations.
+ * Only the {@link WaitStrategy#Blocking} strategy uses a lock, and only when there are threads waiting.
+ * <p/>
+ * Removing an arbitrary element, which the SEDA producer does when it gives up waiting for a reply,
+ * marks the slot as removed which consumers then skip. Therefore {@link #size()} may be a little too high
+ * for a short time after an element has been removed.
+ */
+public class RingBufferBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    /**
+     * How threads wait for the queue to have elements (or free capacity).
+     */
+    public enum WaitStrategy {
+        /**
+         * Park the thread until it is signalled, which uses the least CPU but has the highest latency
+         */
+        Blocking,
+        /**
+         * Spin and yield the thread, which trades some CPU for lower latency
+         */
+        Yielding,
+        /**
+         * Spin without yielding, which has the lowest latency but burns a CPU core while waiting
+         */
+        BusySpin
+    }
+
+    private static final Object REMOVED = new Object();
+
+    private final int capacity;
+    private final WaitStrategy waitStrategy;
+    private final AtomicReferenceArray<Object> buffer;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    // only used by the blocking wait strategy
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final AtomicInteger waitingConsumers = new AtomicInteger();
+    private final AtomicInteger waitingProducers = new AtomicInteger();
+
+    public RingBufferBlockingQueue(int capacity) {
+        this(capacity, WaitStrategy.Blocking);
+    }
+
+    public RingBufferBlockingQueue(int capacity, WaitStrategy waitStrategy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive, was " + capacity);
+        }
+        ObjectHelper.notNull(waitStrategy, "waitStrategy");
+        this.capacity = capacity;
+        this.waitStrategy = waitStrategy;
+        this.buffer = new AtomicReferenceArray<Object>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, free(i));
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        ObjectHelper.notNull(e, "element");
+        if (doOffer(e)) {
+            if (waitingConsumers.get() > 0) {
+                signal(notEmpty);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        offer(e, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        ObjectHelper.notNull(e, "element");
+        long nanos = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + nanos;
+        while (!offer(e)) {
+            if (nanos <= 0) {
+                return false;
+            }
+            nanos = awaitNotFull(nanos, deadline);
+        }
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        E answer = (E) doPoll();
+        if (answer != null && waitingProducers.get() > 0) {
+            signal(notFull);
+        }
+        return answer;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        return poll(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + nanos;
+        E answer = poll();
+        while (answer == null) {
+            if (nanos <= 0) {
+                return null;
+            }
+            nanos = awaitNotEmpty(nanos, deadline);
+            answer = poll();
+        }
+        return answer;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        for (long pos = head.get(), end = tail.get(); pos < end; pos++) {
+            int index = indexOf(pos);
+            Object element = buffer.get(index);
+            if (element != null && element != REMOVED && sequences.get(index) == published(pos)) {
+                return (E) element;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        ObjectHelper.notNull(c, "collection");
+        if (c == this) {
+            throw new IllegalArgumentException("Cannot drain to itself");
+        }
+        int count = 0;
+        while (count < maxElements) {
+            Object element = doPoll();
+            if (element == null) {
+                break;
+            }
+            @SuppressWarnings("unchecked")
+            E e = (E) element;
+            c.add(e);
+            count++;
+        }
+        if (count > 0 && waitingProducers.get() > 0) {
+            signal(notFull);
+        }
+        return count;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        for (long pos = head.get(), end = tail.get(); pos < end; pos++) {
+            int index = indexOf(pos);
+            Object element = buffer.get(index);
+            if (element != null && element != REMOVED && element.equals(o)
+                && sequences.get(index) == published(pos) && buffer.compareAndSet(index, element, REMOVED)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        // read head first so the size is never negative
+        long currentHead = head.get();
+        long size = tail.get() - currentHead;
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return tail.get() <= head.get();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    /**
+     * Returns a weakly consistent iterator over a snapshot of the elements in the queue, which does not support removal.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<E> iterator() {
+        List<E> snapshot = new ArrayList<E>();
+        for (long pos = head.get(), end = tail.get(); pos < end; pos++) {
+            int index = indexOf(pos);
+            Object element = buffer.get(index);
+            if (element != null && element != REMOVED && sequences.get(index) == published(pos)) {
+                snapshot.add((E) element);
+            }
+        }
+        final Iterator<E> it = snapshot.iterator();
+        return new Iterator<E>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return it.next();
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "RingBufferBlockingQueue[capacity=" + capacity + ", waitStrategy=" + waitStrategy + ", size=" + size() + "]";
+    }
+
+    private boolean doOffer(Object e) {
+        while (true) {
+            long pos = tail.get();
+            int index = indexOf(pos);
+            long diff = sequences.get(index) - free(pos);
+            if (diff == 0) {
+                // the slot is free so claim it
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    buffer.lazySet(index, e);
+                    // publish the element to the consumers
+                    sequences.set(index, published(pos));
+                    return true;
+                }
+            } else if (diff < 0) {
+                // the slot has not been consumed since the last lap so we are full
+                return false;
+            }
+            // another producer claimed the slot so try again
+        }
+    }
+
+    private Object doPoll() {
+        while (true) {
+            long pos = head.get();
+            int index = indexOf(pos);
+            long diff = sequences.get(index) - published(pos);
+            if (diff == 0) {
+                // the slot has been published so claim it
+                if (head.compareAndSet(pos, pos + 1)) {
+                    Object element = buffer.getAndSet(index, null);
+                    // release the slot to the producers of the next lap
+                    sequences.set(index, free(pos + capacity));
+                    if (element != REMOVED) {
+                        return element;
+                    }
+                    // the element has been removed so poll the next
+                }
+            } else if (diff < 0) {
+                // the slot has not been published yet so we are empty
+                return null;
+            }
+            // another consumer claimed the slot so try again
+        }
+    }
+
+    private int indexOf(long pos) {
+        return (int) (pos % capacity);
+    }
+
+    // the sequence of a slot is even when its free for the producer at the given position, and odd when
+    // an element has been published for the consumer at the given position, which works for any capacity
+
+    private static long free(long pos) {
+        return pos << 1;
+    }
+
+    private static long published(long pos) {
+        return (pos << 1) + 1;
+    }
+
+    private long awaitNotEmpty(long nanos, long deadline) throws InterruptedException {
+        if (waitStrategy == WaitStrategy.Blocking) {
+            lock.lockInterruptibly();
+            try {
+                waitingConsumers.incrementAndGet();
+                try {
+                    // check again after we have announced we are waiting, as a producer signals only if there are waiting consumers
+                    if (isEmpty()) {
+                        notEmpty.awaitNanos(nanos);
+                    }
+                } finally {
+                    waitingConsumers.decrementAndGet();
+                }
+            } finally {
+                lock.unlock();
+            }
+        } else {
+            spin();
+        }
+        return deadline - System.nanoTime();
+    }
+
+    private long awaitNotFull(long nanos, long deadline) throws InterruptedException {
+        if (waitStrategy == WaitStrategy.Blocking) {
+            lock.lockInterruptibly();
+            try {
+                waitingProducers.incrementAndGet();
+                try {
+                    // check again after we have announced we are waiting, as a consumer signals only if there are waiting producers
+                    if (remainingCapacity() <= 0) {
+                        notFull.awaitNanos(nanos);
+                    }
+                } finally {
+                    waitingProducers.decrementAndGet();
+                }
+            } finally {
+                lock.unlock();
+            }
+        } else {
+            spin();
+        }
+        return deadline - System.nanoTime();
+    }
+
+    private void spin() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (waitStrategy == WaitStrategy.Yielding) {
+            Thread.yield();
+        }
+    }
+
+    private void signal(Condition condition) {
+        lock.lock();
+        try {
+            condition.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
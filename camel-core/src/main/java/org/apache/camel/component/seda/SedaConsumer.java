@@ -16,6 +16,7 @@
  */
 package org.apache.camel.component.seda;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
@@ -57,6 +58,7 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
     private static final Logger LOG = LoggerFactory.getLogger(SedaConsumer.class);
 
     private final AtomicInteger taskCount = new AtomicInteger();
+    private final AtomicInteger pendingBatchSize = new AtomicInteger();
     private volatile CountDownLatch latch;
     private volatile boolean shutdownPending;
     private volatile boolean forceShutdown;
@@ -65,11 +67,13 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
     private ExecutorService executor;
     private ExceptionHandler exceptionHandler;
     private final int pollTimeout;
+    private final int maxMessagesPerPoll;
 
     public SedaConsumer(SedaEndpoint endpoint, Processor processor) {
         this.endpoint = endpoint;
         this.processor = AsyncProcessorConverterHelper.convert(processor);
         this.pollTimeout = endpoint.getPollTimeout();
+        this.maxMessagesPerPoll = endpoint.getMaxMessagesPerPoll();
         this.exceptionHandler = new LoggingExceptionHandler(endpoint.getCamelContext(), getClass());
     }
 
@@ -106,7 +110,8 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
         if (endpoint.isPurgeWhenStopping()) {
             endpoint.purgeQueue();
         }
-        return endpoint.getQueue().size();
+        // exchanges which have been drained from the queue but not yet processed are also pending
+        return endpoint.getQueue().size() + pendingBatchSize.get();
     }
 
     @Override
@@ -162,6 +167,8 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
 
     protected void doRun() {
         BlockingQueue<Exchange> queue = endpoint.getQueue();
+        // exchanges drained from the queue in addition to the polled exchange
+        List<Exchange> batch = maxMessagesPerPoll > 1 ? new ArrayList<Exchange>(maxMessagesPerPoll - 1) : null;
         // loop while we are allowed, or if we are stopping loop until the queue is empty
         while (queue != null && isRunAllowed()) {
 
@@ -196,6 +203,7 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
             }
 
             Exchange exchange = null;
+            int batchIndex = 0;
             try {
                 // use the end user configured poll timeout
                 exchange = queue.poll(pollTimeout, TimeUnit.MILLISECONDS);
@@ -203,24 +211,21 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
                     LOG.trace("Polled queue {} with timeout {} ms. -> {}", new Object[]{ObjectHelper.getIdentityHashCode(queue), pollTimeout, exchange});
                 }
                 if (exchange != null) {
-                    try {
-                        // send a new copied exchange with new camel context
-                        Exchange newExchange = prepareExchange(exchange);
-                        // process the exchange
-                        sendToConsumers(newExchange);
-                        // copy the message back
-                        if (newExchange.hasOut()) {
-                            exchange.setOut(newExchange.getOut().copy());
-                        } else {
-                            exchange.setIn(newExchange.getIn());
-                        }
-                        // log exception if an exception occurred and was not handled
-                        if (newExchange.getException() != null) {
-                            exchange.setException(newExchange.getException());
-                            getExceptionHandler().handleException("Error processing exchange", exchange, exchange.getException());
+                    if (batch != null) {
+                        // drain any additional exchanges while we are awake, which must all be processed
+                        // as they have been taken from the queue
+                        queue.drainTo(batch, maxMessagesPerPoll - 1);
+                        pendingBatchSize.addAndGet(batch.size());
+                        LOG.trace("Drained {} additional exchanges from queue {}", batch.size(), ObjectHelper.getIdentityHashCode(queue));
+                    }
+                    processPolledExchange(exchange);
+                    if (batch != null && !batch.isEmpty()) {
+                        while (batchIndex < batch.size()) {
+                            exchange = batch.get(batchIndex++);
+                            pendingBatchSize.decrementAndGet();
+                            processPolledExchange(exchange);
                         }
-                    } catch (Exception e) {
-                        getExceptionHandler().handleException("Error processing exchange", exchange, e);
+                        batch.clear();
                     }
                 } else if (shutdownPending && queue.isEmpty()) {
                     LOG.trace("Shutdown is pending, so this consumer thread is breaking out because the task queue is empty.");
@@ -236,7 +241,33 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
                 } else {
                     getExceptionHandler().handleException(e);
                 }
+                if (batch != null) {
+                    pendingBatchSize.addAndGet(batchIndex - batch.size());
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    private void processPolledExchange(Exchange exchange) {
+        try {
+            // send a new copied exchange with new camel context
+            Exchange newExchange = prepareExchange(exchange);
+            // process the exchange
+            sendToConsumers(newExchange);
+            // copy the message back
+            if (newExchange.hasOut()) {
+                exchange.setOut(newExchange.getOut().copy());
+            } else {
+                exchange.setIn(newExchange.getIn());
+            }
+            // log exception if an exception occurred and was not handled
+            if (newExchange.getException() != null) {
+                exchange.setException(newExchange.getException());
+                getExceptionHandler().handleException("Error processing exchange", exchange, exchange.getException());
             }
+        } catch (Exception e) {
+            getExceptionHandler().handleException("Error processing exchange", exchange, e);
         }
     }
 
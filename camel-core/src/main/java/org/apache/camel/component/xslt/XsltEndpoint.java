@@ -90,6 +90,8 @@ public class XsltEndpoint extends ProcessorEndpoint {
     private XsltOutput output = XsltOutput.string;
     @UriParam(defaultValue = "0")
     private int transformerCacheSize;
+    @UriParam
+    private boolean preCompile;
     @UriParam(label = "advanced")
     private ErrorListener errorListener;
     @UriParam(label = "advanced")
@@ -124,6 +126,32 @@ public class XsltEndpoint extends ProcessorEndpoint {
         return contentCache;
     }
 
+    @ManagedAttribute(description = "Number of transformations which reused a cached transformer")
+    public long getTransformerCacheHits() {
+        XsltBuilder builder = xslt;
+        return builder != null ? builder.getTransformerCacheHits() : 0;
+    }
+
+    @ManagedAttribute(description = "Number of transformations which had to create a new transformer as none was cached")
+    public long getTransformerCacheMisses() {
+        XsltBuilder builder = xslt;
+        return builder != null ? builder.getTransformerCacheMisses() : 0;
+    }
+
+    @ManagedAttribute(description = "Number of transformers currently idle in the cache")
+    public int getTransformerCacheIdle() {
+        XsltBuilder builder = xslt;
+        return builder != null ? builder.getTransformerCacheIdle() : 0;
+    }
+
+    @ManagedOperation(description = "Resets the transformer cache statistics")
+    public void resetTransformerCacheStatistics() {
+        XsltBuilder builder = xslt;
+        if (builder != null) {
+            builder.resetTransformerCacheStatistics();
+        }
+    }
+
     public XsltEndpoint findOrCreateEndpoint(String uri, String newResourceUri) {
         String newUri = uri.replace(resourceUri, newResourceUri);
         LOG.trace("Getting endpoint with URI: {}", newUri);
@@ -319,6 +347,19 @@ public class XsltEndpoint extends ProcessorEndpoint {
         this.transformerCacheSize = transformerCacheSize;
     }
 
+    public boolean isPreCompile() {
+        return preCompile;
+    }
+
+    /**
+     * Whether to create the cached javax.xml.transform.Transformer objects when the endpoint is started,
+     * so the first messages do not have to create them. This requires transformerCacheSize to be configured.
+     * Can also be enabled for all endpoints using the global option CamelXmlPreCompile on CamelContext.
+     */
+    public void setPreCompile(boolean preCompile) {
+        this.preCompile = preCompile;
+    }
+
     public ErrorListener getErrorListener() {
         return errorListener;
     }
@@ -486,6 +527,11 @@ public class XsltEndpoint extends ProcessorEndpoint {
         // must load resource first which sets a template and do a stylesheet compilation to catch errors early
         loadResource(resourceUri);
 
+        if (preCompile || "true".equalsIgnoreCase(ctx.getGlobalOption(Exchange.XML_PRE_COMPILE))) {
+            // fill the transformer cache up front
+            xslt.preCompileTransformers();
+        }
+
         // the processor is the xslt builder
         setProcessor(xslt);
     }
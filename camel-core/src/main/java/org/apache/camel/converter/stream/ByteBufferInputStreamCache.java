@@ -0,0 +1,448 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.StreamCache;
+import org.apache.camel.spi.StreamCachingStrategy;
+import org.apache.camel.spi.Synchronization;
+import org.apache.camel.spi.UnitOfWork;
+import org.apache.camel.support.SynchronizationAdapter;
+import org.apache.camel.util.FileUtil;
+import org.apache.camel.util.IOHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link StreamCache} for data cached in {@link ByteBuffer}s, which are either pooled direct buffers
+ * or memory mapped regions of a spool file.
+ * <p/>
+ * The buffers are shared (not copied) when the stream cache is copied. The pooled buffers are released back to
+ * the pool, and the spool file is deleted, when all the exchanges using the stream cache are done. An in-memory
+ * stream cache can therefore not be read after its exchanges are done, as its buffers may be reused by another
+ * stream cache, and reading fails with an {@link IOException} instead.
+ *
+ * @see StreamCachingStrategy#isPooled()
+ */
+public final class ByteBufferInputStreamCache extends InputStream implements StreamCache {
+
+    private final BufferManager manager;
+    private final ByteBuffer[] buffers;
+    private final long length;
+    private final boolean inMemory;
+    private int index;
+    private ByteBuffer current;
+    private long position;
+    private long mark;
+
+    ByteBufferInputStreamCache(BufferManager manager, ByteBuffer[] buffers, boolean inMemory) {
+        this.manager = manager;
+        this.buffers = buffers;
+        this.inMemory = inMemory;
+        long total = 0;
+        for (ByteBuffer buffer : buffers) {
+            total += buffer.remaining();
+        }
+        this.length = total;
+        seek(0);
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkNotReleased();
+        ByteBuffer buffer = nextBuffer();
+        if (buffer == null) {
+            return -1;
+        }
+        position++;
+        return buffer.get() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        checkNotReleased();
+        ByteBuffer buffer = nextBuffer();
+        if (buffer == null) {
+            return -1;
+        }
+        int count = 0;
+        while (buffer != null && count < len) {
+            int n = Math.min(len - count, buffer.remaining());
+            buffer.get(b, off + count, n);
+            count += n;
+            buffer = count < len ? nextBuffer() : buffer;
+        }
+        position += count;
+        return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = Math.max(0, Math.min(n, length - position));
+        seek(position + skipped);
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int) Math.min(length - position, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+        mark = position;
+    }
+
+    @Override
+    public synchronized void reset() {
+        seek(mark);
+    }
+
+    @Override
+    public void close() {
+        // the buffers are released when the exchanges are done
+    }
+
+    public void writeTo(OutputStream os) throws IOException {
+        checkNotReleased();
+        byte[] chunk = new byte[(int) Math.min(Math.max(length - position, 1), IOHelper.DEFAULT_BUFFER_SIZE)];
+        ByteBuffer buffer = nextBuffer();
+        while (buffer != null) {
+            int n = Math.min(chunk.length, buffer.remaining());
+            buffer.get(chunk, 0, n);
+            os.write(chunk, 0, n);
+            position += n;
+            buffer = nextBuffer();
+        }
+    }
+
+    public StreamCache copy(Exchange exchange) throws IOException {
+        manager.addExchange(exchange);
+        // the copy shares the buffers so there is no need to copy the data
+        return manager.copyOf(this);
+    }
+
+    public boolean inMemory() {
+        return inMemory;
+    }
+
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return "ByteBufferInputStreamCache[length=" + length + ", inMemory=" + inMemory + "]";
+    }
+
+    private void checkNotReleased() throws IOException {
+        // the mapped regions are still valid when released, but the pooled buffers may have been reused
+        if (inMemory && manager.isReleased()) {
+            throw new IOException("Cannot read stream cache as its buffers has been released");
+        }
+    }
+
+    private ByteBuffer nextBuffer() {
+        while (current != null && !current.hasRemaining()) {
+            index++;
+            current = index < buffers.length ? buffers[index].duplicate() : null;
+        }
+        return current;
+    }
+
+    private void seek(long pos) {
+        long remaining = pos;
+        index = 0;
+        current = null;
+        while (index < buffers.length) {
+            ByteBuffer buffer = buffers[index].duplicate();
+            if (remaining < buffer.remaining() || index == buffers.length - 1) {
+                buffer.position(buffer.position() + (int) Math.min(remaining, buffer.remaining()));
+                current = buffer;
+                break;
+            }
+            remaining -= buffer.remaining();
+            index++;
+        }
+        position = pos;
+    }
+
+    /**
+     * Manages the buffers of the byte buffer stream caches.
+     * <p/>
+     * Stores the data in pooled direct buffers until it is spooled, and then in a spool file which is memory mapped
+     * when the stream cache is created. Counts the references to the buffers, which are held by the exchanges
+     * which have a stream cache of the buffers (and by the output stream when not closed on completion). When the
+     * last reference is released, the pooled buffers are released back to the pool and the spool file is deleted.
+     * The mapped regions of the spool file are still valid after the file is deleted, until they are garbage collected.
+     *
+     * @see CachedOutputStream
+     */
+    static class BufferManager {
+
+        private static final Logger LOG = LoggerFactory.getLogger(BufferManager.class);
+        // a mapped region cannot be larger than 2gb
+        private static final long MAX_REGION_SIZE = 1024 * 1024 * 1024;
+        /** Indicator whether the buffers are released on completion of the exchanges. */
+        private final boolean closedOnCompletion;
+        private final StreamCachingStrategy strategy;
+        private final StreamCachingStrategy.BufferPool pool;
+        private final AtomicInteger references = new AtomicInteger();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final List<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+        // the chunks which have been spooled but are still shared by in-memory stream caches
+        private final List<ByteBuffer> retainedChunks = new ArrayList<ByteBuffer>();
+        private boolean shared;
+        private File spoolFile;
+        private FileChannel channel;
+        private ByteBuffer[] mapped;
+        private volatile boolean released;
+
+        BufferManager(StreamCachingStrategy strategy, boolean closedOnCompletion) {
+            this.strategy = strategy;
+            this.pool = strategy.getBufferPool();
+            this.closedOnCompletion = closedOnCompletion;
+            if (!closedOnCompletion) {
+                // the output stream holds a reference until it is closed
+                references.incrementAndGet();
+            }
+        }
+
+        /**
+         * Adds a reference to the buffers, which is released when the exchange is done.
+         */
+        void addExchange(Exchange exchange) {
+            if (closedOnCompletion) {
+                references.incrementAndGet();
+                Synchronization onCompletion = new SynchronizationAdapter() {
+                    @Override
+                    public void onDone(Exchange exchange) {
+                        releaseReference();
+                    }
+
+                    @Override
+                    public String toString() {
+                        return "OnCompletion[CachedOutputStream]";
+                    }
+                };
+                UnitOfWork streamCacheUnitOfWork = exchange.getProperty(Exchange.STREAM_CACHE_UNIT_OF_WORK, UnitOfWork.class);
+                if (streamCacheUnitOfWork != null) {
+                    // release the buffers with the unit of work of the main route, see TempFileManager
+                    streamCacheUnitOfWork.addSynchronization(onCompletion);
+                } else {
+                    exchange.addOnCompletion(onCompletion);
+                }
+            }
+        }
+
+        /**
+         * Creates a stream cache which shares the buffers of the given stream cache.
+         */
+        ByteBufferInputStreamCache copyOf(ByteBufferInputStreamCache cache) {
+            return new ByteBufferInputStreamCache(this, cache.buffers, cache.inMemory);
+        }
+
+        /**
+         * Releases a reference to the buffers, and releases the buffers when it was the last reference.
+         */
+        void releaseReference() {
+            if (references.decrementAndGet() == 0) {
+                release();
+            }
+        }
+
+        /**
+         * Releases the reference held by the output stream, when the buffers are not released on completion.
+         */
+        void close() {
+            if (!closedOnCompletion && closed.compareAndSet(false, true)) {
+                releaseReference();
+            }
+        }
+
+        boolean isReleased() {
+            return released;
+        }
+
+        /**
+         * Creates the output stream which writes to pooled buffers.
+         */
+        OutputStream createOutputStream() {
+            return new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    writableChunk().put((byte) b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    while (len > 0) {
+                        ByteBuffer chunk = writableChunk();
+                        int n = Math.min(len, chunk.remaining());
+                        chunk.put(b, off, n);
+                        off += n;
+                        len -= n;
+                    }
+                }
+            };
+        }
+
+        /**
+         * Moves the data from the pooled buffers to a spool file, and creates the output stream which writes to the spool file.
+         */
+        OutputStream spool() throws IOException {
+            // should only be called once
+            if (spoolFile != null) {
+                throw new IllegalStateException("The method 'spool' can only be called once!");
+            }
+            spoolFile = FileUtil.createTempFile("cos", ".tmp", strategy.getSpoolDirectory());
+
+            LOG.trace("Creating memory mapped stream cache file: {}", spoolFile);
+            channel = FileChannel.open(spoolFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            for (ByteBuffer chunk : chunks) {
+                ByteBuffer data = chunk.duplicate();
+                data.flip();
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+            }
+            releaseChunks();
+            return new BufferedOutputStream(Channels.newOutputStream(channel), strategy.getBufferSize()) {
+                @Override
+                public void close() throws IOException {
+                    // the spool file is still to be mapped, so it is closed when the buffers are released
+                    flush();
+                }
+            };
+        }
+
+        synchronized ByteBufferInputStreamCache newStreamCache() throws IOException {
+            if (released) {
+                throw new IllegalStateException("Cannot create stream cache as its buffers has been released");
+            }
+            if (channel == null) {
+                // the chunks are now shared with the stream cache so they cannot be released when spooled
+                shared = true;
+                ByteBuffer[] buffers = new ByteBuffer[chunks.size()];
+                for (int i = 0; i < buffers.length; i++) {
+                    buffers[i] = chunks.get(i).duplicate();
+                    buffers[i].flip();
+                }
+                return new ByteBufferInputStreamCache(this, buffers, true);
+            }
+
+            long size = channel.size();
+            if (mapped == null || mappedSize() != size) {
+                // map the file in regions, as a region cannot be larger than 2gb
+                int regions = (int) ((size + MAX_REGION_SIZE - 1) / MAX_REGION_SIZE);
+                mapped = new ByteBuffer[Math.max(regions, 1)];
+                if (size == 0) {
+                    mapped[0] = ByteBuffer.allocate(0);
+                }
+                for (int i = 0; i < regions; i++) {
+                    long offset = i * MAX_REGION_SIZE;
+                    mapped[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(MAX_REGION_SIZE, size - offset));
+                }
+            }
+            return new ByteBufferInputStreamCache(this, mapped, false);
+        }
+
+        /**
+         * Releases the buffers back to the pool and deletes the spool file.
+         */
+        synchronized void release() {
+            if (released) {
+                return;
+            }
+            released = true;
+            releaseChunks();
+            for (ByteBuffer chunk : retainedChunks) {
+                pool.release(chunk);
+            }
+            retainedChunks.clear();
+            if (channel != null) {
+                IOHelper.close(channel, "spool file", LOG);
+                channel = null;
+            }
+            // the mapped regions are unmapped when they are garbage collected
+            mapped = null;
+            if (spoolFile != null) {
+                try {
+                    FileUtil.deleteFile(spoolFile);
+                } catch (Exception e) {
+                    LOG.warn("Error deleting temporary cache file: " + spoolFile + ". This exception will be ignored.", e);
+                }
+                spoolFile = null;
+            }
+        }
+
+        private ByteBuffer writableChunk() throws IOException {
+            if (released) {
+                throw new IOException("Cannot write to stream cache as its buffers has been released");
+            }
+            ByteBuffer chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+            if (chunk == null || !chunk.hasRemaining()) {
+                chunk = pool.acquire();
+                chunks.add(chunk);
+            }
+            return chunk;
+        }
+
+        private synchronized void releaseChunks() {
+            if (shared && !released) {
+                // the chunks are released when the last reference is released
+                retainedChunks.addAll(chunks);
+            } else {
+                for (ByteBuffer chunk : chunks) {
+                    pool.release(chunk);
+                }
+            }
+            chunks.clear();
+        }
+
+        private long mappedSize() {
+            long size = 0;
+            for (ByteBuffer region : mapped) {
+                size += region.capacity();
+            }
+            return size;
+        }
+    }
+
+}
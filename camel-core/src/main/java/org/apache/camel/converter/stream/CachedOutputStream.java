@@ -25,6 +25,7 @@ import org.apache.camel.Exchange;
 import org.apache.camel.StreamCache;
 import org.apache.camel.converter.stream.FileInputStreamCache.TempFileManager;
 import org.apache.camel.spi.StreamCachingStrategy;
+import org.apache.camel.util.ObjectHelper;
 
 /**
  * This output stream will store the content into a File if the stream context size is exceed the
@@ -37,6 +38,9 @@ import org.apache.camel.spi.StreamCachingStrategy;
  * You can get a cached input stream of this stream. The temp file which is created with this 
  * output stream will be deleted when you close this output stream or the cached 
  * fileInputStream(s) is/are closed after all the exchanges using the temp file are completed.
+ * <p/>
+ * If the {@link StreamCachingStrategy#isPooled() stream caching is pooled} then the content is stored in
+ * pooled direct buffers, and the temp file is memory mapped, see {@link ByteBufferInputStreamCache}.
  */
 public class CachedOutputStream extends OutputStream {
     @Deprecated
@@ -53,6 +57,7 @@ public class CachedOutputStream extends OutputStream {
     private boolean inMemory = true;
     private int totalLength;
     private final TempFileManager tempFileManager;
+    private final ByteBufferInputStreamCache.BufferManager bufferManager;
     private final boolean closedOnCompletion;
 
     public CachedOutputStream(Exchange exchange) {
@@ -61,10 +66,19 @@ public class CachedOutputStream extends OutputStream {
 
     public CachedOutputStream(Exchange exchange, final boolean closedOnCompletion) {
         this.closedOnCompletion = closedOnCompletion;
-        tempFileManager = new TempFileManager(closedOnCompletion);
-        tempFileManager.addExchange(exchange);
         this.strategy = exchange.getContext().getStreamCachingStrategy();
-        currentStream = new CachedByteArrayOutputStream(strategy.getBufferSize());
+        // a memory mapped file cannot be encrypted
+        if (strategy.isPooled() && strategy.getBufferPool() != null && ObjectHelper.isEmpty(strategy.getSpoolChiper())) {
+            tempFileManager = null;
+            bufferManager = new ByteBufferInputStreamCache.BufferManager(strategy, closedOnCompletion);
+            bufferManager.addExchange(exchange);
+            currentStream = bufferManager.createOutputStream();
+        } else {
+            bufferManager = null;
+            tempFileManager = new TempFileManager(closedOnCompletion);
+            tempFileManager.addExchange(exchange);
+            currentStream = new CachedByteArrayOutputStream(strategy.getBufferSize());
+        }
     }
 
     public void flush() throws IOException {
@@ -74,7 +88,9 @@ public class CachedOutputStream extends OutputStream {
     public void close() throws IOException {
         currentStream.close();
         // need to clean up the temp file this time
-        if (!closedOnCompletion) {
+        if (!closedOnCompletion && bufferManager != null) {
+            bufferManager.close();
+        } else if (!closedOnCompletion) {
             tempFileManager.closeFileInputStreams();
             tempFileManager.cleanUpTempFile();
         }
@@ -98,7 +114,7 @@ public class CachedOutputStream extends OutputStream {
 
     public void write(byte[] b, int off, int len) throws IOException {
         this.totalLength += len;
-        if (inMemory && currentStream instanceof ByteArrayOutputStream && strategy.shouldSpoolCache(totalLength)) {
+        if (inMemory && strategy.shouldSpoolCache(totalLength)) {
             pageToFileStream();
         }
         currentStream.write(b, off, len);
@@ -106,7 +122,7 @@ public class CachedOutputStream extends OutputStream {
 
     public void write(byte[] b) throws IOException {
         this.totalLength += b.length;
-        if (inMemory && currentStream instanceof ByteArrayOutputStream && strategy.shouldSpoolCache(totalLength)) {
+        if (inMemory && strategy.shouldSpoolCache(totalLength)) {
             pageToFileStream();
         }
         currentStream.write(b);
@@ -114,7 +130,7 @@ public class CachedOutputStream extends OutputStream {
 
     public void write(int b) throws IOException {
         this.totalLength++;
-        if (inMemory && currentStream instanceof ByteArrayOutputStream && strategy.shouldSpoolCache(totalLength)) {
+        if (inMemory && strategy.shouldSpoolCache(totalLength)) {
             pageToFileStream();
         }
         currentStream.write(b);
@@ -143,7 +159,9 @@ public class CachedOutputStream extends OutputStream {
     public StreamCache newStreamCache() throws IOException {
         flush();
 
-        if (inMemory) {
+        if (bufferManager != null) {
+            return bufferManager.newStreamCache();
+        } else if (inMemory) {
             if (currentStream instanceof CachedByteArrayOutputStream) {
                 return ((CachedByteArrayOutputStream) currentStream).newInputStreamCache();
             } else {
@@ -157,6 +175,15 @@ public class CachedOutputStream extends OutputStream {
 
     private void pageToFileStream() throws IOException {
         flush();
+        if (bufferManager != null) {
+            try {
+                // moves the pooled buffers to a memory mapped tmp file
+                currentStream = bufferManager.spool();
+            } finally {
+                inMemory = false;
+            }
+            return;
+        }
         ByteArrayOutputStream bout = (ByteArrayOutputStream)currentStream;
         try {
             // creates an tmp file and a file output stream
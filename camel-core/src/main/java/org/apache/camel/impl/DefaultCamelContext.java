@@ -135,6 +135,7 @@ import org.apache.camel.spi.Debugger;
 import org.apache.camel.spi.EndpointRegistry;
 import org.apache.camel.spi.EndpointStrategy;
 import org.apache.camel.spi.EventNotifier;
+import org.apache.camel.spi.ExchangeFactory;
 import org.apache.camel.spi.ExecutorServiceManager;
 import org.apache.camel.spi.FactoryFinder;
 import org.apache.camel.spi.FactoryFinderResolver;
@@ -242,6 +243,7 @@ public class DefaultCamelContext extends ServiceSupport implements ModelCamelCon
     private List<RoutePolicyFactory> routePolicyFactories = new ArrayList<RoutePolicyFactory>();
     private Set<LogListener> logListeners = new LinkedHashSet<>();
     private HeadersMapFactory headersMapFactory = new DefaultHeadersMapFactory();
+    private ExchangeFactory exchangeFactory = new DefaultExchangeFactory();
 
     // special flags to control the first startup which can are special
     private volatile boolean firstStartDone;
@@ -262,7 +264,10 @@ public class DefaultCamelContext extends ServiceSupport implements ModelCamelCon
     private Boolean useMDCLogging = Boolean.FALSE;
     private Boolean useDataType = Boolean.FALSE;
     private Boolean useBreadcrumb = Boolean.TRUE;
+    private Boolean copyOnWriteExchange = Boolean.FALSE;
+    private Boolean adviceFusion = Boolean.FALSE;
     private Boolean allowUseOriginalMessage = Boolean.FALSE;
+    private Boolean inflightRepositoryBrowseEnabled;
     private Long delay;
     private ErrorHandlerFactory errorHandlerBuilder;
     private final Object errorHandlerExecutorServiceLock = new Object();
@@ -3373,8 +3378,12 @@ public class DefaultCamelContext extends ServiceSupport implements ModelCamelCon
         addService(executorServiceManager, false, true);
         addService(producerServicePool, true, true);
         addService(pollingConsumerServicePool, true, true);
+        if (inflightRepositoryBrowseEnabled != null) {
+            inflightRepository.setInflightBrowseEnabled(inflightRepositoryBrowseEnabled);
+        }
         addService(inflightRepository, true, true);
         addService(asyncProcessorAwaitManager, true, true);
+        addService(exchangeFactory, true, true);
         addService(shutdownStrategy, true, true);
         addService(packageScanClassResolver, true, true);
         addService(restRegistry, true, true);
@@ -4359,6 +4368,17 @@ public class DefaultCamelContext extends ServiceSupport implements ModelCamelCon
         this.inflightRepository = repository;
     }
 
+    public Boolean isInflightRepositoryBrowseEnabled() {
+        return inflightRepositoryBrowseEnabled == null || inflightRepositoryBrowseEnabled;
+    }
+
+    public void setInflightRepositoryBrowseEnabled(Boolean inflightRepositoryBrowseEnabled) throws IllegalStateException {
+        if (isStarting() || isStarted()) {
+            throw new IllegalStateException("Inflight repository browsing can only be configured when CamelContext has not been started");
+        }
+        this.inflightRepositoryBrowseEnabled = inflightRepositoryBrowseEnabled;
+    }
+
     public AsyncProcessorAwaitManager getAsyncProcessorAwaitManager() {
         return asyncProcessorAwaitManager;
     }
@@ -4426,6 +4446,22 @@ public class DefaultCamelContext extends ServiceSupport implements ModelCamelCon
         this.useBreadcrumb = useBreadcrumb;
     }
 
+    public Boolean isCopyOnWriteExchange() {
+        return copyOnWriteExchange != null && copyOnWriteExchange;
+    }
+
+    public void setCopyOnWriteExchange(Boolean copyOnWriteExchange) {
+        this.copyOnWriteExchange = copyOnWriteExchange;
+    }
+
+    public Boolean isAdviceFusion() {
+        return adviceFusion != null && adviceFusion;
+    }
+
+    public void setAdviceFusion(Boolean adviceFusion) {
+        this.adviceFusion = adviceFusion;
+    }
+
     public ClassLoader getApplicationContextClassLoader() {
         return applicationContextClassLoader;
     }
@@ -4687,6 +4723,25 @@ public class DefaultCamelContext extends ServiceSupport implements ModelCamelCon
         this.headersMapFactory = headersMapFactory;
     }
 
+    @Override
+    public ExchangeFactory getExchangeFactory() {
+        return exchangeFactory;
+    }
+
+    @Override
+    public void setExchangeFactory(ExchangeFactory exchangeFactory) {
+        this.exchangeFactory = exchangeFactory;
+        if (isStarted()) {
+            // the factory is set after we have been started, so make sure its started as well
+            // (only consumers which are started from now on will use the new factory)
+            try {
+                addService(exchangeFactory, true, true);
+            } catch (Exception e) {
+                throw ObjectHelper.wrapRuntimeCamelException(e);
+            }
+        }
+    }
+
     protected Map<String, RouteService> getRouteServices() {
         return routeServices;
     }
@@ -24,6 +24,7 @@ import org.apache.camel.Processor;
 import org.apache.camel.Route;
 import org.apache.camel.RouteAware;
 import org.apache.camel.spi.ExceptionHandler;
+import org.apache.camel.spi.ExchangeFactory;
 import org.apache.camel.spi.UnitOfWork;
 import org.apache.camel.support.LoggingExceptionHandler;
 import org.apache.camel.support.ServiceSupport;
@@ -47,6 +48,7 @@ public class DefaultConsumer extends ServiceSupport implements Consumer, RouteAw
     private volatile AsyncProcessor asyncProcessor;
     private ExceptionHandler exceptionHandler;
     private Route route;
+    private volatile ExchangeFactory exchangeFactory;
 
     public DefaultConsumer(Endpoint endpoint, Processor processor) {
         this.endpoint = endpoint;
@@ -107,6 +109,40 @@ public class DefaultConsumer extends ServiceSupport implements Consumer, RouteAw
         UnitOfWorkHelper.doneUow(exchange.getUnitOfWork(), exchange);
     }
 
+    /**
+     * Creates an {@link Exchange} using the {@link ExchangeFactory} of this consumer, which is created from the
+     * {@link ExchangeFactory} of the {@link org.apache.camel.CamelContext} when the consumer is started,
+     * and which may acquire the exchange from a pool.
+     * <p/>
+     * The consumer must call {@link #releaseExchange(Exchange)} when it has completed the exchange and no longer uses it.
+     *
+     * @return the exchange
+     * @see #releaseExchange(Exchange)
+     */
+    public Exchange createExchange() {
+        return getExchangeFactory().create(endpoint);
+    }
+
+    /**
+     * Releases the {@link Exchange} created by {@link #createExchange()} when the consumer has completed the exchange,
+     * so it can be reused if the {@link ExchangeFactory} pools exchanges.
+     *
+     * @param exchange the exchange
+     * @see #createExchange()
+     */
+    public void releaseExchange(Exchange exchange) {
+        getExchangeFactory().release(exchange);
+    }
+
+    /**
+     * Gets the {@link ExchangeFactory} of this consumer, or the {@link ExchangeFactory} of the
+     * {@link org.apache.camel.CamelContext} if the consumer has not been started.
+     */
+    public ExchangeFactory getExchangeFactory() {
+        ExchangeFactory answer = exchangeFactory;
+        return answer != null ? answer : endpoint.getCamelContext().getExchangeFactory();
+    }
+
     public Endpoint getEndpoint() {
         return endpoint;
     }
@@ -138,11 +174,17 @@ public class DefaultConsumer extends ServiceSupport implements Consumer, RouteAw
     protected void doStop() throws Exception {
         log.debug("Stopping consumer: {}", this);
         ServiceHelper.stopServices(processor);
+        // stop the exchange factory after the processor so the exchanges in flight can still be released
+        ServiceHelper.stopService(exchangeFactory);
     }
 
     protected void doStart() throws Exception {
         log.debug("Starting consumer: {}", this);
-        ServiceHelper.startServices(processor);
+        // the endpoint may not have been given a camel context
+        if (exchangeFactory == null && endpoint.getCamelContext() != null) {
+            exchangeFactory = endpoint.getCamelContext().getExchangeFactory().newExchangeFactory(this);
+        }
+        ServiceHelper.startServices(exchangeFactory, processor);
     }
 
     /**
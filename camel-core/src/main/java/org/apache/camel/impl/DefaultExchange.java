@@ -45,7 +45,10 @@ import org.apache.camel.util.ObjectHelper;
 public final class DefaultExchange implements Exchange {
 
     protected final CamelContext context;
+    // whether the exchange is in the pool of the PooledExchangeFactory
+    boolean pooled;
     private Map<String, Object> properties;
+    private boolean propertiesShared;
     private Message in;
     private Message out;
     private Exception exception;
@@ -104,7 +107,15 @@ public final class DefaultExchange implements Exchange {
     public Exchange copy(boolean safeCopy) {
         DefaultExchange exchange = new DefaultExchange(this);
 
-        if (safeCopy) {
+        // copy-on-write applies to both a safe copy and the old way of copying
+        boolean copyOnWrite = context != null && context.isCopyOnWriteExchange();
+        if (copyOnWrite && isCopyOnWriteSupported()) {
+            // share the headers with the messages on the copy until they are changed
+            exchange.setIn(((DefaultMessage) getIn()).copyOnWrite());
+            if (hasOut()) {
+                exchange.setOut(((DefaultMessage) getOut()).copyOnWrite());
+            }
+        } else if (safeCopy) {
             exchange.getIn().setBody(getIn().getBody());
             exchange.getIn().setFault(getIn().isFault());
             if (getIn().hasHeaders()) {
@@ -133,12 +144,30 @@ public final class DefaultExchange implements Exchange {
 
         // copy properties after body as body may trigger lazy init
         if (hasProperties()) {
-            exchange.setProperties(safeCopyProperties(getProperties()));
+            // message history is a mutable list stored as property so it must always be copied
+            if (copyOnWrite && !properties.containsKey(Exchange.MESSAGE_HISTORY)) {
+                propertiesShared = true;
+                exchange.properties = properties;
+                exchange.propertiesShared = true;
+            } else {
+                exchange.setProperties(safeCopyProperties(getProperties()));
+            }
         }
 
         return exchange;
     }
 
+    /**
+     * Whether the messages on this exchange can be copied using copy-on-write, which is only
+     * supported by {@link DefaultMessage} as component specific messages may lazy populate their headers.
+     */
+    private boolean isCopyOnWriteSupported() {
+        if (getIn().getClass() != DefaultMessage.class) {
+            return false;
+        }
+        return !hasOut() || getOut().getClass() == DefaultMessage.class;
+    }
+
     private Map<String, Object> safeCopyHeaders(Map<String, Object> headers) {
         if (headers == null) {
             return null;
@@ -236,6 +265,10 @@ public final class DefaultExchange implements Exchange {
         if (!hasProperties()) {
             return null;
         }
+        if (propertiesShared && !properties.containsKey(name)) {
+            // nothing to remove so keep sharing the properties
+            return null;
+        }
         return getProperties().remove(name);
     }
 
@@ -262,6 +295,9 @@ public final class DefaultExchange implements Exchange {
         }
 
         if (!toBeRemoved.isEmpty()) {
+            if (propertiesShared) {
+                unshareProperties();
+            }
             if (toBeRemoved.size() == properties.size()) {
                 // special optimization when all should be removed
                 properties.clear();
@@ -276,6 +312,9 @@ public final class DefaultExchange implements Exchange {
     public Map<String, Object> getProperties() {
         if (properties == null) {
             properties = createProperties();
+        } else if (propertiesShared) {
+            // the caller may change the returned map so we must have our own copy
+            unshareProperties();
         }
         return properties;
     }
@@ -286,6 +325,7 @@ public final class DefaultExchange implements Exchange {
 
     public void setProperties(Map<String, Object> properties) {
         this.properties = properties;
+        this.propertiesShared = false;
     }
 
     public Message getIn() {
@@ -542,6 +582,40 @@ public final class DefaultExchange implements Exchange {
         return answer;
     }
 
+    /**
+     * Resets the exchange so it can be reused for another message by the {@link PooledExchangeFactory}.
+     * The in message and the properties map are reused.
+     */
+    void reset(Endpoint fromEndpoint, ExchangePattern pattern) {
+        if (properties != null && !propertiesShared && properties.getClass() == HashMap.class) {
+            properties.clear();
+        } else {
+            properties = null;
+        }
+        propertiesShared = false;
+        if (in != null && in.getClass() == DefaultMessage.class && ((DefaultMessage) in).getExchange() == this) {
+            ((DefaultMessage) in).reset();
+        } else {
+            in = null;
+        }
+        out = null;
+        exception = null;
+        exchangeId = null;
+        unitOfWork = null;
+        this.pattern = pattern;
+        this.fromEndpoint = fromEndpoint;
+        fromRouteId = null;
+        onCompletions = null;
+    }
+
+    /**
+     * Replaces the properties which are shared with other exchanges with our own copy
+     */
+    private void unshareProperties() {
+        properties = createProperties(properties);
+        propertiesShared = false;
+    }
+
     protected Map<String, Object> createProperties() {
         return new HashMap<>();
     }
@@ -20,11 +20,15 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -38,39 +42,106 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Default {@link org.apache.camel.spi.InflightRepository}.
+ * <p/>
+ * The number of inflight exchanges (in total and per route) are kept in striped counters, so keeping track of
+ * the counts does not contend between threads.
+ * <p/>
+ * The inflight exchanges are kept, for browsing, in sets per the route the exchanges started from, which are
+ * ordered by the time the exchanges were created. This allows the oldest inflight exchange of a route to be
+ * found without scanning all the inflight exchanges. Exchanges which have not yet entered the route they
+ * started from, such as exchanges sent using a producer template, are kept in a separate set until they do.
+ * <p/>
+ * If browsing the inflight exchanges is not needed, then it can be turned off using
+ * {@link #setInflightBrowseEnabled(boolean)}, which only keeps track of the counts.
  *
  * @version 
  */
 public class DefaultInflightRepository extends ServiceSupport implements InflightRepository {
 
     private static final Logger LOG = LoggerFactory.getLogger(DefaultInflightRepository.class);
-    private final ConcurrentMap<String, Exchange> inflight = new ConcurrentHashMap<String, Exchange>();
-    private final ConcurrentMap<String, AtomicInteger> routeCount = new ConcurrentHashMap<String, AtomicInteger>();
+    private final ConcurrentMap<String, InflightEntry> inflight = new ConcurrentHashMap<String, InflightEntry>();
+    private final ConcurrentMap<String, InflightRoute> routes = new ConcurrentHashMap<String, InflightRoute>();
+    private final NavigableSet<InflightEntry> unrouted = new ConcurrentSkipListSet<InflightEntry>();
+    private final LongAdder size = new LongAdder();
+    private boolean inflightBrowseEnabled = true;
+
+    @Override
+    public boolean isInflightBrowseEnabled() {
+        return inflightBrowseEnabled;
+    }
+
+    /**
+     * Whether to keep track of the inflight exchanges, which allows to browse the inflight exchanges,
+     * and to find the oldest inflight exchange.
+     * <p/>
+     * When disabled then only the number of inflight exchanges are kept, which has the lowest overhead,
+     * and browsing the inflight exchanges returns no exchanges.
+     * <p/>
+     * Is default <tt>true</tt>.
+     *
+     * @throws IllegalStateException is thrown if this repository has already been started
+     */
+    @Override
+    public void setInflightBrowseEnabled(boolean inflightBrowseEnabled) {
+        if (isStarting() || isStarted()) {
+            throw new IllegalStateException("Inflight browsing can only be configured when the inflight repository has not been started");
+        }
+        this.inflightBrowseEnabled = inflightBrowseEnabled;
+    }
 
     public void add(Exchange exchange) {
-        inflight.put(exchange.getExchangeId(), exchange);
+        size.increment();
+        if (!inflightBrowseEnabled) {
+            return;
+        }
+
+        InflightEntry entry = new InflightEntry(exchange);
+        InflightEntry existing = inflight.put(exchange.getExchangeId(), entry);
+        if (existing != null) {
+            existing.unlink();
+        }
+        InflightRoute route = exchange.getFromRouteId() != null ? routes.get(exchange.getFromRouteId()) : null;
+        entry.link(route != null ? route.exchanges : unrouted);
     }
 
     public void remove(Exchange exchange) {
-        inflight.remove(exchange.getExchangeId());
+        size.decrement();
+        if (!inflightBrowseEnabled) {
+            return;
+        }
+
+        InflightEntry entry = inflight.remove(exchange.getExchangeId());
+        if (entry != null) {
+            entry.unlink();
+        }
     }
 
     public void add(Exchange exchange, String routeId) {
-        AtomicInteger existing = routeCount.get(routeId);
-        if (existing != null) {
-            existing.incrementAndGet();
+        InflightRoute route = routes.get(routeId);
+        if (route == null) {
+            return;
+        }
+        route.count.increment();
+
+        if (inflightBrowseEnabled && !unrouted.isEmpty() && routeId.equals(exchange.getFromRouteId())) {
+            // the exchange may have been added before it was known which route it started from,
+            // such as when sent using a producer template, so move it to the route it started from
+            InflightEntry entry = inflight.get(exchange.getExchangeId());
+            if (entry != null) {
+                entry.link(route.exchanges);
+            }
         }
     }
 
     public void remove(Exchange exchange, String routeId) {
-        AtomicInteger existing = routeCount.get(routeId);
-        if (existing != null) {
-            existing.decrementAndGet();
+        InflightRoute route = routes.get(routeId);
+        if (route != null) {
+            route.count.decrement();
         }
     }
 
     public int size() {
-        return inflight.size();
+        return size.intValue();
     }
 
     @Deprecated
@@ -80,18 +151,25 @@ public class DefaultInflightRepository extends ServiceSupport implements Infligh
 
     @Override
     public void addRoute(String routeId) {
-        routeCount.putIfAbsent(routeId, new AtomicInteger(0));
+        routes.putIfAbsent(routeId, new InflightRoute());
     }
 
     @Override
     public void removeRoute(String routeId) {
-        routeCount.remove(routeId);
+        InflightRoute route = routes.remove(routeId);
+        if (route != null) {
+            // the route has been stopped so no more exchanges are added to it, and any exchanges which are
+            // still inflight are moved so they are not lost
+            for (InflightEntry entry : route.exchanges) {
+                entry.link(unrouted);
+            }
+        }
     }
 
     @Override
     public int size(String routeId) {
-        AtomicInteger existing = routeCount.get(routeId);
-        return existing != null ? existing.get() : 0;
+        InflightRoute route = routes.get(routeId);
+        return route != null ? route.count.intValue() : 0;
     }
 
     @Override
@@ -114,10 +192,10 @@ public class DefaultInflightRepository extends ServiceSupport implements Infligh
         Stream<Exchange> values;
         if (fromRouteId == null) {
             // all values
-            values = inflight.values().stream();
+            values = inflight.values().stream().map(e -> e.exchange);
         } else {
             // only if route match
-            values = inflight.values().stream()
+            values = inflight.values().stream().map(e -> e.exchange)
                 .filter(e -> fromRouteId.equals(e.getFromRouteId()));
         }
 
@@ -144,27 +222,31 @@ public class DefaultInflightRepository extends ServiceSupport implements Infligh
 
     @Override
     public InflightExchange oldest(String fromRouteId) {
-        Stream<Exchange> values;
+        InflightEntry first = null;
 
         if (fromRouteId == null) {
-            // all values
-            values = inflight.values().stream();
+            // the oldest of all the routes
+            for (InflightRoute route : routes.values()) {
+                first = older(first, first(route.exchanges));
+            }
+            first = older(first, first(unrouted));
         } else {
-            // only if route match
-            values = inflight.values().stream()
-                .filter(e -> fromRouteId.equals(e.getFromRouteId()));
+            InflightRoute route = routes.get(fromRouteId);
+            if (route != null) {
+                first = first(route.exchanges);
+            }
+            // the exchanges which have not entered the route they started from are ordered as well,
+            // so the first which started from the route is the oldest of them
+            for (InflightEntry entry : unrouted) {
+                if (fromRouteId.equals(entry.exchange.getFromRouteId())) {
+                    first = older(first, entry);
+                    break;
+                }
+            }
         }
 
-        // sort by duration and grab the first
-        Exchange first = values.sorted((e1, e2) -> {
-            long d1 = getExchangeDuration(e1);
-            long d2 = getExchangeDuration(e2);
-            // need the biggest number first
-            return -1 * Long.compare(d1, d2);
-        }).findFirst().orElse(null);
-
         if (first != null) {
-            return new InflightExchangeEntry(first);
+            return new InflightExchangeEntry(first.exchange);
         } else {
             return null;
         }
@@ -182,7 +264,23 @@ public class DefaultInflightRepository extends ServiceSupport implements Infligh
         } else {
             LOG.debug("Shutting down with no inflight exchanges.");
         }
-        routeCount.clear();
+        for (String routeId : routes.keySet()) {
+            removeRoute(routeId);
+        }
+    }
+
+    private static InflightEntry first(NavigableSet<InflightEntry> exchanges) {
+        Iterator<InflightEntry> it = exchanges.iterator();
+        return it.hasNext() ? it.next() : null;
+    }
+
+    private static InflightEntry older(InflightEntry e1, InflightEntry e2) {
+        if (e1 == null) {
+            return e2;
+        } else if (e2 == null) {
+            return e1;
+        }
+        return e2.compareTo(e1) < 0 ? e2 : e1;
     }
 
     private static long getExchangeDuration(Exchange exchange) {
@@ -194,6 +292,65 @@ public class DefaultInflightRepository extends ServiceSupport implements Infligh
         return duration;
     }
 
+    /**
+     * The inflight exchanges which started from a route, and the number of inflight exchanges at the route.
+     */
+    private static final class InflightRoute {
+
+        private final NavigableSet<InflightEntry> exchanges = new ConcurrentSkipListSet<InflightEntry>();
+        private final LongAdder count = new LongAdder();
+    }
+
+    /**
+     * An inflight exchange, which is ordered by the time the exchange was created.
+     */
+    private static final class InflightEntry implements Comparable<InflightEntry> {
+
+        private final Exchange exchange;
+        private final long created;
+        // the set this entry is kept in, guarded by this entry
+        private Set<InflightEntry> exchanges;
+        private boolean removed;
+
+        private InflightEntry(Exchange exchange) {
+            this.exchange = exchange;
+            Date date = exchange.getCreated();
+            this.created = date != null ? date.getTime() : Long.MAX_VALUE;
+        }
+
+        synchronized void link(Set<InflightEntry> target) {
+            if (removed || exchanges == target) {
+                return;
+            }
+            if (exchanges != null) {
+                exchanges.remove(this);
+            }
+            exchanges = target;
+            target.add(this);
+        }
+
+        synchronized void unlink() {
+            removed = true;
+            if (exchanges != null) {
+                exchanges.remove(this);
+                exchanges = null;
+            }
+        }
+
+        @Override
+        public int compareTo(InflightEntry other) {
+            int answer = Long.compare(created, other.created);
+            if (answer == 0) {
+                answer = exchange.getExchangeId().compareTo(other.exchange.getExchangeId());
+            }
+            if (answer == 0) {
+                // the same exchange id may be added again while the entry it replaces is being removed
+                answer = Integer.compare(System.identityHashCode(this), System.identityHashCode(other));
+            }
+            return answer;
+        }
+    }
+
     private static final class InflightExchangeEntry implements InflightExchange {
 
         private final Exchange exchange;
@@ -46,6 +46,7 @@ import org.apache.camel.util.ObjectHelper;
 public class DefaultMessage extends MessageSupport {
     private boolean fault;
     private Map<String, Object> headers;
+    private boolean headersShared;
     private Map<String, DataHandler> attachments;
     private Map<String, Attachment> attachmentObjects;
 
@@ -70,21 +71,21 @@ public class DefaultMessage extends MessageSupport {
 
     public Object getHeader(String name) {
         if (hasHeaders()) {
-            return getHeaders().get(name);
+            return headersShared ? headers.get(name) : getHeaders().get(name);
         } else {
             return null;
         }
     }
 
     public Object getHeader(String name, Object defaultValue) {
-        Object answer = getHeaders().get(name);
+        Object answer = headersShared ? headers.get(name) : getHeaders().get(name);
         return answer != null ? answer : defaultValue;
     }
 
     public Object getHeader(String name, Supplier<Object> defaultValueSupplier) {
         ObjectHelper.notNull(name, "name");
         ObjectHelper.notNull(defaultValueSupplier, "defaultValueSupplier");
-        Object answer = getHeaders().get(name);
+        Object answer = headersShared ? headers.get(name) : getHeaders().get(name);
         return answer != null ? answer : defaultValueSupplier.get();
     }
 
@@ -169,6 +170,8 @@ public class DefaultMessage extends MessageSupport {
     public void setHeader(String name, Object value) {
         if (headers == null) {
             headers = createHeaders();
+        } else if (headersShared) {
+            unshareHeaders();
         }
         headers.put(name, value);
     }
@@ -177,6 +180,13 @@ public class DefaultMessage extends MessageSupport {
         if (!hasHeaders()) {
             return null;
         }
+        if (headersShared) {
+            if (!headers.containsKey(name)) {
+                // nothing to remove so keep sharing the headers
+                return null;
+            }
+            unshareHeaders();
+        }
         return headers.remove(name);
     }
 
@@ -203,6 +213,9 @@ public class DefaultMessage extends MessageSupport {
                 toRemove.add(entry.getKey());
             }
         }
+        if (headersShared && !toRemove.isEmpty()) {
+            unshareHeaders();
+        }
         for (String key : toRemove) {
             headers.remove(key);
         }
@@ -213,6 +226,9 @@ public class DefaultMessage extends MessageSupport {
     public Map<String, Object> getHeaders() {
         if (headers == null) {
             headers = createHeaders();
+        } else if (headersShared) {
+            // the caller may change the returned map so we must have our own copy
+            unshareHeaders();
         }
         return headers;
     }
@@ -220,6 +236,7 @@ public class DefaultMessage extends MessageSupport {
     public void setHeaders(Map<String, Object> headers) {
         ObjectHelper.notNull(getCamelContext(), "CamelContext", this);
 
+        this.headersShared = false;
         if (getCamelContext().getHeadersMapFactory().isInstanceOf(headers)) {
             this.headers = headers;
         } else {
@@ -236,12 +253,61 @@ public class DefaultMessage extends MessageSupport {
         return headers != null && !headers.isEmpty();
     }
 
+    /**
+     * Creates a copy of this message which shares the headers with this message (copy-on-write),
+     * until either this message or the copy changes its headers.
+     *
+     * @return the copy
+     */
+    DefaultMessage copyOnWrite() {
+        ObjectHelper.notNull(getCamelContext(), "CamelContext", this);
+
+        DefaultMessage answer = new DefaultMessage(getCamelContext());
+        answer.setMessageId(getMessageId());
+        if (hasDataType()) {
+            answer.setDataType(getDataType());
+        }
+        answer.setBody(getBody());
+        answer.setFault(isFault());
+        if (hasHeaders()) {
+            // both messages must copy the headers before changing them
+            headersShared = true;
+            answer.headers = headers;
+            answer.headersShared = true;
+        }
+        answer.copyAttachments(this);
+        return answer;
+    }
+
+    /**
+     * Replaces the headers which are shared with other messages with our own copy
+     */
+    private void unshareHeaders() {
+        headers = getCamelContext().getHeadersMapFactory().newMap(headers);
+        headersShared = false;
+    }
+
     public DefaultMessage newInstance() {
         ObjectHelper.notNull(getCamelContext(), "CamelContext", this);
 
         return new DefaultMessage(getCamelContext());
     }
 
+    @Override
+    void reset() {
+        super.reset();
+        fault = false;
+        if (headers != null && !headersShared && getCamelContext().getHeadersMapFactory().isInstanceOf(headers)) {
+            // keep the map so it can be reused
+            headers.clear();
+        } else {
+            headers = null;
+        }
+        headersShared = false;
+        attachments = null;
+        attachmentObjects = null;
+    }
+
     /**
      * A factory method to lazily create the headers to make it easy to create
      * efficient Message implementations which only construct and populate the
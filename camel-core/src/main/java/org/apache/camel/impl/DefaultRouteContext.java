@@ -29,6 +29,7 @@ import org.apache.camel.NoSuchEndpointException;
 import org.apache.camel.Processor;
 import org.apache.camel.Route;
 import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.Service;
 import org.apache.camel.ShutdownRoute;
 import org.apache.camel.ShutdownRunningTask;
 import org.apache.camel.model.FromDefinition;
@@ -58,6 +59,7 @@ public class DefaultRouteContext implements RouteContext {
     private final Collection<Route> routes;
     private Endpoint endpoint;
     private final List<Processor> eventDrivenProcessors = new ArrayList<Processor>();
+    private final List<Service> services = new ArrayList<Service>();
     private CamelContext camelContext;
     private List<InterceptStrategy> interceptStrategies = new ArrayList<InterceptStrategy>();
     private InterceptStrategy managedInterceptStrategy;
@@ -169,6 +171,7 @@ public class DefaultRouteContext implements RouteContext {
 
             // and wrap it in a unit of work so the UoW is on the top, so the entire route will be in the same UoW
             CamelInternalProcessor internal = new CamelInternalProcessor(target);
+            internal.setAdviceFusion(camelContext.isAdviceFusion());
             internal.addAdvice(new CamelInternalProcessor.UnitOfWorkProcessorAdvice(this));
 
             // and then optionally add route policy processor if a custom policy is set
@@ -262,6 +265,16 @@ public class DefaultRouteContext implements RouteContext {
         eventDrivenProcessors.add(processor);
     }
 
+    public void addService(Service service) {
+        if (!services.contains(service)) {
+            services.add(service);
+        }
+    }
+
+    public List<Service> getServices() {
+        return services;
+    }
+
     public List<InterceptStrategy> getInterceptStrategies() {
         return interceptStrategies;
     }
@@ -106,7 +106,9 @@ import org.slf4j.LoggerFactory;
  * <p/>
  * Also when a timeout occurred then information about the inflight exchanges is logged, if {@link #isLogInflightExchangesOnTimeout()}
  * is enabled (is by default). This allows end users to known where these inflight exchanges currently are in the route(s),
- * and how long time they have been inflight.
+ * and how long time they have been inflight. If browsing the inflight exchanges has been disabled, using
+ * {@link org.apache.camel.CamelContext#setInflightRepositoryBrowseEnabled(Boolean)}, then only the number of
+ * inflight exchanges is logged.
  * <p/>
  * This information can also be obtained from the {@link org.apache.camel.spi.InflightRepository}
  * at all time during runtime.
@@ -719,7 +721,25 @@ public class DefaultShutdownStrategy extends ServiceSupport implements ShutdownS
             return;
         }
 
-        Collection<InflightRepository.InflightExchange> inflights = camelContext.getInflightRepository().browse();
+        InflightRepository repository = camelContext.getInflightRepository();
+        if (!repository.isInflightBrowseEnabled()) {
+            // only the number of inflight exchanges are known
+            int size = 0;
+            for (RouteStartupOrder route : routes) {
+                size += repository.size(route.getRoute().getId());
+            }
+            if (size > 0) {
+                String msg = "There are " + size + " inflight exchanges. Enable inflightRepositoryBrowseEnabled on CamelContext to log details about the inflight exchanges.";
+                if (infoLevel) {
+                    LOG.info(msg);
+                } else {
+                    LOG.debug(msg);
+                }
+            }
+            return;
+        }
+
+        Collection<InflightRepository.InflightExchange> inflights = repository.browse();
         int size = inflights.size();
         if (size == 0) {
             return;
@@ -19,9 +19,12 @@ package org.apache.camel.impl;
 import java.io.File;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
+import java.nio.ByteBuffer;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.CamelContextAware;
@@ -61,6 +64,9 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
     private String spoolChiper;
     private int bufferSize = IOHelper.DEFAULT_BUFFER_SIZE;
     private boolean removeSpoolDirectoryWhenStopping = true;
+    private boolean pooled;
+    private long poolMaxSize = 32 * 1024 * 1024;
+    private volatile DirectBufferPool bufferPool;
     private final UtilizationStatistics statistics = new UtilizationStatistics();
     private final Set<SpoolRule> spoolRules = new LinkedHashSet<SpoolRule>();
     private boolean anySpoolRules;
@@ -141,6 +147,26 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
         this.removeSpoolDirectoryWhenStopping = removeSpoolDirectoryWhenStopping;
     }
 
+    public boolean isPooled() {
+        return pooled;
+    }
+
+    public void setPooled(boolean pooled) {
+        this.pooled = pooled;
+    }
+
+    public long getPoolMaxSize() {
+        return poolMaxSize;
+    }
+
+    public void setPoolMaxSize(long poolMaxSize) {
+        this.poolMaxSize = poolMaxSize;
+    }
+
+    public BufferPool getBufferPool() {
+        return bufferPool;
+    }
+
     public boolean isAnySpoolRules() {
         return anySpoolRules;
     }
@@ -310,6 +336,11 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
             }
         }
 
+        if (pooled) {
+            bufferPool = new DirectBufferPool(this.bufferSize, poolMaxSize);
+            statistics.pool = bufferPool;
+        }
+
         LOG.debug("StreamCaching configuration {}", this.toString());
 
         if (spoolDirectory != null) {
@@ -331,6 +362,11 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
         }
 
         statistics.reset();
+
+        if (bufferPool != null) {
+            bufferPool.clear();
+            bufferPool = null;
+        }
     }
 
     @Override
@@ -341,6 +377,7 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
             + ", spoolThreshold=" + spoolThreshold
             + ", spoolUsedHeapMemoryThreshold=" + spoolUsedHeapMemoryThreshold
             + ", bufferSize=" + bufferSize
+            + ", pooled=" + pooled
             + ", anySpoolRules=" + anySpoolRules + "]";
     }
 
@@ -402,6 +439,64 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
         }
     }
 
+    /**
+     * A pool of direct buffers which all have the same capacity, and which keeps at most the given number of bytes in idle buffers.
+     */
+    private static final class DirectBufferPool implements BufferPool {
+
+        private final ConcurrentLinkedDeque<ByteBuffer> idle = new ConcurrentLinkedDeque<ByteBuffer>();
+        private final int bufferSize;
+        private final long maxSize;
+        private final AtomicLong allocatedCounter = new AtomicLong();
+        private final AtomicLong reusedCounter = new AtomicLong();
+        private final AtomicLong inUseSize = new AtomicLong();
+        private final AtomicLong idleSize = new AtomicLong();
+
+        private DirectBufferPool(int bufferSize, long maxSize) {
+            this.bufferSize = bufferSize;
+            this.maxSize = maxSize;
+        }
+
+        public ByteBuffer acquire() {
+            // use the most recently released buffer as its more likely to be in the cpu cache
+            ByteBuffer buffer = idle.pollFirst();
+            if (buffer != null) {
+                idleSize.addAndGet(-bufferSize);
+                reusedCounter.incrementAndGet();
+                buffer.clear();
+            } else {
+                buffer = ByteBuffer.allocateDirect(bufferSize);
+                allocatedCounter.incrementAndGet();
+            }
+            inUseSize.addAndGet(bufferSize);
+            return buffer;
+        }
+
+        public void release(ByteBuffer buffer) {
+            if (!buffer.isDirect() || buffer.capacity() != bufferSize) {
+                // not from this pool, such as if the buffer size has been changed
+                return;
+            }
+            inUseSize.addAndGet(-bufferSize);
+            if (idleSize.addAndGet(bufferSize) <= maxSize) {
+                idle.offerFirst(buffer);
+            } else {
+                // the pool is full so let the buffer be garbage collected
+                idleSize.addAndGet(-bufferSize);
+            }
+        }
+
+        void clear() {
+            while (idle.pollFirst() != null) {
+                idleSize.addAndGet(-bufferSize);
+            }
+        }
+
+        public String toString() {
+            return "DirectBufferPool[bufferSize=" + bufferSize + ", maxSize=" + maxSize + "]";
+        }
+    }
+
     /**
      * Represents utilization statistics.
      */
@@ -414,6 +509,7 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
         private volatile long spoolCounter;
         private volatile long spoolSize;
         private volatile long spoolAverageSize;
+        private volatile DirectBufferPool pool;
 
         synchronized void updateMemory(long size) {
             memoryCounter++;
@@ -451,6 +547,26 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
             return spoolAverageSize;
         }
 
+        public long getPoolAllocatedCounter() {
+            DirectBufferPool p = pool;
+            return p != null ? p.allocatedCounter.get() : 0;
+        }
+
+        public long getPoolReusedCounter() {
+            DirectBufferPool p = pool;
+            return p != null ? p.reusedCounter.get() : 0;
+        }
+
+        public long getPoolInUseSize() {
+            DirectBufferPool p = pool;
+            return p != null ? p.inUseSize.get() : 0;
+        }
+
+        public long getPoolIdleSize() {
+            DirectBufferPool p = pool;
+            return p != null ? p.idleSize.get() : 0;
+        }
+
         public synchronized void reset() {
             memoryCounter = 0;
             memorySize = 0;
@@ -458,6 +574,12 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
             spoolCounter = 0;
             spoolSize = 0;
             spoolAverageSize = 0;
+            DirectBufferPool p = pool;
+            if (p != null) {
+                // the in use and idle sizes are not counters so they are not reset
+                p.allocatedCounter.set(0);
+                p.reusedCounter.set(0);
+            }
         }
 
         public boolean isStatisticsEnabled() {
@@ -469,8 +591,10 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
         }
 
         public String toString() {
-            return String.format("[memoryCounter=%s, memorySize=%s, memoryAverageSize=%s, spoolCounter=%s, spoolSize=%s, spoolAverageSize=%s]",
-                    memoryCounter, memorySize, memoryAverageSize, spoolCounter, spoolSize, spoolAverageSize);
+            return String.format("[memoryCounter=%s, memorySize=%s, memoryAverageSize=%s, spoolCounter=%s, spoolSize=%s, spoolAverageSize=%s,"
+                    + " poolAllocatedCounter=%s, poolReusedCounter=%s, poolInUseSize=%s, poolIdleSize=%s]",
+                    memoryCounter, memorySize, memoryAverageSize, spoolCounter, spoolSize, spoolAverageSize,
+                    getPoolAllocatedCounter(), getPoolReusedCounter(), getPoolInUseSize(), getPoolIdleSize());
         }
     }
 
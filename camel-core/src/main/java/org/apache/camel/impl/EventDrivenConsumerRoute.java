@@ -77,6 +77,9 @@ public class EventDrivenConsumerRoute extends DefaultRoute {
         if (processor instanceof Service) {
             services.add((Service)processor);
         }
+        if (getRouteContext() != null) {
+            services.addAll(getRouteContext().getServices());
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -310,4 +310,13 @@ public abstract class MessageSupport implements Message, CamelContextAware, Data
         }
         return uuid;
     }
+
+    /**
+     * Resets the message so it can be reused by a pooled exchange
+     */
+    void reset() {
+        body = null;
+        messageId = null;
+        dataType = null;
+    }
 }
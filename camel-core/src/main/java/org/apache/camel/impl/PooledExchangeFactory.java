@@ -0,0 +1,256 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.camel.Consumer;
+import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangePattern;
+import org.apache.camel.spi.ExchangeFactory;
+import org.apache.camel.support.ServiceSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link ExchangeFactory} which pools the exchanges, so a consumer which releases its completed exchanges
+ * can process messages without allocating a new exchange, message and headers and properties maps for each message.
+ * <p/>
+ * Each consumer has its own bounded pool, which is created by {@link #newExchangeFactory(Consumer)} and is started
+ * and stopped together with the consumer, so the pooled exchanges are discarded when the consumer is stopped.
+ * The pool is shared by the threads of the consumer, so an exchange completed asynchronously by another thread
+ * is reused by the consumer as well. If the pool is full then the released exchange is discarded.
+ * The statistics are shared by all the pools created from the factory of the {@link org.apache.camel.CamelContext}.
+ * <p/>
+ * Only exchanges created from endpoints which do not customize how their exchanges are created are pooled,
+ * as otherwise a reset exchange may miss information which the endpoint sets on a new exchange.
+ * <p/>
+ * The factory keeps statistics about the pool usage, and detects when an exchange is released twice, or
+ * when exchanges acquired from the pool was not released when the factory is stopped, which both indicate that
+ * a consumer (or route) does not use the pool correctly.
+ */
+public class PooledExchangeFactory extends ServiceSupport implements ExchangeFactory {
+
+    public static final int DEFAULT_CAPACITY = 100;
+
+    private static final Logger LOG = LoggerFactory.getLogger(PooledExchangeFactory.class);
+
+    private static final ClassValue<Boolean> POOLABLE = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("createExchange").getDeclaringClass() == DefaultEndpoint.class
+                    && type.getMethod("createExchange", ExchangePattern.class).getDeclaringClass() == DefaultEndpoint.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private final PooledExchangeFactory parent;
+    private final LongAdder created;
+    private final LongAdder acquired;
+    private final LongAdder released;
+    private final LongAdder discarded;
+    private final LongAdder inUse;
+    private final LongAdder doubleReleased;
+    private volatile BlockingQueue<DefaultExchange> pool;
+    private int capacity = DEFAULT_CAPACITY;
+
+    public PooledExchangeFactory() {
+        this.parent = null;
+        this.created = new LongAdder();
+        this.acquired = new LongAdder();
+        this.released = new LongAdder();
+        this.discarded = new LongAdder();
+        this.inUse = new LongAdder();
+        this.doubleReleased = new LongAdder();
+    }
+
+    public PooledExchangeFactory(int capacity) {
+        this();
+        setCapacity(capacity);
+    }
+
+    private PooledExchangeFactory(PooledExchangeFactory parent) {
+        this.parent = parent;
+        this.created = parent.created;
+        this.acquired = parent.acquired;
+        this.released = parent.released;
+        this.discarded = parent.discarded;
+        this.inUse = parent.inUse;
+        this.doubleReleased = parent.doubleReleased;
+        this.capacity = parent.capacity;
+    }
+
+    @Override
+    public ExchangeFactory newExchangeFactory(Consumer consumer) {
+        return new PooledExchangeFactory(this);
+    }
+
+    @Override
+    public Exchange create(Endpoint fromEndpoint) {
+        BlockingQueue<DefaultExchange> queue = pool;
+        if (queue != null && fromEndpoint instanceof DefaultEndpoint && POOLABLE.get(fromEndpoint.getClass())) {
+            DefaultExchange exchange = queue.poll();
+            if (exchange != null && exchange.getContext() == fromEndpoint.getCamelContext()) {
+                exchange.reset(fromEndpoint, ((DefaultEndpoint) fromEndpoint).getExchangePattern());
+                exchange.pooled = false;
+                acquired.increment();
+                inUse.increment();
+                return exchange;
+            }
+        }
+        created.increment();
+        inUse.increment();
+        return fromEndpoint.createExchange();
+    }
+
+    @Override
+    public boolean release(Exchange exchange) {
+        if (!(exchange instanceof DefaultExchange)) {
+            inUse.decrement();
+            discarded.increment();
+            return false;
+        }
+
+        DefaultExchange answer = (DefaultExchange) exchange;
+        if (answer.pooled) {
+            doubleReleased.increment();
+            LOG.warn("Exchange: {} is already released, which indicates a problem in the consumer releasing the exchange.", exchange);
+            return false;
+        }
+        inUse.decrement();
+
+        BlockingQueue<DefaultExchange> queue = pool;
+        if (queue == null || !isRunAllowed()) {
+            discarded.increment();
+            return false;
+        }
+        answer.pooled = true;
+        if (!queue.offer(answer)) {
+            // the pool is full
+            answer.pooled = false;
+            discarded.increment();
+            return false;
+        }
+        released.increment();
+        return true;
+    }
+
+    @Override
+    public boolean isPooled() {
+        return true;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Sets the maximum number of exchanges which is pooled per consumer.
+     */
+    public void setCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive, was: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Number of new exchanges which was created as the pool was empty
+     */
+    public long getCreatedCounter() {
+        return created.sum();
+    }
+
+    /**
+     * Number of exchanges which was acquired (reused) from the pool
+     */
+    public long getAcquiredCounter() {
+        return acquired.sum();
+    }
+
+    /**
+     * Number of exchanges which was released back to the pool
+     */
+    public long getReleasedCounter() {
+        return released.sum();
+    }
+
+    /**
+     * Number of exchanges which was released but discarded as the pool was full
+     */
+    public long getDiscardedCounter() {
+        return discarded.sum();
+    }
+
+    /**
+     * Number of exchanges which was released more than once
+     */
+    public long getDoubleReleasedCounter() {
+        return doubleReleased.sum();
+    }
+
+    /**
+     * Number of exchanges which has been created or acquired, but not yet released
+     */
+    public long getInUseCount() {
+        return inUse.sum();
+    }
+
+    /**
+     * Resets the statistics, except the number of exchanges in use
+     */
+    public void resetStatistics() {
+        created.reset();
+        acquired.reset();
+        released.reset();
+        discarded.reset();
+        doubleReleased.reset();
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        pool = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        // discard the pooled exchanges so they do not keep any references
+        BlockingQueue<DefaultExchange> queue = pool;
+        pool = null;
+        if (queue != null) {
+            queue.clear();
+        }
+
+        // the pools of the consumers share the statistics, so only report leaks when the factory of the CamelContext stops
+        long count = inUse.sum();
+        if (parent == null && count > 0) {
+            LOG.warn("There are {} exchanges which was created by the PooledExchangeFactory but not released."
+                + " This may be a leak in a consumer which does not release its exchanges.", count);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PooledExchangeFactory[capacity=" + capacity + "]";
+    }
+}
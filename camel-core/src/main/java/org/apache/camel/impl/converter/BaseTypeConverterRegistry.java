@@ -64,12 +64,10 @@ import org.slf4j.LoggerFactory;
  * @version 
  */
 public abstract class BaseTypeConverterRegistry extends ServiceSupport implements TypeConverter, TypeConverterRegistry, CamelContextAware {
+    private static final int MAX_NEGATIVE_CACHE_SIZE = 1000;
     protected final Logger log = LoggerFactory.getLogger(getClass());
     protected final OptimisedTypeConverter optimisedTypeConverter = new OptimisedTypeConverter();
     protected final ConcurrentMap<TypeMapping, TypeConverter> typeMappings = new ConcurrentHashMap<TypeMapping, TypeConverter>();
-    // for misses use a soft reference cache map, as the classes may be un-deployed at runtime
-    @SuppressWarnings("unchecked")
-    protected final LRUSoftCache<TypeMapping, TypeMapping> misses = LRUCacheFactory.newLRUSoftCache(1000);
     protected final List<TypeConverterLoader> typeConverterLoaders = new ArrayList<TypeConverterLoader>();
     protected final List<FallbackTypeConverter> fallbackConverters = new CopyOnWriteArrayList<FallbackTypeConverter>();
     protected final PackageScanClassResolver resolver;
@@ -85,6 +83,15 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
     protected final LongAdder baseHitCounter = new LongAdder();
     protected final LongAdder hitCounter = new LongAdder();
     protected final LongAdder failedCounter = new LongAdder();
+    protected final LongAdder dispatchHitCounter = new LongAdder();
+    protected final LongAdder negativeHitCounter = new LongAdder();
+    /**
+     * @deprecated the misses are kept in the negative cache of the dispatch table, and this cache is no longer used
+     */
+    @Deprecated
+    protected final LRUSoftCache<TypeMapping, TypeMapping> misses = LRUCacheFactory.newLRUSoftCache(1000);
+    // resolved converters and misses keyed by class identity, the table is replaced when the converters change
+    private volatile TypeConverterDispatchTable dispatchTable = new TypeConverterDispatchTable(MAX_NEGATIVE_CACHE_SIZE);
 
     public BaseTypeConverterRegistry(PackageScanClassResolver resolver, Injector injector, FactoryFinder factoryFinder) {
         this.resolver = resolver;
@@ -308,17 +315,42 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
             return result;
         }
 
-        // check if we have tried it before and if its a miss
-        TypeMapping key = new TypeMapping(type, value.getClass());
-        if (misses.containsKey(key)) {
+        // check the dispatch table if we have resolved this pair before
+        final TypeConverterDispatchTable table = dispatchTable;
+        final Class<?> fromType = value.getClass();
+        Object cached = table.get(type, fromType);
+        if (cached == TypeConverterDispatchTable.MISS) {
             // we have tried before but we cannot convert this one
+            if (statistics.isStatisticsEnabled()) {
+                negativeHitCounter.increment();
+            }
             return Void.TYPE;
         }
-        
-        // try to find a suitable type converter
-        TypeConverter converter = getOrFindTypeConverter(key);
+
+        TypeConverter converter;
+        if (cached == TypeConverterDispatchTable.NO_CONVERTER) {
+            // we have tried before and there is no direct converter so go for the fallbacks
+            if (statistics.isStatisticsEnabled()) {
+                negativeHitCounter.increment();
+            }
+            converter = null;
+        } else if (cached != null) {
+            if (statistics.isStatisticsEnabled()) {
+                dispatchHitCounter.increment();
+            }
+            converter = (TypeConverter) cached;
+        } else {
+            // try to find a suitable type converter
+            converter = getOrFindTypeConverter(new TypeMapping(type, fromType));
+            if (converter != null) {
+                table.put(type, fromType, converter);
+            } else {
+                putNegative(table, type, fromType, TypeConverterDispatchTable.NO_CONVERTER);
+            }
+        }
+
         if (converter != null) {
-            log.trace("Using converter: {} to convert {}", converter, key);
+            log.trace("Using converter: {} to convert [{}=>{}]", new Object[]{converter, fromType, type});
             Object rc;
             if (tryConvert) {
                 rc = converter.tryConvertTo(type, exchange, value);
@@ -336,7 +368,6 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         if (type.isPrimitive()) {
             Class<?> primitiveType = ObjectHelper.convertPrimitiveTypeToWrapperType(type);
             if (primitiveType != type) {
-                Class<?> fromType = value.getClass();
                 TypeConverter tc = getOrFindTypeConverter(new TypeMapping(primitiveType, fromType));
                 if (tc != null) {
                     // add the type as a known type converter as we can convert from primitive to object converter
@@ -399,13 +430,36 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         if (!tryConvert) {
             // Could not find suitable conversion, so remember it
             // do not register misses for try conversions
-            misses.put(key, key);
+            putNegative(table, type, fromType, TypeConverterDispatchTable.MISS);
         }
 
         // Could not find suitable conversion, so return Void to indicate not found
         return Void.TYPE;
     }
 
+    private void putNegative(TypeConverterDispatchTable table, Class<?> toType, Class<?> fromType, Object marker) {
+        if (!table.putNegative(toType, fromType, marker) && table == dispatchTable) {
+            // the negative cache is full so start over with a table precomputed from the known type mappings
+            dispatchTable = new TypeConverterDispatchTable(MAX_NEGATIVE_CACHE_SIZE, typeMappings);
+            dispatchTable.putNegative(toType, fromType, marker);
+        }
+    }
+
+    /**
+     * Resets the dispatch table, which must be done whenever the type converters are changed.
+     */
+    protected void resetDispatchTable() {
+        dispatchTable = new TypeConverterDispatchTable(MAX_NEGATIVE_CACHE_SIZE);
+    }
+
+    /**
+     * Precomputes the dispatch table from the known type mappings, which should be done
+     * when the type converters has been loaded on startup.
+     */
+    protected void buildDispatchTable() {
+        dispatchTable = new TypeConverterDispatchTable(MAX_NEGATIVE_CACHE_SIZE, typeMappings);
+    }
+
     @Override
     public void addTypeConverter(Class<?> toType, Class<?> fromType, TypeConverter typeConverter) {
         log.trace("Adding type converter: {}", typeConverter);
@@ -436,8 +490,8 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
 
             if (add) {
                 typeMappings.put(key, typeConverter);
-                // remove any previous misses, as we added the new type converter
-                misses.remove(key);
+                // remove any previous resolved converters and misses, as we added the new type converter
+                resetDispatchTable();
             }
         }
     }
@@ -461,7 +515,7 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         TypeConverter converter = typeMappings.remove(key);
         if (converter != null) {
             typeMappings.remove(key);
-            misses.remove(key);
+            resetDispatchTable();
         }
         return converter != null;
     }
@@ -473,6 +527,8 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         // add in top of fallback as the toString() fallback will nearly always be able to convert
         // the last one which is add to the FallbackTypeConverter will be called at the first place
         fallbackConverters.add(0, new FallbackTypeConverter(typeConverter, canPromote));
+        // a pair which could not be converted before may be converted by the new fallback
+        resetDispatchTable();
         if (typeConverter instanceof TypeConverterAware) {
             TypeConverterAware typeConverterAware = (TypeConverterAware) typeConverter;
             typeConverterAware.setTypeConverter(this);
@@ -703,12 +759,12 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         // log utilization statistics when stopping, including mappings
         if (statistics.isStatisticsEnabled()) {
             String info = statistics.toString();
-            info += String.format(" mappings[total=%s, misses=%s]", typeMappings.size(), misses.size());
+            info += String.format(" mappings[total=%s, misses=%s]", typeMappings.size(), dispatchTable.getNegativeSize());
             log.info(info);
         }
 
         typeMappings.clear();
-        misses.clear();
+        resetDispatchTable();
         statistics.reset();
     }
 
@@ -749,6 +805,16 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
             return failedCounter.longValue();
         }
 
+        @Override
+        public long getDispatchHitCounter() {
+            return dispatchHitCounter.longValue();
+        }
+
+        @Override
+        public long getNegativeCacheHitCounter() {
+            return negativeHitCounter.longValue();
+        }
+
         @Override
         public void reset() {
             noopCounter.reset();
@@ -757,6 +823,8 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
             baseHitCounter.reset();
             missCounter.reset();
             failedCounter.reset();
+            dispatchHitCounter.reset();
+            negativeHitCounter.reset();
         }
 
         @Override
@@ -771,8 +839,9 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
 
         @Override
         public String toString() {
-            return String.format("TypeConverterRegistry utilization[noop=%s, attempts=%s, hits=%s, baseHits=%s, misses=%s, failures=%s]",
-                    getNoopCounter(), getAttemptCounter(), getHitCounter(), getBaseHitCounter(), getMissCounter(), getFailedCounter());
+            return String.format("TypeConverterRegistry utilization[noop=%s, attempts=%s, hits=%s, baseHits=%s, dispatchHits=%s, misses=%s,"
+                    + " negativeCacheHits=%s, failures=%s]", getNoopCounter(), getAttemptCounter(), getHitCounter(), getBaseHitCounter(),
+                    getDispatchHitCounter(), getMissCounter(), getNegativeCacheHitCounter(), getFailedCounter());
         }
     }
 
@@ -65,6 +65,9 @@ public class DefaultTypeConverter extends BaseTypeConverterRegistry {
             // report how many type converters we have loaded
             log.info("Type converters loaded (core: {}, classpath: {})", core, additional);
         }
+
+        // precompute the dispatch table now the type converters has been loaded
+        buildDispatchTable();
     }
 
 }
@@ -0,0 +1,143 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.converter;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.TypeConverter;
+
+/**
+ * A lock-free dispatch table which caches the outcome of resolving a type converter
+ * for a given from/to type pair, keyed by class identity.
+ * <p/>
+ * The table holds the resolved converter (including converters found by walking the
+ * super types and interfaces of the from type) so the registry does not have to allocate
+ * a lookup key and search the type mappings on every conversion. It also holds a bounded
+ * negative cache of pairs which have no direct converter, or which cannot be converted at all.
+ * <p/>
+ * The outcomes are stored using {@link ClassValue}s on the from and to types, so the table does not keep
+ * a strong reference to the classes, as the classes may be un-deployed at runtime (such as in OSGi).
+ * <p/>
+ * A table is never cleared, instead the registry replaces it with a new table whenever
+ * its type converters are changed, which ensures that a concurrent conversion which resolved
+ * a converter from the old state cannot store a stale outcome in the new table.
+ */
+final class TypeConverterDispatchTable {
+
+    /**
+     * Marker for a pair which has no direct type converter, but which may be converted by a fallback converter
+     */
+    static final Object NO_CONVERTER = new Object();
+
+    /**
+     * Marker for a pair which cannot be converted
+     */
+    static final Object MISS = new Object();
+
+    private final ClassValue<Targets> table = new TargetsClassValue();
+    private final AtomicInteger negativeSize = new AtomicInteger();
+    private final int maxNegativeSize;
+
+    TypeConverterDispatchTable(int maxNegativeSize) {
+        this.maxNegativeSize = maxNegativeSize;
+    }
+
+    /**
+     * Creates a table which is precomputed from the given type mappings.
+     */
+    TypeConverterDispatchTable(int maxNegativeSize, Map<BaseTypeConverterRegistry.TypeMapping, TypeConverter> typeMappings) {
+        this(maxNegativeSize);
+        for (Map.Entry<BaseTypeConverterRegistry.TypeMapping, TypeConverter> entry : typeMappings.entrySet()) {
+            Class<?> fromType = entry.getKey().getFromType();
+            if (fromType != null) {
+                put(entry.getKey().getToType(), fromType, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Gets the cached outcome for the given pair.
+     *
+     * @return the {@link TypeConverter}, {@link #NO_CONVERTER}, {@link #MISS} or <tt>null</tt> if not cached
+     */
+    Object get(Class<?> toType, Class<?> fromType) {
+        return slot(toType, fromType).value;
+    }
+
+    void put(Class<?> toType, Class<?> fromType, TypeConverter converter) {
+        slot(toType, fromType).value = converter;
+    }
+
+    /**
+     * Caches a negative outcome ({@link #NO_CONVERTER} or {@link #MISS}) for the given pair.
+     *
+     * @return <tt>false</tt> if the negative cache is full and the outcome was not cached
+     */
+    boolean putNegative(Class<?> toType, Class<?> fromType, Object marker) {
+        if (negativeSize.get() >= maxNegativeSize) {
+            return false;
+        }
+        Slot slot = slot(toType, fromType);
+        Object old = slot.value;
+        slot.value = marker;
+        if (old != NO_CONVERTER && old != MISS) {
+            negativeSize.incrementAndGet();
+        }
+        return true;
+    }
+
+    /**
+     * Number of cached negative outcomes
+     */
+    int getNegativeSize() {
+        return negativeSize.get();
+    }
+
+    private Slot slot(Class<?> toType, Class<?> fromType) {
+        return table.get(fromType).slots.get(toType);
+    }
+
+    /**
+     * The outcomes for a from type, which are stored on the to types.
+     */
+    private static final class Targets {
+        private final ClassValue<Slot> slots = new SlotClassValue();
+    }
+
+    /**
+     * The outcome for a from/to type pair.
+     */
+    private static final class Slot {
+        private volatile Object value;
+    }
+
+    private static final class TargetsClassValue extends ClassValue<Targets> {
+        @Override
+        protected Targets computeValue(Class<?> type) {
+            return new Targets();
+        }
+    }
+
+    private static final class SlotClassValue extends ClassValue<Slot> {
+        @Override
+        protected Slot computeValue(Class<?> type) {
+            return new Slot();
+        }
+    }
+
+}
@@ -453,7 +453,8 @@ public class SimplePredicateParser extends BaseSimpleParser {
         for (SimpleNode node : nodes) {
             Expression exp = node.createExpression(expression);
             if (exp != null) {
-                Predicate predicate = ExpressionToPredicateAdapter.toPredicate(exp);
+                // the boolean operators are already predicates which we can use as-is
+                Predicate predicate = exp instanceof Predicate ? (Predicate) exp : ExpressionToPredicateAdapter.toPredicate(exp);
                 answer.add(predicate);
             }
         }
@@ -115,10 +115,41 @@ public class BinaryExpression extends BaseSimpleNode {
         throw new SimpleParserException("Unknown binary operator " + operator, token.getIndex());
     }
 
+    /**
+     * Gets the text of the given node if its a literal (optionally quoted) without any functions,
+     * which allows to build the predicate once instead of for every exchange.
+     *
+     * @return the text, or <tt>null</tt> if the node is not a literal
+     */
+    private static String getLiteralText(SimpleNode node) {
+        if (node instanceof LiteralNode) {
+            return ((LiteralNode) node).getText();
+        }
+
+        CompositeNodes block = null;
+        if (node instanceof SingleQuoteStart) {
+            block = ((SingleQuoteStart) node).getBlock();
+        } else if (node instanceof DoubleQuoteStart) {
+            block = ((DoubleQuoteStart) node).getBlock();
+        }
+        if (block == null) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (SimpleNode child : block.getChildren()) {
+            if (!(child instanceof LiteralNode)) {
+                return null;
+            }
+            sb.append(((LiteralNode) child).getText());
+        }
+        return sb.toString();
+    }
+
     private Expression createIsExpression(final String expression, final Expression leftExp, final Expression rightExp) {
-        return new Expression() {
+        return new PredicateExpression() {
             @Override
-            public <T> T evaluate(Exchange exchange, Class<T> type) {
+            public boolean matches(Exchange exchange) {
                 Predicate predicate;
                 String name = rightExp.evaluate(exchange, String.class);
                 if (name == null || "null".equals(name)) {
@@ -133,9 +164,7 @@ public class BinaryExpression extends BaseSimpleNode {
                 if (operator == BinaryOperatorType.NOT_IS) {
                     predicate = PredicateBuilder.not(predicate);
                 }
-                boolean answer = predicate.matches(exchange);
-
-                return exchange.getContext().getTypeConverter().convertTo(type, answer);
+                return predicate.matches(exchange);
             }
 
             @Override
@@ -146,16 +175,25 @@ public class BinaryExpression extends BaseSimpleNode {
     }
 
     private Expression createRegexExpression(final Expression leftExp, final Expression rightExp) {
-        return new Expression() {
+        String text = getLiteralText(right);
+        if (text != null) {
+            // the pattern is a literal so we only need to compile it once
+            Predicate predicate = PredicateBuilder.regex(leftExp, text);
+            if (operator == BinaryOperatorType.NOT_REGEX) {
+                predicate = PredicateBuilder.not(predicate);
+            }
+            return createExpression(leftExp, rightExp, predicate);
+        }
+
+        return new PredicateExpression() {
             @Override
-            public <T> T evaluate(Exchange exchange, Class<T> type) {
+            public boolean matches(Exchange exchange) {
                 // reg ex should use String pattern, so we evaluate the right hand side as a String
                 Predicate predicate = PredicateBuilder.regex(leftExp, rightExp.evaluate(exchange, String.class));
                 if (operator == BinaryOperatorType.NOT_REGEX) {
                     predicate = PredicateBuilder.not(predicate);
                 }
-                boolean answer = predicate.matches(exchange);
-                return exchange.getContext().getTypeConverter().convertTo(type, answer);
+                return predicate.matches(exchange);
             }
 
             @Override
@@ -166,25 +204,16 @@ public class BinaryExpression extends BaseSimpleNode {
     }
 
     private Expression createInExpression(final Expression leftExp, final Expression rightExp) {
-        return new Expression() {
+        String text = getLiteralText(right);
+        if (text != null) {
+            // the values is a literal so we only need to build the predicate once
+            return createExpression(leftExp, rightExp, createInPredicate(leftExp, text));
+        }
+
+        return new PredicateExpression() {
             @Override
-            public <T> T evaluate(Exchange exchange, Class<T> type) {
-                // okay the in operator is a bit more complex as we need to build a list of values
-                // from the right hand side expression.
-                // each element on the right hand side must be separated by comma (default for create iterator)
-                Iterator<Object> it = ObjectHelper.createIterator(rightExp.evaluate(exchange, Object.class));
-                List<Object> values = new ArrayList<Object>();
-                while (it.hasNext()) {
-                    values.add(it.next());
-                }
-                // then reuse value builder to create the in predicate with the list of values
-                ValueBuilder vb = new ValueBuilder(leftExp);
-                Predicate predicate = vb.in(values.toArray());
-                if (operator == BinaryOperatorType.NOT_IN) {
-                    predicate = PredicateBuilder.not(predicate);
-                }
-                boolean answer = predicate.matches(exchange);
-                return exchange.getContext().getTypeConverter().convertTo(type, answer);
+            public boolean matches(Exchange exchange) {
+                return createInPredicate(leftExp, rightExp.evaluate(exchange, Object.class)).matches(exchange);
             }
 
             @Override
@@ -194,31 +223,36 @@ public class BinaryExpression extends BaseSimpleNode {
         };
     }
 
+    private Predicate createInPredicate(final Expression leftExp, Object right) {
+        // okay the in operator is a bit more complex as we need to build a list of values
+        // from the right hand side expression.
+        // each element on the right hand side must be separated by comma (default for create iterator)
+        Iterator<Object> it = ObjectHelper.createIterator(right);
+        List<Object> values = new ArrayList<Object>();
+        while (it.hasNext()) {
+            values.add(it.next());
+        }
+        // then reuse value builder to create the in predicate with the list of values
+        ValueBuilder vb = new ValueBuilder(leftExp);
+        Predicate predicate = vb.in(values.toArray());
+        if (operator == BinaryOperatorType.NOT_IN) {
+            predicate = PredicateBuilder.not(predicate);
+        }
+        return predicate;
+    }
+
     private Expression createRangeExpression(final String expression, final Expression leftExp, final Expression rightExp) {
-        return new Expression() {
-            @Override
-            public <T> T evaluate(Exchange exchange, Class<T> type) {
-                Predicate predicate;
+        String text = getLiteralText(right);
+        if (text != null && RANGE_PATTERN.matcher(text).matches()) {
+            // the range is a literal so we only need to build the predicate once
+            return createExpression(leftExp, rightExp, createRangePredicate(expression, leftExp, text));
+        }
 
+        return new PredicateExpression() {
+            @Override
+            public boolean matches(Exchange exchange) {
                 String range = rightExp.evaluate(exchange, String.class);
-                Matcher matcher = RANGE_PATTERN.matcher(range);
-                if (matcher.matches()) {
-                    // wrap as constant expression for the from and to values
-                    Expression from = ExpressionBuilder.constantExpression(matcher.group(1));
-                    Expression to = ExpressionBuilder.constantExpression(matcher.group(3));
-
-                    // build a compound predicate for the range
-                    predicate = PredicateBuilder.isGreaterThanOrEqualTo(leftExp, from);
-                    predicate = PredicateBuilder.and(predicate, PredicateBuilder.isLessThanOrEqualTo(leftExp, to));
-                } else {
-                    throw new SimpleIllegalSyntaxException(expression, right.getToken().getIndex(), operator + " operator is not valid. Valid syntax:'from..to' (where from and to are numbers).");
-                }
-                if (operator == BinaryOperatorType.NOT_RANGE) {
-                    predicate = PredicateBuilder.not(predicate);
-                }
-
-                boolean answer = predicate.matches(exchange);
-                return exchange.getContext().getTypeConverter().convertTo(type, answer);
+                return createRangePredicate(expression, leftExp, range).matches(exchange);
             }
 
             @Override
@@ -228,12 +262,32 @@ public class BinaryExpression extends BaseSimpleNode {
         };
     }
 
+    private Predicate createRangePredicate(final String expression, final Expression leftExp, String range) {
+        Predicate predicate;
+
+        Matcher matcher = RANGE_PATTERN.matcher(range);
+        if (matcher.matches()) {
+            // wrap as constant expression for the from and to values
+            Expression from = ExpressionBuilder.constantExpression(matcher.group(1));
+            Expression to = ExpressionBuilder.constantExpression(matcher.group(3));
+
+            // build a compound predicate for the range
+            predicate = PredicateBuilder.isGreaterThanOrEqualTo(leftExp, from);
+            predicate = PredicateBuilder.and(predicate, PredicateBuilder.isLessThanOrEqualTo(leftExp, to));
+        } else {
+            throw new SimpleIllegalSyntaxException(expression, right.getToken().getIndex(), operator + " operator is not valid. Valid syntax:'from..to' (where from and to are numbers).");
+        }
+        if (operator == BinaryOperatorType.NOT_RANGE) {
+            predicate = PredicateBuilder.not(predicate);
+        }
+        return predicate;
+    }
+
     private Expression createExpression(final Expression left, final Expression right, final Predicate predicate) {
-        return new Expression() {
+        return new PredicateExpression() {
             @Override
-            public <T> T evaluate(Exchange exchange, Class<T> type) {
-                boolean answer = predicate.matches(exchange);
-                return exchange.getContext().getTypeConverter().convertTo(type, answer);
+            public boolean matches(Exchange exchange) {
+                return predicate.matches(exchange);
             }
 
             @Override
@@ -76,15 +76,21 @@ public class LogicalExpression extends BaseSimpleNode {
         throw new SimpleParserException("Unknown logical operator " + operator, token.getIndex());
     }
 
+    private static Predicate toPredicate(Expression expression) {
+        if (expression instanceof Predicate) {
+            return (Predicate) expression;
+        }
+        return ExpressionToPredicateAdapter.toPredicate(expression);
+    }
+
     private Expression createAndExpression(final Expression leftExp, final Expression rightExp) {
-        return new Expression() {
-            @Override
-            public <T> T evaluate(Exchange exchange, Class<T> type) {
-                Predicate predicate = ExpressionToPredicateAdapter.toPredicate(leftExp);
-                predicate = PredicateBuilder.and(predicate, ExpressionToPredicateAdapter.toPredicate(rightExp));
+        // create the predicate once as it is not depending on the exchange
+        final Predicate predicate = PredicateBuilder.and(toPredicate(leftExp), toPredicate(rightExp));
 
-                boolean answer = predicate.matches(exchange);
-                return exchange.getContext().getTypeConverter().convertTo(type, answer);
+        return new PredicateExpression() {
+            @Override
+            public boolean matches(Exchange exchange) {
+                return predicate.matches(exchange);
             }
 
             @Override
@@ -95,14 +101,13 @@ public class LogicalExpression extends BaseSimpleNode {
     }
 
     private Expression createOrExpression(final Expression leftExp, final Expression rightExp) {
-        return new Expression() {
-            @Override
-            public <T> T evaluate(Exchange exchange, Class<T> type) {
-                Predicate predicate = ExpressionToPredicateAdapter.toPredicate(leftExp);
-                predicate = PredicateBuilder.or(predicate, ExpressionToPredicateAdapter.toPredicate(rightExp));
+        // create the predicate once as it is not depending on the exchange
+        final Predicate predicate = PredicateBuilder.or(toPredicate(leftExp), toPredicate(rightExp));
 
-                boolean answer = predicate.matches(exchange);
-                return exchange.getContext().getTypeConverter().convertTo(type, answer);
+        return new PredicateExpression() {
+            @Override
+            public boolean matches(Exchange exchange) {
+                return predicate.matches(exchange);
             }
 
             @Override
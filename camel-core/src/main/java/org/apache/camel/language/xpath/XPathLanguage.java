@@ -19,6 +19,8 @@ package org.apache.camel.language.xpath;
 import javax.xml.namespace.QName;
 import javax.xml.xpath.XPathFactory;
 
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
 import org.apache.camel.Expression;
 import org.apache.camel.Predicate;
 import org.apache.camel.builder.xml.XPathBuilder;
@@ -33,6 +35,9 @@ public class XPathLanguage extends LanguageSupport {
     private Boolean useSaxon;
     private String objectModelUri;
     private Boolean threadSafety;
+    private Integer poolSize;
+    private Boolean preCompile;
+    private Boolean streaming;
 
     public Predicate createPredicate(String expression) {
         expression = loadResource(expression);
@@ -94,6 +99,52 @@ public class XPathLanguage extends LanguageSupport {
         this.threadSafety = threadSafety;
     }
 
+    public Integer getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * The maximum number of compiled expressions each XPath builder keeps in its pool
+     */
+    public void setPoolSize(Integer poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public Boolean getPreCompile() {
+        return preCompile;
+    }
+
+    /**
+     * Whether to compile the XPath expressions when they are started, where the expressions in the routes
+     * are started together with the routes, so the first messages do not have to compile the expressions.
+     * <p/>
+     * If not configured then the global option {@link Exchange#XML_PRE_COMPILE} on the {@link CamelContext} is used.
+     */
+    public void setPreCompile(Boolean preCompile) {
+        this.preCompile = preCompile;
+    }
+
+    public Boolean getStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Whether to evaluate predicates using a streaming StAX based evaluator, which stops reading the message
+     * as soon as the outcome is decided. Expressions which are not supported by the streaming evaluator
+     * are evaluated using the XPath engine.
+     */
+    public void setStreaming(Boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    protected boolean isPreCompile() {
+        if (preCompile != null) {
+            return preCompile;
+        }
+        CamelContext context = getCamelContext();
+        return context != null && "true".equalsIgnoreCase(context.getGlobalOption(Exchange.XML_PRE_COMPILE));
+    }
+
     protected void configureBuilder(XPathBuilder builder) {
         if (threadSafety != null) {
             builder.setThreadSafety(threadSafety);
@@ -101,6 +152,12 @@ public class XPathLanguage extends LanguageSupport {
         if (resultType != null) {
             builder.setResultQName(resultType);
         }
+        if (poolSize != null) {
+            builder.setPoolSize(poolSize);
+        }
+        if (streaming != null) {
+            builder.setStreaming(streaming);
+        }
 
         if (isUseSaxon()) {
             builder.enableSaxon();
@@ -112,6 +169,12 @@ public class XPathLanguage extends LanguageSupport {
                 builder.setObjectModelUri(objectModelUri);
             }
         }
+
+        // the builders used in routes are added as services of the route, so they are started
+        // (and thereby compiled) when the route starts, and removed when the route is removed
+        if (isPreCompile()) {
+            builder.setPreCompile(true);
+        }
     }
 
     public boolean isSingleton() {
@@ -56,6 +56,16 @@ public class CompositePerformanceCounter implements PerformanceCounter {
         }
     }
 
+    @Override
+    public void completedExchange(Exchange exchange, long time, long nanos) {
+        if (counter1.isStatisticsEnabled()) {
+            counter1.completedExchange(exchange, time, nanos);
+        }
+        if (counter2.isStatisticsEnabled()) {
+            counter2.completedExchange(exchange, time, nanos);
+        }
+    }
+
     @Override
     public void failedExchange(Exchange exchange) {
         if (counter1.isStatisticsEnabled()) {
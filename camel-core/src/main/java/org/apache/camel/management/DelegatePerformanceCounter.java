@@ -59,6 +59,12 @@ public class DelegatePerformanceCounter implements PerformanceCounter {
         }
     }
 
+    public void completedExchange(Exchange exchange, long time, long nanos) {
+        if (counter != null) {
+            counter.completedExchange(exchange, time, nanos);
+        }
+    }
+
     public void failedExchange(Exchange exchange) {
         counter.failedExchange(exchange);
     }
@@ -78,7 +78,7 @@ public class InstrumentationProcessor extends DelegateAsyncProcessor implements
                 try {
                     // record end time
                     if (watch != null) {
-                        recordTime(exchange, watch.taken());
+                        recordTime(exchange, watch);
                     }
                 } finally {
                     // and let the original callback know we are done as well
@@ -97,13 +97,14 @@ public class InstrumentationProcessor extends DelegateAsyncProcessor implements
         counter.processExchange(exchange);
     }
 
-    protected void recordTime(Exchange exchange, long duration) {
+    protected void recordTime(Exchange exchange, StopWatch watch) {
+        long duration = watch.taken();
         if (LOG.isTraceEnabled()) {
             LOG.trace("{}Recording duration: {} millis for exchange: {}", new Object[]{type != null ? type + ": " : "", duration, exchange});
         }
 
         if (!exchange.isFailed() && exchange.getException() == null) {
-            counter.completedExchange(exchange, duration);
+            counter.completedExchange(exchange, duration, watch.takenNanos());
         } else {
             counter.failedExchange(exchange);
         }
@@ -131,7 +132,7 @@ public class InstrumentationProcessor extends DelegateAsyncProcessor implements
     public void after(Exchange exchange, StopWatch watch) throws Exception {
         // record end time
         if (watch != null) {
-            recordTime(exchange, watch.taken());
+            recordTime(exchange, watch);
         }
     }
 
@@ -17,13 +17,21 @@
 package org.apache.camel.management.mbean;
 
 import java.util.Set;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.TabularData;
+import javax.management.openmbean.TabularDataSupport;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.api.management.mbean.CamelOpenMBeanTypes;
 import org.apache.camel.api.management.mbean.ManagedAggregateProcessorMBean;
 import org.apache.camel.model.AggregateDefinition;
 import org.apache.camel.processor.aggregate.AggregateProcessor;
+import org.apache.camel.processor.aggregate.AggregateProcessorStatistics;
 import org.apache.camel.spi.ManagementStrategy;
+import org.apache.camel.util.ObjectHelper;
 
 /**
  * @version 
@@ -94,6 +102,10 @@ public class ManagedAggregateProcessor extends ManagedProcessor implements Manag
         return processor.getCompletionTimeoutCheckerInterval();
     }
 
+    public boolean isCompletionTimeoutTimingWheel() {
+        return processor.isCompletionTimeoutTimingWheel();
+    }
+
     public int getCompletionSize() {
         return processor.getCompletionSize();
     }
@@ -134,6 +146,10 @@ public class ManagedAggregateProcessor extends ManagedProcessor implements Manag
         return processor.isOptimisticLocking();
     }
 
+    public int getLockStripes() {
+        return processor.getLockStripes();
+    }
+
     public boolean isEagerCheckCompletion() {
         return processor.isEagerCheckCompletion();
     }
@@ -240,6 +256,22 @@ public class ManagedAggregateProcessor extends ManagedProcessor implements Manag
         return processor.getStatistics().getCompletedByForce();
     }
 
+    public TabularData lockStripeStatistics() {
+        try {
+            TabularData answer = new TabularDataSupport(CamelOpenMBeanTypes.aggregateLockStripesTabularType());
+            for (AggregateProcessorStatistics.LockStripeStatistics stripe : processor.getStatistics().getLockStripeStatistics()) {
+                CompositeType ct = CamelOpenMBeanTypes.aggregateLockStripesCompositeType();
+                CompositeData data = new CompositeDataSupport(ct,
+                        new String[]{"index", "totalIn", "totalCompleted", "contended", "pendingTimeouts"},
+                        new Object[]{stripe.getIndex(), stripe.getTotalIn(), stripe.getTotalCompleted(), stripe.getContended(), stripe.getPendingTimeouts()});
+                answer.put(data);
+            }
+            return answer;
+        } catch (Exception e) {
+            throw ObjectHelper.wrapRuntimeCamelException(e);
+        }
+    }
+
     public void resetStatistics() {
         processor.getStatistics().reset();
     }
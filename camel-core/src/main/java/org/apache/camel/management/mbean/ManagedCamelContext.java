@@ -53,6 +53,7 @@ import org.apache.camel.api.management.mbean.CamelOpenMBeanTypes;
 import org.apache.camel.api.management.mbean.ManagedCamelContextMBean;
 import org.apache.camel.api.management.mbean.ManagedProcessorMBean;
 import org.apache.camel.api.management.mbean.ManagedRouteMBean;
+import org.apache.camel.impl.PooledExchangeFactory;
 import org.apache.camel.model.ModelCamelContext;
 import org.apache.camel.model.ModelHelper;
 import org.apache.camel.model.RouteDefinition;
@@ -148,6 +149,51 @@ public class ManagedCamelContext extends ManagedPerformanceCounter implements Ti
         return context.getHeadersMapFactory().getClass().getName();
     }
 
+    public String getExchangeFactoryClassName() {
+        return context.getExchangeFactory().getClass().getName();
+    }
+
+    public boolean isExchangeFactoryPooled() {
+        return context.getExchangeFactory().isPooled();
+    }
+
+    public Long getExchangeFactoryCreatedCounter() {
+        PooledExchangeFactory factory = getPooledExchangeFactory();
+        return factory != null ? factory.getCreatedCounter() : null;
+    }
+
+    public Long getExchangeFactoryAcquiredCounter() {
+        PooledExchangeFactory factory = getPooledExchangeFactory();
+        return factory != null ? factory.getAcquiredCounter() : null;
+    }
+
+    public Long getExchangeFactoryReleasedCounter() {
+        PooledExchangeFactory factory = getPooledExchangeFactory();
+        return factory != null ? factory.getReleasedCounter() : null;
+    }
+
+    public Long getExchangeFactoryDiscardedCounter() {
+        PooledExchangeFactory factory = getPooledExchangeFactory();
+        return factory != null ? factory.getDiscardedCounter() : null;
+    }
+
+    public Long getExchangeFactoryDoubleReleasedCounter() {
+        PooledExchangeFactory factory = getPooledExchangeFactory();
+        return factory != null ? factory.getDoubleReleasedCounter() : null;
+    }
+
+    public Long getExchangeFactoryInUseCount() {
+        PooledExchangeFactory factory = getPooledExchangeFactory();
+        return factory != null ? factory.getInUseCount() : null;
+    }
+
+    private PooledExchangeFactory getPooledExchangeFactory() {
+        if (context.getExchangeFactory() instanceof PooledExchangeFactory) {
+            return (PooledExchangeFactory) context.getExchangeFactory();
+        }
+        return null;
+    }
+
     @Deprecated
     public Map<String, String> getProperties() {
         return getGlobalOptions();
@@ -269,6 +315,10 @@ public class ManagedCamelContext extends ManagedPerformanceCounter implements Ti
         return context.isAllowUseOriginalMessage();
     }
 
+    public boolean isInflightRepositoryBrowseEnabled() {
+        return context.isInflightRepositoryBrowseEnabled();
+    }
+
     public boolean isMessageHistory() {
         return context.isMessageHistory() != null ? context.isMessageHistory() : false;
     }
@@ -800,6 +850,11 @@ public class ManagedCamelContext extends ManagedPerformanceCounter implements Ti
     public void reset(boolean includeRoutes) throws Exception {
         reset();
 
+        PooledExchangeFactory factory = getPooledExchangeFactory();
+        if (factory != null) {
+            factory.resetStatistics();
+        }
+
         // and now reset all routes for this route
         if (includeRoutes) {
             MBeanServer server = getContext().getManagementStrategy().getManagementAgent().getMBeanServer();
@@ -484,4 +484,44 @@ public class ManagedErrorHandler implements ManagedErrorHandlerMBean {
         return redelivery.getPendingRedeliveryCount();
     }
 
+    public String getRouteId() {
+        return routeContext.getRoute() != null ? routeContext.getRoute().getId() : null;
+    }
+
+    public Integer getMaximumPendingRedeliveries() {
+        if (!isSupportRedelivery()) {
+            return null;
+        }
+
+        RedeliveryErrorHandler redelivery = (RedeliveryErrorHandler) errorHandler;
+        return redelivery.getMaximumPendingRedeliveries();
+    }
+
+    public void setMaximumPendingRedeliveries(Integer maximum) {
+        if (!isSupportRedelivery()) {
+            throw new IllegalArgumentException("This error handler does not support redelivery");
+        }
+
+        RedeliveryErrorHandler redelivery = (RedeliveryErrorHandler) errorHandler;
+        redelivery.setMaximumPendingRedeliveries(maximum);
+    }
+
+    public Long getRejectedRedeliveryCount() {
+        if (!isSupportRedelivery()) {
+            return null;
+        }
+
+        RedeliveryErrorHandler redelivery = (RedeliveryErrorHandler) errorHandler;
+        return redelivery.getRejectedRedeliveryCount();
+    }
+
+    public Boolean getUseRedeliveryTimingWheel() {
+        if (!isSupportRedelivery()) {
+            return null;
+        }
+
+        RedeliveryErrorHandler redelivery = (RedeliveryErrorHandler) errorHandler;
+        return redelivery.isUseRedeliveryTimingWheel();
+    }
+
 }
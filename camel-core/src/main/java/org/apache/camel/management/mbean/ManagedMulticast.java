@@ -63,4 +63,39 @@ public class ManagedMulticast extends ManagedProcessor implements ManagedMultica
     public Long getTimeout() {
         return processor.getTimeout();
     }
+
+    @Override
+    public Integer getMaxInFlight() {
+        return processor.getMaxInFlight();
+    }
+
+    @Override
+    public Boolean isAggregateInOrder() {
+        return processor.isAggregateInOrder();
+    }
+
+    @Override
+    public Integer getInFlight() {
+        return processor.getInFlight();
+    }
+
+    @Override
+    public Integer getPeakInFlight() {
+        return processor.getPeakInFlight();
+    }
+
+    @Override
+    public Long getInFlightWaitCounter() {
+        return processor.getInFlightWaitCounter();
+    }
+
+    @Override
+    public Long getInFlightWaitTime() {
+        return processor.getInFlightWaitTime();
+    }
+
+    @Override
+    public void resetInFlightStatistics() {
+        processor.resetInFlightStatistics();
+    }
 }
@@ -18,6 +18,7 @@ package org.apache.camel.management.mbean;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.camel.Exchange;
 import org.apache.camel.api.management.ManagedResource;
@@ -31,6 +32,8 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
 
     public static final String TIMESTAMP_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
 
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
     private Statistic exchangesCompleted;
     private Statistic exchangesFailed;
     private Statistic exchangesInflight;
@@ -43,6 +46,8 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
     private Statistic lastProcessingTime;
     private Statistic deltaProcessingTime;
     private Statistic meanProcessingTime;
+    // the histogram is only in use with extended statistics, as it takes up 16kb per counter
+    private StatisticHistogram processingTimeHistogram;
     private Statistic firstExchangeCompletedTimestamp;
     private String firstExchangeCompletedExchangeId;
     private Statistic firstExchangeFailureTimestamp;
@@ -69,6 +74,10 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
         this.lastProcessingTime = new StatisticValue();
         this.deltaProcessingTime = new StatisticDelta();
         this.meanProcessingTime = new StatisticValue();
+        if (strategy != null && strategy.getManagementAgent() != null
+                && strategy.getManagementAgent().getStatisticsLevel().isExtended()) {
+            this.processingTimeHistogram = new StatisticHistogram();
+        }
 
         this.firstExchangeCompletedTimestamp = new StatisticValue();
         this.firstExchangeFailureTimestamp = new StatisticValue();
@@ -91,6 +100,9 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
         lastProcessingTime.reset();
         deltaProcessingTime.reset();
         meanProcessingTime.reset();
+        if (processingTimeHistogram != null) {
+            processingTimeHistogram.reset();
+        }
         firstExchangeCompletedTimestamp.reset();
         firstExchangeCompletedExchangeId = null;
         firstExchangeFailureTimestamp.reset();
@@ -149,6 +161,48 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
         return deltaProcessingTime.getValue();
     }
 
+    public long getProcessingTimeP50() {
+        return processingTimePercentile(50);
+    }
+
+    public long getProcessingTimeP90() {
+        return processingTimePercentile(90);
+    }
+
+    public long getProcessingTimeP99() {
+        return processingTimePercentile(99);
+    }
+
+    public long getProcessingTimeP999() {
+        return processingTimePercentile(99.9);
+    }
+
+    public long processingTimePercentile(double percentile) {
+        return processingTimeHistogram != null ? processingTimeHistogram.getValueAtPercentile(percentile) : 0;
+    }
+
+    public String dumpProcessingTimeIntervalAsXml() {
+        if (processingTimeHistogram == null) {
+            return "<processingTimeInterval/>";
+        }
+        StatisticHistogram.Snapshot snapshot = processingTimeHistogram.intervalSnapshot();
+        long[] percentiles = snapshot.getValuesAtPercentiles(PERCENTILES);
+        StringBuilder sb = new StringBuilder();
+        sb.append("<processingTimeInterval ");
+        sb.append(String.format("exchangesCompleted=\"%s\"", snapshot.getCount()));
+        appendPercentiles(sb, percentiles);
+        sb.append(String.format(" maxProcessingTime=\"%s\"", snapshot.getMaxValue()));
+        sb.append("/>");
+        return sb.toString();
+    }
+
+    private static void appendPercentiles(StringBuilder sb, long[] percentiles) {
+        sb.append(String.format(" processingTimeP50=\"%s\"", percentiles[0]));
+        sb.append(String.format(" processingTimeP90=\"%s\"", percentiles[1]));
+        sb.append(String.format(" processingTimeP99=\"%s\"", percentiles[2]));
+        sb.append(String.format(" processingTimeP999=\"%s\"", percentiles[3]));
+    }
+
     public Date getLastExchangeCompletedTimestamp() {
         long value = lastExchangeCompletedTimestamp.getValue();
         return value > 0 ? new Date(value) : null;
@@ -236,6 +290,14 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
         meanProcessingTime.updateValue(mean);
     }
 
+    public void completedExchange(Exchange exchange, long time, long nanos) {
+        completedExchange(exchange, time);
+        if (processingTimeHistogram != null) {
+            // the percentiles are recorded in micros
+            processingTimeHistogram.updateValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+        }
+    }
+
     public void failedExchange(Exchange exchange) {
         increment();
         exchangesFailed.increment();
@@ -275,6 +337,9 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
         sb.append(String.format(" lastProcessingTime=\"%s\"", lastProcessingTime.getValue()));
         sb.append(String.format(" deltaProcessingTime=\"%s\"", deltaProcessingTime.getValue()));
         sb.append(String.format(" meanProcessingTime=\"%s\"", meanProcessingTime.getValue()));
+        if (processingTimeHistogram != null) {
+            appendPercentiles(sb, processingTimeHistogram.snapshot().getValuesAtPercentiles(PERCENTILES));
+        }
 
         if (fullStats) {
             sb.append(String.format(" startTimestamp=\"%s\"", dateAsString(startTimestamp.getTime())));
@@ -125,6 +125,30 @@ public class ManagedStreamCachingStrategy extends ManagedService implements Mana
         return streamCachingStrategy.getStatistics().getCacheSpoolAverageSize();
     }
 
+    public boolean isPooled() {
+        return streamCachingStrategy.isPooled();
+    }
+
+    public long getPoolMaxSize() {
+        return streamCachingStrategy.getPoolMaxSize();
+    }
+
+    public long getPoolAllocatedCounter() {
+        return streamCachingStrategy.getStatistics().getPoolAllocatedCounter();
+    }
+
+    public long getPoolReusedCounter() {
+        return streamCachingStrategy.getStatistics().getPoolReusedCounter();
+    }
+
+    public long getPoolInUseSize() {
+        return streamCachingStrategy.getStatistics().getPoolInUseSize();
+    }
+
+    public long getPoolIdleSize() {
+        return streamCachingStrategy.getStatistics().getPoolIdleSize();
+    }
+
     public boolean isStatisticsEnabled() {
         return streamCachingStrategy.getStatistics().isStatisticsEnabled();
     }
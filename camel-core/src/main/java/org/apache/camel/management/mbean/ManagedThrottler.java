@@ -67,4 +67,12 @@ public class ManagedThrottler extends ManagedProcessor implements ManagedThrottl
     public Boolean isRejectExecution() {
         return throttler.isRejectExecution();
     }
+
+    public Boolean isTokenBucket() {
+        return throttler.isTokenBucket();
+    }
+
+    public int getCorrelationKeysSize() {
+        return throttler.getCorrelationKeysSize();
+    }
 }
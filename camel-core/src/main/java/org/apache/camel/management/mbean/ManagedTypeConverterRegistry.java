@@ -63,10 +63,18 @@ public class ManagedTypeConverterRegistry extends ManagedService implements Mana
         return registry.getStatistics().getBaseHitCounter();
     }
 
+    public long getDispatchHitCounter() {
+        return registry.getStatistics().getDispatchHitCounter();
+    }
+
     public long getMissCounter() {
         return registry.getStatistics().getMissCounter();
     }
 
+    public long getNegativeCacheHitCounter() {
+        return registry.getStatistics().getNegativeCacheHitCounter();
+    }
+
     public long getFailedCounter() {
         return registry.getStatistics().getFailedCounter();
     }
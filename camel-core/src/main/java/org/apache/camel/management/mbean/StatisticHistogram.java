@@ -0,0 +1,265 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management.mbean;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A statistic which records the distribution of the updated values in a histogram, so the value
+ * at a given percentile such as the 99th percentile can be computed.
+ * <p/>
+ * The histogram uses log-linear buckets in the same way as a HDR histogram, where each power of two
+ * is divided into 64 linear sub buckets, which gives a precision better than 2%. Values from zero up to
+ * 2^37 can be recorded, larger values are recorded as the largest value. Recording a value is lock-free
+ * and does not allocate any objects.
+ * <p/>
+ * Interval snapshots can be taken, which only includes the values recorded since the previous interval snapshot.
+ * The buckets takes up 16kb which are not allocated until the first value is recorded.
+ */
+public class StatisticHistogram extends Statistic {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+    private static final int MAX_VALUE_BITS = 37;
+    private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    private static final int BUCKETS = SUB_BUCKET_COUNT + (MAX_VALUE_BITS - SUB_BUCKET_BITS) * SUB_BUCKET_HALF_COUNT;
+
+    private volatile AtomicLongArray counts;
+    private final AtomicReference<long[]> intervalCounts = new AtomicReference<long[]>();
+
+    public void updateValue(long newValue) {
+        AtomicLongArray array = counts;
+        if (array == null) {
+            array = createCounts();
+        }
+        array.incrementAndGet(indexOf(newValue));
+    }
+
+    /**
+     * Number of recorded values
+     */
+    public long getValue() {
+        AtomicLongArray array = counts;
+        long answer = 0;
+        if (array != null) {
+            for (int i = 0; i < BUCKETS; i++) {
+                answer += array.get(i);
+            }
+        }
+        return answer;
+    }
+
+    @Override
+    public boolean isUpdated() {
+        return getValue() > 0;
+    }
+
+    /**
+     * Gets the value at the given percentile of all the recorded values, which is computed from the buckets
+     * without taking a snapshot. Use a {@link #snapshot()} to compute several percentiles of the same values.
+     *
+     * @param percentile the percentile such as <tt>99.9</tt>
+     * @return the value, or <tt>0</tt> if no values has been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        AtomicLongArray array = counts;
+        long count = getValue();
+        if (array == null || count == 0) {
+            return 0;
+        }
+        long target = targetOf(percentile, count);
+        long total = 0;
+        int highest = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long value = array.get(i);
+            total += value;
+            if (total >= target) {
+                return highestValueOf(i);
+            }
+            if (value > 0) {
+                highest = i;
+            }
+        }
+        // values was removed while computing, such as being reset
+        return highestValueOf(highest);
+    }
+
+    /**
+     * Takes a snapshot of all the recorded values.
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(copyCounts());
+    }
+
+    /**
+     * Takes a snapshot of the values recorded since the previous interval snapshot (or reset), and starts a new interval.
+     */
+    public Snapshot intervalSnapshot() {
+        long[] current = copyCounts();
+        long[] previous = intervalCounts.getAndSet(current);
+        if (previous == null) {
+            return new Snapshot(current);
+        }
+        long[] answer = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            long delta = current[i] - previous[i];
+            // the statistic may have been reset during the interval
+            answer[i] = delta >= 0 ? delta : current[i];
+        }
+        return new Snapshot(answer);
+    }
+
+    @Override
+    public String toString() {
+        return "" + getValue();
+    }
+
+    public void reset() {
+        AtomicLongArray array = counts;
+        if (array != null) {
+            for (int i = 0; i < BUCKETS; i++) {
+                array.set(i, 0);
+            }
+        }
+        intervalCounts.set(null);
+    }
+
+    private synchronized AtomicLongArray createCounts() {
+        if (counts == null) {
+            counts = new AtomicLongArray(BUCKETS);
+        }
+        return counts;
+    }
+
+    private long[] copyCounts() {
+        long[] answer = new long[BUCKETS];
+        AtomicLongArray array = counts;
+        if (array != null) {
+            for (int i = 0; i < BUCKETS; i++) {
+                answer[i] = array.get(i);
+            }
+        }
+        return answer;
+    }
+
+    static long targetOf(double percentile, long count) {
+        double p = Math.min(Math.max(percentile, 0), 100);
+        return Math.max(1, (long) Math.ceil(p / 100 * count));
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return value < 0 ? 0 : (int) value;
+        }
+        if (value > MAX_VALUE) {
+            value = MAX_VALUE;
+        }
+        // the values in each power of two above the sub bucket count are divided into the upper half of the sub buckets
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift) - SUB_BUCKET_HALF_COUNT;
+    }
+
+    static long highestValueOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+        return (subBucket << shift) + (1L << shift) - 1;
+    }
+
+    /**
+     * An immutable snapshot of the histogram.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+
+        private Snapshot(long[] counts) {
+            this.counts = counts;
+            long total = 0;
+            for (long value : counts) {
+                total += value;
+            }
+            this.count = total;
+        }
+
+        /**
+         * Number of values in the snapshot
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Gets the value at the given percentile, which is the highest value of the bucket the percentile falls into.
+         *
+         * @param percentile the percentile such as <tt>99.9</tt>
+         * @return the value, or <tt>0</tt> if the snapshot has no values
+         */
+        public long getValueAtPercentile(double percentile) {
+            return getValuesAtPercentiles(percentile)[0];
+        }
+
+        /**
+         * Gets the values at the given percentiles, which are computed in a single pass over the buckets.
+         *
+         * @param percentiles the percentiles in ascending order, such as <tt>50, 90, 99</tt>
+         * @return the values in the same order as the percentiles, which are <tt>0</tt> if the snapshot has no values
+         * @throws IllegalArgumentException if the percentiles are not in ascending order
+         */
+        public long[] getValuesAtPercentiles(double... percentiles) {
+            long[] answer = new long[percentiles.length];
+            for (int i = 1; i < percentiles.length; i++) {
+                if (percentiles[i] < percentiles[i - 1]) {
+                    throw new IllegalArgumentException("Percentiles must be in ascending order: " + Arrays.toString(percentiles));
+                }
+            }
+            if (count == 0) {
+                return answer;
+            }
+            int next = 0;
+            long total = 0;
+            for (int i = 0; i < counts.length && next < percentiles.length; i++) {
+                total += counts[i];
+                while (next < percentiles.length && total >= targetOf(percentiles[next], count)) {
+                    answer[next++] = highestValueOf(i);
+                }
+            }
+            return answer;
+        }
+
+        /**
+         * Gets the highest value in the snapshot
+         *
+         * @return the value, or <tt>0</tt> if the snapshot has no values
+         */
+        public long getMaxValue() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] > 0) {
+                    return highestValueOf(i);
+                }
+            }
+            return 0;
+        }
+    }
+
+}
@@ -86,6 +86,8 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
     @XmlAttribute
     private Boolean optimisticLocking;
     @XmlAttribute
+    private Integer lockStripes;
+    @XmlAttribute
     private String executorServiceRef;
     @XmlAttribute
     private String timeoutCheckerExecutorServiceRef;
@@ -106,6 +108,8 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
     @XmlAttribute @Metadata(defaultValue = "1000")
     private Long completionTimeoutCheckerInterval = 1000L;
     @XmlAttribute
+    private Boolean completionTimeoutTimingWheel;
+    @XmlAttribute
     private Boolean completionFromBatchConsumer;
     @XmlAttribute
     @Deprecated
@@ -229,6 +233,9 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         if (getOptimisticLocking() != null) {
             answer.setOptimisticLocking(getOptimisticLocking());
         }
+        if (getLockStripes() != null) {
+            answer.setLockStripes(getLockStripes());
+        }
         if (getCompletionPredicate() != null) {
             Predicate predicate = getCompletionPredicate().createPredicate(routeContext);
             answer.setCompletionPredicate(predicate);
@@ -288,6 +295,9 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         if (getCompletionTimeoutCheckerInterval() != null) {
             answer.setCompletionTimeoutCheckerInterval(getCompletionTimeoutCheckerInterval());
         }
+        if (getCompletionTimeoutTimingWheel() != null) {
+            answer.setCompletionTimeoutTimingWheel(getCompletionTimeoutTimingWheel());
+        }
         return answer;
     }
 
@@ -501,6 +511,14 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         this.completionTimeoutCheckerInterval = completionTimeoutCheckerInterval;
     }
 
+    public Boolean getCompletionTimeoutTimingWheel() {
+        return completionTimeoutTimingWheel;
+    }
+
+    public void setCompletionTimeoutTimingWheel(Boolean completionTimeoutTimingWheel) {
+        this.completionTimeoutTimingWheel = completionTimeoutTimingWheel;
+    }
+
     public ExpressionSubElementDefinition getCompletionPredicate() {
         return completionPredicate;
     }
@@ -557,6 +575,14 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         this.optimisticLocking = optimisticLocking;
     }
 
+    public Integer getLockStripes() {
+        return lockStripes;
+    }
+
+    public void setLockStripes(Integer lockStripes) {
+        this.lockStripes = lockStripes;
+    }
+
     public Boolean getParallelProcessing() {
         return parallelProcessing;
     }
@@ -830,6 +856,20 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         return this;
     }
 
+    /**
+     * Whether the background task that checks for timeouts should use a hashed hierarchical timing wheel,
+     * which only visits the aggregated exchanges which are due, instead of scanning all the aggregated exchanges.
+     * <p/>
+     * This keeps the cost of the timeout checker flat when there are a lot of aggregated exchanges waiting for completion timeout.
+     * The timing wheel uses the completionTimeoutCheckerInterval as its tick, so the timeouts have the same precision.
+     *
+     * @return the builder
+     */
+    public AggregateDefinition completionTimeoutTimingWheel() {
+        setCompletionTimeoutTimingWheel(true);
+        return this;
+    }
+
     /**
      * Sets the AggregationStrategy to use with a fluent builder.
      */
@@ -1033,6 +1073,21 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         return this;
     }
 
+    /**
+     * Spreads the correlation keys over the given number of lock stripes, so exchanges with different correlation keys
+     * can be aggregated in parallel instead of using a single lock for all correlation keys.
+     * Each lock stripe also checks the completion timeouts of its own correlation keys.
+     * <p/>
+     * The aggregationRepository being used must support concurrent access to different correlation keys,
+     * which the default memory based repository does. The aggregationStrategy must be thread safe when using more than
+     * one lock stripe, as it is invoked concurrently for correlation keys in different stripes.
+     * This option cannot be used together with completionFromBatchConsumer.
+     */
+    public AggregateDefinition lockStripes(int lockStripes) {
+        setLockStripes(lockStripes);
+        return this;
+    }
+
     /**
      * Allows to configure retry settings when using optimistic locking.
      */
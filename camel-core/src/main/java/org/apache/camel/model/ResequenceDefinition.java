@@ -26,6 +26,7 @@ import javax.xml.bind.annotation.XmlElements;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlTransient;
 
+import org.apache.camel.Exchange;
 import org.apache.camel.Expression;
 import org.apache.camel.Processor;
 import org.apache.camel.model.config.BatchResequencerConfig;
@@ -36,6 +37,9 @@ import org.apache.camel.processor.CamelInternalProcessor;
 import org.apache.camel.processor.Resequencer;
 import org.apache.camel.processor.StreamResequencer;
 import org.apache.camel.processor.resequencer.ExpressionResultComparator;
+import org.apache.camel.processor.resequencer.NumericSequenceElementComparator;
+import org.apache.camel.processor.resequencer.ResequencerEngine;
+import org.apache.camel.processor.resequencer.RingBufferResequencerEngine;
 import org.apache.camel.spi.Metadata;
 import org.apache.camel.spi.RouteContext;
 import org.apache.camel.util.CamelContextHelper;
@@ -180,6 +184,20 @@ public class ResequenceDefinition extends ProcessorDefinition<ResequenceDefiniti
         return this;
     }
 
+    /**
+     * Enables the ring buffer based engine for the stream resequencer, which requires the sequence numbers
+     * to be numeric and without gaps, and allows a much higher throughput.
+     *
+     * @return the builder
+     */
+    public ResequenceDefinition ringBuffer() {
+        if (streamConfig == null) {
+            throw new IllegalStateException("ringBuffer() only supported for stream resequencer");
+        }
+        streamConfig.setRingBuffer(true);
+        return this;
+    }
+
     /**
      * Sets the in batch size for number of exchanges received
      * @param batchSize  the batch size
@@ -418,7 +436,18 @@ public class ResequenceDefinition extends ProcessorDefinition<ResequenceDefiniti
         }
         comparator.setExpression(expression);
 
-        StreamResequencer resequencer = new StreamResequencer(routeContext.getCamelContext(), internal, comparator, expression);
+        StreamResequencer resequencer;
+        if (config.getRingBuffer() != null && config.getRingBuffer()) {
+            if (!(comparator instanceof NumericSequenceElementComparator)) {
+                throw new IllegalArgumentException("The comparator must implement NumericSequenceElementComparator when using ringBuffer: " + comparator);
+            }
+            @SuppressWarnings("unchecked")
+            NumericSequenceElementComparator<Exchange> numeric = (NumericSequenceElementComparator<Exchange>) comparator;
+            ResequencerEngine<Exchange> engine = new RingBufferResequencerEngine<Exchange>(numeric, config.getCapacity());
+            resequencer = new StreamResequencer(routeContext.getCamelContext(), internal, engine, expression);
+        } else {
+            resequencer = new StreamResequencer(routeContext.getCamelContext(), internal, comparator, expression);
+        }
         resequencer.setTimeout(config.getTimeout());
         if (config.getDeliveryAttemptInterval() != null) {
             resequencer.setDeliveryAttemptInterval(config.getDeliveryAttemptInterval());
@@ -74,6 +74,10 @@ public class SplitDefinition extends ExpressionNode implements ExecutorServiceAw
     private Boolean parallelAggregate;
     @XmlAttribute
     private Boolean stopOnAggregateException;
+    @XmlAttribute
+    private Integer maxInFlight;
+    @XmlAttribute
+    private Boolean aggregateInOrder;
 
     public SplitDefinition() {
     }
@@ -122,6 +126,15 @@ public class SplitDefinition extends ExpressionNode implements ExecutorServiceAw
         Splitter answer = new Splitter(routeContext.getCamelContext(), exp, childProcessor, aggregationStrategy,
                             isParallelProcessing, threadPool, shutdownThreadPool, isStreaming, isStopOnException(),
                             timeout, onPrepare, isShareUnitOfWork, isParallelAggregate, isStopOnAggregateException);
+        if (getMaxInFlight() != null) {
+            if (!answer.isParallelProcessing()) {
+                throw new IllegalArgumentException("MaxInFlight is used but ParallelProcessing has not been enabled.");
+            }
+            answer.setMaxInFlight(getMaxInFlight());
+        }
+        if (getAggregateInOrder() != null) {
+            answer.setAggregateInOrder(getAggregateInOrder());
+        }
         return answer;
     }
 
@@ -269,6 +282,36 @@ public class SplitDefinition extends ExpressionNode implements ExecutorServiceAw
         return this;
     }
     
+    /**
+     * Sets the maximum number of splitted messages which can be in flight when using parallel processing,
+     * from they are splitted until they are aggregated. When the maximum is reached then the splitter waits
+     * before splitting the next message, which gives back-pressure against the iterator, so splitting huge
+     * messages in streaming mode does not queue up the splitted messages in memory when they are processed slower
+     * than they are splitted.
+     * <p/>
+     * The default value is <tt>0</tt> which means unbounded.
+     *
+     * @param maxInFlight the maximum number of splitted messages in flight
+     * @return the builder
+     */
+    public SplitDefinition maxInFlight(int maxInFlight) {
+        setMaxInFlight(maxInFlight);
+        return this;
+    }
+
+    /**
+     * When using parallel processing in streaming mode, then aggregate the replies in the same order as the
+     * messages was splitted, instead of the order they come back. The replies which come back out of order are
+     * kept until the replies before them have been aggregated, so its recommended to use this together with
+     * {@link #maxInFlight(int)}.
+     *
+     * @return the builder
+     */
+    public SplitDefinition aggregateInOrder() {
+        setAggregateInOrder(true);
+        return this;
+    }
+
     /**
      * Will now stop further processing if an exception or failure occurred during processing of an
      * {@link org.apache.camel.Exchange} and the caused exception will be thrown.
@@ -416,6 +459,22 @@ public class SplitDefinition extends ExpressionNode implements ExecutorServiceAw
         this.stopOnAggregateException = stopOnAggregateException;
     }
 
+    public Integer getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(Integer maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public Boolean getAggregateInOrder() {
+        return aggregateInOrder;
+    }
+
+    public void setAggregateInOrder(Boolean aggregateInOrder) {
+        this.aggregateInOrder = aggregateInOrder;
+    }
+
     public Boolean getStopOnException() {
         return stopOnException;
     }
@@ -21,6 +21,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlTransient;
 
@@ -55,7 +56,15 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
     private Boolean callerRunsWhenRejected;
     @XmlAttribute
     private Boolean rejectExecution;
-    
+    @XmlAttribute
+    private Boolean tokenBucket;
+    @XmlElement(name = "correlationExpression")
+    private ExpressionSubElementDefinition correlationExpression;
+    @XmlAttribute @Metadata(defaultValue = "1000")
+    private Integer maximumCorrelationKeys;
+    @XmlAttribute
+    private Long maximumDelay;
+
     public ThrottleDefinition() {
     }
 
@@ -82,8 +91,10 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
         Processor childProcessor = this.createChildProcessor(routeContext, true);
 
         boolean async = getAsyncDelayed() != null && getAsyncDelayed();
-        boolean shutdownThreadPool = ProcessorDefinitionHelper.willCreateNewThreadPool(routeContext, this, async);
-        ScheduledExecutorService threadPool = ProcessorDefinitionHelper.getConfiguredScheduledExecutorService(routeContext, "Throttle", this, async);
+        // throttling per correlation key is only supported by the token bucket
+        boolean bucket = (getTokenBucket() != null && getTokenBucket()) || getCorrelationExpression() != null;
+        boolean shutdownThreadPool = ProcessorDefinitionHelper.willCreateNewThreadPool(routeContext, this, async || bucket);
+        ScheduledExecutorService threadPool = ProcessorDefinitionHelper.getConfiguredScheduledExecutorService(routeContext, "Throttle", this, async || bucket);
         
         // should be default 1000 millis
         long period = getTimePeriodMillis() != null ? getTimePeriodMillis() : 1000L;
@@ -104,6 +115,16 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
         } else {
             answer.setCallerRunsWhenRejected(getCallerRunsWhenRejected());
         }
+        answer.setTokenBucket(bucket);
+        if (getCorrelationExpression() != null) {
+            answer.setCorrelationExpression(getCorrelationExpression().createExpression(routeContext));
+        }
+        if (getMaximumCorrelationKeys() != null) {
+            answer.setMaximumCorrelationKeys(getMaximumCorrelationKeys());
+        }
+        if (getMaximumDelay() != null) {
+            answer.setMaximumDelay(getMaximumDelay());
+        }
         return answer;
     }
 
@@ -175,6 +196,58 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
         return this;
     }
 
+    /**
+     * Uses a token bucket to throttle, which refills continuously and does not block threads while delaying,
+     * but schedules the exchanges to continue routing using the thread pool when they are allowed to.
+     *
+     * @return the builder
+     */
+    public ThrottleDefinition tokenBucket() {
+        setTokenBucket(true);
+        return this;
+    }
+
+    /**
+     * To throttle per correlation key, such as a tenant header, where each key has its own token bucket.
+     * <p/>
+     * Enables the token bucket.
+     *
+     * @param correlationExpression the expression to evaluate the correlation key
+     * @return the builder
+     */
+    public ThrottleDefinition correlationExpression(Expression correlationExpression) {
+        setCorrelationExpression(new ExpressionSubElementDefinition(correlationExpression));
+        return this;
+    }
+
+    /**
+     * The maximum number of correlation keys to keep a token bucket for, where the least recently used keys are discarded.
+     * A token bucket which has exchanges waiting for their tokens is kept until the exchanges have continued.
+     * <p/>
+     * Is by default <tt>1000</tt>
+     *
+     * @param maximumCorrelationKeys the maximum number of correlation keys
+     * @return the builder
+     */
+    public ThrottleDefinition maximumCorrelationKeys(int maximumCorrelationKeys) {
+        setMaximumCorrelationKeys(maximumCorrelationKeys);
+        return this;
+    }
+
+    /**
+     * The maximum time in millis an exchange is allowed to wait for its token when using the token bucket,
+     * where exchanges which would have to wait longer are rejected with a ThrottlerRejectedExecutionException.
+     * <p/>
+     * Is by default <tt>0</tt> which means no limit
+     *
+     * @param maximumDelay the maximum delay in millis
+     * @return the builder
+     */
+    public ThrottleDefinition maximumDelay(long maximumDelay) {
+        setMaximumDelay(maximumDelay);
+        return this;
+    }
+
     /**
      * To use a custom thread pool (ScheduledExecutorService) by the throttler.
      *
@@ -256,4 +329,49 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
     public void setRejectExecution(Boolean rejectExecution) {
         this.rejectExecution = rejectExecution;
     }
+
+    public Boolean getTokenBucket() {
+        return tokenBucket;
+    }
+
+    /**
+     * Uses a token bucket to throttle, which refills continuously and does not block threads while delaying
+     */
+    public void setTokenBucket(Boolean tokenBucket) {
+        this.tokenBucket = tokenBucket;
+    }
+
+    public ExpressionSubElementDefinition getCorrelationExpression() {
+        return correlationExpression;
+    }
+
+    /**
+     * The expression used to calculate the correlation key to throttle per, which enables the token bucket
+     */
+    public void setCorrelationExpression(ExpressionSubElementDefinition correlationExpression) {
+        this.correlationExpression = correlationExpression;
+    }
+
+    public Integer getMaximumCorrelationKeys() {
+        return maximumCorrelationKeys;
+    }
+
+    /**
+     * The maximum number of correlation keys to keep a token bucket for
+     */
+    public void setMaximumCorrelationKeys(Integer maximumCorrelationKeys) {
+        this.maximumCorrelationKeys = maximumCorrelationKeys;
+    }
+
+    public Long getMaximumDelay() {
+        return maximumDelay;
+    }
+
+    /**
+     * The maximum time in millis an exchange is allowed to wait for its token when using the token bucket,
+     * where exchanges which would have to wait longer are rejected. Is by default 0 which means no limit
+     */
+    public void setMaximumDelay(Long maximumDelay) {
+        this.maximumDelay = maximumDelay;
+    }
 }
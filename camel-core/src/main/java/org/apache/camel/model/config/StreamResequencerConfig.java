@@ -47,6 +47,8 @@ public class StreamResequencerConfig extends ResequencerConfig {
     private String comparatorRef;
     @XmlAttribute
     private Boolean rejectOld;
+    @XmlAttribute
+    private Boolean ringBuffer;
 
     /**
      * Creates a new {@link StreamResequencerConfig} instance using default
@@ -206,4 +208,19 @@ public class StreamResequencerConfig extends ResequencerConfig {
         return rejectOld;
     }
 
+    public Boolean getRingBuffer() {
+        return ringBuffer;
+    }
+
+    /**
+     * Whether to use a ring buffer based resequencer engine, which requires the sequence numbers to be numeric
+     * and without gaps (such as 1,2,3,4), using a comparator which implements
+     * {@link org.apache.camel.processor.resequencer.NumericSequenceElementComparator}, such as the default comparator.
+     * The ring buffer engine does not lock when inserting messages, and delivers contiguous runs of messages in batches,
+     * which allows a much higher throughput. The capacity is used as the size of the ring buffer.
+     */
+    public void setRingBuffer(Boolean ringBuffer) {
+        this.ringBuffer = ringBuffer;
+    }
+
 }
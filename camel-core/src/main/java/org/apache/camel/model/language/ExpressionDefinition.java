@@ -145,7 +145,9 @@ public class ExpressionDefinition implements Expression, Predicate, OtherAttribu
     }
 
     public final Predicate createPredicate(RouteContext routeContext) {
-        return createPredicate(routeContext.getCamelContext());
+        Predicate answer = createPredicate(routeContext.getCamelContext());
+        configureRouteContext(routeContext, answer);
+        return answer;
     }
 
     public Predicate createPredicate(CamelContext camelContext) {
@@ -178,7 +180,9 @@ public class ExpressionDefinition implements Expression, Predicate, OtherAttribu
     }
 
     public final Expression createExpression(RouteContext routeContext) {
-        return createExpression(routeContext.getCamelContext());
+        Expression answer = createExpression(routeContext.getCamelContext());
+        configureRouteContext(routeContext, answer);
+        return answer;
     }
 
     public Expression createExpression(CamelContext camelContext) {
@@ -292,6 +296,16 @@ public class ExpressionDefinition implements Expression, Predicate, OtherAttribu
         this.expressionType = expressionType;
     }
 
+    /**
+     * Allows the created expression or predicate to be tied to the route which it is used by,
+     * such as adding it as a service of the route.
+     */
+    protected void configureRouteContext(RouteContext routeContext, Object expression) {
+        if (getExpressionType() != null) {
+            getExpressionType().configureRouteContext(routeContext, expression);
+        }
+    }
+
     protected void configurePredicate(CamelContext camelContext, Predicate predicate) {
         // allows to perform additional logic after the properties has been configured which may be needed
         // in the various camel components outside camel-core
@@ -28,6 +28,7 @@ import org.apache.camel.Expression;
 import org.apache.camel.Predicate;
 import org.apache.camel.builder.xml.XPathBuilder;
 import org.apache.camel.spi.Metadata;
+import org.apache.camel.spi.RouteContext;
 import org.apache.camel.util.ObjectHelper;
 
 /**
@@ -59,6 +60,8 @@ public class XPathExpression extends NamespaceAwareExpression {
     private XPathFactory xpathFactory;
     @XmlAttribute @Metadata(label = "advanced")
     private Boolean threadSafety;
+    @XmlAttribute @Metadata(label = "advanced")
+    private Boolean streaming;
 
     public XPathExpression() {
     }
@@ -200,6 +203,22 @@ public class XPathExpression extends NamespaceAwareExpression {
         this.threadSafety = threadSafety;
     }
 
+    public Boolean getStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Whether to evaluate the predicate using a streaming StAX based evaluator, which stops reading the message
+     * as soon as the outcome is decided, instead of parsing the entire message.
+     * <p/>
+     * The streaming evaluator supports a forward-only subset of XPath, which is a location path of child
+     * and descendant steps (with position, attribute and text predicates) that may end with an attribute or
+     * text step, and may be compared to a literal. Other expressions are evaluated using the XPath engine.
+     */
+    public void setStreaming(Boolean streaming) {
+        this.streaming = streaming;
+    }
+
     @Override
     public Expression createExpression(CamelContext camelContext) {
         if (documentType == null && documentTypeName != null) {
@@ -233,6 +252,15 @@ public class XPathExpression extends NamespaceAwareExpression {
         return super.createPredicate(camelContext);
     }
 
+    @Override
+    protected void configureRouteContext(RouteContext routeContext, Object expression) {
+        if (expression instanceof XPathBuilder && ((XPathBuilder) expression).isPreCompile()) {
+            // the route starts the builder (which compiles the expression) and removes it when the route is removed
+            routeContext.addService((XPathBuilder) expression);
+        }
+        super.configureRouteContext(routeContext, expression);
+    }
+
     @Override
     protected void configureExpression(CamelContext camelContext, Expression expression) {
         boolean isSaxon = getSaxon() != null && getSaxon();
@@ -289,6 +317,9 @@ public class XPathExpression extends NamespaceAwareExpression {
         if (threadSafety != null) {
             setProperty(predicate, "threadSafety", threadSafety);
         }
+        if (streaming != null) {
+            setProperty(predicate, "streaming", streaming);
+        }
         if (isLogNamespaces) {
             ObjectHelper.cast(XPathBuilder.class, predicate).setLogNamespaces(true);
         }
@@ -17,6 +17,7 @@
 package org.apache.camel.processor;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
@@ -79,11 +80,18 @@ import org.slf4j.LoggerFactory;
  * {@link #process(org.apache.camel.Exchange, org.apache.camel.AsyncCallback)} method.
  * <p/>
  * The added advices can implement {@link Ordered} to control in which order the advices are executed.
+ * <p/>
+ * When advice fusion is enabled, then the advices are fused into a specialized chain when this processor is started.
+ * Advices which are not {@link CamelInternalProcessorAdvice#isEnabled() enabled} at that time are skipped entirely,
+ * and when there is only one or two advices left then their state is kept in fields of the callback instead of an array,
+ * and when there is no advices left then the callback is not wrapped at all.
  */
 public class CamelInternalProcessor extends DelegateAsyncProcessor {
 
     private static final Logger LOG = LoggerFactory.getLogger(CamelInternalProcessor.class);
     private final List<CamelInternalProcessorAdvice> advices = new ArrayList<CamelInternalProcessorAdvice>();
+    private boolean adviceFusion;
+    private volatile List<CamelInternalProcessorAdvice> fusedAdvices;
 
     public CamelInternalProcessor() {
     }
@@ -101,6 +109,44 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
         advices.add(advice);
         // ensure advices are sorted so they are in the order we want
         advices.sort(OrderedComparator.get());
+        // the advices must be fused again
+        fusedAdvices = null;
+    }
+
+    public boolean isAdviceFusion() {
+        return adviceFusion;
+    }
+
+    /**
+     * Sets whether to fuse the advices into a specialized chain when this processor is started.
+     */
+    public void setAdviceFusion(boolean adviceFusion) {
+        this.adviceFusion = adviceFusion;
+    }
+
+    /**
+     * Fuses the advices which are enabled, if advice fusion is enabled.
+     */
+    protected void fuseAdvices() {
+        if (!adviceFusion) {
+            fusedAdvices = null;
+            return;
+        }
+        List<CamelInternalProcessorAdvice> answer = new ArrayList<CamelInternalProcessorAdvice>(advices.size());
+        for (CamelInternalProcessorAdvice advice : advices) {
+            if (advice.isEnabled()) {
+                answer.add(advice);
+            }
+        }
+        LOG.trace("Fused {} out of {} advices for: {}", new Object[]{answer.size(), advices.size(), this});
+        // use a fixed size list backed by an array for fast index access
+        fusedAdvices = Arrays.asList(answer.toArray(new CamelInternalProcessorAdvice[answer.size()]));
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        fuseAdvices();
     }
 
     /**
@@ -140,24 +186,39 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
             return true;
         }
 
-        // optimise to use object array for states
-        final Object[] states = new Object[advices.size()];
-        // optimise for loop using index access to avoid creating iterator object
-        for (int i = 0; i < advices.size(); i++) {
-            CamelInternalProcessorAdvice task = advices.get(i);
-            try {
-                Object state = task.before(exchange);
-                states[i] = state;
-            } catch (Throwable e) {
-                exchange.setException(e);
-                callback.done(true);
-                return true;
+        final List<CamelInternalProcessorAdvice> fused = fusedAdvices;
+        final List<CamelInternalProcessorAdvice> list = fused != null ? fused : advices;
+        final int size = list.size();
+        try {
+            if (fused != null && size == 1) {
+                // optimise to keep the state in the callback
+                CamelInternalProcessorAdvice task = fused.get(0);
+                callback = new SingleAdviceCallback(task, task.before(exchange), exchange, callback);
+            } else if (fused != null && size == 2) {
+                // optimise to keep the states in the callback
+                CamelInternalProcessorAdvice first = fused.get(0);
+                Object firstState = first.before(exchange);
+                CamelInternalProcessorAdvice second = fused.get(1);
+                Object secondState = second.before(exchange);
+                callback = new PairAdviceCallback(first, firstState, second, secondState, exchange, callback);
+            } else if (fused == null || size > 2) {
+                // optimise to use object array for states
+                final Object[] states = new Object[size];
+                // optimise for loop using index access to avoid creating iterator object
+                for (int i = 0; i < size; i++) {
+                    CamelInternalProcessorAdvice task = list.get(i);
+                    Object state = task.before(exchange);
+                    states[i] = state;
+                }
+                // create internal callback which will execute the advices in reverse order when done
+                callback = new InternalCallback(list, states, exchange, callback);
             }
+        } catch (Throwable e) {
+            exchange.setException(e);
+            callback.done(true);
+            return true;
         }
 
-        // create internal callback which will execute the advices in reverse order when done
-        callback = new InternalCallback(states, exchange, callback);
-
         // UNIT_OF_WORK_PROCESS_SYNC is @deprecated and we should remove it from Camel 3.0
         Object synchronous = exchange.removeProperty(Exchange.UNIT_OF_WORK_PROCESS_SYNC);
         if (exchange.isTransacted() || synchronous != null) {
@@ -224,13 +285,15 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
     /**
      * Internal callback that executes the after advices.
      */
-    private final class InternalCallback implements AsyncCallback {
+    private static final class InternalCallback implements AsyncCallback {
 
+        private final List<CamelInternalProcessorAdvice> advices;
         private final Object[] states;
         private final Exchange exchange;
         private final AsyncCallback callback;
 
-        private InternalCallback(Object[] states, Exchange exchange, AsyncCallback callback) {
+        private InternalCallback(List<CamelInternalProcessorAdvice> advices, Object[] states, Exchange exchange, AsyncCallback callback) {
+            this.advices = advices;
             this.states = states;
             this.exchange = exchange;
             this.callback = callback;
@@ -267,6 +330,88 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
         }
     }
 
+    /**
+     * Internal callback that executes the after advice of a fused chain with a single advice.
+     */
+    private static final class SingleAdviceCallback implements AsyncCallback {
+
+        private final CamelInternalProcessorAdvice task;
+        private final Object state;
+        private final Exchange exchange;
+        private final AsyncCallback callback;
+
+        private SingleAdviceCallback(CamelInternalProcessorAdvice task, Object state, Exchange exchange, AsyncCallback callback) {
+            this.task = task;
+            this.state = state;
+            this.exchange = exchange;
+            this.callback = callback;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void done(boolean doneSync) {
+            // NOTE: if you are debugging Camel routes, then the code below is internal only
+            // so you can step straight to the finally block and invoke the callback
+            try {
+                task.after(exchange, state);
+            } catch (Throwable e) {
+                exchange.setException(e);
+            } finally {
+                // callback must be called
+                callback.done(doneSync);
+            }
+        }
+    }
+
+    /**
+     * Internal callback that executes the after advices of a fused chain with two advices.
+     */
+    private static final class PairAdviceCallback implements AsyncCallback {
+
+        private final CamelInternalProcessorAdvice first;
+        private final Object firstState;
+        private final CamelInternalProcessorAdvice second;
+        private final Object secondState;
+        private final Exchange exchange;
+        private final AsyncCallback callback;
+
+        private PairAdviceCallback(CamelInternalProcessorAdvice first, Object firstState,
+                                   CamelInternalProcessorAdvice second, Object secondState,
+                                   Exchange exchange, AsyncCallback callback) {
+            this.first = first;
+            this.firstState = firstState;
+            this.second = second;
+            this.secondState = secondState;
+            this.exchange = exchange;
+            this.callback = callback;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void done(boolean doneSync) {
+            // NOTE: if you are debugging Camel routes, then the code below is internal only
+            // so you can step straight to the finally block and invoke the callback
+
+            // we should call after in reverse order
+            try {
+                try {
+                    second.after(exchange, secondState);
+                } catch (Throwable e) {
+                    exchange.setException(e);
+                    // allow the first advice to complete even if there was an exception
+                }
+                try {
+                    first.after(exchange, firstState);
+                } catch (Throwable e) {
+                    exchange.setException(e);
+                }
+            } finally {
+                // callback must be called
+                callback.done(doneSync);
+            }
+        }
+    }
+
     /**
      * Strategy to determine if we should continue processing the {@link Exchange}.
      */
@@ -360,13 +505,14 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
             counter.processExchange(exchange);
         }
 
-        protected void recordTime(Exchange exchange, long duration) {
+        protected void recordTime(Exchange exchange, StopWatch watch) {
+            long duration = watch.taken();
             if (LOG.isTraceEnabled()) {
                 LOG.trace("{}Recording duration: {} millis for exchange: {}", new Object[]{type != null ? type + ": " : "", duration, exchange});
             }
 
             if (!exchange.isFailed() && exchange.getException() == null) {
-                counter.completedExchange(exchange, duration);
+                counter.completedExchange(exchange, duration, watch.takenNanos());
             } else {
                 counter.failedExchange(exchange);
             }
@@ -394,7 +540,7 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
         public void after(Exchange exchange, StopWatch watch) throws Exception {
             // record end time
             if (watch != null) {
-                recordTime(exchange, watch.taken());
+                recordTime(exchange, watch);
             }
         }
     }
@@ -577,6 +723,11 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
             // noop
         }
 
+        @Override
+        public boolean isEnabled() {
+            return backlogTracer.isEnabled();
+        }
+
         @Override
         public int getOrder() {
             // we want tracer just before calling the processor
@@ -620,6 +771,11 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
             }
         }
 
+        @Override
+        public boolean isEnabled() {
+            return backlogDebugger.isEnabled();
+        }
+
         @Override
         public int getOrder() {
             // we want debugger just before calling the processor
@@ -46,4 +46,16 @@ public interface CamelInternalProcessorAdvice<T> {
      * @throws Exception is thrown if error during the call.
      */
     void after(Exchange exchange, T data) throws Exception;
+
+    /**
+     * Whether this advice is enabled.
+     * <p/>
+     * When the {@link CamelInternalProcessor} is using advice fusion, then advices which are not enabled
+     * at the time the processor is started are skipped entirely.
+     *
+     * @return <tt>true</tt> by default
+     */
+    default boolean isEnabled() {
+        return true;
+    }
 }
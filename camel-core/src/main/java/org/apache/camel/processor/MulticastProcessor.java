@@ -31,9 +31,12 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.AsyncProcessor;
@@ -160,6 +163,12 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
     private final long timeout;
     private final ConcurrentMap<PreparedErrorHandler, Processor> errorHandlers = new ConcurrentHashMap<PreparedErrorHandler, Processor>();
     private final boolean shareUnitOfWork;
+    private int maxInFlight;
+    private boolean aggregateInOrder;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicLong inFlightWaitCounter = new AtomicLong();
+    private final AtomicLong inFlightWaitTime = new AtomicLong();
 
     public MulticastProcessor(CamelContext camelContext, Collection<Processor> processors) {
         this(camelContext, processors, null);
@@ -274,7 +283,7 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
         ObjectHelper.notNull(aggregateExecutorService, "AggregateExecutorService", this);
 
         final CompletionService<Exchange> completion;
-        if (streaming) {
+        if (streaming && !aggregateInOrder) {
             // execute tasks in parallel+streaming and aggregate in the order they are finished (out of order sequence)
             completion = new ExecutorCompletionService<Exchange>(executorService);
         } else {
@@ -284,6 +293,8 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
 
         final AtomicInteger total = new AtomicInteger(0);
         final Iterator<ProcessorExchangePair> it = pairs.iterator();
+        // the window which bounds the number of sub exchanges which are in flight, from they are created until they are aggregated
+        final InFlightWindow window = maxInFlight > 0 ? new InFlightWindow(maxInFlight) : null;
 
         if (it.hasNext()) {
             // when parallel then aggregate on the fly
@@ -296,15 +307,22 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
             // while we submit new tasks, and those tasks complete concurrently
             // this allows us to optimize work and reduce memory consumption
             final AggregateOnTheFlyTask aggregateOnTheFlyTask = new AggregateOnTheFlyTask(result, original, total, completion, running,
-                    aggregationOnTheFlyDone, allTasksSubmitted, executionException);
+                    aggregationOnTheFlyDone, allTasksSubmitted, executionException, window);
             final AtomicBoolean aggregationTaskSubmitted = new AtomicBoolean();
 
             LOG.trace("Starting to submit parallel tasks");
 
             while (it.hasNext()) {
+                // wait for room in the window before we create the next sub exchange, and stop creating more if we are not running
+                if (window != null && !window.acquire(running, aggregationOnTheFlyDone)) {
+                    break;
+                }
                 final ProcessorExchangePair pair = it.next();
                 // in case the iterator returns null then continue to next
                 if (pair == null) {
+                    if (window != null) {
+                        window.release();
+                    }
                     continue;
                 }
 
@@ -355,12 +373,28 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
             // signal all tasks has been submitted
             LOG.trace("Signaling that all {} tasks has been submitted.", total.get());
             allTasksSubmitted.set(true);
+            // wake up the aggregation task with a marker task, as it may already have aggregated all the tasks
+            // and is waiting for the next completed task
+            try {
+                completion.submit(new Callable<Exchange>() {
+                    public Exchange call() throws Exception {
+                        return null;
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // the aggregation task will see that all tasks has been submitted when it polls again
+                LOG.trace("Cannot wake up the aggregation task as the marker task was rejected", e);
+            }
 
             // its to hard to do parallel async routing so we let the caller thread be synchronously
             // and have it pickup the replies and do the aggregation (eg we use a latch to wait)
             // wait for aggregation to be done
             LOG.debug("Waiting for on-the-fly aggregation to complete aggregating {} responses for exchangeId: {}", total.get(), original.getExchangeId());
             aggregationOnTheFlyDone.await();
+            if (window != null) {
+                // the sub exchanges which was not aggregated, such as when stopping on exception, are no longer in flight
+                window.releaseAll();
+            }
 
             // did we fail for whatever reason, if so throw that caused exception
             if (executionException.get() != null) {
@@ -396,11 +430,12 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
         private final CountDownLatch aggregationOnTheFlyDone;
         private final AtomicBoolean allTasksSubmitted;
         private final AtomicException executionException;
+        private final InFlightWindow window;
 
         private AggregateOnTheFlyTask(AtomicExchange result, Exchange original, AtomicInteger total,
                                       CompletionService<Exchange> completion, AtomicBoolean running,
                                       CountDownLatch aggregationOnTheFlyDone, AtomicBoolean allTasksSubmitted,
-                                      AtomicException executionException) {
+                                      AtomicException executionException, InFlightWindow window) {
             this.result = result;
             this.original = original;
             this.total = total;
@@ -409,6 +444,7 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
             this.aggregationOnTheFlyDone = aggregationOnTheFlyDone;
             this.allTasksSubmitted = allTasksSubmitted;
             this.executionException = executionException;
+            this.window = window;
         }
 
         public void run() {
@@ -467,6 +503,16 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
                     }
                 }
 
+                if (future != null && future.get() == null) {
+                    // the marker task which wakes us up when all tasks has been submitted, so recheck if we are done
+                    continue;
+                }
+
+                if (window != null) {
+                    // the sub exchange is taken for aggregation (or timed out) so it is no longer in flight
+                    window.release();
+                }
+
                 if (future == null) {
                     ParallelAggregateTimeoutTask task = new ParallelAggregateTimeoutTask(original, result, completion, aggregated, total, timedOut);
                     if (parallelAggregate) {
@@ -515,6 +561,66 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
         }
     }
 
+    /**
+     * Bounds the number of sub exchanges which are in flight when using parallel processing, which gives back-pressure
+     * against the iterator when the sub exchanges are processed or aggregated slower than they are created.
+     */
+    private final class InFlightWindow {
+
+        private final Semaphore permits;
+        private final AtomicInteger acquired = new AtomicInteger();
+
+        private InFlightWindow(int size) {
+            this.permits = new Semaphore(size);
+        }
+
+        /**
+         * Waits for room in the window.
+         *
+         * @return <tt>false</tt> if we are no longer running, or the aggregation is done, while waiting
+         */
+        boolean acquire(AtomicBoolean running, CountDownLatch aggregationDone) throws InterruptedException {
+            if (!running.get()) {
+                return false;
+            }
+            if (!permits.tryAcquire()) {
+                inFlightWaitCounter.incrementAndGet();
+                StopWatch watch = new StopWatch();
+                try {
+                    // the aggregation may be done without aggregating all the sub exchanges such as when stopping on exception
+                    while (!permits.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                        if (!running.get() || aggregationDone.getCount() == 0) {
+                            return false;
+                        }
+                    }
+                } finally {
+                    inFlightWaitTime.addAndGet(watch.taken());
+                }
+            }
+            acquired.incrementAndGet();
+            int current = inFlight.incrementAndGet();
+            int peak = peakInFlight.get();
+            while (current > peak && !peakInFlight.compareAndSet(peak, current)) {
+                peak = peakInFlight.get();
+            }
+            return true;
+        }
+
+        void release() {
+            if (acquired.getAndDecrement() > 0) {
+                inFlight.decrementAndGet();
+                permits.release();
+            } else {
+                acquired.incrementAndGet();
+            }
+        }
+
+        void releaseAll() {
+            int count = acquired.getAndSet(0);
+            inFlight.addAndGet(-count);
+        }
+    }
+
     /**
      * Worker task to aggregate the old and new exchange on-the-fly for completed tasks when using parallel processing.
      */
@@ -1319,6 +1425,67 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
         return shareUnitOfWork;
     }
 
+    /**
+     * The maximum number of sub exchanges which can be in flight when using parallel processing,
+     * from they are created until they are aggregated. A value of zero or less is unbounded.
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Whether to aggregate in the same order as the sub exchanges was created, when using parallel processing
+     * in streaming mode (which otherwise aggregates in the order the sub exchanges are done).
+     */
+    public boolean isAggregateInOrder() {
+        return aggregateInOrder;
+    }
+
+    public void setAggregateInOrder(boolean aggregateInOrder) {
+        this.aggregateInOrder = aggregateInOrder;
+    }
+
+    /**
+     * Number of sub exchanges currently in flight, when using a maximum in flight
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * The highest number of sub exchanges which has been in flight, when using a maximum in flight
+     */
+    public int getPeakInFlight() {
+        return peakInFlight.get();
+    }
+
+    /**
+     * Number of times creating a sub exchange had to wait, as the maximum number of sub exchanges was in flight
+     */
+    public long getInFlightWaitCounter() {
+        return inFlightWaitCounter.get();
+    }
+
+    /**
+     * Total time in millis creating sub exchanges has waited, as the maximum number of sub exchanges was in flight
+     */
+    public long getInFlightWaitTime() {
+        return inFlightWaitTime.get();
+    }
+
+    /**
+     * Reset the in flight statistics
+     */
+    public void resetInFlightStatistics() {
+        peakInFlight.set(inFlight.get());
+        inFlightWaitCounter.set(0);
+        inFlightWaitTime.set(0);
+    }
+
     public List<Processor> next() {
         if (!hasNext()) {
             return null;
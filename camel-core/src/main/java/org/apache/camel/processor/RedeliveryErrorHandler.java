@@ -22,9 +22,9 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.AsyncProcessor;
@@ -35,6 +35,7 @@ import org.apache.camel.Message;
 import org.apache.camel.Navigate;
 import org.apache.camel.Predicate;
 import org.apache.camel.Processor;
+import org.apache.camel.Rejectable;
 import org.apache.camel.model.OnExceptionDefinition;
 import org.apache.camel.spi.AsyncProcessorAwaitManager;
 import org.apache.camel.spi.ExchangeFormatter;
@@ -64,7 +65,10 @@ import org.apache.camel.util.URISupport;
 public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport implements AsyncProcessor, ShutdownPrepared, Navigate<Processor> {
 
     protected final AtomicInteger redeliverySleepCounter = new AtomicInteger();
+    protected volatile PendingRedeliveries pendingRedeliveries = new PendingRedeliveries();
     protected ScheduledExecutorService executorService;
+    protected RedeliveryTimingWheel redeliveryTimingWheel;
+    protected boolean useRedeliveryTimingWheel;
     protected final CamelContext camelContext;
     protected final AsyncProcessorAwaitManager awaitManager;
     protected final Processor deadLetter;
@@ -163,12 +167,65 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
         }
     }
 
+    /**
+     * The number of exchanges pending for asynchronous delayed redelivery, which can be shared by the error handlers
+     * of a route, and the maximum number of pending redeliveries.
+     */
+    public static final class PendingRedeliveries {
+
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicLong rejected = new AtomicLong();
+        private volatile int maximum;
+
+        /**
+         * Acquires a pending redelivery, if the maximum is not reached.
+         *
+         * @return <tt>true</tt> if acquired, <tt>false</tt> if rejected
+         */
+        public boolean acquire() {
+            int max = maximum;
+            int current = pending.incrementAndGet();
+            if (max <= 0 || current <= max) {
+                return true;
+            }
+            pending.decrementAndGet();
+            rejected.incrementAndGet();
+            return false;
+        }
+
+        /**
+         * Releases a pending redelivery which was acquired
+         */
+        public void release() {
+            pending.decrementAndGet();
+        }
+
+        public int getPending() {
+            return pending.get();
+        }
+
+        public long getRejected() {
+            return rejected.get();
+        }
+
+        public int getMaximum() {
+            return maximum;
+        }
+
+        public void setMaximum(int maximum) {
+            this.maximum = maximum;
+        }
+    }
+
     /**
      * Tasks which performs asynchronous redelivery attempts, and being triggered by a
      * {@link java.util.concurrent.ScheduledExecutorService} to avoid having any threads blocking if a task
      * has to be delayed before a redelivery attempt is performed.
+     * <p/>
+     * When using the {@link RedeliveryTimingWheel} then the task is scheduled on the wheel, which
+     * runs the task to submit it to the {@link java.util.concurrent.ScheduledExecutorService}.
      */
-    private final class AsyncRedeliveryTask implements Callable<Boolean> {
+    private final class AsyncRedeliveryTask implements Callable<Boolean>, Runnable, Rejectable {
 
         private final Exchange exchange;
         private final AsyncCallback callback;
@@ -180,7 +237,33 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
             this.data = data;
         }
 
+        public void run() {
+            // the delay has elapsed on the timing wheel, so submit the task
+            submitRedelivery(this, 0);
+        }
+
+        public void reject() {
+            reject(new RejectedExecutionException("Redelivery task rejected for exchangeId: " + exchange.getExchangeId()));
+        }
+
+        void reject(RejectedExecutionException cause) {
+            // no longer pending as the task will not run
+            pendingRedeliveries.release();
+
+            log.debug("Rejecting redelivery of exchangeId: {} as the redelivery task could not be executed", exchange.getExchangeId());
+            exchange.setException(cause);
+            // mark the exchange as redelivery exhausted so the failure processor / dead letter channel can process the exchange
+            exchange.setProperty(Exchange.REDELIVERY_EXHAUSTED, Boolean.TRUE);
+
+            // we are routing asynchronously, so continue with the exhausted exchange which will be failed
+            data.sync = false;
+            processAsyncErrorHandler(exchange, callback, data);
+        }
+
         public Boolean call() throws Exception {
+            // no longer pending
+            pendingRedeliveries.release();
+
             // prepare for redelivery
             prepareExchangeForRedelivery(exchange, data);
 
@@ -488,6 +571,11 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
                         // we are doing a redelivery then a thread pool must be configured (see the doStart method)
                         ObjectHelper.notNull(executorService, "Redelivery is enabled but ExecutorService has not been configured.", this);
 
+                        if (!acquirePendingRedelivery(exchange)) {
+                            // jump to start of loop which then detects that we are failed and exhausted
+                            continue;
+                        }
+
                         // let the RedeliverTask be the logic which tries to redeliver the Exchange which we can used a scheduler to
                         // have it being executed in the future, or immediately
                         // we are continuing asynchronously
@@ -501,7 +589,7 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
                         if (log.isTraceEnabled()) {
                             log.trace("Scheduling redelivery task to run in {} millis for exchangeId: {}", data.redeliveryDelay, exchange.getExchangeId());
                         }
-                        executorService.schedule(task, data.redeliveryDelay, TimeUnit.MILLISECONDS);
+                        submitRedelivery(task, data.redeliveryDelay);
 
                         return false;
                     } else {
@@ -668,6 +756,12 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
             // we are doing a redelivery then a thread pool must be configured (see the doStart method)
             ObjectHelper.notNull(executorService, "Redelivery is enabled but ExecutorService has not been configured.", this);
 
+            if (!acquirePendingRedelivery(exchange)) {
+                // loop back around which then detects that we are failed and exhausted
+                processAsyncErrorHandler(exchange, callback, data);
+                return;
+            }
+
             // let the RedeliverTask be the logic which tries to redeliver the Exchange which we can used a scheduler to
             // have it being executed in the future, or immediately
             // Note: the data.redeliverFromSync should be kept as is, in case it was enabled previously
@@ -677,16 +771,60 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
             // calculate the redelivery delay
             data.redeliveryDelay = determineRedeliveryDelay(exchange, data.currentRedeliveryPolicy, data.redeliveryDelay, data.redeliveryCounter);
 
-            if (data.redeliveryDelay > 0) {
-                // schedule the redelivery task
-                if (log.isTraceEnabled()) {
-                    log.trace("Scheduling redelivery task to run in {} millis for exchangeId: {}", data.redeliveryDelay, exchange.getExchangeId());
-                }
-                executorService.schedule(task, data.redeliveryDelay, TimeUnit.MILLISECONDS);
+            // schedule the redelivery task, or execute the task immediately if there is no delay
+            if (log.isTraceEnabled()) {
+                log.trace("Scheduling redelivery task to run in {} millis for exchangeId: {}", data.redeliveryDelay, exchange.getExchangeId());
+            }
+            submitRedelivery(task, data.redeliveryDelay);
+        }
+    }
+
+    /**
+     * Acquires a slot for an asynchronous redelivery, if the number of pending redeliveries of the route is within
+     * the {@link #getMaximumPendingRedeliveries()} limit.
+     * <p/>
+     * If the limit is reached then the exchange is marked as redelivery exhausted, and a
+     * {@link RejectedExecutionException} is set on the exchange, so the exchange is moved to the failure processor
+     * (eg such as the dead letter channel) instead of being scheduled for redelivery.
+     *
+     * @return <tt>true</tt> if the redelivery can be scheduled, <tt>false</tt> if rejected
+     */
+    protected boolean acquirePendingRedelivery(Exchange exchange) {
+        PendingRedeliveries pending = pendingRedeliveries;
+        if (pending.acquire()) {
+            return true;
+        }
+
+        int max = pending.getMaximum();
+        log.debug("Rejecting redelivery of exchangeId: {} as the maximum pending redeliveries: {} is reached", exchange.getExchangeId(), max);
+        exchange.setException(new RejectedExecutionException("Redelivery rejected as the maximum pending redeliveries: " + max + " is reached"));
+        // mark the exchange as redelivery exhausted so the failure processor / dead letter channel can process the exchange
+        exchange.setProperty(Exchange.REDELIVERY_EXHAUSTED, Boolean.TRUE);
+        return false;
+    }
+
+    /**
+     * Submits the redelivery task to run after the delay, using the {@link RedeliveryTimingWheel} if enabled,
+     * or otherwise the {@link java.util.concurrent.ScheduledExecutorService}.
+     * <p/>
+     * If the task is rejected, then the task fails the exchange and continues routing asynchronously, so the
+     * pending redelivery is released and the callback is always invoked.
+     */
+    private void submitRedelivery(AsyncRedeliveryTask task, long delay) {
+        try {
+            // a thread pool which is shutdown may discard the task without rejecting it (eg using CallerRuns)
+            if (executorService.isShutdown()) {
+                throw new RejectedExecutionException("Redelivery thread pool is shutdown: " + executorService);
+            }
+            if (delay <= 0) {
+                executorService.submit((Callable<Boolean>) task);
+            } else if (redeliveryTimingWheel != null) {
+                redeliveryTimingWheel.schedule(task, delay);
             } else {
-                // execute the task immediately
-                executorService.submit(task);
+                executorService.schedule((Callable<Boolean>) task, delay, TimeUnit.MILLISECONDS);
             }
+        } catch (RejectedExecutionException e) {
+            task.reject(e);
         }
     }
 
@@ -1459,12 +1597,56 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
      * Gets the number of exchanges that are pending for redelivery
      */
     public int getPendingRedeliveryCount() {
-        int answer = redeliverySleepCounter.get();
-        if (executorService != null && executorService instanceof ThreadPoolExecutor) {
-            answer += ((ThreadPoolExecutor) executorService).getQueue().size();
-        }
+        return redeliverySleepCounter.get() + pendingRedeliveries.getPending();
+    }
 
-        return answer;
+    /**
+     * Gets the number of redeliveries which was rejected as the maximum pending redeliveries was reached
+     */
+    public long getRejectedRedeliveryCount() {
+        return pendingRedeliveries.getRejected();
+    }
+
+    public int getMaximumPendingRedeliveries() {
+        return pendingRedeliveries.getMaximum();
+    }
+
+    /**
+     * Sets the maximum number of exchanges which can be pending for asynchronous delayed redelivery by the
+     * error handlers which share the {@link PendingRedeliveries} of this error handler (eg the route). When the limit
+     * is reached then further exchanges are not scheduled for redelivery, but are exhausted and moved to the
+     * failure processor (eg such as the dead letter channel).
+     * <p/>
+     * By default there is no limit.
+     */
+    public void setMaximumPendingRedeliveries(int maximumPendingRedeliveries) {
+        pendingRedeliveries.setMaximum(maximumPendingRedeliveries);
+    }
+
+    public PendingRedeliveries getPendingRedeliveries() {
+        return pendingRedeliveries;
+    }
+
+    /**
+     * Sets the counter of the exchanges pending for asynchronous delayed redelivery, which the error handlers of a route
+     * share, so the {@link #setMaximumPendingRedeliveries(int) maximum pending redeliveries} is a limit for the route
+     * rather than for each error handler in the route.
+     */
+    public void setPendingRedeliveries(PendingRedeliveries pendingRedeliveries) {
+        this.pendingRedeliveries = pendingRedeliveries;
+    }
+
+    public boolean isUseRedeliveryTimingWheel() {
+        return useRedeliveryTimingWheel;
+    }
+
+    /**
+     * Sets whether to schedule asynchronous delayed redeliveries on the {@link RedeliveryTimingWheel} of the
+     * {@link CamelContext}, instead of the {@link java.util.concurrent.ScheduledExecutorService}, which
+     * scales better when there is a very large number of pending redeliveries.
+     */
+    public void setUseRedeliveryTimingWheel(boolean useRedeliveryTimingWheel) {
+        this.useRedeliveryTimingWheel = useRedeliveryTimingWheel;
     }
 
     @Override
@@ -1486,6 +1668,11 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
             if (log.isDebugEnabled()) {
                 log.debug("Using ExecutorService: {} for redeliveries on error handler: {}", executorService, this);
             }
+            if (useRedeliveryTimingWheel && redeliveryTimingWheel == null) {
+                // use the shared timing wheel
+                redeliveryTimingWheel = RedeliveryTimingWheel.lookup(camelContext);
+                log.debug("Using RedeliveryTimingWheel: {} for redeliveries on error handler: {}", redeliveryTimingWheel, this);
+            }
         }
 
         // reset flag when starting
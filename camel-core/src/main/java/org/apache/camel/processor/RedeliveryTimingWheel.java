@@ -0,0 +1,233 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.support.ServiceSupport;
+import org.apache.camel.util.HashedTimingWheel;
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Schedules delayed redelivery attempts for the {@link RedeliveryErrorHandler}s of a {@link CamelContext}
+ * using a {@link HashedTimingWheel}.
+ * <p/>
+ * Scheduling a task is a constant time operation which only appends the task to a lock-free queue,
+ * instead of inserting it into the delay queue of a {@link java.util.concurrent.ScheduledExecutorService}
+ * which takes logarithmic time and contends on a single lock. A single worker thread moves the queued tasks
+ * onto the wheel and advances the wheel every tick, and hands over the expired tasks to run, which means
+ * the tasks should only dispatch the redelivery to a thread pool, and not do any work themselves.
+ * <p/>
+ * The delay of a task is rounded up to the tick duration, so the wheel trades precision for scale,
+ * which is a good fit for redeliveries during outages where there can be a very large number of
+ * exchanges waiting to be redelivered.
+ * <p/>
+ * There is only one timing wheel per {@link CamelContext}, use {@link #lookup(CamelContext)} to get it.
+ */
+public final class RedeliveryTimingWheel extends ServiceSupport {
+
+    public static final long DEFAULT_TICK_DURATION = 10;
+
+    private static final Logger LOG = LoggerFactory.getLogger(RedeliveryTimingWheel.class);
+
+    private final CamelContext camelContext;
+    private final long tickDuration;
+    private final HashedTimingWheel<Task> wheel;
+    private final Queue<Task> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile Thread worker;
+    private volatile long startTime;
+    private long tick;
+
+    /**
+     * A task which is waiting to be moved onto the wheel, or is waiting in the wheel
+     */
+    private static final class Task {
+        private final Runnable task;
+        private final long deadline;
+
+        Task(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+    }
+
+    public RedeliveryTimingWheel(CamelContext camelContext) {
+        this(camelContext, DEFAULT_TICK_DURATION);
+    }
+
+    /**
+     * Creates a timing wheel
+     *
+     * @param camelContext the camel context
+     * @param tickDuration the duration of a tick in millis
+     */
+    public RedeliveryTimingWheel(CamelContext camelContext, long tickDuration) {
+        ObjectHelper.notNull(camelContext, "CamelContext");
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("TickDuration must be positive, was: " + tickDuration);
+        }
+        this.camelContext = camelContext;
+        this.tickDuration = tickDuration;
+        this.wheel = new HashedTimingWheel<>(TimeUnit.MILLISECONDS.toNanos(tickDuration));
+    }
+
+    /**
+     * Gets the timing wheel of the given {@link CamelContext}, which is created and added
+     * as a service to the context on first use.
+     */
+    public static RedeliveryTimingWheel lookup(CamelContext camelContext) throws Exception {
+        synchronized (camelContext) {
+            RedeliveryTimingWheel answer = camelContext.hasService(RedeliveryTimingWheel.class);
+            if (answer == null) {
+                answer = new RedeliveryTimingWheel(camelContext);
+                camelContext.addService(answer, true, true);
+            }
+            return answer;
+        }
+    }
+
+    /**
+     * Schedules the task to run once the delay has elapsed.
+     *
+     * @param task  the task, which should only dispatch the work to a thread pool
+     * @param delay the delay in millis
+     * @throws RejectedExecutionException if the timing wheel is not running
+     */
+    public void schedule(Runnable task, long delay) {
+        if (worker == null) {
+            throw new RejectedExecutionException("RedeliveryTimingWheel is not started");
+        }
+        long deadline = System.nanoTime() - startTime + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delay));
+        pending.incrementAndGet();
+        incoming.add(new Task(task, deadline));
+        if (worker == null) {
+            // we were stopped concurrently, so run the tasks which may have been added after stopping drained the wheel
+            expireIncoming();
+        }
+    }
+
+    /**
+     * Number of tasks which are waiting for their delay to elapse
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    public long getTickDuration() {
+        return tickDuration;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        startTime = System.nanoTime();
+        tick = 0;
+        wheel.clear();
+        worker = camelContext.getExecutorServiceManager().newThread("RedeliveryTimingWheel", new Runnable() {
+            public void run() {
+                runWorker();
+            }
+        });
+        worker.start();
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        Thread thread = worker;
+        worker = null;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        // do not leave any exchanges behind, instead let the tasks run now, so the error handlers
+        // can reject the redeliveries which are not allowed while stopping
+        List<HashedTimingWheel.Timeout<Task>> remaining = new ArrayList<>();
+        wheel.drain(remaining);
+        for (HashedTimingWheel.Timeout<Task> timeout : remaining) {
+            expire(timeout.getValue());
+        }
+        expireIncoming();
+    }
+
+    private void expireIncoming() {
+        Task task;
+        while ((task = incoming.poll()) != null) {
+            expire(task);
+        }
+    }
+
+    private void runWorker() {
+        long tickNanos = wheel.getTickDuration();
+        List<HashedTimingWheel.Timeout<Task>> due = new ArrayList<>();
+        while (worker != null) {
+            long deadline = tickNanos * (tick + 1);
+            long sleep = deadline - (System.nanoTime() - startTime);
+            if (sleep > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleep);
+                } catch (InterruptedException e) {
+                    // we are stopping
+                    return;
+                }
+                continue;
+            }
+            transferIncoming(tickNanos * tick);
+            wheel.advance(deadline, due);
+            for (HashedTimingWheel.Timeout<Task> timeout : due) {
+                expire(timeout.getValue());
+            }
+            due.clear();
+            tick++;
+        }
+    }
+
+    private void transferIncoming(long now) {
+        // limit the number of transfers per tick so a burst of schedules cannot starve the expiry
+        for (int i = 0; i < 100000; i++) {
+            Task task = incoming.poll();
+            if (task == null) {
+                return;
+            }
+            // the wheel does not schedule into the past, so a task which is already due expires at this tick
+            wheel.schedule(wheel.newTimeout(task), task.deadline, now);
+        }
+    }
+
+    private void expire(Task task) {
+        pending.decrementAndGet();
+        try {
+            task.task.run();
+        } catch (Throwable e) {
+            LOG.warn("Error running redelivery task: " + task.task + ". This exception is ignored.", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RedeliveryTimingWheel[tickDuration=" + tickDuration + "]";
+    }
+}
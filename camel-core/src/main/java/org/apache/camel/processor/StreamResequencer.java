@@ -89,9 +89,19 @@ public class StreamResequencer extends ServiceSupport implements SequenceSender<
      * @param comparator a sequence element comparator for exchanges.
      */
     public StreamResequencer(CamelContext camelContext, Processor processor, SequenceElementComparator<Exchange> comparator, Expression expression) {
+        this(camelContext, processor, new ResequencerEngine<Exchange>(comparator), expression);
+    }
+
+    /**
+     * Creates a new {@link StreamResequencer} instance using the given resequencer engine.
+     *
+     * @param processor next processor that processes re-ordered exchanges.
+     * @param engine the resequencer engine, such as {@link org.apache.camel.processor.resequencer.RingBufferResequencerEngine}.
+     */
+    public StreamResequencer(CamelContext camelContext, Processor processor, ResequencerEngine<Exchange> engine, Expression expression) {
         ObjectHelper.notNull(camelContext, "CamelContext");
         this.camelContext = camelContext;
-        this.engine = new ResequencerEngine<Exchange>(comparator);
+        this.engine = engine;
         this.engine.setSequenceSender(this);
         this.processor = processor;
         this.expression = expression;
@@ -274,9 +284,15 @@ public class StreamResequencer extends ServiceSupport implements SequenceSender<
         public void run() {
             while (isRunAllowed()) {
                 try {
+                    // wait for a delivery request, or until elements of the engine are timing out
+                    long wait = deliveryAttemptInterval;
+                    long deliveryTime = engine.getNextDeliveryTime();
+                    if (deliveryTime > 0) {
+                        wait = Math.max(1, Math.min(wait, deliveryTime - System.currentTimeMillis()));
+                    }
                     deliveryRequestLock.lock();
                     try {
-                        deliveryRequestCondition.await(deliveryAttemptInterval, TimeUnit.MILLISECONDS);
+                        deliveryRequestCondition.await(wait, TimeUnit.MILLISECONDS);
                     } finally {
                         deliveryRequestLock.unlock();
                     }
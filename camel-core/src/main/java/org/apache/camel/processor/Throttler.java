@@ -16,11 +16,21 @@
  */
 package org.apache.camel.processor;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.DelayQueue;
 import java.util.concurrent.Delayed;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.CamelContext;
@@ -31,6 +41,7 @@ import org.apache.camel.RuntimeExchangeException;
 import org.apache.camel.Traceable;
 import org.apache.camel.spi.IdAware;
 import org.apache.camel.util.AsyncProcessorHelper;
+import org.apache.camel.util.LRUCacheFactory;
 import org.apache.camel.util.ObjectHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,6 +66,20 @@ import org.slf4j.LoggerFactory;
  * callers point of view in the last timePeriodMillis no more than
  * maxRequestsPerPeriod have been allowed to be acquired.
  *
+ * Alternatively the throttler can use a token bucket, which refills continuously at
+ * maxRequestsPerPeriod tokens per timePeriodMillis and holds at most maxRequestsPerPeriod
+ * tokens. The bucket is a single atomic value, so there are no permits and no locking, and
+ * an exchange which has to wait for a token is not blocking a thread but is scheduled to
+ * continue routing on the scheduled executor service when its token is available.
+ * The token bucket also supports throttling per correlation key (such as a tenant header),
+ * where the number of buckets which are kept is bounded by maximumCorrelationKeys (not counting the buckets
+ * which have exchanges waiting for a token, as these are not evicted).
+ * The exchanges waiting for a token are kept in order per bucket, and each bucket has at most one
+ * task scheduled, which only takes the tokens and submits the exchanges to the executor service to continue
+ * routing when their tokens are available. The delay can be
+ * bounded by maximumDelay, where exchanges which would have to wait longer are rejected, and the exchanges
+ * which are still waiting when the throttler is stopped are rejected.
+ *
  * @version
  */
 public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAware {
@@ -77,6 +102,16 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
     private boolean rejectExecution;
     private boolean asyncDelayed;
     private boolean callerRunsWhenRejected = true;
+    private boolean tokenBucket;
+    private Expression correlationExpression;
+    private int maximumCorrelationKeys = 1000;
+    private long maximumDelay;
+    private final TokenBucket defaultTokenBucket = new TokenBucket(null);
+    private final TokenBucket retryTokenBucket = new TokenBucket(null);
+    private final Set<TokenBucket> scheduledTokenBuckets = ConcurrentHashMap.newKeySet();
+    // the buckets per correlation key which have exchanges waiting, so they are used even if evicted from tokenBuckets
+    private final Map<String, TokenBucket> scheduledCorrelationTokenBuckets = new ConcurrentHashMap<>();
+    private Map<String, TokenBucket> tokenBuckets;
 
     public Throttler(final CamelContext camelContext, final Processor processor, final Expression maxRequestsPerPeriodExpression, final long timePeriodMillis,
                      final ExecutorService asyncExecutor, final boolean shutdownAsyncExecutor, final boolean rejectExecution) {
@@ -97,6 +132,10 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
 
     @Override
     public boolean process(final Exchange exchange, final AsyncCallback callback) {
+        if (tokenBucket) {
+            return processTokenBucket(exchange, callback);
+        }
+
         long queuedStart = 0;
         if (log.isTraceEnabled()) {
             queuedStart = exchange.getProperty(PROPERTY_EXCHANGE_QUEUED_TIMESTAMP, 0L, Long.class);
@@ -220,6 +259,275 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
         }
     }
 
+    /**
+     * Throttles using the token bucket, which never blocks the current thread while delaying, but schedules
+     * the exchange to continue routing when its token is available.
+     */
+    protected boolean processTokenBucket(final Exchange exchange, final AsyncCallback callback) {
+        try {
+            if (!isRunAllowed()) {
+                throw new RejectedExecutionException("Run is not allowed");
+            }
+
+            int rate = calculateMaxRequestsPerPeriod(exchange);
+            if (rate == 0) {
+                if (isRejectExecution()) {
+                    throw new ThrottlerRejectedExecutionException("Exceeded the max throttle rate of 0 within " + timePeriodMillis + "ms");
+                }
+                // no tokens at all, so evaluate the throttle rate again later
+                log.trace("Throttle rate is 0, so retrying later, for exchangeId: {}", exchange.getExchangeId());
+                return scheduleTokenBucket(retryTokenBucket, exchange, callback, TimeUnit.MILLISECONDS.toNanos(timePeriodMillis), true);
+            }
+
+            TokenBucket bucket = tokenBucketFor(exchange);
+            long maxDelay = isRejectExecution() ? 0 : TimeUnit.MILLISECONDS.toNanos(maximumDelay);
+            long delay = bucket.acquire(rate, TimeUnit.MILLISECONDS.toNanos(timePeriodMillis), isRejectExecution(), maxDelay);
+            if (delay < 0) {
+                if (isRejectExecution()) {
+                    throw new ThrottlerRejectedExecutionException("Exceeded the max throttle rate of "
+                            + rate + " within " + timePeriodMillis + "ms");
+                }
+                throw new ThrottlerRejectedExecutionException("Exceeded the maximum delay of " + maximumDelay
+                        + "ms with the max throttle rate of " + rate + " within " + timePeriodMillis + "ms");
+            } else if (delay == 0) {
+                log.trace("No throttling applied to exchangeId: {}", exchange.getExchangeId());
+                if (processor != null) {
+                    return processor.process(exchange, callback);
+                }
+                callback.done(true);
+                return true;
+            } else if (exchange.isTransacted()) {
+                // a transacted exchange must continue routing on the current thread
+                log.trace("Throttled for {}ms, exchangeId: {}", TimeUnit.NANOSECONDS.toMillis(delay), exchange.getExchangeId());
+                TimeUnit.NANOSECONDS.sleep(delay);
+                if (processor != null) {
+                    return processor.process(exchange, callback);
+                }
+                callback.done(true);
+                return true;
+            }
+
+            return scheduleTokenBucket(bucket, exchange, callback, delay, false);
+        } catch (final InterruptedException e) {
+            boolean forceShutdown = exchange.getContext().getShutdownStrategy().forceShutdown(this);
+            if (forceShutdown) {
+                String msg = "Run not allowed as ShutdownStrategy is forcing shutting down, will reject executing exchange: " + exchange;
+                log.debug(msg);
+                exchange.setException(new RejectedExecutionException(msg, e));
+            } else {
+                exchange.setException(e);
+            }
+            callback.done(true);
+            return true;
+        } catch (final Throwable t) {
+            exchange.setException(t);
+            callback.done(true);
+            return true;
+        }
+    }
+
+    /**
+     * Queues the exchange on the bucket to continue routing (or to be throttled again if retry is enabled) after the
+     * given delay. If the scheduled executor service rejects the task and isCallerRunsWhenRejected() is enabled, then
+     * the current thread waits for the delay instead.
+     */
+    private boolean scheduleTokenBucket(final TokenBucket bucket, final Exchange exchange, final AsyncCallback callback,
+                                        final long delay, final boolean retry) throws Exception {
+        DelayedExchange delayed = new DelayedExchange(exchange, callback, System.nanoTime() + delay, retry);
+        synchronized (bucket) {
+            if (!isRunAllowed()) {
+                throw new RejectedExecutionException("Run is not allowed");
+            }
+            bucket.delayed.add(delayed);
+            if (bucket.scheduled) {
+                // the exchange is continued by the task which is already scheduled for the bucket
+                return false;
+            }
+            try {
+                scheduleDrain(bucket, delay);
+                return false;
+            } catch (final RejectedExecutionException e) {
+                // the bucket had no task scheduled, so the exchange is the only one queued
+                bucket.delayed.removeLast();
+                if (!isCallerRunsWhenRejected()) {
+                    throw e;
+                }
+            }
+        }
+
+        log.debug("AsyncExecutor is full, rejected exchange will be delayed in the current thread, exchangeId: {}", exchange.getExchangeId());
+        TimeUnit.NANOSECONDS.sleep(delay);
+        if (retry) {
+            return processTokenBucket(exchange, callback);
+        } else if (processor != null) {
+            return processor.process(exchange, callback);
+        }
+        callback.done(true);
+        return true;
+    }
+
+    /**
+     * Schedules the task which continues the exchanges queued on the bucket, must be called while synchronized on the bucket.
+     */
+    private void scheduleDrain(final TokenBucket bucket, final long delay) {
+        ((ScheduledExecutorService) asyncExecutor).schedule(() -> drain(bucket), delay, TimeUnit.NANOSECONDS);
+        bucket.scheduled = true;
+        scheduledTokenBuckets.add(bucket);
+        if (bucket.key != null) {
+            scheduledCorrelationTokenBuckets.put(bucket.key, bucket);
+        }
+    }
+
+    /**
+     * Marks the bucket as not having a task scheduled, must be called while synchronized on the bucket.
+     */
+    private void unscheduleDrain(final TokenBucket bucket) {
+        bucket.scheduled = false;
+        scheduledTokenBuckets.remove(bucket);
+        if (bucket.key != null) {
+            scheduledCorrelationTokenBuckets.remove(bucket.key, bucket);
+        }
+    }
+
+    /**
+     * Takes the exchanges queued on the bucket which tokens are available, and schedules the task again for the
+     * next exchange which is waiting for its token. The exchanges are submitted to the executor service to continue
+     * routing, so a slow exchange does not delay the exchanges after it.
+     */
+    private void drain(final TokenBucket bucket) {
+        List<DelayedExchange> ready = new ArrayList<>();
+        List<DelayedExchange> rejected = null;
+        synchronized (bucket) {
+            long now = System.nanoTime();
+            DelayedExchange delayed = bucket.delayed.peek();
+            while (delayed != null && delayed.time - now <= 0) {
+                ready.add(bucket.delayed.poll());
+                delayed = bucket.delayed.peek();
+            }
+            if (delayed == null) {
+                unscheduleDrain(bucket);
+            } else {
+                try {
+                    scheduleDrain(bucket, delayed.time - now);
+                } catch (final RejectedExecutionException e) {
+                    // the thread pool is shutting down, so the exchanges cannot be continued
+                    unscheduleDrain(bucket);
+                    rejected = new ArrayList<>(bucket.delayed);
+                    bucket.delayed.clear();
+                }
+            }
+        }
+
+        for (DelayedExchange delayed : ready) {
+            submit(delayed);
+        }
+        if (rejected != null) {
+            reject(rejected, "Cannot schedule throttled exchanges as the thread pool rejected the task");
+        }
+    }
+
+    /**
+     * Submits the delayed exchange to continue routing on the executor service. If the executor service rejects the
+     * task and isCallerRunsWhenRejected() is enabled, then the exchange continues routing on the current thread.
+     */
+    private void submit(final DelayedExchange delayed) {
+        try {
+            asyncExecutor.execute(() -> resume(delayed));
+        } catch (final RejectedExecutionException e) {
+            if (isCallerRunsWhenRejected()) {
+                resume(delayed);
+            } else {
+                reject(Collections.singletonList(delayed), "Cannot continue throttled exchange as the thread pool rejected the task");
+            }
+        }
+    }
+
+    /**
+     * Continues routing the delayed exchange, which continues asynchronously so the callback is done with false.
+     */
+    private void resume(final DelayedExchange delayed) {
+        final Exchange exchange = delayed.exchange;
+        final AsyncCallback asyncCallback = new AsyncCallback() {
+            @Override
+            public void done(boolean doneSync) {
+                delayed.callback.done(false);
+            }
+        };
+        try {
+            if (delayed.retry) {
+                processTokenBucket(exchange, asyncCallback);
+            } else if (processor != null) {
+                log.trace("Throttled for {}ms, exchangeId: {}", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - delayed.queued), exchange.getExchangeId());
+                processor.process(exchange, asyncCallback);
+            } else {
+                asyncCallback.done(false);
+            }
+        } catch (final Throwable t) {
+            exchange.setException(t);
+            asyncCallback.done(false);
+        }
+    }
+
+    private void reject(final List<DelayedExchange> rejected, final String message) {
+        for (DelayedExchange delayed : rejected) {
+            log.debug("{}, will reject executing exchange: {}", message, delayed.exchange);
+            delayed.exchange.setException(new RejectedExecutionException(message));
+            delayed.callback.done(false);
+        }
+    }
+
+    /**
+     * Gets the token bucket for the correlation key of the exchange, or the default bucket if not throttling per key.
+     */
+    private TokenBucket tokenBucketFor(final Exchange exchange) {
+        if (correlationExpression == null) {
+            return defaultTokenBucket;
+        }
+        String key = correlationExpression.evaluate(exchange, String.class);
+        if (key == null) {
+            return defaultTokenBucket;
+        }
+        TokenBucket bucket = tokenBuckets.get(key);
+        if (bucket == null) {
+            synchronized (tokenBuckets) {
+                bucket = tokenBuckets.get(key);
+                if (bucket == null) {
+                    // the bucket may have been evicted while exchanges are waiting for its tokens
+                    bucket = scheduledCorrelationTokenBuckets.get(key);
+                    if (bucket == null) {
+                        bucket = new TokenBucket(key);
+                    }
+                    tokenBuckets.put(key, bucket);
+                }
+            }
+        }
+        return bucket;
+    }
+
+    /**
+     * Evaluates the maxRequestsPerPeriodExpression and sets the throttle rate, without any permits as used by the token bucket.
+     */
+    private int calculateMaxRequestsPerPeriod(final Exchange exchange) throws Exception {
+        Integer newThrottle = maxRequestsPerPeriodExpression.evaluate(exchange, Integer.class);
+
+        if (newThrottle != null && newThrottle < 0) {
+            throw new IllegalStateException("The maximumRequestsPerPeriod must be a positive number, was: " + newThrottle);
+        }
+
+        int rate = throttleRate;
+        if (newThrottle == null) {
+            if (rate == 0) {
+                throw new RuntimeExchangeException("The maxRequestsPerPeriodExpression was evaluated as null: " + maxRequestsPerPeriodExpression, exchange);
+            }
+            return rate;
+        }
+        if (newThrottle != rate) {
+            log.debug("Throttle rate changed from {} to {}, triggered by ExchangeId: {}", rate, newThrottle, exchange.getExchangeId());
+            throttleRate = newThrottle;
+        }
+        return newThrottle;
+    }
+
     /**
      * Returns a permit to the DelayQueue, first resetting it's delay to be relative to now.
      */
@@ -281,12 +589,36 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
 
     @Override
     protected void doStart() throws Exception {
-        if (isAsyncDelayed()) {
+        if (isAsyncDelayed() || isTokenBucket()) {
             ObjectHelper.notNull(asyncExecutor, "executorService", this);
         }
+        if (isTokenBucket()) {
+            if (!(asyncExecutor instanceof ScheduledExecutorService)) {
+                throw new IllegalArgumentException("The executorService must be a ScheduledExecutorService when using token bucket on " + this);
+            }
+            if (correlationExpression != null && tokenBuckets == null) {
+                tokenBuckets = LRUCacheFactory.newLRUCache(maximumCorrelationKeys);
+            }
+        } else if (correlationExpression != null) {
+            throw new IllegalArgumentException("Throttling per correlation key requires token bucket to be enabled on " + this);
+        }
         super.doStart();
     }
 
+    @Override
+    protected void doStop() throws Exception {
+        // reject the exchanges which are still waiting for their tokens, as their tasks may never run
+        List<DelayedExchange> rejected = new ArrayList<>();
+        for (TokenBucket bucket : scheduledTokenBuckets) {
+            synchronized (bucket) {
+                rejected.addAll(bucket.delayed);
+                bucket.delayed.clear();
+            }
+        }
+        reject(rejected, "Throttler is stopping");
+        super.doStop();
+    }
+
     @Override
     protected void doShutdown() throws Exception {
         if (shutdownAsyncExecutor && asyncExecutor != null) {
@@ -320,6 +652,67 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
         }
     }
 
+    /**
+     * A token bucket which is implemented as the generic cell rate algorithm, where the bucket is a single
+     * atomic theoretical arrival time, which is moved forward by one emission interval for each token acquired.
+     */
+    private static final class TokenBucket {
+        private final String key;
+        private final AtomicLong theoreticalArrivalTime = new AtomicLong(System.nanoTime());
+        // the exchanges waiting for their tokens, guarded by the bucket
+        private final Deque<DelayedExchange> delayed = new ArrayDeque<>();
+        private boolean scheduled;
+
+        TokenBucket(String key) {
+            this.key = key;
+        }
+
+        /**
+         * Acquires a token from the bucket.
+         *
+         * @param rate         the number of tokens per period, must be positive
+         * @param periodNanos  the period in nanos
+         * @param reject       whether to not acquire a token if it is not available now
+         * @param maxDelay     the maximum nanos to wait for the token, or <tt>0</tt> for no limit
+         * @return the nanos to wait until the acquired token is available, or <tt>-1</tt> if the token was rejected
+         */
+        long acquire(int rate, long periodNanos, boolean reject, long maxDelay) {
+            long interval = Math.max(1, periodNanos / rate);
+            // allow a burst of the rate within the period
+            long tolerance = periodNanos - interval;
+            while (true) {
+                long now = System.nanoTime();
+                long tat = theoreticalArrivalTime.get();
+                long delay = tat - tolerance - now;
+                if (delay > 0 && (reject || (maxDelay > 0 && delay > maxDelay))) {
+                    return -1;
+                }
+                long next = (tat - now > 0 ? tat : now) + interval;
+                if (theoreticalArrivalTime.compareAndSet(tat, next)) {
+                    return delay > 0 ? delay : 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * An exchange which is waiting for its token.
+     */
+    private static final class DelayedExchange {
+        private final Exchange exchange;
+        private final AsyncCallback callback;
+        private final long time;
+        private final boolean retry;
+        private final long queued = System.nanoTime();
+
+        DelayedExchange(Exchange exchange, AsyncCallback callback, long time, boolean retry) {
+            this.exchange = exchange;
+            this.callback = callback;
+            this.time = time;
+            this.retry = retry;
+        }
+    }
+
     public boolean isRejectExecution() {
         return rejectExecution;
     }
@@ -344,6 +737,60 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
         this.callerRunsWhenRejected = callerRunsWhenRejected;
     }
 
+    public boolean isTokenBucket() {
+        return tokenBucket;
+    }
+
+    /**
+     * Whether to use the token bucket, which does not block threads while delaying, instead of the delay queue.
+     */
+    public void setTokenBucket(boolean tokenBucket) {
+        this.tokenBucket = tokenBucket;
+    }
+
+    public Expression getCorrelationExpression() {
+        return correlationExpression;
+    }
+
+    /**
+     * Sets the expression to evaluate the key to throttle per, such as a tenant header. Requires the token bucket.
+     */
+    public void setCorrelationExpression(Expression correlationExpression) {
+        this.correlationExpression = correlationExpression;
+    }
+
+    public int getMaximumCorrelationKeys() {
+        return maximumCorrelationKeys;
+    }
+
+    /**
+     * Sets the maximum number of correlation keys to keep a token bucket for, where the least recently used are discarded.
+     * A token bucket which has exchanges waiting for their tokens is kept until the exchanges have continued.
+     */
+    public void setMaximumCorrelationKeys(int maximumCorrelationKeys) {
+        this.maximumCorrelationKeys = maximumCorrelationKeys;
+    }
+
+    public long getMaximumDelay() {
+        return maximumDelay;
+    }
+
+    /**
+     * Sets the maximum time in millis an exchange is allowed to wait for its token when using the token bucket,
+     * where exchanges which would have to wait longer are rejected with a {@link ThrottlerRejectedExecutionException}.
+     * Is by default <tt>0</tt> which means no limit.
+     */
+    public void setMaximumDelay(long maximumDelay) {
+        this.maximumDelay = maximumDelay;
+    }
+
+    /**
+     * Gets the current number of correlation keys which has a token bucket.
+     */
+    public int getCorrelationKeysSize() {
+        return tokenBuckets != null ? tokenBuckets.size() : 0;
+    }
+
     public String getId() {
         return id;
     }
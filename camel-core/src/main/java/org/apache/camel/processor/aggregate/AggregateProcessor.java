@@ -17,7 +17,9 @@
 package org.apache.camel.processor.aggregate;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -90,7 +92,6 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
 
     private static final Logger LOG = LoggerFactory.getLogger(AggregateProcessor.class);
 
-    private final Lock lock = new ReentrantLock();
     private final AtomicBoolean aggregateRepositoryWarned = new AtomicBoolean();
     private final CamelContext camelContext;
     private final Processor processor;
@@ -105,8 +106,8 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
     private ScheduledExecutorService timeoutCheckerExecutorService;
     private boolean shutdownTimeoutCheckerExecutorService;
     private ScheduledExecutorService recoverService;
-    // store correlation key -> exchange id in timeout map
-    private TimeoutMap<String, String> timeoutMap;
+    // the correlation keys are spread over the lock stripes which each has its own lock and timeout map
+    private volatile LockStripe[] stripes = {new LockStripe(0)};
     private ExceptionHandler exceptionHandler;
     private AggregationRepository aggregationRepository;
     private Map<String, String> closedCorrelationKeys;
@@ -130,6 +131,62 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         int redeliveryCounter;
     }
 
+    // guards the correlation keys which hash to the stripe
+    private final class LockStripe implements AggregateProcessorStatistics.LockStripeStatistics {
+        private final int index;
+        private final Lock lock = new ReentrantLock();
+        private final AtomicLong stripeTotalIn = new AtomicLong();
+        private final AtomicLong stripeTotalCompleted = new AtomicLong();
+        private final AtomicLong stripeContended = new AtomicLong();
+        // store correlation key -> exchange id in timeout map
+        private TimeoutMap<String, String> timeoutMap;
+
+        private LockStripe(int index) {
+            this.index = index;
+        }
+
+        void lock() {
+            if (!lock.tryLock()) {
+                // another thread holds the lock so we must wait
+                if (getStatistics().isStatisticsEnabled()) {
+                    stripeContended.incrementAndGet();
+                }
+                lock.lock();
+            }
+        }
+
+        void unlock() {
+            lock.unlock();
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public long getTotalIn() {
+            return stripeTotalIn.get();
+        }
+
+        public long getTotalCompleted() {
+            return stripeTotalCompleted.get();
+        }
+
+        public long getContended() {
+            return stripeContended.get();
+        }
+
+        public int getPendingTimeouts() {
+            TimeoutMap<String, String> map = timeoutMap;
+            return map != null ? map.size() : 0;
+        }
+
+        void reset() {
+            stripeTotalIn.set(0);
+            stripeTotalCompleted.set(0);
+            stripeContended.set(0);
+        }
+    }
+
     private class Statistics implements AggregateProcessorStatistics {
 
         private boolean statisticsEnabled = true;
@@ -170,6 +227,10 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
             return completedByForce.get();
         }
 
+        public List<LockStripeStatistics> getLockStripeStatistics() {
+            return Collections.<LockStripeStatistics>unmodifiableList(Arrays.asList(stripes));
+        }
+
         public void reset() {
             totalIn.set(0);
             totalCompleted.set(0);
@@ -179,6 +240,9 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
             completedByPredicate.set(0);
             completedByBatchConsumer.set(0);
             completedByForce.set(0);
+            for (LockStripe stripe : stripes) {
+                stripe.reset();
+            }
         }
 
         public boolean isStatisticsEnabled() {
@@ -195,6 +259,7 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
     private Integer closeCorrelationKeyOnCompletion;
     private boolean parallelProcessing;
     private boolean optimisticLocking;
+    private int lockStripes = 1;
 
     // different ways to have completion triggered
     private boolean eagerCheckCompletion;
@@ -210,6 +275,7 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
     private boolean forceCompletionOnStop;
     private boolean completeAllOnStop;
     private long completionTimeoutCheckerInterval = 1000;
+    private boolean completionTimeoutTimingWheel;
 
     private ProducerTemplate deadLetterProducerTemplate;
 
@@ -304,6 +370,11 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
             throw new ClosedCorrelationKeyException(key, exchange);
         }
 
+        LockStripe stripe = stripeFor(key);
+        if (getStatistics().isStatisticsEnabled()) {
+            stripe.stripeTotalIn.incrementAndGet();
+        }
+
         // when optimist locking is enabled we keep trying until we succeed
         if (optimisticLocking) {
             List<Exchange> aggregated = null;
@@ -342,13 +413,14 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
             // when memory based then its fast using synchronized, but if the aggregation repository is IO
             // bound such as JPA etc then concurrent aggregation per correlation key could
             // improve performance as we can run aggregation repository get/add in parallel
+            // (the lock is striped by correlation key so different keys can be aggregated in parallel when using lockStripes)
             List<Exchange> aggregated = null;
-            lock.lock();
+            stripe.lock();
             try {
                 aggregated = doAggregation(key, copy);
 
             } finally {
-                lock.unlock();
+                stripe.unlock();
             }
             // we are completed so do that work outside the lock
             if (aggregated != null) {
@@ -674,10 +746,13 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
             aggregationRepository.remove(aggregated.getContext(), key, original);
         }
 
-        if (!fromTimeout && timeoutMap != null) {
-            // cleanup timeout map if it was a incoming exchange which triggered the timeout (and not the timeout checker)
-            LOG.trace("Removing correlation key {} from timeout", key);
-            timeoutMap.remove(key);
+        if (!fromTimeout) {
+            TimeoutMap<String, String> timeoutMap = stripeFor(key).timeoutMap;
+            if (timeoutMap != null) {
+                // cleanup timeout map if it was a incoming exchange which triggered the timeout (and not the timeout checker)
+                LOG.trace("Removing correlation key {} from timeout", key);
+                timeoutMap.remove(key);
+            }
         }
 
         // this key has been closed so add it to the closed map
@@ -733,6 +808,9 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
 
         if (getStatistics().isStatisticsEnabled()) {
             totalCompleted.incrementAndGet();
+            if (key != null) {
+                stripeFor(key).stripeTotalCompleted.incrementAndGet();
+            }
 
             String completedBy = exchange.getProperty(Exchange.AGGREGATED_COMPLETED_BY, String.class);
             if ("interval".equals(completedBy)) {
@@ -803,9 +881,14 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
             }
         }
 
+        int restored = 0;
+        for (LockStripe stripe : stripes) {
+            restored += stripe.timeoutMap.size();
+        }
+
         // log duration of this task so end user can see how long it takes to pre-check this upon starting
         LOG.info("Restored {} CompletionTimeout conditions in the AggregationTimeoutChecker in {}",
-                timeoutMap.size(), TimeUtils.printDuration(watch.taken()));
+                restored, TimeUtils.printDuration(watch.taken()));
     }
 
     /**
@@ -818,7 +901,38 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
     private void addExchangeToTimeoutMap(String key, Exchange exchange, long timeout) {
         // store the timeout value on the exchange as well, in case we need it later
         exchange.setProperty(Exchange.AGGREGATED_TIMEOUT, timeout);
-        timeoutMap.put(key, exchange.getExchangeId(), timeout);
+        stripeFor(key).timeoutMap.put(key, exchange.getExchangeId(), timeout);
+    }
+
+    /**
+     * Gets the lock stripe which guards the given correlation key
+     */
+    private LockStripe stripeFor(String key) {
+        LockStripe[] current = stripes;
+        if (current.length == 1) {
+            return current[0];
+        }
+        // spread the hash code as the lower bits of string hash codes are often alike
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return current[(hash & Integer.MAX_VALUE) % current.length];
+    }
+
+    /**
+     * Groups the correlation keys by the lock stripe which guards them, so each stripe is only locked once
+     */
+    private Map<LockStripe, List<String>> groupByLockStripe(Set<String> keys) {
+        Map<LockStripe, List<String>> answer = new LinkedHashMap<LockStripe, List<String>>();
+        for (String key : keys) {
+            LockStripe stripe = stripeFor(key);
+            List<String> list = answer.get(stripe);
+            if (list == null) {
+                list = new ArrayList<String>();
+                answer.put(stripe, list);
+            }
+            list.add(key);
+        }
+        return answer;
     }
 
     /**
@@ -941,6 +1055,18 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         this.completionTimeoutCheckerInterval = completionTimeoutCheckerInterval;
     }
 
+    public boolean isCompletionTimeoutTimingWheel() {
+        return completionTimeoutTimingWheel;
+    }
+
+    /**
+     * Whether the completion timeout checker should use a timing wheel which only visits the correlation keys
+     * which are due, instead of scanning all the correlation keys.
+     */
+    public void setCompletionTimeoutTimingWheel(boolean completionTimeoutTimingWheel) {
+        this.completionTimeoutTimingWheel = completionTimeoutTimingWheel;
+    }
+
     public ExceptionHandler getExceptionHandler() {
         return exceptionHandler;
     }
@@ -965,6 +1091,23 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         this.optimisticLocking = optimisticLocking;
     }
 
+    public int getLockStripes() {
+        return lockStripes;
+    }
+
+    /**
+     * Sets the number of lock stripes the correlation keys are spread over, so different correlation keys can
+     * be aggregated in parallel. Each stripe has its own lock and checks its own completion timeouts.
+     * <p/>
+     * The default is 1 which uses a single lock for all correlation keys. When using more stripes the
+     * {@link AggregationRepository} must support concurrent access to different correlation keys,
+     * which the default {@link MemoryAggregationRepository} does, and the {@link AggregationStrategy} must be
+     * thread safe, as it is invoked concurrently for correlation keys in different stripes.
+     */
+    public void setLockStripes(int lockStripes) {
+        this.lockStripes = lockStripes;
+    }
+
     public AggregationRepository getAggregationRepository() {
         return aggregationRepository;
     }
@@ -1081,22 +1224,25 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
      */
     private final class AggregationTimeoutMap extends DefaultTimeoutMap<String, String> {
 
-        private AggregationTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis) {
+        private final LockStripe stripe;
+
+        private AggregationTimeoutMap(LockStripe stripe, ScheduledExecutorService executor, long requestMapPollTimeMillis) {
             // do NOT use locking on the timeout map as this aggregator has its own shared lock we will use instead
-            super(executor, requestMapPollTimeMillis, optimisticLocking);
+            super(executor, requestMapPollTimeMillis, optimisticLocking, completionTimeoutTimingWheel);
+            this.stripe = stripe;
         }
 
         @Override
         public void purge() {
-            // must acquire the shared aggregation lock to be able to purge
+            // must acquire the aggregation lock of the stripe to be able to purge
             if (!optimisticLocking) {
-                lock.lock();
+                stripe.lock();
             }
             try {
                 super.purge();
             } finally {
                 if (!optimisticLocking) {
-                    lock.unlock();
+                    stripe.unlock();
                 }
             }
         }
@@ -1155,37 +1301,40 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
             Set<String> keys = aggregationRepository.getKeys();
 
             if (keys != null && !keys.isEmpty()) {
-                // must acquire the shared aggregation lock to be able to trigger interval completion
-                if (!optimisticLocking) {
-                    lock.lock();
-                }
-                try {
-                    for (String key : keys) {
-                        boolean stolenInterval = false;
-                        Exchange exchange = aggregationRepository.get(camelContext, key);
-                        if (exchange == null) {
-                            stolenInterval = true;
-                        } else {
-                            LOG.trace("Completion interval triggered for correlation key: {}", key);
-                            // indicate it was completed by interval
-                            exchange.setProperty(Exchange.AGGREGATED_COMPLETED_BY, "interval");
-                            try {
-                                Exchange answer = onCompletion(key, exchange, exchange, false);
-                                if (answer != null) {
-                                    onSubmitCompletion(key, answer);
-                                }
-                            } catch (OptimisticLockingAggregationRepository.OptimisticLockingException e) {
+                for (Map.Entry<LockStripe, List<String>> entry : groupByLockStripe(keys).entrySet()) {
+                    LockStripe stripe = entry.getKey();
+                    // must acquire the aggregation lock of the stripe to be able to trigger interval completion
+                    if (!optimisticLocking) {
+                        stripe.lock();
+                    }
+                    try {
+                        for (String key : entry.getValue()) {
+                            boolean stolenInterval = false;
+                            Exchange exchange = aggregationRepository.get(camelContext, key);
+                            if (exchange == null) {
                                 stolenInterval = true;
+                            } else {
+                                LOG.trace("Completion interval triggered for correlation key: {}", key);
+                                // indicate it was completed by interval
+                                exchange.setProperty(Exchange.AGGREGATED_COMPLETED_BY, "interval");
+                                try {
+                                    Exchange answer = onCompletion(key, exchange, exchange, false);
+                                    if (answer != null) {
+                                        onSubmitCompletion(key, answer);
+                                    }
+                                } catch (OptimisticLockingAggregationRepository.OptimisticLockingException e) {
+                                    stolenInterval = true;
+                                }
+                            }
+                            if (optimisticLocking && stolenInterval) {
+                                LOG.debug("Another Camel instance has already processed this interval aggregation for exchange with correlation id: {}", key);
                             }
                         }
-                        if (optimisticLocking && stolenInterval) {
-                            LOG.debug("Another Camel instance has already processed this interval aggregation for exchange with correlation id: {}", key);
+                    } finally {
+                        if (!optimisticLocking) {
+                            stripe.unlock();
                         }
                     }
-                } finally {
-                    if (!optimisticLocking) {
-                        lock.unlock();
-                    }
                 }
             }
 
@@ -1223,8 +1372,9 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
                     LOG.info("We are shutting down so stop recovering");
                     return;
                 }
+                // the correlation key is not known until the exchange is recovered so we must acquire all the stripes
                 if (!optimisticLocking) {
-                    lock.lock();
+                    lockAllStripes();
                 }
                 try {
                     // consider in progress if it was in progress before we did the scan, or currently after we did the scan
@@ -1290,7 +1440,7 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
                     }
                 } finally {
                     if (!optimisticLocking) {
-                        lock.unlock();
+                        unlockAllStripes();
                     }
                 }
             }
@@ -1343,6 +1493,19 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
             LOG.info("Optimistic locking is enabled");
         }
 
+        if (lockStripes > 1) {
+            if (isCompletionFromBatchConsumer()) {
+                throw new IllegalArgumentException("Option lockStripes cannot be used together with completionFromBatchConsumer"
+                        + " as the batch completion spans all the correlation keys");
+            }
+            LOG.info("Using {} lock stripes for the correlation keys", lockStripes);
+        }
+        LockStripe[] newStripes = new LockStripe[Math.max(1, lockStripes)];
+        for (int i = 0; i < newStripes.length; i++) {
+            newStripes[i] = new LockStripe(i);
+        }
+        stripes = newStripes;
+
         ServiceHelper.startServices(aggregationStrategy, processor, aggregationRepository);
 
         // should we use recover checker
@@ -1398,12 +1561,16 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
                 setTimeoutCheckerExecutorService(camelContext.getExecutorServiceManager().newScheduledThreadPool(this, AGGREGATE_TIMEOUT_CHECKER, 1));
                 shutdownTimeoutCheckerExecutorService = true;
             }
-            // check for timed out aggregated messages once every second
-            timeoutMap = new AggregationTimeoutMap(getTimeoutCheckerExecutorService(), getCompletionTimeoutCheckerInterval());
+            // check for timed out aggregated messages once every second (each stripe checks its own correlation keys)
+            for (LockStripe stripe : stripes) {
+                stripe.timeoutMap = new AggregationTimeoutMap(stripe, getTimeoutCheckerExecutorService(), getCompletionTimeoutCheckerInterval());
+            }
             // fill in existing timeout values from the aggregation repository, for example if a restart occurred, then we
             // need to re-establish the timeout map so timeout can trigger
             restoreTimeoutMapFromAggregationRepository();
-            ServiceHelper.startService(timeoutMap);
+            for (LockStripe stripe : stripes) {
+                ServiceHelper.startService(stripe.timeoutMap);
+            }
         }
 
         if (aggregateController == null) {
@@ -1425,7 +1592,10 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         if (recoverService != null) {
             camelContext.getExecutorServiceManager().shutdown(recoverService);
         }
-        ServiceHelper.stopServices(timeoutMap, processor, deadLetterProducerTemplate);
+        for (LockStripe stripe : stripes) {
+            ServiceHelper.stopService(stripe.timeoutMap);
+        }
+        ServiceHelper.stopServices(processor, deadLetterProducerTemplate);
 
         if (closedCorrelationKeys != null) {
             // it may be a service so stop it as well
@@ -1503,12 +1673,27 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         super.doShutdown();
     }
 
+    private void lockAllStripes() {
+        // always lock the stripes in the same order to avoid deadlocks
+        for (LockStripe stripe : stripes) {
+            stripe.lock();
+        }
+    }
+
+    private void unlockAllStripes() {
+        LockStripe[] current = stripes;
+        for (int i = current.length - 1; i >= 0; i--) {
+            current[i].unlock();
+        }
+    }
+
     public int forceCompletionOfGroup(String key) {
         // must acquire the shared aggregation lock to be able to trigger force completion
         int total = 0;
 
+        LockStripe stripe = stripeFor(key);
         if (!optimisticLocking) {
-            lock.lock();
+            stripe.lock();
         }
         try {
             Exchange exchange = aggregationRepository.get(camelContext, key);
@@ -1524,7 +1709,7 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
             }
         } finally {
             if (!optimisticLocking) {
-                lock.unlock(); 
+                stripe.unlock();
             }
         }
         LOG.trace("Completed force completion of group {}", key);
@@ -1551,27 +1736,30 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
 
         int total = 0;
         if (keys != null && !keys.isEmpty()) {
-            // must acquire the shared aggregation lock to be able to trigger force completion
-            if (!optimisticLocking) {
-                lock.lock(); 
-            }
             total = keys.size();
-            try {
-                for (String key : keys) {
-                    Exchange exchange = aggregationRepository.get(camelContext, key);
-                    if (exchange != null) {
-                        LOG.trace("Force completion triggered for correlation key: {}", key);
-                        // indicate it was completed by a force completion request
-                        exchange.setProperty(Exchange.AGGREGATED_COMPLETED_BY, "force");
-                        Exchange answer = onCompletion(key, exchange, exchange, false);
-                        if (answer != null) {
-                            onSubmitCompletion(key, answer);
+            for (Map.Entry<LockStripe, List<String>> entry : groupByLockStripe(keys).entrySet()) {
+                LockStripe stripe = entry.getKey();
+                // must acquire the aggregation lock of the stripe to be able to trigger force completion
+                if (!optimisticLocking) {
+                    stripe.lock();
+                }
+                try {
+                    for (String key : entry.getValue()) {
+                        Exchange exchange = aggregationRepository.get(camelContext, key);
+                        if (exchange != null) {
+                            LOG.trace("Force completion triggered for correlation key: {}", key);
+                            // indicate it was completed by a force completion request
+                            exchange.setProperty(Exchange.AGGREGATED_COMPLETED_BY, "force");
+                            Exchange answer = onCompletion(key, exchange, exchange, false);
+                            if (answer != null) {
+                                onSubmitCompletion(key, answer);
+                            }
                         }
                     }
-                }
-            } finally {
-                if (!optimisticLocking) {
-                    lock.unlock();
+                } finally {
+                    if (!optimisticLocking) {
+                        stripe.unlock();
+                    }
                 }
             }
         }
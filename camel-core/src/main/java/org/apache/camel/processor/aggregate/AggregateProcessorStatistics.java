@@ -16,11 +16,44 @@
  */
 package org.apache.camel.processor.aggregate;
 
+import java.util.List;
+
 /**
  * Various statistics of the aggregator
  */
 public interface AggregateProcessorStatistics {
 
+    /**
+     * Statistics of a lock stripe of the aggregator
+     */
+    interface LockStripeStatistics {
+
+        /**
+         * The index of the lock stripe
+         */
+        int getIndex();
+
+        /**
+         * Total number of exchanges arrived into the lock stripe
+         */
+        long getTotalIn();
+
+        /**
+         * Total number of exchanges completed from the lock stripe
+         */
+        long getTotalCompleted();
+
+        /**
+         * Total number of times a thread had to wait for the lock of the lock stripe
+         */
+        long getContended();
+
+        /**
+         * Current number of correlation keys of the lock stripe waiting for completion timeout
+         */
+        int getPendingTimeouts();
+    }
+
     /**
      * Total number of exchanges arrived into the aggregator
      */
@@ -66,6 +99,11 @@ public interface AggregateProcessorStatistics {
      */
     long getCompletedByForce();
 
+    /**
+     * Statistics of each lock stripe
+     */
+    List<LockStripeStatistics> getLockStripeStatistics();
+
     /**
      * Reset the counters
      */
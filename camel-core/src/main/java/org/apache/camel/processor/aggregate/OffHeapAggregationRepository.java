@@ -0,0 +1,679 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.impl.DefaultExchangeHolder;
+import org.apache.camel.spi.RecoverableAggregationRepository;
+import org.apache.camel.support.ServiceSupport;
+import org.apache.camel.util.CamelObjectInputStream;
+import org.apache.camel.util.FileUtil;
+import org.apache.camel.util.IOHelper;
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link org.apache.camel.spi.RecoverableAggregationRepository} which stores the aggregated {@link Exchange}s
+ * outside the heap, for aggregations which are too large to keep in memory.
+ * <p/>
+ * The most recently used aggregated exchanges are kept as-is in a hot set on the heap, so an exchange which is
+ * being aggregated is not serialized on every message. When the hot set is full, the least recently used exchange
+ * is serialized using {@link DefaultExchangeHolder} into a direct buffer outside the heap. When the memory used
+ * by the direct buffers exceeds the maximum off heap size, the least recently used buffers are spilled to a file.
+ * <p/>
+ * The completed exchanges are kept until they are confirmed, so they can be recovered. If the persistent file name
+ * is configured, then all the exchanges are written to the file when the repository is stopped, and loaded again
+ * when its started. Notice the exchanges are only kept if the repository was stopped gracefully, they are
+ * discarded if the JVM crashed. Otherwise a temporary file is used to spill to.
+ *
+ * @version 
+ */
+public class OffHeapAggregationRepository extends ServiceSupport implements RecoverableAggregationRepository {
+    private static final Logger LOG = LoggerFactory.getLogger(OffHeapAggregationRepository.class);
+    private static final int MAGIC = 0xCA3E1A01;
+    private static final int FILE_HEADER = 5;
+    // prefix of the keys of the completed exchanges
+    private static final char COMPLETED = '\0';
+
+    private final Object lock = new Object();
+    private final Map<String, Exchange> hotSet = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, ByteBuffer> offHeap = new LinkedHashMap<>(16, 0.75f, true);
+    private Map<String, SpillLocation> spilled = new HashMap<>();
+    private long offHeapUsed;
+    private long spillEnd;
+    private long spillUnused;
+    private File file;
+    private RandomAccessFile raf;
+    private FileChannel channel;
+
+    private String persistentFileName;
+    private int hotSetSize = 100;
+    private long maximumOffHeapSize = 64 * 1024 * 1024L;
+    private boolean returnOldExchange;
+    private boolean allowSerializedHeaders;
+    private long recoveryInterval = 5000;
+    private boolean useRecovery = true;
+    private int maximumRedeliveries;
+    private String deadLetterUri;
+
+    /**
+     * The location of the serialized exchange in the spill file
+     */
+    private static final class SpillLocation {
+        private final long offset;
+        private final int length;
+
+        SpillLocation(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    public OffHeapAggregationRepository() {
+    }
+
+    /**
+     * Creates an aggregation repository which keeps the exchanges in the given file when stopped
+     *
+     * @param persistentFileName the persistent store filename
+     */
+    public OffHeapAggregationRepository(String persistentFileName) {
+        ObjectHelper.notEmpty(persistentFileName, "persistentFileName");
+        this.persistentFileName = persistentFileName;
+    }
+
+    public Exchange add(CamelContext camelContext, String key, Exchange exchange) {
+        LOG.debug("Adding key [{}] -> {}", key, exchange);
+        synchronized (lock) {
+            try {
+                Exchange answer = hotSet.put(key, exchange);
+                if (answer == null) {
+                    byte[] data = release(key, isReturnOldExchange());
+                    if (data != null) {
+                        answer = unmarshal(camelContext, data);
+                    }
+                    evictHotSet();
+                }
+                return isReturnOldExchange() ? answer : null;
+            } catch (IOException e) {
+                throw new RuntimeException("Error adding key " + key + " to aggregation repository " + this, e);
+            }
+        }
+    }
+
+    public Exchange get(CamelContext camelContext, String key) {
+        synchronized (lock) {
+            Exchange answer = hotSet.get(key);
+            if (answer == null) {
+                try {
+                    byte[] data = release(key, true);
+                    if (data != null) {
+                        // move the exchange to the hot set as its being aggregated
+                        answer = unmarshal(camelContext, data);
+                        hotSet.put(key, answer);
+                        evictHotSet();
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException("Error getting key " + key + " from aggregation repository " + this, e);
+                }
+            }
+            LOG.debug("Getting key [{}] -> {}", key, answer);
+            return answer;
+        }
+    }
+
+    public void remove(CamelContext camelContext, String key, Exchange exchange) {
+        LOG.debug("Removing key [{}]", key);
+        synchronized (lock) {
+            try {
+                if (hotSet.remove(key) == null) {
+                    release(key, false);
+                }
+                // keep the completed exchange until its confirmed
+                store(COMPLETED + exchange.getExchangeId(), marshal(exchange));
+            } catch (IOException e) {
+                throw new RuntimeException("Error removing key " + key + " from aggregation repository " + this, e);
+            }
+        }
+    }
+
+    public void confirm(CamelContext camelContext, String exchangeId) {
+        LOG.debug("Confirming exchangeId [{}]", exchangeId);
+        synchronized (lock) {
+            try {
+                release(COMPLETED + exchangeId, false);
+            } catch (IOException e) {
+                throw new RuntimeException("Error confirming exchangeId " + exchangeId + " in aggregation repository " + this, e);
+            }
+        }
+    }
+
+    public Set<String> getKeys() {
+        Set<String> answer = new LinkedHashSet<>();
+        synchronized (lock) {
+            answer.addAll(hotSet.keySet());
+            addKeys(offHeap.keySet(), answer, false);
+            addKeys(spilled.keySet(), answer, false);
+        }
+        return Collections.unmodifiableSet(answer);
+    }
+
+    public Set<String> scan(CamelContext camelContext) {
+        Set<String> answer = new LinkedHashSet<>();
+        synchronized (lock) {
+            addKeys(offHeap.keySet(), answer, true);
+            addKeys(spilled.keySet(), answer, true);
+        }
+        if (answer.isEmpty()) {
+            LOG.trace("Scanned and found no exchange to recover.");
+        } else {
+            LOG.debug("Scanned and found {} exchange(s) to recover (note some of them may already be in progress).", answer.size());
+        }
+        return answer;
+    }
+
+    public Exchange recover(CamelContext camelContext, String exchangeId) {
+        Exchange answer = null;
+        synchronized (lock) {
+            try {
+                byte[] data = read(COMPLETED + exchangeId);
+                if (data != null) {
+                    answer = unmarshal(camelContext, data);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Error recovering exchangeId " + exchangeId + " from aggregation repository " + this, e);
+            }
+        }
+        LOG.debug("Recovering exchangeId [{}] -> {}", exchangeId, answer);
+        return answer;
+    }
+
+    public String getPersistentFileName() {
+        return persistentFileName;
+    }
+
+    /**
+     * Sets the file to keep the exchanges in when the repository is stopped, which is also used to spill to.
+     * If not set, then a temporary file is used to spill to, and the exchanges are discarded when the repository is stopped.
+     */
+    public void setPersistentFileName(String persistentFileName) {
+        this.persistentFileName = persistentFileName;
+    }
+
+    public int getHotSetSize() {
+        return hotSetSize;
+    }
+
+    /**
+     * Sets the maximum number of exchanges to keep as-is on the heap.
+     * <p/>
+     * The default is 100.
+     */
+    public void setHotSetSize(int hotSetSize) {
+        this.hotSetSize = hotSetSize;
+    }
+
+    public long getMaximumOffHeapSize() {
+        return maximumOffHeapSize;
+    }
+
+    /**
+     * Sets the maximum number of bytes to use for the serialized exchanges outside the heap,
+     * before spilling them to the file.
+     * <p/>
+     * The default is 64mb.
+     */
+    public void setMaximumOffHeapSize(long maximumOffHeapSize) {
+        this.maximumOffHeapSize = maximumOffHeapSize;
+    }
+
+    public boolean isReturnOldExchange() {
+        return returnOldExchange;
+    }
+
+    public void setReturnOldExchange(boolean returnOldExchange) {
+        this.returnOldExchange = returnOldExchange;
+    }
+
+    public boolean isAllowSerializedHeaders() {
+        return allowSerializedHeaders;
+    }
+
+    public void setAllowSerializedHeaders(boolean allowSerializedHeaders) {
+        this.allowSerializedHeaders = allowSerializedHeaders;
+    }
+
+    public void setRecoveryInterval(long interval, TimeUnit timeUnit) {
+        this.recoveryInterval = timeUnit.toMillis(interval);
+    }
+
+    public void setRecoveryInterval(long interval) {
+        this.recoveryInterval = interval;
+    }
+
+    public long getRecoveryIntervalInMillis() {
+        return recoveryInterval;
+    }
+
+    public boolean isUseRecovery() {
+        return useRecovery;
+    }
+
+    public void setUseRecovery(boolean useRecovery) {
+        this.useRecovery = useRecovery;
+    }
+
+    public int getMaximumRedeliveries() {
+        return maximumRedeliveries;
+    }
+
+    public void setMaximumRedeliveries(int maximumRedeliveries) {
+        this.maximumRedeliveries = maximumRedeliveries;
+    }
+
+    public String getDeadLetterUri() {
+        return deadLetterUri;
+    }
+
+    public void setDeadLetterUri(String deadLetterUri) {
+        this.deadLetterUri = deadLetterUri;
+    }
+
+    /**
+     * Gets the current number of bytes used for the serialized exchanges outside the heap
+     */
+    public long getOffHeapUsed() {
+        synchronized (lock) {
+            return offHeapUsed;
+        }
+    }
+
+    /**
+     * Gets the current number of exchanges which are spilled to the file
+     */
+    public int getSpilledCount() {
+        synchronized (lock) {
+            return spilled.size();
+        }
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        synchronized (lock) {
+            if (persistentFileName != null) {
+                file = new File(persistentFileName);
+                File parent = file.getParentFile();
+                if (parent != null && !parent.exists()) {
+                    parent.mkdirs();
+                }
+            } else {
+                file = File.createTempFile("camel-aggregation-", ".dat");
+                file.deleteOnExit();
+            }
+            raf = new RandomAccessFile(file, "rw");
+            channel = raf.getChannel();
+            spillEnd = FILE_HEADER;
+            spillUnused = 0;
+
+            if (persistentFileName != null && channel.size() > 0) {
+                load();
+            }
+            // the file is only valid when the repository has been stopped gracefully
+            channel.truncate(spillEnd);
+            writeHeader(channel, false);
+
+            int current = 0;
+            for (String key : spilled.keySet()) {
+                if (key.charAt(0) != COMPLETED) {
+                    current++;
+                }
+            }
+            int completed = spilled.size() - current;
+            if (current > 0) {
+                LOG.info("On startup there are " + current + " aggregate exchanges (not completed) in repository: " + file);
+            }
+            if (completed > 0) {
+                LOG.warn("On startup there are " + completed + " completed exchanges to be recovered in repository: " + file);
+            }
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        synchronized (lock) {
+            try {
+                if (persistentFileName != null) {
+                    rewrite(true);
+                    LOG.info("On shutdown there are {} exchanges kept in repository: {}", spilled.size(), file);
+                }
+            } finally {
+                IOHelper.close(channel, raf);
+                if (persistentFileName == null) {
+                    FileUtil.deleteFile(file);
+                }
+                hotSet.clear();
+                offHeap.clear();
+                spilled = new HashMap<>();
+                offHeapUsed = 0;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "OffHeapAggregationRepository[" + (persistentFileName != null ? persistentFileName : "") + "]";
+    }
+
+    private static void addKeys(Set<String> keys, Set<String> answer, boolean completed) {
+        for (String key : keys) {
+            if ((key.charAt(0) == COMPLETED) == completed) {
+                answer.add(completed ? key.substring(1) : key);
+            }
+        }
+    }
+
+    /**
+     * Serializes the least recently used exchanges in the hot set when its full
+     */
+    private void evictHotSet() throws IOException {
+        Iterator<Map.Entry<String, Exchange>> it = hotSet.entrySet().iterator();
+        while (hotSet.size() > hotSetSize && it.hasNext()) {
+            Map.Entry<String, Exchange> entry = it.next();
+            it.remove();
+            store(entry.getKey(), marshal(entry.getValue()));
+        }
+    }
+
+    /**
+     * Stores the serialized exchange outside the heap, which spills the least recently used exchanges
+     * to the file if the maximum off heap size is exceeded.
+     */
+    private void store(String key, byte[] data) throws IOException {
+        release(key, false);
+        Iterator<Map.Entry<String, ByteBuffer>> it = offHeap.entrySet().iterator();
+        while (offHeapUsed + data.length > maximumOffHeapSize && it.hasNext()) {
+            Map.Entry<String, ByteBuffer> entry = it.next();
+            it.remove();
+            ByteBuffer buffer = entry.getValue();
+            offHeapUsed -= buffer.capacity();
+            byte[] spill = new byte[buffer.capacity()];
+            buffer.get(spill);
+            spill(entry.getKey(), spill);
+        }
+        if (offHeapUsed + data.length > maximumOffHeapSize) {
+            // too large to keep outside the heap
+            spill(key, data);
+        } else {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+            buffer.put(data);
+            buffer.flip();
+            offHeap.put(key, buffer);
+            offHeapUsed += data.length;
+        }
+    }
+
+    /**
+     * Reads the serialized exchange which is stored outside the heap
+     *
+     * @return the serialized exchange, or <tt>null</tt> if not stored
+     */
+    private byte[] read(String key) throws IOException {
+        ByteBuffer buffer = offHeap.get(key);
+        if (buffer != null) {
+            byte[] data = new byte[buffer.capacity()];
+            buffer.duplicate().get(data);
+            return data;
+        }
+        SpillLocation location = spilled.get(key);
+        if (location != null) {
+            return readSpilled(location);
+        }
+        return null;
+    }
+
+    /**
+     * Releases the serialized exchange which is stored outside the heap
+     *
+     * @param read whether to read the serialized exchange before its released
+     * @return the serialized exchange if read is enabled, or <tt>null</tt> if not stored
+     */
+    private byte[] release(String key, boolean read) throws IOException {
+        byte[] answer = null;
+        ByteBuffer buffer = offHeap.remove(key);
+        if (buffer != null) {
+            offHeapUsed -= buffer.capacity();
+            if (read) {
+                answer = new byte[buffer.capacity()];
+                buffer.get(answer);
+            }
+            return answer;
+        }
+        SpillLocation location = spilled.remove(key);
+        if (location != null) {
+            if (read) {
+                answer = readSpilled(location);
+            }
+            spillUnused += recordSize(key, location.length);
+            if (spilled.isEmpty()) {
+                // start over as nothing is spilled
+                channel.truncate(FILE_HEADER);
+                spillEnd = FILE_HEADER;
+                spillUnused = 0;
+            } else if (spillUnused > spillEnd / 2 && spillUnused > maximumOffHeapSize) {
+                rewrite(false);
+            }
+        }
+        return answer;
+    }
+
+    private void spill(String key, byte[] data) throws IOException {
+        spilled.put(key, writeRecord(channel, spillEnd, key, data));
+        spillEnd += recordSize(key, data.length);
+    }
+
+    private byte[] readSpilled(SpillLocation location) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(location.length);
+        readFully(channel, buffer, location.offset);
+        return buffer.array();
+    }
+
+    /**
+     * Rewrites the file with only the spilled exchanges, or with all the exchanges when the repository is stopped.
+     */
+    private void rewrite(boolean all) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        Map<String, SpillLocation> locations = new HashMap<>();
+        long end = FILE_HEADER;
+        RandomAccessFile out = new RandomAccessFile(tmp, "rw");
+        try {
+            FileChannel outChannel = out.getChannel();
+            outChannel.truncate(0);
+            for (Map.Entry<String, SpillLocation> entry : spilled.entrySet()) {
+                byte[] data = readSpilled(entry.getValue());
+                locations.put(entry.getKey(), writeRecord(outChannel, end, entry.getKey(), data));
+                end += recordSize(entry.getKey(), data.length);
+            }
+            if (all) {
+                for (Map.Entry<String, ByteBuffer> entry : offHeap.entrySet()) {
+                    byte[] data = new byte[entry.getValue().capacity()];
+                    entry.getValue().duplicate().get(data);
+                    locations.put(entry.getKey(), writeRecord(outChannel, end, entry.getKey(), data));
+                    end += recordSize(entry.getKey(), data.length);
+                }
+                for (Map.Entry<String, Exchange> entry : hotSet.entrySet()) {
+                    byte[] data = marshal(entry.getValue());
+                    locations.put(entry.getKey(), writeRecord(outChannel, end, entry.getKey(), data));
+                    end += recordSize(entry.getKey(), data.length);
+                }
+            }
+            writeHeader(outChannel, all);
+            outChannel.force(true);
+        } finally {
+            IOHelper.close(out);
+        }
+
+        IOHelper.close(channel, raf);
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        raf = new RandomAccessFile(file, "rw");
+        channel = raf.getChannel();
+        LOG.debug("Rewritten aggregation repository file {} from {} to {} bytes", file, spillEnd, end);
+        spilled = locations;
+        spillEnd = end;
+        spillUnused = 0;
+    }
+
+    /**
+     * Loads the locations of the exchanges in the file, if the repository was stopped gracefully
+     */
+    private void load() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER);
+        readFully(channel, header, 0);
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException("The file " + file + " is not an aggregation repository file");
+        }
+        if (header.get(4) == 0) {
+            LOG.warn("Discarding the exchanges in aggregation repository file {} as it was not stopped gracefully", file);
+            return;
+        }
+
+        long size = channel.size();
+        long offset = FILE_HEADER;
+        ByteBuffer length = ByteBuffer.allocate(4);
+        while (offset < size) {
+            length.clear();
+            readFully(channel, length, offset);
+            ByteBuffer key = ByteBuffer.allocate(length.getInt(0));
+            readFully(channel, key, offset + 4);
+            length.clear();
+            readFully(channel, length, offset + 4 + key.capacity());
+            int dataLength = length.getInt(0);
+            spilled.put(new String(key.array(), StandardCharsets.UTF_8), new SpillLocation(offset + 8 + key.capacity(), dataLength));
+            offset += 8 + key.capacity() + dataLength;
+        }
+        spillEnd = offset;
+    }
+
+    private static SpillLocation writeRecord(FileChannel channel, long offset, String key, byte[] data) throws IOException {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(8 + bytes.length + data.length);
+        buffer.putInt(bytes.length).put(bytes).putInt(data.length).put(data);
+        buffer.flip();
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        return new SpillLocation(offset + 8 + bytes.length, data.length);
+    }
+
+    private static long recordSize(String key, int length) {
+        return 8 + key.getBytes(StandardCharsets.UTF_8).length + length;
+    }
+
+    private static void writeHeader(FileChannel channel, boolean stopped) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(FILE_HEADER);
+        buffer.putInt(MAGIC).put((byte) (stopped ? 1 : 0));
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, buffer.position());
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of aggregation repository file at position " + position);
+            }
+            position += read;
+        }
+    }
+
+    private byte[] marshal(Exchange exchange) throws IOException {
+        // use DefaultExchangeHolder to marshal to a serialized object
+        DefaultExchangeHolder pe = DefaultExchangeHolder.marshal(exchange, false, allowSerializedHeaders);
+        // add the aggregated size and timeout property as the only properties we want to retain
+        DefaultExchangeHolder.addProperty(pe, Exchange.AGGREGATED_SIZE, exchange.getProperty(Exchange.AGGREGATED_SIZE, Integer.class));
+        DefaultExchangeHolder.addProperty(pe, Exchange.AGGREGATED_TIMEOUT, exchange.getProperty(Exchange.AGGREGATED_TIMEOUT, Long.class));
+        // add the aggregated completed by property to retain
+        DefaultExchangeHolder.addProperty(pe, Exchange.AGGREGATED_COMPLETED_BY, exchange.getProperty(Exchange.AGGREGATED_COMPLETED_BY, String.class));
+        // add the aggregated correlation key property to retain
+        DefaultExchangeHolder.addProperty(pe, Exchange.AGGREGATED_CORRELATION_KEY, exchange.getProperty(Exchange.AGGREGATED_CORRELATION_KEY, String.class));
+        // and a guard property if using the flexible toolbox aggregator
+        DefaultExchangeHolder.addProperty(pe, Exchange.AGGREGATED_COLLECTION_GUARD, exchange.getProperty(Exchange.AGGREGATED_COLLECTION_GUARD, String.class));
+        // persist the from endpoint as well
+        if (exchange.getFromEndpoint() != null) {
+            DefaultExchangeHolder.addProperty(pe, "CamelAggregatedFromEndpoint", exchange.getFromEndpoint().getEndpointUri());
+        }
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(bos);
+        oos.writeObject(pe);
+        oos.close();
+        return bos.toByteArray();
+    }
+
+    private Exchange unmarshal(CamelContext camelContext, byte[] data) throws IOException {
+        DefaultExchangeHolder pe;
+        ObjectInputStream ois = new CamelObjectInputStream(new ByteArrayInputStream(data), camelContext);
+        try {
+            pe = (DefaultExchangeHolder) ois.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Error unmarshalling exchange from aggregation repository " + this, e);
+        } finally {
+            IOHelper.close(ois);
+        }
+
+        Exchange answer = new DefaultExchange(camelContext);
+        DefaultExchangeHolder.unmarshal(answer, pe);
+        // restore the from endpoint
+        String fromEndpointUri = (String) answer.removeProperty("CamelAggregatedFromEndpoint");
+        if (fromEndpointUri != null) {
+            Endpoint fromEndpoint = camelContext.hasEndpoint(fromEndpointUri);
+            if (fromEndpoint != null) {
+                answer.setFromEndpoint(fromEndpoint);
+            }
+        }
+        return answer;
+    }
+
+}
@@ -0,0 +1,450 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.idempotent;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
+import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.spi.IdempotentRepository;
+import org.apache.camel.support.ServiceSupport;
+import org.apache.camel.util.FileUtil;
+import org.apache.camel.util.ObjectHelper;
+import org.apache.camel.util.concurrent.CamelThreadFactory;
+import org.apache.camel.util.concurrent.ThreadHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A file based implementation of {@link org.apache.camel.spi.IdempotentRepository} which keeps all the keys,
+ * and is intended for very large number of keys.
+ * <p/>
+ * The keys are stored in an append-only log which is memory mapped, and are looked up using a hash index
+ * which is held outside the heap. Adding or removing a key only appends a record to the log, and the log is
+ * compacted in the background when too much of it is taken up by removed keys. The keys are recovered from
+ * the log on startup, where any record which was torn by a crash is discarded.
+ * <p/>
+ * Unlike {@link FileIdempotentRepository} there is no 1st level cache, and the file store is never rewritten
+ * when adding or removing keys.
+ *
+ * @version 
+ */
+@ManagedResource(description = "Memory mapped file based idempotent repository")
+public class MappedFileIdempotentRepository extends ServiceSupport implements IdempotentRepository<String> {
+    private static final Logger LOG = LoggerFactory.getLogger(MappedFileIdempotentRepository.class);
+    // compaction copies the log in batches so adding and removing keys is only blocked for a short time
+    private static final int COMPACTION_BATCH_SIZE = 1024 * 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object compactionLock = new Object();
+    private File fileStore;
+    private int segmentSize = 64 * 1024 * 1024;
+    private int initialCapacity = 1024;
+    private double compactionThreshold = 0.5d;
+    private long compactionInterval = 60000;
+    private boolean sync;
+    private volatile MappedFileLog log;
+    private volatile OffHeapKeyIndex index;
+    private volatile long liveBytes;
+    private ScheduledExecutorService compactionExecutor;
+
+    public MappedFileIdempotentRepository() {
+    }
+
+    public MappedFileIdempotentRepository(File fileStore) {
+        this.fileStore = fileStore;
+    }
+
+    /**
+     * Creates a new memory mapped file based repository.
+     *
+     * @param fileStore  the file store
+     */
+    public static IdempotentRepository<String> mappedFileIdempotentRepository(File fileStore) {
+        return new MappedFileIdempotentRepository(fileStore);
+    }
+
+    @ManagedOperation(description = "Adds the key to the store")
+    public boolean add(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int hash = key.hashCode();
+        lock.writeLock().lock();
+        try {
+            if (index.find(bytes, hash, log) >= 0) {
+                return false;
+            }
+            long offset = log.append(MappedFileLog.ADD, bytes, hash);
+            index.insert(hash, offset, log);
+            liveBytes += MappedFileLog.recordSize(bytes.length);
+            if (sync) {
+                log.force();
+            }
+            return true;
+        } catch (IOException e) {
+            throw ObjectHelper.wrapRuntimeCamelException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @ManagedOperation(description = "Does the store contain the given key")
+    public boolean contains(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        lock.readLock().lock();
+        try {
+            return index.find(bytes, key.hashCode(), log) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @ManagedOperation(description = "Remove the key from the store")
+    public boolean remove(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int hash = key.hashCode();
+        lock.writeLock().lock();
+        try {
+            if (index.remove(bytes, hash, log) < 0) {
+                return false;
+            }
+            log.append(MappedFileLog.REMOVE, bytes, hash);
+            liveBytes -= MappedFileLog.recordSize(bytes.length);
+            if (sync) {
+                log.force();
+            }
+            return true;
+        } catch (IOException e) {
+            throw ObjectHelper.wrapRuntimeCamelException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean confirm(String key) {
+        // noop
+        return true;
+    }
+
+    @ManagedOperation(description = "Clear the store")
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            log.close();
+            FileUtil.deleteFile(fileStore);
+            log = new MappedFileLog(fileStore, segmentSize);
+            index = new OffHeapKeyIndex(initialCapacity);
+            liveBytes = 0;
+        } catch (IOException e) {
+            throw ObjectHelper.wrapRuntimeCamelException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Compacts the file store, by copying the keys which are not removed to a new file which then replaces the file store.
+     * <p/>
+     * The keys are copied in batches while holding a read lock, so adding and removing keys is only blocked
+     * for a short time while the compaction is running.
+     */
+    @ManagedOperation(description = "Compacts the file store by discarding the removed keys")
+    public void compact() throws IOException {
+        synchronized (compactionLock) {
+            MappedFileLog source = log;
+            if (source == null) {
+                return;
+            }
+            LOG.debug("Compacting idempotent filestore: {}", fileStore);
+            File compactFile = compactFile();
+            FileUtil.deleteFile(compactFile);
+            CompactionVisitor visitor = new CompactionVisitor(source, new MappedFileLog(compactFile, segmentSize), new OffHeapKeyIndex(initialCapacity));
+            boolean done = false;
+            try {
+                long offset = MappedFileLog.FILE_HEADER;
+                while (true) {
+                    lock.readLock().lock();
+                    try {
+                        if (log != source) {
+                            LOG.debug("Idempotent filestore {} was cleared or stopped while compacting", fileStore);
+                            return;
+                        }
+                        long end = source.getEnd();
+                        if (end - offset <= COMPACTION_BATCH_SIZE) {
+                            break;
+                        }
+                        offset = source.replay(offset, offset + COMPACTION_BATCH_SIZE, visitor);
+                    } finally {
+                        lock.readLock().unlock();
+                    }
+                }
+
+                lock.writeLock().lock();
+                try {
+                    if (log != source) {
+                        return;
+                    }
+                    // copy the remainder and replace the file store
+                    source.replay(offset, source.getEnd(), visitor);
+                    visitor.target.force();
+                    source.close();
+                    Files.move(compactFile.toPath(), fileStore.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                    log = visitor.target;
+                    index = visitor.targetIndex;
+                    liveBytes = visitor.targetLiveBytes;
+                    done = true;
+                    LOG.debug("Compacted idempotent filestore {} from {} to {} bytes", fileStore, source.getEnd(), visitor.target.getEnd());
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } finally {
+                if (!done) {
+                    visitor.target.close();
+                    FileUtil.deleteFile(compactFile);
+                }
+            }
+        }
+    }
+
+    public File getFileStore() {
+        return fileStore;
+    }
+
+    public void setFileStore(File fileStore) {
+        this.fileStore = fileStore;
+    }
+
+    @ManagedAttribute(description = "The file path for the store")
+    public String getFilePath() {
+        return fileStore.getPath();
+    }
+
+    @ManagedAttribute(description = "The segment size in bytes of the file store")
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Sets the size in bytes of the segments the file store is memory mapped in, which cannot be changed for an existing file store.
+     * <p/>
+     * The default is 64mb.
+     */
+    public void setSegmentSize(int segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    public int getInitialCapacity() {
+        return initialCapacity;
+    }
+
+    /**
+     * Sets the initial number of slots in the index.
+     * <p/>
+     * The default is 1024.
+     */
+    public void setInitialCapacity(int initialCapacity) {
+        this.initialCapacity = initialCapacity;
+    }
+
+    @ManagedAttribute(description = "The fraction of the file store which must be taken up by removed keys before it is compacted")
+    public double getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    /**
+     * Sets the fraction of the file store which must be taken up by removed keys before it is compacted.
+     * <p/>
+     * The default is 0.5.
+     */
+    public void setCompactionThreshold(double compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    @ManagedAttribute(description = "The interval in millis between checking whether the file store should be compacted")
+    public long getCompactionInterval() {
+        return compactionInterval;
+    }
+
+    /**
+     * Sets the interval in millis between checking whether the file store should be compacted in the background.
+     * Use 0 or a negative value to only compact the file store when {@link #compact()} is invoked.
+     * <p/>
+     * The default is 60000 millis.
+     */
+    public void setCompactionInterval(long compactionInterval) {
+        this.compactionInterval = compactionInterval;
+    }
+
+    @ManagedAttribute(description = "Whether the file store is forced to the storage device on every change")
+    public boolean isSync() {
+        return sync;
+    }
+
+    /**
+     * Whether to force the changes to the storage device on every add and remove, which is not needed
+     * to survive a crash of the JVM, but only to survive a crash of the operating system.
+     * <p/>
+     * The default is false.
+     */
+    public void setSync(boolean sync) {
+        this.sync = sync;
+    }
+
+    @ManagedAttribute(description = "The current number of keys in the store")
+    public int getSize() {
+        OffHeapKeyIndex current = index;
+        return current != null ? current.size() : 0;
+    }
+
+    @ManagedAttribute(description = "The current size in bytes of the file store")
+    public long getFileStoreSize() {
+        MappedFileLog current = log;
+        return current != null ? current.getEnd() : 0;
+    }
+
+    @ManagedAttribute(description = "The current number of bytes in the file store which are taken up by removed keys and padding")
+    public long getRemovedBytes() {
+        MappedFileLog current = log;
+        return current != null ? current.getEnd() - MappedFileLog.FILE_HEADER - liveBytes : 0;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        ObjectHelper.notNull(fileStore, "fileStore", this);
+
+        File parent = fileStore.getParentFile();
+        if (parent != null && !parent.exists()) {
+            LOG.debug("Creating parent directory of filestore: {}", fileStore);
+            parent.mkdirs();
+        }
+        // a compaction which did not complete is discarded as the file store is still intact
+        FileUtil.deleteFile(compactFile());
+
+        LOG.trace("Loading idempotent filestore: {}", fileStore);
+        final MappedFileLog recovered = new MappedFileLog(fileStore, segmentSize);
+        final OffHeapKeyIndex recoveredIndex = new OffHeapKeyIndex(initialCapacity);
+        liveBytes = 0;
+        recovered.recover(new MappedFileLog.RecordVisitor() {
+            @Override
+            public void visit(byte type, long offset) {
+                byte[] key = recovered.keyAt(offset);
+                int hash = recovered.hashAt(offset);
+                if (type == MappedFileLog.ADD) {
+                    if (recoveredIndex.insert(key, hash, offset, recovered)) {
+                        liveBytes += MappedFileLog.recordSize(key.length);
+                    }
+                } else if (recoveredIndex.remove(key, hash, recovered) >= 0) {
+                    liveBytes -= MappedFileLog.recordSize(key.length);
+                }
+            }
+        });
+        log = recovered;
+        index = recoveredIndex;
+        LOG.debug("Loaded {} keys from idempotent filestore: {}", recoveredIndex.size(), fileStore);
+
+        if (compactionInterval > 0) {
+            compactionExecutor = Executors.newSingleThreadScheduledExecutor(
+                new CamelThreadFactory(ThreadHelper.DEFAULT_PATTERN, "MappedFileIdempotentRepository", true));
+            compactionExecutor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        if (isCompactionNeeded()) {
+                            compact();
+                        }
+                    } catch (Throwable e) {
+                        LOG.warn("Error compacting idempotent filestore: " + fileStore + ". This exception is ignored.", e);
+                    }
+                }
+            }, compactionInterval, compactionInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (compactionExecutor != null) {
+            compactionExecutor.shutdownNow();
+            compactionExecutor = null;
+        }
+        lock.writeLock().lock();
+        try {
+            if (log != null) {
+                log.force();
+                log.close();
+            }
+            log = null;
+            index = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isCompactionNeeded() {
+        long size = getFileStoreSize() - MappedFileLog.FILE_HEADER;
+        long removed = getRemovedBytes();
+        return removed > 0 && removed >= size * compactionThreshold;
+    }
+
+    private File compactFile() {
+        return new File(fileStore.getPath() + ".compact");
+    }
+
+    /**
+     * Copies the records of the keys which are not removed to the compacted log, and removes the keys
+     * from the compacted log which are removed while compacting.
+     */
+    private final class CompactionVisitor implements MappedFileLog.RecordVisitor {
+        private final MappedFileLog source;
+        private final MappedFileLog target;
+        private final OffHeapKeyIndex targetIndex;
+        private long targetLiveBytes;
+
+        CompactionVisitor(MappedFileLog source, MappedFileLog target, OffHeapKeyIndex targetIndex) {
+            this.source = source;
+            this.target = target;
+            this.targetIndex = targetIndex;
+        }
+
+        @Override
+        public void visit(byte type, long offset) throws IOException {
+            byte[] key = source.keyAt(offset);
+            int hash = source.hashAt(offset);
+            if (type == MappedFileLog.ADD) {
+                // only the record which the index refers to is the current record of the key
+                if (index.find(key, hash, source) == offset) {
+                    long copied = target.append(MappedFileLog.ADD, key, hash);
+                    targetIndex.insert(hash, copied, target);
+                    targetLiveBytes += MappedFileLog.recordSize(key.length);
+                }
+            } else if (targetIndex.remove(key, hash, target) >= 0) {
+                // the key was removed after it was copied
+                target.append(MappedFileLog.REMOVE, key, hash);
+                targetLiveBytes -= MappedFileLog.recordSize(key.length);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,316 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.idempotent;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An append-only log of keys which is memory mapped in segments of a fixed size.
+ * <p/>
+ * Each record holds the type (added or removed), the length and hash of the key, the key and a CRC32 checksum,
+ * and a record never spans two segments. The log is recovered by scanning the records from the start of the file,
+ * and a record which is torn (such as when the JVM crashed while appending) ends the log and is discarded.
+ * <p/>
+ * Only one thread may append at any time, however records below the end of the log are never changed,
+ * so they can be read concurrently with appending.
+ */
+final class MappedFileLog implements Closeable {
+
+    static final byte END = 0;
+    static final byte ADD = 1;
+    static final byte REMOVE = 2;
+    static final byte PADDING = 3;
+
+    /**
+     * The size of the file header which holds the magic number and the segment size
+     */
+    static final int FILE_HEADER = 8;
+
+    private static final Logger LOG = LoggerFactory.getLogger(MappedFileLog.class);
+    private static final int MAGIC = 0xCA3E1D01;
+    private static final int RECORD_HEADER = 9;
+    private static final int RECORD_TRAILER = 4;
+
+    private final File file;
+    private final int segmentSize;
+    private final RandomAccessFile raf;
+    private final FileChannel channel;
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    private volatile long end;
+
+    /**
+     * Receives the records of the log.
+     */
+    interface RecordVisitor {
+
+        void visit(byte type, long offset) throws IOException;
+    }
+
+    MappedFileLog(File file, int segmentSize) throws IOException {
+        if (segmentSize < 64) {
+            throw new IllegalArgumentException("Segment size must be at least 64 bytes, was " + segmentSize);
+        }
+        this.file = file;
+        this.raf = new RandomAccessFile(file, "rw");
+        this.channel = raf.getChannel();
+
+        if (channel.size() == 0) {
+            this.segmentSize = segmentSize;
+            MappedByteBuffer first = segment(0);
+            first.putInt(4, segmentSize);
+            first.putInt(0, MAGIC);
+        } else {
+            // the segment size of an existing log cannot be changed
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_HEADER);
+            if (header.getInt(0) != MAGIC) {
+                close();
+                throw new IOException("The file " + file + " is not a memory mapped idempotent store");
+            }
+            this.segmentSize = header.getInt(4);
+        }
+        this.end = FILE_HEADER;
+    }
+
+    /**
+     * Recovers the log by visiting all records from the start, and discards any torn record at the end of the log.
+     */
+    void recover(RecordVisitor visitor) throws IOException {
+        long fileSize = channel.size();
+        long offset = FILE_HEADER;
+        boolean torn = false;
+        while (offset < fileSize) {
+            MappedByteBuffer buffer = segment(segmentIndex(offset));
+            int pos = segmentPosition(offset);
+            byte type = buffer.get(pos);
+            if (type == END) {
+                break;
+            } else if (type == PADDING) {
+                offset = nextSegment(offset);
+                continue;
+            } else if ((type != ADD && type != REMOVE) || !isValid(buffer, pos)) {
+                torn = true;
+                break;
+            }
+            visitor.visit(type, offset);
+            offset += recordSize(buffer.getInt(pos + 1));
+        }
+        end = offset;
+
+        if (torn) {
+            LOG.warn("Discarding torn record at offset {} in idempotent store: {}", offset, file);
+            MappedByteBuffer buffer = segment(segmentIndex(offset));
+            for (int i = segmentPosition(offset); i < segmentSize; i++) {
+                buffer.put(i, END);
+            }
+        }
+        // discard any segments after the end which may hold stale records
+        int count = segmentIndex(offset) + 1;
+        if (segments.length > count) {
+            MappedByteBuffer[] copy = new MappedByteBuffer[count];
+            System.arraycopy(segments, 0, copy, 0, count);
+            segments = copy;
+        }
+        if (fileSize > (long) count * segmentSize) {
+            channel.truncate((long) count * segmentSize);
+        }
+    }
+
+    /**
+     * Visits the records from the given offset to the current end of the log.
+     *
+     * @return the offset after the last visited record
+     */
+    long replay(long from, long to, RecordVisitor visitor) throws IOException {
+        long offset = from;
+        while (offset < to) {
+            MappedByteBuffer buffer = segments[segmentIndex(offset)];
+            int pos = segmentPosition(offset);
+            byte type = buffer.get(pos);
+            if (type == PADDING) {
+                offset = nextSegment(offset);
+            } else {
+                visitor.visit(type, offset);
+                offset += recordSize(buffer.getInt(pos + 1));
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Appends a record to the log.
+     *
+     * @return the offset of the record
+     */
+    long append(byte type, byte[] key, int hash) throws IOException {
+        int size = recordSize(key.length);
+        if (size > segmentSize - FILE_HEADER) {
+            throw new IllegalArgumentException("The key is too large for the segment size " + segmentSize + " of idempotent store: " + file);
+        }
+        long offset = end;
+        if (segmentPosition(offset) + size > segmentSize) {
+            segments[segmentIndex(offset)].put(segmentPosition(offset), PADDING);
+            offset = nextSegment(offset);
+        }
+
+        MappedByteBuffer buffer = segment(segmentIndex(offset));
+        int pos = segmentPosition(offset);
+        buffer.putInt(pos + 1, key.length);
+        buffer.putInt(pos + 5, hash);
+        for (int i = 0; i < key.length; i++) {
+            buffer.put(pos + RECORD_HEADER + i, key[i]);
+        }
+        buffer.putInt(pos + RECORD_HEADER + key.length, checksum(type, key.length, hash, buffer, pos));
+        // write the type last so the record is complete before it can be seen
+        buffer.put(pos, type);
+
+        end = offset + size;
+        return offset;
+    }
+
+    byte typeAt(long offset) {
+        return segments[segmentIndex(offset)].get(segmentPosition(offset));
+    }
+
+    int hashAt(long offset) {
+        return segments[segmentIndex(offset)].getInt(segmentPosition(offset) + 5);
+    }
+
+    int recordSizeAt(long offset) {
+        return recordSize(segments[segmentIndex(offset)].getInt(segmentPosition(offset) + 1));
+    }
+
+    byte[] keyAt(long offset) {
+        MappedByteBuffer buffer = segments[segmentIndex(offset)];
+        int pos = segmentPosition(offset);
+        byte[] key = new byte[buffer.getInt(pos + 1)];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = buffer.get(pos + RECORD_HEADER + i);
+        }
+        return key;
+    }
+
+    boolean keyEquals(long offset, byte[] key) {
+        MappedByteBuffer buffer = segments[segmentIndex(offset)];
+        int pos = segmentPosition(offset);
+        if (buffer.getInt(pos + 1) != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(pos + RECORD_HEADER + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The offset of the end of the log, which is the size of the log in bytes
+     */
+    long getEnd() {
+        return end;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    /**
+     * Forces the changes to be written to the storage device
+     */
+    void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        segments = new MappedByteBuffer[0];
+        channel.close();
+        raf.close();
+    }
+
+    static int recordSize(int keyLength) {
+        return RECORD_HEADER + keyLength + RECORD_TRAILER;
+    }
+
+    private boolean isValid(MappedByteBuffer buffer, int pos) {
+        if (pos + RECORD_HEADER > segmentSize) {
+            return false;
+        }
+        int length = buffer.getInt(pos + 1);
+        if (length < 0 || pos + recordSize(length) > segmentSize) {
+            return false;
+        }
+        int hash = buffer.getInt(pos + 5);
+        return buffer.getInt(pos + RECORD_HEADER + length) == checksum(buffer.get(pos), length, hash, buffer, pos);
+    }
+
+    private static int checksum(byte type, int length, int hash, MappedByteBuffer buffer, int pos) {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        update(crc, length);
+        update(crc, hash);
+        for (int i = 0; i < length; i++) {
+            crc.update(buffer.get(pos + RECORD_HEADER + i));
+        }
+        return (int) crc.getValue();
+    }
+
+    private static void update(CRC32 crc, int value) {
+        crc.update(value >>> 24);
+        crc.update(value >>> 16);
+        crc.update(value >>> 8);
+        crc.update(value);
+    }
+
+    private MappedByteBuffer segment(int index) throws IOException {
+        MappedByteBuffer[] current = segments;
+        if (index < current.length) {
+            return current[index];
+        }
+        MappedByteBuffer[] copy = new MappedByteBuffer[index + 1];
+        System.arraycopy(current, 0, copy, 0, current.length);
+        for (int i = current.length; i <= index; i++) {
+            copy[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long) i * segmentSize, segmentSize);
+        }
+        segments = copy;
+        return copy[index];
+    }
+
+    private int segmentIndex(long offset) {
+        return (int) (offset / segmentSize);
+    }
+
+    private int segmentPosition(long offset) {
+        return (int) (offset % segmentSize);
+    }
+
+    private long nextSegment(long offset) {
+        return (long) (segmentIndex(offset) + 1) * segmentSize;
+    }
+
+}
@@ -0,0 +1,187 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.idempotent;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An open addressing hash index of the keys in a {@link MappedFileLog}, which is held in a direct buffer
+ * outside the heap.
+ * <p/>
+ * Each slot is a single long which holds the offset of the record in the log and a fingerprint of the hash
+ * of the key, so the keys themselves are only read from the log when the fingerprints match.
+ * The index uses linear probing and tombstones for removed keys, and is not thread-safe.
+ */
+final class OffHeapKeyIndex {
+
+    /**
+     * The maximum offset which can be held in a slot
+     */
+    static final long MAX_OFFSET = (1L << 40) - 3;
+
+    private static final long EMPTY = 0;
+    private static final long TOMBSTONE = -1;
+    private static final int MAX_CAPACITY = 1 << 27;
+
+    private ByteBuffer slots;
+    private int mask;
+    private int size;
+    private int tombstones;
+
+    OffHeapKeyIndex(int initialCapacity) {
+        int capacity = 16;
+        while (capacity < initialCapacity && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Finds the offset of the record of the given key.
+     *
+     * @return the offset, or <tt>-1</tt> if the key is not in the index
+     */
+    long find(byte[] key, int hash, MappedFileLog log) {
+        int slot = findSlot(key, hash, log);
+        return slot >= 0 ? offset(slots.getLong(slot << 3)) : -1;
+    }
+
+    /**
+     * Inserts the key unless its already in the index.
+     *
+     * @return <tt>true</tt> if inserted, <tt>false</tt> if the key was already in the index
+     */
+    boolean insert(byte[] key, int hash, long offset, MappedFileLog log) {
+        if (findSlot(key, hash, log) >= 0) {
+            return false;
+        }
+        insert(hash, offset, log);
+        return true;
+    }
+
+    /**
+     * Inserts the key at the given offset, which must not already be in the index.
+     */
+    void insert(int hash, long offset, MappedFileLog log) {
+        if (offset > MAX_OFFSET) {
+            throw new IllegalStateException("The idempotent store cannot be larger than " + MAX_OFFSET + " bytes");
+        }
+        if ((size + tombstones + 1) > capacity() - (capacity() >>> 2)) {
+            // grow if more than half full, otherwise just get rid of the tombstones
+            resize(size + 1 > capacity() >>> 1 ? capacity() << 1 : capacity(), log);
+        }
+        int slot = spread(hash) & mask;
+        while (true) {
+            long entry = slots.getLong(slot << 3);
+            if (entry == EMPTY || entry == TOMBSTONE) {
+                if (entry == TOMBSTONE) {
+                    tombstones--;
+                }
+                slots.putLong(slot << 3, entry(hash, offset));
+                size++;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Removes the key.
+     *
+     * @return the offset of the record of the removed key, or <tt>-1</tt> if the key was not in the index
+     */
+    long remove(byte[] key, int hash, MappedFileLog log) {
+        int slot = findSlot(key, hash, log);
+        if (slot < 0) {
+            return -1;
+        }
+        long offset = offset(slots.getLong(slot << 3));
+        slots.putLong(slot << 3, TOMBSTONE);
+        size--;
+        tombstones++;
+        return offset;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    private int findSlot(byte[] key, int hash, MappedFileLog log) {
+        long fingerprint = fingerprint(hash);
+        int slot = spread(hash) & mask;
+        while (true) {
+            long entry = slots.getLong(slot << 3);
+            if (entry == EMPTY) {
+                return -1;
+            }
+            if (entry != TOMBSTONE && (entry >>> 40) == fingerprint && log.keyEquals(offset(entry), key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void resize(int capacity, MappedFileLog log) {
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalStateException("The idempotent store cannot hold more than " + (MAX_CAPACITY >>> 1) + " keys");
+        }
+        ByteBuffer old = slots;
+        int oldCapacity = capacity();
+        allocate(capacity);
+        for (int i = 0; i < oldCapacity; i++) {
+            long entry = old.getLong(i << 3);
+            if (entry != EMPTY && entry != TOMBSTONE) {
+                long offset = offset(entry);
+                int slot = spread(log.hashAt(offset)) & mask;
+                while (slots.getLong(slot << 3) != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                slots.putLong(slot << 3, entry);
+                size++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        slots = ByteBuffer.allocateDirect(capacity << 3);
+        mask = capacity - 1;
+        size = 0;
+        tombstones = 0;
+    }
+
+    private static long entry(int hash, long offset) {
+        return (fingerprint(hash) << 40) | (offset + 1);
+    }
+
+    private static long offset(long entry) {
+        return (entry & ((1L << 40) - 1)) - 1;
+    }
+
+    private static long fingerprint(int hash) {
+        return (hash >>> 8) & 0xFFFFFF;
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+}
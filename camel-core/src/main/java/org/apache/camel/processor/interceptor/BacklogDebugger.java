@@ -151,6 +151,10 @@ public class BacklogDebugger extends ServiceSupport implements InterceptStrategy
 
     public void enableDebugger() {
         logger.log("Enabling debugger");
+        if (!enabled.get() && camelContext.isAdviceFusion() && camelContext.getStatus().isStarted()) {
+            LOG.warn("BacklogDebugger is enabled while advice fusion is enabled, which means only routes which are (re)started"
+                + " from now on can be debugged.");
+        }
         try {
             ServiceHelper.startService(debugger);
             enabled.set(true);
@@ -173,6 +173,10 @@ public final class BacklogTracer extends ServiceSupport implements InterceptStra
     }
 
     public void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled && camelContext.isAdviceFusion() && camelContext.getStatus().isStarted()) {
+            LOG.warn("BacklogTracer is enabled while advice fusion is enabled, which means only routes which are (re)started"
+                + " from now on are traced.");
+        }
         this.enabled = enabled;
     }
 
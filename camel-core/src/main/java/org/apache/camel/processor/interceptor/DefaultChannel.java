@@ -158,6 +158,8 @@ public class DefaultChannel extends CamelInternalProcessor implements ModelChann
         // the output has now been created, so assign the output as the processor
         setProcessor(getOutput());
         ServiceHelper.startServices(errorHandler, output);
+        // and fuse the advices now they have all been added
+        fuseAdvices();
     }
 
     @Override
@@ -188,6 +190,7 @@ public class DefaultChannel extends CamelInternalProcessor implements ModelChann
         this.routeContext = routeContext;
         this.definition = outputDefinition;
         this.camelContext = routeContext.getCamelContext();
+        setAdviceFusion(camelContext.isAdviceFusion());
 
         Processor target = nextProcessor;
         Processor next;
@@ -0,0 +1,35 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.resequencer;
+
+/**
+ * A {@link SequenceElementComparator} for elements which has a numeric sequence number,
+ * where the immediate successor of an element has the sequence number plus one.
+ * <p/>
+ * This is required by the {@link RingBufferResequencerEngine}.
+ */
+public interface NumericSequenceElementComparator<E> extends SequenceElementComparator<E> {
+
+    /**
+     * Returns the sequence number of the element
+     *
+     * @param o1 a sequence element.
+     * @return the sequence number
+     */
+    long getSequenceNumber(E o1);
+
+}
@@ -141,6 +141,16 @@ public class ResequencerEngine<E> {
         this.timeout = timeout;
     }
 
+    /**
+     * Returns the time when a delivery should be attempted because elements are timing out, so the delivery
+     * does not have to wait for the next regular delivery attempt.
+     *
+     * @return the time in milliseconds, or <code>0</code> if there is no such time (which is the default).
+     */
+    public long getNextDeliveryTime() {
+        return 0;
+    }
+
     public Boolean getRejectOld() {
         return rejectOld;
     }
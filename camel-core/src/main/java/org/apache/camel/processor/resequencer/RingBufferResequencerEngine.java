@@ -0,0 +1,384 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.resequencer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link ResequencerEngine} for elements with dense numeric sequence numbers, which does not lock when
+ * inserting elements, and which delivers contiguous runs of elements in batches.
+ * <p/>
+ * The elements are kept in a ring buffer indexed by their sequence number, which covers the window of sequence
+ * numbers from the next sequence number to deliver and the size of the ring buffer. Elements are inserted into the
+ * ring buffer using compare-and-set, and elements which are ahead of the window are kept in a sorted overflow map.
+ * <p/>
+ * Instead of scheduling a timeout for each element, the delivery keeps track of a single deadline for the current
+ * gap in the sequence, which is the time the lowest element after the gap was inserted plus the timeout.
+ * When the deadline has passed the gap is skipped, like the {@link ResequencerEngine} delivers timed out elements.
+ * The deadline is exposed as the {@link #getNextDeliveryTime() next delivery time}, and the lowest sequence number
+ * which has been inserted is tracked on insert, so the element after the gap is found without scanning the ring buffer.
+ * <p/>
+ * Elements which are older than the last delivered element are delivered on the next delivery
+ * (unless <tt>rejectOld</tt> is enabled), and elements with the same sequence number as an element
+ * which has not yet been delivered are discarded.
+ * <p/>
+ * Elements can be inserted concurrently, but the delivery must be done by a single thread at any time.
+ */
+public class RingBufferResequencerEngine<E> extends ResequencerEngine<E> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RingBufferResequencerEngine.class);
+
+    private static final long UNKNOWN = Long.MIN_VALUE;
+
+    private final NumericSequenceElementComparator<E> comparator;
+    private final AtomicReferenceArray<Slot<E>> ring;
+    private final int mask;
+    private final ConcurrentSkipListMap<Long, Slot<E>> overflow = new ConcurrentSkipListMap<>();
+    private final Queue<E> late = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    /**
+     * The lowest sequence number which has been inserted (and is not late), which is stale when it has been delivered,
+     * and the highest sequence number which has been inserted into the ring buffer, which bounds the scan for the
+     * lowest element when it is stale.
+     */
+    private final AtomicLong lowestPending = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong highestInRing = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * The next sequence number to deliver, or {@link #UNKNOWN} if nothing has been delivered yet.
+     */
+    private volatile long next = UNKNOWN;
+    private volatile E lastDelivered;
+    private volatile long gapDeadline;
+
+    /**
+     * Creates a new resequencer instance with a default timeout of 2000 milliseconds.
+     *
+     * @param comparator a numeric sequence element comparator.
+     * @param capacity the number of sequence numbers the ring buffer should hold, which is rounded up to a power of two.
+     */
+    public RingBufferResequencerEngine(NumericSequenceElementComparator<E> comparator, int capacity) {
+        super(comparator);
+        this.comparator = comparator;
+        int length = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.ring = new AtomicReferenceArray<>(length);
+        this.mask = length - 1;
+    }
+
+    @Override
+    public void start() {
+        // no timer in use
+    }
+
+    @Override
+    public void stop() {
+        // no timer in use
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Returns the number of sequence numbers the ring buffer can hold.
+     */
+    public int getRingBufferSize() {
+        return ring.length();
+    }
+
+    @Override
+    E getLastDelivered() {
+        return lastDelivered;
+    }
+
+    @Override
+    void setLastDelivered(E o) {
+        lastDelivered = o;
+        next = comparator.getSequenceNumber(o) + 1;
+    }
+
+    /**
+     * Inserts the given element into this resequencer, without locking.
+     *
+     * @param o an element.
+     * @throws IllegalArgumentException if the element cannot be used with this resequencer engine
+     */
+    @Override
+    public void insert(E o) {
+        if (!comparator.isValid(o)) {
+            throw new IllegalArgumentException("Element cannot be used in comparator: " + comparator);
+        }
+
+        long sequence = comparator.getSequenceNumber(o);
+        long current = next;
+        if (current != UNKNOWN && sequence < current) {
+            if (getRejectOld() != null && getRejectOld()) {
+                throw new MessageRejectedException("rejecting message [" + o
+                        + "], it should have been sent before the last delivered message [" + lastDelivered + "]");
+            }
+            size.incrementAndGet();
+            late.add(o);
+            return;
+        }
+
+        Slot<E> slot = new Slot<>(o, sequence, System.currentTimeMillis());
+        if (current != UNKNOWN && sequence - current < ring.length()) {
+            int index = (int) sequence & mask;
+            // raise the highest sequence number before the element can be seen, as the delivery scans up to it
+            long highest = highestInRing.get();
+            while (sequence > highest && !highestInRing.compareAndSet(highest, sequence)) {
+                highest = highestInRing.get();
+            }
+            if (ring.compareAndSet(index, null, slot)) {
+                size.incrementAndGet();
+                pending(sequence);
+                return;
+            }
+            Slot<E> existing = ring.get(index);
+            if (existing != null && existing.sequence == sequence) {
+                LOG.debug("Discarding element with duplicate sequence number: {}", sequence);
+                return;
+            }
+            // the slot is taken by an element which is delivered late, so use the overflow instead
+        }
+        if (overflow.putIfAbsent(sequence, slot) == null) {
+            size.incrementAndGet();
+            pending(sequence);
+        } else {
+            LOG.debug("Discarding element with duplicate sequence number: {}", sequence);
+        }
+    }
+
+    /**
+     * Keeps track of the lowest sequence number, which must be done after the size has been incremented
+     * so the delivery can detect concurrent inserts.
+     */
+    private void pending(long sequence) {
+        long lowest = lowestPending.get();
+        while (sequence < lowest && !lowestPending.compareAndSet(lowest, sequence)) {
+            lowest = lowestPending.get();
+        }
+    }
+
+    /**
+     * Returns the time the current gap in the sequence times out, or the time the lowest element times out
+     * if nothing has been delivered yet, or <code>0</code> if no element is waiting for a timeout.
+     */
+    @Override
+    public long getNextDeliveryTime() {
+        if (size.get() == 0) {
+            return 0;
+        }
+        if (next == UNKNOWN) {
+            Map.Entry<Long, Slot<E>> first = overflow.firstEntry();
+            return first != null ? first.getValue().timestamp + getTimeout() : 0;
+        }
+        return gapDeadline;
+    }
+
+    /**
+     * Delivers all elements which are currently ready to deliver. The elements are first removed from this
+     * resequencer and then sent as a batch, so this resequencer is not blocked while the elements are being sent.
+     *
+     * @throws Exception thrown by {@link SequenceSender#sendElement(Object)}, which is thrown after the
+     *                   remainder of the batch has been sent.
+     */
+    @Override
+    public synchronized void deliver() throws Exception {
+        List<E> batch = new ArrayList<>();
+        collect(batch, Integer.MAX_VALUE);
+        send(batch);
+    }
+
+    @Override
+    public synchronized boolean deliverNext() throws Exception {
+        List<E> batch = new ArrayList<>(1);
+        collect(batch, 1);
+        send(batch);
+        return !batch.isEmpty();
+    }
+
+    private void send(List<E> batch) throws Exception {
+        Exception cause = null;
+        for (E element : batch) {
+            try {
+                getSequenceSender().sendElement(element);
+            } catch (Exception e) {
+                if (cause == null) {
+                    cause = e;
+                }
+            }
+        }
+        if (cause != null) {
+            throw cause;
+        }
+    }
+
+    /**
+     * Removes the elements which are ready to deliver from this resequencer, in the order to deliver them.
+     */
+    private void collect(List<E> batch, int max) {
+        E element;
+        while (batch.size() < max && (element = late.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(element);
+        }
+
+        long current = next;
+        if (current == UNKNOWN) {
+            // nothing has been delivered yet, so wait for the timeout of the lowest element
+            Map.Entry<Long, Slot<E>> first = overflow.firstEntry();
+            if (first == null || System.currentTimeMillis() < first.getValue().timestamp + getTimeout()) {
+                return;
+            }
+            current = first.getKey();
+        }
+
+        while (batch.size() < max) {
+            int index = (int) current & mask;
+            Slot<E> slot = ring.get(index);
+            if (slot != null && slot.sequence <= current) {
+                ring.set(index, null);
+            } else {
+                Map.Entry<Long, Slot<E>> first = overflow.firstEntry();
+                if (first != null && first.getKey() <= current) {
+                    overflow.remove(first.getKey());
+                    slot = first.getValue();
+                } else {
+                    slot = null;
+                }
+            }
+
+            if (slot == null) {
+                // there is a gap in the sequence
+                if (size.get() == 0 || !gapTimedOut(current)) {
+                    break;
+                }
+                Slot<E> lowest = lowest(current);
+                if (lowest == null) {
+                    break;
+                }
+                LOG.trace("Skipping gap in sequence from: {} to: {}", current, lowest.sequence);
+                current = lowest.sequence;
+                continue;
+            }
+
+            size.decrementAndGet();
+            batch.add(slot.object);
+            if (slot.sequence == current) {
+                lastDelivered = slot.object;
+                current++;
+                gapDeadline = 0;
+            }
+            // an element older than the current sequence number is delivered late
+        }
+
+        // publish the new window after the ring buffer slots has been cleared
+        next = current;
+    }
+
+    /**
+     * Whether the gap at the given sequence number has timed out, which is when the lowest element after the gap
+     * has been kept for the timeout.
+     */
+    private boolean gapTimedOut(long current) {
+        long now = System.currentTimeMillis();
+        if (gapDeadline != 0 && now < gapDeadline) {
+            return false;
+        }
+        Slot<E> lowest = lowest(current);
+        if (lowest == null) {
+            return false;
+        }
+        gapDeadline = lowest.timestamp + getTimeout();
+        return now >= gapDeadline;
+    }
+
+    /**
+     * Finds the element with the lowest sequence number after the given sequence number.
+     */
+    private Slot<E> lowest(long current) {
+        long hint = lowestPending.get();
+        if (hint > current) {
+            // the elements after the given sequence number has been inserted after the lowest sequence number
+            // was last updated, so its element is the lowest
+            Slot<E> slot = find(hint);
+            if (slot != null) {
+                return slot;
+            }
+        }
+
+        while (true) {
+            // the lowest element has been delivered, so find the next element after the given sequence number,
+            // which is at most the distance to the next element in the ring buffer
+            int inserted = size.get();
+            Slot<E> answer = null;
+            long last = Math.min(highestInRing.get(), current + ring.length() - 1);
+            for (long sequence = current + 1; sequence <= last; sequence++) {
+                Slot<E> slot = ring.get((int) sequence & mask);
+                if (slot != null && slot.sequence == sequence) {
+                    answer = slot;
+                    break;
+                }
+            }
+            Map.Entry<Long, Slot<E>> first = overflow.higherEntry(current);
+            if (first != null && (answer == null || first.getKey() < answer.sequence)) {
+                answer = first.getValue();
+            }
+            if (answer == null) {
+                return null;
+            }
+            lowestPending.set(answer.sequence);
+            if (size.get() == inserted) {
+                return answer;
+            }
+            // an element may have been inserted concurrently which the scan did not see, so scan again
+        }
+    }
+
+    private Slot<E> find(long sequence) {
+        Slot<E> slot = ring.get((int) sequence & mask);
+        if (slot != null && slot.sequence == sequence) {
+            return slot;
+        }
+        return overflow.get(sequence);
+    }
+
+    private static final class Slot<E> {
+        private final E object;
+        private final long sequence;
+        private final long timestamp;
+
+        Slot(E object, long sequence, long timestamp) {
+            this.object = object;
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.spi;
+
+import org.apache.camel.Consumer;
+import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
+
+/**
+ * Factory used by consumers to create the {@link Exchange} for the messages they receive.
+ * <p/>
+ * A factory may pool exchanges, in which case a consumer must call {@link #release(Exchange)} when the
+ * exchange is complete and the consumer is no longer using it. This is opt-in for consumers, as only consumers which
+ * know when their exchanges are no longer in use can release them, and a consumer which does not release its
+ * exchanges simply does not benefit from the pooling.
+ * <p/>
+ * Important: A released exchange is reset and reused for another message, so pooling should only be used when
+ * the routes do not keep any references to the exchange after it has been completed (such as storing the exchange
+ * in a repository or in a mock endpoint). Copies of the exchange are not affected.
+ *
+ * @see org.apache.camel.impl.DefaultExchangeFactory
+ * @see org.apache.camel.impl.PooledExchangeFactory
+ */
+public interface ExchangeFactory {
+
+    /**
+     * Creates the factory to be used by the given consumer.
+     * <p/>
+     * The consumer starts and stops the returned factory (if it is a {@link org.apache.camel.Service}) together
+     * with itself, so a factory which pools exchanges can keep a pool per consumer, which is discarded when the
+     * consumer is stopped.
+     *
+     * @param consumer the consumer
+     * @return the factory for the consumer, which can be this factory if it has no per consumer state
+     */
+    ExchangeFactory newExchangeFactory(Consumer consumer);
+
+    /**
+     * Creates (or acquires from a pool) an exchange for the given endpoint
+     *
+     * @param fromEndpoint the endpoint the exchange is created from
+     * @return the exchange
+     */
+    Exchange create(Endpoint fromEndpoint);
+
+    /**
+     * Releases the exchange which is complete and no longer in use, so it can be reused.
+     *
+     * @param exchange the exchange
+     * @return <tt>true</tt> if the exchange was returned to the pool, <tt>false</tt> if it was discarded
+     */
+    boolean release(Exchange exchange);
+
+    /**
+     * Whether the factory pools exchanges
+     */
+    boolean isPooled();
+}
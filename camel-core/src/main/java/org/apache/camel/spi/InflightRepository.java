@@ -192,4 +192,27 @@ public interface InflightRepository extends StaticService {
      */
     InflightExchange oldest(String fromRouteId);
 
+    /**
+     * Whether the inflight exchanges are kept, which allows to browse the inflight exchanges,
+     * and to find the oldest inflight exchange.
+     *
+     * @return <tt>true</tt> if enabled (default), <tt>false</tt> if only the number of inflight exchanges are kept
+     */
+    default boolean isInflightBrowseEnabled() {
+        return true;
+    }
+
+    /**
+     * Sets whether the inflight exchanges are kept, which allows to browse the inflight exchanges,
+     * and to find the oldest inflight exchange.
+     * <p/>
+     * This option must be configured before the repository is started.
+     * A repository which does not support turning off browsing ignores this option.
+     *
+     * @param inflightBrowseEnabled <tt>true</tt> to enable, <tt>false</tt> to only keep the number of inflight exchanges
+     */
+    default void setInflightBrowseEnabled(boolean inflightBrowseEnabled) {
+        // noop
+    }
+
 }
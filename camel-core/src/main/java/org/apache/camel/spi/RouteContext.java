@@ -25,6 +25,7 @@ import org.apache.camel.EndpointAware;
 import org.apache.camel.Experimental;
 import org.apache.camel.Processor;
 import org.apache.camel.RuntimeConfiguration;
+import org.apache.camel.Service;
 import org.apache.camel.model.FromDefinition;
 import org.apache.camel.model.ProcessorDefinition;
 import org.apache.camel.model.RouteDefinition;
@@ -113,6 +114,21 @@ public interface RouteContext extends RuntimeConfiguration, EndpointAware {
      */
     void addEventDrivenProcessor(Processor processor);
 
+    /**
+     * Adds a service which lifecycle is tied to the route, such as a pre compiled expression, which is
+     * started and stopped together with the route, and removed when the route is removed.
+     *
+     * @param service the service
+     */
+    void addService(Service service);
+
+    /**
+     * Gets the services which lifecycle is tied to the route
+     *
+     * @return the services
+     */
+    List<Service> getServices();
+
     /**
      * This method retrieves the InterceptStrategy instances this route context.
      *
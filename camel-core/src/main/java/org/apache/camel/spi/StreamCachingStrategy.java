@@ -17,6 +17,7 @@
 package org.apache.camel.spi;
 
 import java.io.File;
+import java.nio.ByteBuffer;
 
 import org.apache.camel.Exchange;
 import org.apache.camel.StaticService;
@@ -62,6 +63,34 @@ public interface StreamCachingStrategy extends StaticService {
          */
         long getCacheSpoolAverageSize();
 
+        /**
+         * Gets the counter for number of buffers which has been allocated by the buffer pool (only in use if pooled).
+         */
+        default long getPoolAllocatedCounter() {
+            return 0;
+        }
+
+        /**
+         * Gets the counter for number of buffers which has been reused from the buffer pool (only in use if pooled).
+         */
+        default long getPoolReusedCounter() {
+            return 0;
+        }
+
+        /**
+         * Gets the number of bytes in the buffers which are currently in use from the buffer pool (only in use if pooled).
+         */
+        default long getPoolInUseSize() {
+            return 0;
+        }
+
+        /**
+         * Gets the number of bytes in the idle buffers which are kept in the buffer pool for reuse (only in use if pooled).
+         */
+        default long getPoolIdleSize() {
+            return 0;
+        }
+
         /**
          * Reset the counters
          */
@@ -87,6 +116,23 @@ public interface StreamCachingStrategy extends StaticService {
         Committed, Max
     }
 
+    /**
+     * A pool of direct {@link ByteBuffer}s which are used for in-memory stream caches when stream caching is pooled.
+     */
+    interface BufferPool {
+
+        /**
+         * Acquires a cleared buffer from the pool, or allocates a new buffer if the pool is empty.
+         * All buffers have the same capacity which is the {@link StreamCachingStrategy#getBufferSize()}.
+         */
+        ByteBuffer acquire();
+
+        /**
+         * Releases the buffer back to the pool. The buffer must not be used after it has been released.
+         */
+        void release(ByteBuffer buffer);
+    }
+
     /**
      * Rule for determine if stream caching should be spooled to disk or kept in-memory.
      */
@@ -194,6 +240,49 @@ public interface StreamCachingStrategy extends StaticService {
 
     boolean isAnySpoolRules();
 
+    /**
+     * Sets whether in-memory stream caches should be stored in pooled direct (off heap) buffers, and
+     * spooled to a memory mapped file, instead of stored in byte arrays on the heap and spooled to a plain file.
+     * <p/>
+     * The cached data is shared (not copied) among the copies of the stream cache, for example in the multicast EIP,
+     * and the buffers are released back to the pool when all the exchanges using the stream cache are done.
+     * An in-memory stream cache can therefore not be read after its exchanges are done.
+     * <p/>
+     * Pooling is not in use if a {@link #setSpoolChiper(String) spool chiper} has been configured.
+     * <p/>
+     * This option is default <tt>false</tt>
+     */
+    default void setPooled(boolean pooled) {
+        // noop
+    }
+
+    default boolean isPooled() {
+        return false;
+    }
+
+    /**
+     * Sets the maximum number of bytes in idle buffers which the buffer pool keeps for reuse.
+     * Buffers which are released when the pool is full are discarded.
+     * <p/>
+     * The default size is 32mb
+     */
+    default void setPoolMaxSize(long poolMaxSize) {
+        // noop
+    }
+
+    default long getPoolMaxSize() {
+        return 0;
+    }
+
+    /**
+     * Gets the buffer pool used when stream caching is pooled.
+     *
+     * @return the pool, or <tt>null</tt> if not pooled
+     */
+    default BufferPool getBufferPool() {
+        return null;
+    }
+
     /**
      * Gets the utilization statistics.
      */
@@ -59,11 +59,25 @@ public interface TypeConverterRegistry extends StaticService {
          */
         long getBaseHitCounter();
 
+        /**
+         * Number of attempts where the type converter was resolved from the dispatch table
+         */
+        default long getDispatchHitCounter() {
+            return 0;
+        }
+
         /**
          * Number of attempts which cannot be converted as no suitable type converter exists
          */
         long getMissCounter();
 
+        /**
+         * Number of attempts where a previous miss was resolved from the negative cache
+         */
+        default long getNegativeCacheHitCounter() {
+            return 0;
+        }
+
         /**
          * Number of failed attempts during type conversion
          */
@@ -45,6 +45,11 @@ import org.slf4j.LoggerFactory;
  * if its being stopped.
  * You must also invoke {@link #start()} to startup the timeout map, before its ready to be used.
  * And you must invoke {@link #stop()} to stop the map when no longer in use.
+ * <p/>
+ * By default the background task scans all the entries to find the entries which has timed out. When there can be
+ * a lot of entries in the map, you can enable using a hashed hierarchical timing wheel instead, which only visits the
+ * entries which are due, so the cost of the background task does not grow with the number of entries.
+ * The timing wheel uses the poll time as its tick, so the entries time out with the same precision.
  *
  * @version 
  */
@@ -58,6 +63,7 @@ public class DefaultTimeoutMap<K, V> extends ServiceSupport implements TimeoutMa
     private final long purgePollTime;
     private final Lock lock = new ReentrantLock();
     private boolean useLock = true;
+    private final TimeoutMapTimingWheel<K, V> wheel;
 
     public DefaultTimeoutMap(ScheduledExecutorService executor) {
         this(executor, 1000);
@@ -68,10 +74,15 @@ public class DefaultTimeoutMap<K, V> extends ServiceSupport implements TimeoutMa
     }
 
     public DefaultTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis, boolean useLock) {
+        this(executor, requestMapPollTimeMillis, useLock, false);
+    }
+
+    public DefaultTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis, boolean useLock, boolean useTimingWheel) {
         ObjectHelper.notNull(executor, "ScheduledExecutorService");
         this.executor = executor;
         this.purgePollTime = requestMapPollTimeMillis;
         this.useLock = useLock;
+        this.wheel = useTimingWheel ? new TimeoutMapTimingWheel<K, V>(requestMapPollTimeMillis) : null;
     }
 
     public V get(K key) {
@@ -94,13 +105,19 @@ public class DefaultTimeoutMap<K, V> extends ServiceSupport implements TimeoutMa
     }
     
     public V put(K key, V value, long timeoutMillis) {
-        TimeoutMapEntry<K, V> entry = new TimeoutMapEntry<K, V>(key, value, timeoutMillis);
+        TimeoutMapEntry<K, V> entry = createEntry(key, value, timeoutMillis);
         if (useLock) {
             lock.lock();
         }
         try {
             updateExpireTime(entry);
             TimeoutMapEntry<K, V> result = map.put(key, entry);
+            if (wheel != null) {
+                if (result != null) {
+                    wheel.remove(result);
+                }
+                wheel.add((TimeoutMapTimingWheel.Entry<K, V>) entry, currentTime());
+            }
             return result != null ? result.getValue() : null;
         } finally {
             if (useLock) {
@@ -110,7 +127,7 @@ public class DefaultTimeoutMap<K, V> extends ServiceSupport implements TimeoutMa
     }
     
     public V putIfAbsent(K key, V value, long timeoutMillis) {
-        TimeoutMapEntry<K, V> entry = new TimeoutMapEntry<K, V>(key, value, timeoutMillis);
+        TimeoutMapEntry<K, V> entry = createEntry(key, value, timeoutMillis);
         if (useLock) {
             lock.lock();
         }
@@ -118,6 +135,9 @@ public class DefaultTimeoutMap<K, V> extends ServiceSupport implements TimeoutMa
             updateExpireTime(entry);
             //Just make sure we don't override the old entry
             TimeoutMapEntry<K, V> result = map.putIfAbsent(key, entry);
+            if (result == null && wheel != null) {
+                wheel.add((TimeoutMapTimingWheel.Entry<K, V>) entry, currentTime());
+            }
             return result != null ? result.getValue() : null;
         } finally {
             if (useLock) {
@@ -134,6 +154,9 @@ public class DefaultTimeoutMap<K, V> extends ServiceSupport implements TimeoutMa
         }
         try {
             entry = map.remove(key);
+            if (entry != null && wheel != null) {
+                wheel.remove(entry);
+            }
         } finally {
             if (useLock) {
                 lock.unlock();
@@ -198,11 +221,26 @@ public class DefaultTimeoutMap<K, V> extends ServiceSupport implements TimeoutMa
         }
         try {
             // need to find the expired entries and add to the expired list
-            for (Map.Entry<K, TimeoutMapEntry<K, V>> entry : map.entrySet()) {
-                if (entry.getValue().getExpireTime() < now) {
-                    if (isValidForEviction(entry.getValue())) {
-                        log.debug("Evicting inactive entry ID: {}", entry.getValue());
-                        expired.add(entry.getValue());
+            if (wheel != null) {
+                // the timing wheel only visits the entries which are due
+                List<TimeoutMapEntry<K, V>> due = new ArrayList<TimeoutMapEntry<K, V>>();
+                wheel.expire(now, due);
+                for (TimeoutMapEntry<K, V> entry : due) {
+                    if (isValidForEviction(entry)) {
+                        log.debug("Evicting inactive entry ID: {}", entry);
+                        expired.add(entry);
+                    } else {
+                        // check again on next poll
+                        wheel.retry(entry);
+                    }
+                }
+            } else {
+                for (Map.Entry<K, TimeoutMapEntry<K, V>> entry : map.entrySet()) {
+                    if (entry.getValue().getExpireTime() < now) {
+                        if (isValidForEviction(entry.getValue())) {
+                            log.debug("Evicting inactive entry ID: {}", entry.getValue());
+                            expired.add(entry.getValue());
+                        }
                     }
                 }
             }
@@ -234,12 +272,18 @@ public class DefaultTimeoutMap<K, V> extends ServiceSupport implements TimeoutMa
                         if (evict) {
                             // okay this entry should be evicted
                             evicts.add(entry.getKey());
+                        } else if (wheel != null) {
+                            // check again on next poll
+                            wheel.retry(entry);
                         }
                     }
                 } finally {
                     // and must remove from list after we have fired the notifications
                     for (K key : evicts) {
-                        map.remove(key);
+                        TimeoutMapEntry<K, V> entry = map.remove(key);
+                        if (entry != null && wheel != null) {
+                            wheel.remove(entry);
+                        }
                     }
                 }
             }
@@ -261,6 +305,10 @@ public class DefaultTimeoutMap<K, V> extends ServiceSupport implements TimeoutMa
         return executor;
     }
 
+    public boolean isUseTimingWheel() {
+        return wheel != null;
+    }
+
     // Implementation methods
     // -------------------------------------------------------------------------
 
@@ -271,6 +319,13 @@ public class DefaultTimeoutMap<K, V> extends ServiceSupport implements TimeoutMa
         future = executor.scheduleWithFixedDelay(this, 0, purgePollTime, TimeUnit.MILLISECONDS);
     }
 
+    private TimeoutMapEntry<K, V> createEntry(K key, V value, long timeoutMillis) {
+        if (wheel != null) {
+            return new TimeoutMapTimingWheel.Entry<K, V>(key, value, timeoutMillis);
+        }
+        return new TimeoutMapEntry<K, V>(key, value, timeoutMillis);
+    }
+
     /**
      * A hook to allow derivations to avoid evicting the current entry
      */
@@ -306,7 +361,19 @@ public class DefaultTimeoutMap<K, V> extends ServiceSupport implements TimeoutMa
             future = null;
         }
         // clear map if we stop
-        map.clear();
+        if (useLock) {
+            lock.lock();
+        }
+        try {
+            map.clear();
+            if (wheel != null) {
+                wheel.clear();
+            }
+        } finally {
+            if (useLock) {
+                lock.unlock();
+            }
+        }
     }
 
 }
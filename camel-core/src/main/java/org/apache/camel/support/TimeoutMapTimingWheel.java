@@ -0,0 +1,111 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.camel.util.HashedTimingWheel;
+
+/**
+ * Keeps track of when the entries of a {@link DefaultTimeoutMap} expire using a {@link HashedTimingWheel}
+ * which ticks at the poll time of the map.
+ * <p/>
+ * The expire time of an entry may be extended after it has been added, in which case the entry is scheduled again
+ * when it is due, instead of being moved when the expire time is changed.
+ * <p/>
+ * This implementation is not thread safe.
+ */
+final class TimeoutMapTimingWheel<K, V> {
+
+    private final HashedTimingWheel<Entry<K, V>> wheel;
+    private final List<HashedTimingWheel.Timeout<Entry<K, V>>> due = new ArrayList<>();
+
+    /**
+     * An entry which can be scheduled on the timing wheel
+     */
+    static final class Entry<K, V> extends TimeoutMapEntry<K, V> {
+        private HashedTimingWheel.Timeout<Entry<K, V>> timeout;
+
+        Entry(K id, V handler, long timeout) {
+            super(id, handler, timeout);
+        }
+    }
+
+    TimeoutMapTimingWheel(long tickMillis) {
+        this.wheel = new HashedTimingWheel<>(tickMillis);
+    }
+
+    /**
+     * Number of entries in the wheel
+     */
+    int size() {
+        return wheel.size();
+    }
+
+    /**
+     * Adds the entry which is due at the first tick after it expires
+     */
+    void add(Entry<K, V> entry, long now) {
+        if (entry.timeout == null) {
+            entry.timeout = wheel.newTimeout(entry);
+        }
+        wheel.schedule(entry.timeout, entry.getExpireTime(), now);
+    }
+
+    /**
+     * Schedules the entry to be due again at the next tick, such as when its eviction was vetoed
+     */
+    void retry(TimeoutMapEntry<K, V> entry) {
+        if (entry instanceof Entry && ((Entry<K, V>) entry).timeout != null) {
+            wheel.scheduleNextTick(((Entry<K, V>) entry).timeout);
+        }
+    }
+
+    /**
+     * Removes the entry from the wheel, which does nothing if the entry is not in the wheel
+     */
+    void remove(TimeoutMapEntry<K, V> entry) {
+        if (entry instanceof Entry && ((Entry<K, V>) entry).timeout != null) {
+            wheel.cancel(((Entry<K, V>) entry).timeout);
+        }
+    }
+
+    /**
+     * Advances the wheel up to the given time, and adds the entries which have expired to the given list,
+     * which are removed from the wheel. Entries which are due but have had their expire time extended are
+     * scheduled again.
+     */
+    void expire(long now, List<TimeoutMapEntry<K, V>> expired) {
+        wheel.advance(now, due);
+        for (HashedTimingWheel.Timeout<Entry<K, V>> timeout : due) {
+            Entry<K, V> entry = timeout.getValue();
+            if (entry.getExpireTime() < now) {
+                expired.add(entry);
+            } else {
+                // the expire time has been extended
+                wheel.schedule(timeout, entry.getExpireTime(), now);
+            }
+        }
+        due.clear();
+    }
+
+    void clear() {
+        wheel.clear();
+    }
+
+}
@@ -68,6 +68,18 @@ public final class CamelContextStatDump {
     @XmlAttribute
     private Long meanProcessingTime;
 
+    @XmlAttribute
+    private Long processingTimeP50;
+
+    @XmlAttribute
+    private Long processingTimeP90;
+
+    @XmlAttribute
+    private Long processingTimeP99;
+
+    @XmlAttribute
+    private Long processingTimeP999;
+
     @XmlAttribute
     private Long exchangesInflight;
 
@@ -206,6 +218,38 @@ public final class CamelContextStatDump {
         this.meanProcessingTime = meanProcessingTime;
     }
 
+    public Long getProcessingTimeP50() {
+        return processingTimeP50;
+    }
+
+    public void setProcessingTimeP50(Long processingTimeP50) {
+        this.processingTimeP50 = processingTimeP50;
+    }
+
+    public Long getProcessingTimeP90() {
+        return processingTimeP90;
+    }
+
+    public void setProcessingTimeP90(Long processingTimeP90) {
+        this.processingTimeP90 = processingTimeP90;
+    }
+
+    public Long getProcessingTimeP99() {
+        return processingTimeP99;
+    }
+
+    public void setProcessingTimeP99(Long processingTimeP99) {
+        this.processingTimeP99 = processingTimeP99;
+    }
+
+    public Long getProcessingTimeP999() {
+        return processingTimeP999;
+    }
+
+    public void setProcessingTimeP999(Long processingTimeP999) {
+        this.processingTimeP999 = processingTimeP999;
+    }
+
     public Long getSelfProcessingTime() {
         return selfProcessingTime;
     }
@@ -0,0 +1,297 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util;
+
+import java.util.List;
+
+/**
+ * A hashed hierarchical timing wheel which keeps track of when timeouts are due.
+ * <p/>
+ * The wheel has a number of levels with 64 slots each. A slot at the first level holds the timeouts which are due
+ * at the same tick, and a slot at a higher level holds the timeouts which are due within a range of ticks, which
+ * are cascaded down to the lower levels as the wheel advances. Scheduling and cancelling a timeout is O(1), and
+ * advancing the wheel only visits the timeouts which are due (or cascaded), instead of scanning all the timeouts.
+ * <p/>
+ * The wheel does not use a clock of its own, instead the time is given when scheduling timeouts and advancing the
+ * wheel, which can use any unit as long as the tick duration uses the same unit. A timeout is due at the first tick
+ * after its deadline, so the deadlines are rounded up to the tick duration.
+ * <p/>
+ * This implementation is not thread safe.
+ */
+public final class HashedTimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+    private static final long UNSET = Long.MIN_VALUE;
+
+    private final long tickDuration;
+    private final Timeout<T>[][] slots;
+    private final int[] counts = new int[LEVELS];
+    private long currentTick = UNSET;
+    private int size;
+
+    /**
+     * A timeout which can be linked into a slot of the timing wheel
+     */
+    public static final class Timeout<T> {
+        private final T value;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private long deadline;
+        private int level = -1;
+        private int slot;
+
+        private Timeout(T value) {
+            this.value = value;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * Whether the timeout is scheduled in the wheel
+         */
+        public boolean isScheduled() {
+            return level >= 0;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickDuration) {
+        this.tickDuration = Math.max(1, tickDuration);
+        this.slots = new Timeout[LEVELS][SLOTS];
+    }
+
+    public long getTickDuration() {
+        return tickDuration;
+    }
+
+    /**
+     * Number of timeouts in the wheel
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Creates a timeout for the given value, which is not scheduled until {@link #schedule(Timeout, long, long)}
+     * is called.
+     */
+    public Timeout<T> newTimeout(T value) {
+        return new Timeout<>(value);
+    }
+
+    /**
+     * Schedules the timeout to be due at the first tick after the deadline. If the timeout is already scheduled
+     * then it is moved.
+     *
+     * @param timeout  the timeout
+     * @param deadline the deadline
+     * @param now      the current time, which is used to start the wheel when it has not been advanced yet
+     */
+    public void schedule(Timeout<T> timeout, long deadline, long now) {
+        if (currentTick == UNSET) {
+            currentTick = now / tickDuration;
+        }
+        if (timeout.level >= 0) {
+            unlink(timeout);
+        }
+        timeout.deadline = deadline / tickDuration + 1;
+        link(timeout, currentTick + 1);
+    }
+
+    /**
+     * Schedules the timeout to be due at the next tick. If the timeout is already scheduled then it is moved.
+     */
+    public void scheduleNextTick(Timeout<T> timeout) {
+        if (currentTick == UNSET) {
+            return;
+        }
+        if (timeout.level >= 0) {
+            unlink(timeout);
+        }
+        timeout.deadline = currentTick + 1;
+        link(timeout, currentTick + 1);
+    }
+
+    /**
+     * Cancels the timeout, which does nothing if the timeout is not scheduled
+     */
+    public void cancel(Timeout<T> timeout) {
+        if (timeout.level >= 0) {
+            unlink(timeout);
+        }
+    }
+
+    /**
+     * Advances the wheel up to the given time, and adds the timeouts which are due to the given list, which are
+     * removed from the wheel.
+     */
+    public void advance(long now, List<Timeout<T>> due) {
+        long nowTick = now / tickDuration;
+        if (currentTick == UNSET || size == 0) {
+            // nothing is due so just move the wheel forward
+            currentTick = currentTick == UNSET ? nowTick : Math.max(currentTick, nowTick);
+            return;
+        }
+
+        while (currentTick < nowTick) {
+            if (size == 0) {
+                currentTick = nowTick;
+                break;
+            }
+            // skip the ticks where nothing can happen, which is until the next range of the lowest level with timeouts
+            int lowest = 0;
+            while (counts[lowest] == 0) {
+                lowest++;
+            }
+            if (lowest > 0) {
+                long last = currentTick | ((1L << (SLOT_BITS * lowest)) - 1);
+                currentTick = Math.min(last, nowTick);
+                if (currentTick == nowTick) {
+                    break;
+                }
+            }
+            currentTick++;
+
+            // cascade the timeouts from the higher levels which are due within the range of ticks that starts now
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    Timeout<T> timeout = detach(level, (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK));
+                    while (timeout != null) {
+                        Timeout<T> next = timeout.next;
+                        timeout.next = null;
+                        link(timeout, currentTick);
+                        timeout = next;
+                    }
+                }
+            }
+
+            Timeout<T> timeout = detach(0, (int) (currentTick & SLOT_MASK));
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                timeout.next = null;
+                if (timeout.deadline > currentTick) {
+                    // the deadline was too far in the future to be scheduled at once
+                    link(timeout, currentTick + 1);
+                } else {
+                    due.add(timeout);
+                }
+                timeout = next;
+            }
+        }
+    }
+
+    /**
+     * Removes all the timeouts from the wheel, and adds them to the given list
+     */
+    public void drain(List<Timeout<T>> drained) {
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                Timeout<T> timeout = detach(level, slot);
+                while (timeout != null) {
+                    Timeout<T> next = timeout.next;
+                    timeout.next = null;
+                    drained.add(timeout);
+                    timeout = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all the timeouts from the wheel, and resets the wheel so it is started again by the next
+     * timeout which is scheduled
+     */
+    public void clear() {
+        currentTick = UNSET;
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                Timeout<T> timeout = detach(level, slot);
+                while (timeout != null) {
+                    Timeout<T> next = timeout.next;
+                    timeout.next = null;
+                    timeout = next;
+                }
+            }
+        }
+    }
+
+    private void link(Timeout<T> timeout, long minTick) {
+        long deadline = Math.max(timeout.deadline, minTick);
+        long delta = deadline - currentTick;
+        if (delta > MAX_DELTA) {
+            // too far in the future so schedule as far as we can, and it will be scheduled again when its due
+            deadline = currentTick + MAX_DELTA;
+            delta = MAX_DELTA;
+        }
+        int level = 0;
+        while (delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((deadline >>> (SLOT_BITS * level)) & SLOT_MASK);
+
+        Timeout<T> head = slots[level][slot];
+        timeout.prev = null;
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        slots[level][slot] = timeout;
+        timeout.level = level;
+        timeout.slot = slot;
+        counts[level]++;
+        size++;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            slots[timeout.level][timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        counts[timeout.level]--;
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.level = -1;
+        size--;
+    }
+
+    /**
+     * Removes all the timeouts from the slot, and returns the first timeout which the others can be reached from
+     * by following the next links
+     */
+    private Timeout<T> detach(int level, int slot) {
+        Timeout<T> head = slots[level][slot];
+        slots[level][slot] = null;
+        for (Timeout<T> timeout = head; timeout != null; timeout = timeout.next) {
+            timeout.prev = null;
+            timeout.level = -1;
+            counts[level]--;
+            size--;
+        }
+        return head;
+    }
+
+}
@@ -18,9 +18,11 @@ package org.apache.camel.util;
 
 import java.io.Closeable;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Array;
@@ -29,6 +31,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URL;
+import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
@@ -1988,6 +1991,55 @@ public final class ObjectHelper {
         return scanner;
     }
 
+    /**
+     * Creates a {@link TokenIterator} for splitting the given value by the literal delimiter.
+     *
+     * @param exchange  the current exchange
+     * @param value     the value, typically the message IN body
+     * @param delimiter the literal delimiter
+     * @return the iterator, or <tt>null</tt> if the value cannot be split using a {@link TokenIterator}
+     *         and a {@link Scanner} should be used instead
+     * @see TokenIterator#isLiteral(String)
+     */
+    public static TokenIterator getTokenIterator(Exchange exchange, Object value, String delimiter) {
+        if (value instanceof WrappedFile) {
+            WrappedFile<?> gf = (WrappedFile<?>) value;
+            Object body = gf.getBody();
+            if (body != null) {
+                // we have loaded the file content into the body so use that
+                value = body;
+            } else {
+                // generic file is just a wrapper for the real file so call again with the real file
+                return getTokenIterator(exchange, gf.getFile(), delimiter);
+            }
+        }
+
+        String charset = exchange.getProperty(Exchange.CHARSET_NAME, String.class);
+
+        // report malformed input the same way as the scanner
+        if (value instanceof Reader) {
+            return TokenIterator.create((Reader) value, delimiter);
+        } else if (value instanceof Readable) {
+            return null;
+        } else if (value instanceof InputStream) {
+            return TokenIterator.create((InputStream) value, charset, delimiter, charset != null);
+        } else if (value instanceof File) {
+            try {
+                return TokenIterator.create(new FileInputStream((File) value), charset, delimiter, true);
+            } catch (FileNotFoundException e) {
+                throw new RuntimeCamelException(e);
+            }
+        } else if (value instanceof String) {
+            return TokenIterator.create((String) value, delimiter);
+        } else if (value instanceof ReadableByteChannel) {
+            return TokenIterator.create(Channels.newInputStream((ReadableByteChannel) value), charset, delimiter, true);
+        }
+
+        // value is not a suitable type, try to convert value to a string
+        String text = exchange.getContext().getTypeConverter().convertTo(String.class, exchange, value);
+        return TokenIterator.create(text != null ? text : "", delimiter);
+    }
+
     public static String getIdentityHashCode(Object object) {
         return "0x" + Integer.toHexString(System.identityHashCode(object));
     }
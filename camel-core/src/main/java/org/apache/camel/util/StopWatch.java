@@ -17,6 +17,7 @@
 package org.apache.camel.util;
 
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A very simple stop watch.
@@ -28,12 +29,16 @@ import java.util.Date;
 public final class StopWatch {
 
     private long start;
+    private long startNanos;
+    private boolean nanos;
 
     /**
      * Starts the stop watch
      */
     public StopWatch() {
         this.start = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+        this.nanos = true;
     }
 
     /**
@@ -51,6 +56,8 @@ public final class StopWatch {
     public StopWatch(boolean start) {
         if (start) {
             this.start = System.currentTimeMillis();
+            this.startNanos = System.nanoTime();
+            this.nanos = true;
         }
     }
 
@@ -59,6 +66,8 @@ public final class StopWatch {
      */
     public void restart() {
         start = System.currentTimeMillis();
+        startNanos = System.nanoTime();
+        nanos = true;
     }
 
     /**
@@ -85,4 +94,19 @@ public final class StopWatch {
         }
     }
 
+    /**
+     * Returns the time taken in nanos, which has a higher resolution than {@link #taken()}.
+     * <p/>
+     * If the stop watch was started from a timestamp, then the time is only as precise as millis.
+     *
+     * @return time in nanos, or <tt>0</tt> if not started yet.
+     */
+    public long takenNanos() {
+        if (nanos) {
+            return System.nanoTime() - startNanos;
+        } else {
+            return TimeUnit.MILLISECONDS.toNanos(taken());
+        }
+    }
+
 }
@@ -0,0 +1,373 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An {@link Iterator} which splits a stream or text into tokens separated by a literal delimiter.
+ * <p/>
+ * This is a faster replacement of {@link java.util.Scanner} for delimiters which are not regular expressions,
+ * as the delimiter is searched for without using regular expressions, and the data is read in large blocks.
+ * If the charset allows it (such as UTF-8 and single byte charsets) the delimiter is searched for in the raw bytes,
+ * so only the bytes of the tokens are decoded. The tokens are the same as a {@link java.util.Scanner} using the
+ * delimiter would return.
+ * <p/>
+ * Like the {@link java.util.Scanner}, an {@link IOException} reading the data ends the iteration, and is thrown
+ * from {@link #close()}.
+ */
+public abstract class TokenIterator implements Iterator<String>, Closeable {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+    private static final String REGEX_CHARACTERS = "\\^$.|?*+()[]{}";
+
+    protected int pos;
+    protected int limit;
+    protected final int delimiterLength;
+    private final Closeable source;
+    private boolean eof;
+    private boolean done;
+    private String next;
+    private IOException ioException;
+
+    protected TokenIterator(Closeable source, int delimiterLength) {
+        this.source = source;
+        this.delimiterLength = delimiterLength;
+    }
+
+    /**
+     * Whether the delimiter is a literal, which has the same meaning as the regular expression the
+     * {@link java.util.Scanner} would use, and thus can be used with this iterator.
+     */
+    public static boolean isLiteral(String delimiter) {
+        if (delimiter == null || delimiter.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < delimiter.length(); i++) {
+            if (REGEX_CHARACTERS.indexOf(delimiter.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates an iterator which splits the text.
+     */
+    public static TokenIterator create(String text, String delimiter) {
+        return new CharTokenIterator(null, text.toCharArray(), delimiter);
+    }
+
+    /**
+     * Creates an iterator which splits the characters read from the reader.
+     */
+    public static TokenIterator create(Reader reader, String delimiter) {
+        return new CharTokenIterator(reader, null, delimiter);
+    }
+
+    /**
+     * Creates an iterator which splits the stream.
+     *
+     * @param in              the stream
+     * @param charset         the charset, or <tt>null</tt> to use the default charset
+     * @param delimiter       the delimiter
+     * @param reportMalformed whether malformed input ends the iteration with a {@link CharacterCodingException},
+     *                        or is replaced by the replacement character
+     */
+    public static TokenIterator create(InputStream in, String charset, String delimiter, boolean reportMalformed) {
+        Charset cs = charset != null ? Charset.forName(charset) : Charset.defaultCharset();
+        CharsetDecoder decoder = cs.newDecoder();
+        if (!reportMalformed) {
+            decoder.onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+        // in UTF-8 and single byte charsets the bytes of the delimiter cannot be a part of other characters
+        if (cs.equals(StandardCharsets.UTF_8) || cs.newEncoder().maxBytesPerChar() == 1.0f) {
+            byte[] bytes = delimiter.getBytes(cs);
+            if (delimiter.equals(new String(bytes, cs))) {
+                return new ByteTokenIterator(in, bytes, decoder);
+            }
+        }
+        return new CharTokenIterator(new InputStreamReader(in, decoder), null, delimiter);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !done) {
+            try {
+                next = fetch();
+            } catch (IOException e) {
+                ioException = e;
+            }
+            done = next == null;
+        }
+        return next != null;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String answer = next;
+        next = null;
+        return answer;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Remove is not supported by this iterator");
+    }
+
+    /**
+     * Returns the {@link IOException} which ended the iteration, if any.
+     */
+    public IOException ioException() {
+        return ioException;
+    }
+
+    @Override
+    public void close() throws IOException {
+        done = true;
+        if (source != null) {
+            source.close();
+        }
+        if (ioException != null) {
+            throw ioException;
+        }
+    }
+
+    private String fetch() throws IOException {
+        // skip the delimiter which ended the previous token (or which starts the data) as the scanner does
+        while (limit - pos < delimiterLength && !eof) {
+            fill();
+        }
+        if (limit - pos >= delimiterLength && delimiterAt(pos)) {
+            pos += delimiterLength;
+        }
+
+        int from = pos;
+        while (true) {
+            int index = indexOf(from);
+            if (index >= 0) {
+                String token = token(pos, index);
+                pos = index;
+                return token;
+            }
+            if (eof) {
+                if (pos < limit) {
+                    String token = token(pos, limit);
+                    pos = limit;
+                    return token;
+                }
+                return null;
+            }
+            // the delimiter may start in the end of the data we have searched
+            from = Math.max(pos, limit - delimiterLength + 1);
+            from -= fill();
+        }
+    }
+
+    /**
+     * Reads more data, moving the data from the current position to the start of the buffer.
+     *
+     * @return the number of positions the data was moved
+     */
+    private int fill() throws IOException {
+        int shift = pos;
+        if (pos > 0 || limit == capacity()) {
+            int length = limit - pos;
+            int capacity = length == capacity() ? capacity() * 2 : capacity();
+            compact(length, capacity);
+            pos = 0;
+            limit = length;
+        }
+        int n = read(limit, capacity() - limit);
+        if (n < 0) {
+            eof = true;
+        } else {
+            limit += n;
+        }
+        return shift;
+    }
+
+    protected void endOfData() {
+        eof = true;
+    }
+
+    protected abstract int capacity();
+
+    /**
+     * Moves the data from the current position to the start of a buffer with the given capacity.
+     */
+    protected abstract void compact(int length, int capacity);
+
+    protected abstract int read(int offset, int length) throws IOException;
+
+    protected abstract int indexOf(int from);
+
+    protected abstract boolean delimiterAt(int index);
+
+    protected abstract String token(int from, int to) throws IOException;
+
+    /**
+     * Splits bytes, and decodes only the tokens.
+     */
+    private static final class ByteTokenIterator extends TokenIterator {
+
+        private final InputStream in;
+        private final byte[] delimiter;
+        private final CharsetDecoder decoder;
+        private byte[] buffer = new byte[BUFFER_SIZE];
+        private CharBuffer chars = CharBuffer.allocate(256);
+
+        private ByteTokenIterator(InputStream in, byte[] delimiter, CharsetDecoder decoder) {
+            super(in, delimiter.length);
+            this.in = in;
+            this.delimiter = delimiter;
+            this.decoder = decoder;
+        }
+
+        protected int capacity() {
+            return buffer.length;
+        }
+
+        protected void compact(int length, int capacity) {
+            byte[] target = capacity == buffer.length ? buffer : new byte[capacity];
+            System.arraycopy(buffer, pos, target, 0, length);
+            buffer = target;
+        }
+
+        protected int read(int offset, int length) throws IOException {
+            return in.read(buffer, offset, length);
+        }
+
+        protected int indexOf(int from) {
+            byte first = delimiter[0];
+            int last = limit - delimiterLength;
+            for (int i = from; i <= last; i++) {
+                if (buffer[i] == first && delimiterAt(i)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        protected boolean delimiterAt(int index) {
+            for (int i = 0; i < delimiterLength; i++) {
+                if (buffer[index + i] != delimiter[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        protected String token(int from, int to) throws IOException {
+            int length = to - from;
+            if (chars.capacity() < length) {
+                chars = CharBuffer.allocate(Math.max(length, chars.capacity() * 2));
+            }
+            chars.clear();
+            ByteBuffer bytes = ByteBuffer.wrap(buffer, from, length);
+            decoder.reset();
+            CoderResult result = decoder.decode(bytes, chars, true);
+            if (!result.isUnderflow()) {
+                result.throwException();
+            }
+            result = decoder.flush(chars);
+            if (!result.isUnderflow()) {
+                result.throwException();
+            }
+            return new String(chars.array(), 0, chars.position());
+        }
+    }
+
+    /**
+     * Splits characters.
+     */
+    private static final class CharTokenIterator extends TokenIterator {
+
+        private final Reader reader;
+        private final char[] delimiter;
+        private char[] buffer;
+
+        private CharTokenIterator(Reader reader, char[] text, String delimiter) {
+            super(reader, delimiter.length());
+            this.reader = reader;
+            this.delimiter = delimiter.toCharArray();
+            if (text != null) {
+                buffer = text;
+                limit = text.length;
+                endOfData();
+            } else {
+                buffer = new char[BUFFER_SIZE];
+            }
+        }
+
+        protected int capacity() {
+            return buffer.length;
+        }
+
+        protected void compact(int length, int capacity) {
+            char[] target = capacity == buffer.length ? buffer : new char[capacity];
+            System.arraycopy(buffer, pos, target, 0, length);
+            buffer = target;
+        }
+
+        protected int read(int offset, int length) throws IOException {
+            return reader.read(buffer, offset, length);
+        }
+
+        protected int indexOf(int from) {
+            char first = delimiter[0];
+            int last = limit - delimiterLength;
+            for (int i = from; i <= last; i++) {
+                if (buffer[i] == first && delimiterAt(i)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        protected boolean delimiterAt(int index) {
+            for (int i = 0; i < delimiterLength; i++) {
+                if (buffer[index + i] != delimiter[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        protected String token(int from, int to) {
+            return new String(buffer, from, to - from);
+        }
+    }
+
+}
@@ -16,15 +16,16 @@
  */
 package org.apache.camel.util.concurrent;
 
+import java.util.PriorityQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletionService;
-import java.util.concurrent.DelayQueue;
-import java.util.concurrent.Delayed;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * A {@link java.util.concurrent.CompletionService} that orders the completed tasks
@@ -36,17 +37,19 @@ public class SubmitOrderedCompletionService<V> implements CompletionService<V> {
     
     private final Executor executor;
 
-    // the idea to order the completed task in the same order as they where submitted is to leverage
-    // the delay queue. With the delay queue we can control the order by the getDelay and compareTo methods
-    // where we can order the tasks in the same order as they where submitted.
-    private final DelayQueue<SubmitOrderFutureTask> completionQueue = new DelayQueue<SubmitOrderFutureTask>();
+    // the idea to order the completed task in the same order as they where submitted is to keep the completed
+    // tasks in a reorder buffer which is ordered by the order they where submitted, and only let a task
+    // be taken when all the tasks submitted before it has been taken (or timed out)
+    private final PriorityQueue<SubmitOrderFutureTask> completionQueue = new PriorityQueue<SubmitOrderFutureTask>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
 
     // id is the unique id that determines the order in which tasks was submitted (incrementing)
     private final AtomicInteger id = new AtomicInteger();
-    // index is the index of the next id that should expire and thus be ready to take from the delayed queue
-    private final AtomicInteger index = new AtomicInteger();
+    // index is the id of the last task that has been taken (or timed out), guarded by the lock
+    private long index;
 
-    private class SubmitOrderFutureTask extends FutureTask<V> implements Delayed {
+    private class SubmitOrderFutureTask extends FutureTask<V> implements Comparable<SubmitOrderFutureTask> {
 
         // the id this task was assigned
         private final long id;
@@ -61,33 +64,20 @@ public class SubmitOrderedCompletionService<V> implements CompletionService<V> {
             this.id = id;
         }
 
-        public long getDelay(TimeUnit unit) {
-            // if the answer is 0 then this task is ready to be taken
-            long answer = id - index.get();
-            if (answer <= 0) {
-                return answer;
-            }
-            // okay this task is not ready yet, and we don't really know when it would be
-            // so we have to return a delay value of one time unit
-            if (TimeUnit.NANOSECONDS == unit) {
-                // okay this is too fast so use a little more delay to avoid CPU burning cycles
-                answer = unit.convert(1, TimeUnit.MICROSECONDS);
-            } else {
-                answer = unit.convert(1, unit);
-            }
-            return answer;
-        }
-
-        @SuppressWarnings("unchecked")
-        public int compareTo(Delayed o) {
-            SubmitOrderFutureTask other = (SubmitOrderFutureTask) o;
-            return (int) (this.id - other.id);
+        public int compareTo(SubmitOrderFutureTask other) {
+            return Long.compare(this.id, other.id);
         }
 
         @Override
         protected void done() {
             // when we are done add to the completion queue
-            completionQueue.add(this);
+            lock.lock();
+            try {
+                completionQueue.add(this);
+                available.signalAll();
+            } finally {
+                lock.unlock();
+            }
         }
 
         @Override
@@ -120,28 +110,57 @@ public class SubmitOrderedCompletionService<V> implements CompletionService<V> {
     }
 
     public Future<V> take() throws InterruptedException {
-        index.incrementAndGet();
-        return completionQueue.take();
+        lock.lockInterruptibly();
+        try {
+            SubmitOrderFutureTask answer = nextCompleted();
+            while (answer == null) {
+                available.await();
+                answer = nextCompleted();
+            }
+            return answer;
+        } finally {
+            lock.unlock();
+        }
     }
 
     public Future<V> poll() {
-        index.incrementAndGet();
-        Future<V> answer = completionQueue.poll();
-        if (answer == null) {
-            // decrease counter if we didnt get any data
-            index.decrementAndGet();
+        lock.lock();
+        try {
+            return nextCompleted();
+        } finally {
+            lock.unlock();
         }
-        return answer;
     }
 
     public Future<V> poll(long timeout, TimeUnit unit) throws InterruptedException {
-        index.incrementAndGet();
-        Future<V> answer = completionQueue.poll(timeout, unit);
-        if (answer == null) {
-            // decrease counter if we didnt get any data
-            index.decrementAndGet();
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            SubmitOrderFutureTask answer = nextCompleted();
+            while (answer == null && nanos > 0) {
+                nanos = available.awaitNanos(nanos);
+                answer = nextCompleted();
+            }
+            return answer;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the next completed task, if it is ready to be taken, which it is if all the tasks
+     * submitted before it has been taken (or timed out).
+     * <p/>
+     * Must be called while holding the lock.
+     */
+    private SubmitOrderFutureTask nextCompleted() {
+        SubmitOrderFutureTask head = completionQueue.peek();
+        if (head != null && head.id <= index + 1) {
+            completionQueue.poll();
+            index++;
+            return head;
         }
-        return answer;
+        return null;
     }
 
     /**
@@ -149,7 +168,14 @@ public class SubmitOrderedCompletionService<V> implements CompletionService<V> {
      * tasks which may already have been completed.
      */
     public void timeoutTask() {
-        index.incrementAndGet();
+        lock.lock();
+        try {
+            index++;
+            // a task submitted after the timed out task may already have been completed
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
     }
 
 }
@@ -0,0 +1,136 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.builder.xml;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.Service;
+import org.apache.camel.builder.RouteBuilder;
+
+import static org.apache.camel.builder.xml.XPathBuilder.xpath;
+
+public class XPathPoolTest extends ContextTestSupport {
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.getGlobalOptions().put(Exchange.XML_PRE_COMPILE, "true");
+        return context;
+    }
+
+    public void testPreCompile() throws Exception {
+        XPathBuilder builder = xpath("/foo/bar").stringResult().poolSize(2).preCompile();
+        builder.start();
+
+        assertEquals(2, builder.getPoolIdle());
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("cheese", builder.evaluate(context, "<foo><bar>cheese</bar></foo>", String.class));
+        }
+        assertEquals(3, builder.getPoolHits());
+        assertEquals(0, builder.getPoolMisses());
+        assertEquals(2, builder.getPoolIdle());
+
+        builder.stop();
+        assertEquals(0, builder.getPoolIdle());
+    }
+
+    public void testPreCompileInvalid() throws Exception {
+        XPathBuilder builder = xpath("/foo/[bar").preCompile();
+        try {
+            builder.start();
+            fail("Should have thrown exception");
+        } catch (InvalidXPathExpression e) {
+            assertEquals("/foo/[bar", e.getXpath());
+        }
+    }
+
+    public void testPoolSizeBounded() throws Exception {
+        final XPathBuilder builder = xpath("/foo/bar").stringResult().poolSize(2);
+        builder.start();
+
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        try {
+            List<Future<String>> futures = new ArrayList<Future<String>>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(executor.submit(new Callable<String>() {
+                    public String call() throws Exception {
+                        return builder.evaluate(context, "<foo><bar>cheese</bar></foo>", String.class);
+                    }
+                }));
+            }
+            for (Future<String> future : futures) {
+                assertEquals("cheese", future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(200, builder.getPoolHits() + builder.getPoolMisses());
+        assertTrue("Pool should be bounded, was " + builder.getPoolIdle(), builder.getPoolIdle() <= 2);
+    }
+
+    public void testPreCompileRoutes() throws Exception {
+        XPathBuilder builder = null;
+        for (Service service : context.getRoute("start").getServices()) {
+            if (service instanceof XPathBuilder) {
+                builder = (XPathBuilder) service;
+            }
+        }
+        assertNotNull("The xpath in the route should be added as a service of the route", builder);
+        assertNull("The xpath should not be added as a service of the context", context.hasService(XPathBuilder.class));
+        assertTrue(builder.isPreCompile());
+        assertTrue(builder.isStarted());
+        assertEquals(1, builder.getPoolIdle());
+
+        getMockEndpoint("mock:result").expectedMessageCount(1);
+
+        template.sendBody("direct:start", "<foo><bar>cheese</bar></foo>");
+        template.sendBody("direct:start", "<foo><bar>wine</bar></foo>");
+
+        assertMockEndpointsSatisfied();
+
+        assertEquals(2, builder.getPoolHits());
+        assertEquals(0, builder.getPoolMisses());
+
+        // the builder is stopped and no longer a service when the route is removed
+        context.stopRoute("start");
+        assertTrue(context.removeRoute("start"));
+        assertTrue(builder.isStopped());
+        assertEquals(0, builder.getPoolIdle());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start").routeId("start")
+                    .filter().xpath("/foo/bar = 'cheese'")
+                        .to("mock:result");
+            }
+        };
+    }
+}
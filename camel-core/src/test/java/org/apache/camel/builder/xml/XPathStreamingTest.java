@@ -0,0 +1,160 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.builder.xml;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.w3c.dom.Document;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+
+import static org.apache.camel.builder.xml.XPathBuilder.xpath;
+
+public class XPathStreamingTest extends ContextTestSupport {
+
+    private static final String SOAP = "http://schemas.xmlsoap.org/soap/envelope/";
+
+    private static final String[] DOCUMENTS = {
+        "<a id='1'><b>t</b><b id='2'>t1</b><c><a><b x:id='2' xmlns:x='urn:x'>t</b></a></c></a>",
+        "<x:a xmlns:x='urn:x' id='1'><x:b>1</x:b><b> 2 </b><x:b id='1'>t<!--c-->t1</x:b></x:a>",
+        "<a><b><c>t</c>t1<c/></b><b><![CDATA[t]]></b><b>t<c>1</c></b></a>",
+        "<a><b id='1'>t<?pi x?>t1</b><b>t</b><b><c/>t</b></a>"
+    };
+
+    private static final String[] EXPRESSIONS = {
+        "/a", "/b", "//b", "/a/b", "/a/b[2]", "/a/b[3]/c", "//a/b[1]", "/*/*[@id]", "/a/b[@id='2']",
+        "/a/b[@id!='2']", "//b[@x:id='2']", "/a/b = 't1'", "/a/b != 't'", "//b = 't'", "/a/b/@id = 2",
+        "/a/b/text() = 't1'", "//b[text()='t']", "//*[.='t1']", "/x:a/x:b[2] = 't1'", "/x:a/x:*[@id=1]",
+        "//x:b/text() = 'tt1'", "/a/b[1]/c = 't'", "/a/c//b", "//c/@id"
+    };
+
+    public void testStreamingSameAsXPathEngine() throws Exception {
+        for (String expression : EXPRESSIONS) {
+            XPathBuilder streaming = xpath(expression).namespace("x", "urn:x").streaming();
+            XPathBuilder engine = xpath(expression).namespace("x", "urn:x");
+            streaming.start();
+            assertNotNull("Should be supported by the streaming evaluator: " + expression,
+                StreamingXPath.compile(expression, streaming.getNamespaceContext()));
+
+            for (String document : DOCUMENTS) {
+                assertEquals(expression + " on " + document, engine.matches(context, document), streaming.matches(context, document));
+            }
+        }
+    }
+
+    public void testUnsupportedExpressions() throws Exception {
+        XPathBuilder builder = xpath("/a");
+        builder.start();
+        assertNull(StreamingXPath.compile("count(/a/b) = 2", builder.getNamespaceContext()));
+        assertNull(StreamingXPath.compile("/a/b[c='t']", builder.getNamespaceContext()));
+        assertNull(StreamingXPath.compile("/a/b[text()='t']/c", builder.getNamespaceContext()));
+        assertNull(StreamingXPath.compile("/a/b = 't' or /a/c", builder.getNamespaceContext()));
+        assertNull(StreamingXPath.compile("/a/child::b", builder.getNamespaceContext()));
+        assertNull(StreamingXPath.compile("/a/y:b", builder.getNamespaceContext()));
+        assertNull(StreamingXPath.compile("$name = 'foo'", builder.getNamespaceContext()));
+
+        // falls back to the XPath engine
+        XPathBuilder streaming = xpath("count(/a/b) = 2").streaming();
+        assertTrue(streaming.matches(context, "<a><b/><b/></a>"));
+        assertFalse(streaming.matches(context, "<a><b/></a>"));
+    }
+
+    public void testStopsReadingWhenDecided() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<soap:Envelope xmlns:soap='").append(SOAP).append("'>");
+        sb.append("<soap:Header><routing>gold</routing></soap:Header><soap:Body>");
+        for (int i = 0; i < 20000; i++) {
+            sb.append("<order><id>").append(i).append("</id></order>");
+        }
+        sb.append("</soap:Body></soap:Envelope>");
+        byte[] data = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+        // matched in the header
+        CountingInputStream is = new CountingInputStream(data);
+        assertTrue(xpath("/soap:Envelope/soap:Header/routing = 'gold'").namespace("soap", SOAP).streaming().matches(context, is));
+        assertTrue("Should stop reading, but read " + is.count, is.count < data.length / 2);
+
+        // not matched, but decided at the end of the first header
+        is = new CountingInputStream(data);
+        assertFalse(xpath("/soap:Envelope/soap:Header[1]/routing = 'silver'").namespace("soap", SOAP).streaming().matches(context, is));
+        assertTrue("Should stop reading, but read " + is.count, is.count < data.length / 2);
+
+        // not matched, and must read everything as there may be more headers
+        is = new CountingInputStream(data);
+        assertFalse(xpath("/soap:Envelope/soap:Header/routing = 'silver'").namespace("soap", SOAP).streaming().matches(context, is));
+        assertEquals(data.length, is.count);
+    }
+
+    public void testStreamingRoute() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:gold");
+        mock.expectedMessageCount(2);
+        getMockEndpoint("mock:other").expectedMessageCount(1);
+
+        template.sendBody("direct:start", "<order type='gold'><id>1</id></order>");
+        template.sendBody("direct:start", "<order type='silver'><id>2</id></order>".getBytes(StandardCharsets.UTF_8));
+
+        // a DOM message is evaluated by the XPath engine
+        Document dom = context.getTypeConverter().convertTo(Document.class, "<order type='gold'><id>3</id></order>");
+        template.sendBody("direct:start", dom);
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .choice()
+                        .when(xpath("/order[@type='gold']").streaming())
+                            .to("mock:gold")
+                        .otherwise()
+                            .to("mock:other");
+            }
+        };
+    }
+
+    private static final class CountingInputStream extends ByteArrayInputStream {
+        private int count;
+
+        CountingInputStream(byte[] data) {
+            super(data);
+        }
+
+        @Override
+        public synchronized int read() {
+            int answer = super.read();
+            if (answer >= 0) {
+                count++;
+            }
+            return answer;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            int answer = super.read(b, off, len);
+            if (answer > 0) {
+                count += answer;
+            }
+            return answer;
+        }
+    }
+}
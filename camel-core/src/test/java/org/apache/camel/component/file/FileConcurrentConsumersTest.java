@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.file;
+
+import java.io.File;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.NotifyBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+
+/**
+ * Unit test for processing files concurrently using the concurrentConsumers option
+ */
+public class FileConcurrentConsumersTest extends ContextTestSupport {
+
+    private final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    @Override
+    protected void setUp() throws Exception {
+        deleteDirectory("target/concurrentconsumers");
+        super.setUp();
+    }
+
+    public void testConcurrentConsumers() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(20);
+
+        for (int i = 0; i < 20; i++) {
+            template.sendBodyAndHeader("file:target/concurrentconsumers/in", "Message " + i, Exchange.FILE_NAME, "file" + i + ".txt");
+        }
+
+        NotifyBuilder notify = new NotifyBuilder(context).fromRoute("concurrent").whenDone(20).create();
+        context.startRoute("concurrent");
+
+        assertMockEndpointsSatisfied();
+        assertTrue(notify.matchesMockWaitTime());
+
+        assertTrue("Should use more than one thread: " + threads, threads.size() > 1);
+
+        // the files should be committed by the thread that processed it
+        for (int i = 0; i < 20; i++) {
+            assertFileExists("target/concurrentconsumers/in/.camel/file" + i + ".txt");
+        }
+        assertEquals(0, new File("target/concurrentconsumers/in").list((dir, name) -> name.endsWith(".txt")).length);
+    }
+
+    public void testConcurrentConsumersRollback() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:failed");
+        mock.expectedMessageCount(6);
+
+        for (int i = 0; i < 6; i++) {
+            template.sendBodyAndHeader("file:target/concurrentconsumers/failed", "Kaboom " + i, Exchange.FILE_NAME, "kaboom" + i + ".txt");
+        }
+
+        NotifyBuilder notify = new NotifyBuilder(context).fromRoute("failed").whenDone(6).create();
+        context.startRoute("failed");
+
+        assertMockEndpointsSatisfied();
+        assertTrue(notify.matchesMockWaitTime());
+
+        // the failed files should be rolled back and moved to the error folder
+        for (int i = 0; i < 6; i++) {
+            assertFileExists("target/concurrentconsumers/failed/error/kaboom" + i + ".txt");
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("file:target/concurrentconsumers/in?concurrentConsumers=4&initialDelay=0&delay=10").routeId("concurrent").noAutoStartup()
+                    .process(exchange -> threads.add(Thread.currentThread().getName()))
+                    .delay(20)
+                    .to("mock:result");
+
+                from("file:target/concurrentconsumers/failed?concurrentConsumers=3&moveFailed=error&initialDelay=0&delay=10").routeId("failed").noAutoStartup()
+                    .to("mock:failed")
+                    .throwException(new IllegalArgumentException("Forced"));
+            }
+        };
+    }
+}
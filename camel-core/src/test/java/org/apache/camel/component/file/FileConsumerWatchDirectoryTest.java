@@ -0,0 +1,154 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.file;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.NotifyBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.impl.JndiRegistry;
+
+/**
+ * Unit test for consuming files using the watchDirectory option.
+ * <p/>
+ * The files are written using a temporary name and then renamed, so the consumer
+ * does not see the files before they have been fully written.
+ */
+public class FileConsumerWatchDirectoryTest extends ContextTestSupport {
+
+    @Override
+    protected void setUp() throws Exception {
+        deleteDirectory("target/watch");
+        // a file which is there before the consumer is started is picked up by the initial full scan
+        createDirectory("target/watch/in");
+        Files.write(Paths.get("target/watch/in/existing.txt"), "Existing".getBytes());
+        super.setUp();
+    }
+
+    public void testWatchDirectory() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceivedInAnyOrder("Existing", "Hello World", "Bye World");
+        NotifyBuilder notify = new NotifyBuilder(context).fromRoute("watch").whenDone(3).create();
+
+        // start the route after the mock has been setup, as the existing file is picked up on the first poll
+        context.startRoute("watch");
+
+        template.sendBodyAndHeader("file:target/watch/in?tempPrefix=.inprogress-", "Hello World", Exchange.FILE_NAME, "hello.txt");
+        template.sendBodyAndHeader("file:target/watch/in?tempPrefix=.inprogress-", "Bye World", Exchange.FILE_NAME, "bye.txt");
+
+        assertMockEndpointsSatisfied();
+
+        // the files should be moved as usual
+        assertTrue(notify.matchesMockWaitTime());
+        assertTrue(new File("target/watch/in/.camel/hello.txt").exists());
+    }
+
+    public void testWatchDirectoryRecursive() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:recursive");
+        mock.expectedBodiesReceivedInAnyOrder("Hello World", "Bye World");
+
+        template.sendBodyAndHeader("file:target/watch/recursive?tempPrefix=.inprogress-", "Hello World", Exchange.FILE_NAME, "hello.txt");
+        // a new sub directory is picked up as well
+        template.sendBodyAndHeader("file:target/watch/recursive?tempPrefix=.inprogress-", "Bye World", Exchange.FILE_NAME, "sub/bye.txt");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testWatchDirectoryDoneFile() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:done");
+        mock.expectedMessageCount(0);
+
+        template.sendBodyAndHeader("file:target/watch/done?tempPrefix=.inprogress-", "Hello World", Exchange.FILE_NAME, "hello.txt");
+
+        // wait a bit and it should not pickup the written file as there is no done file
+        Thread.sleep(250);
+
+        assertMockEndpointsSatisfied();
+        resetMocks();
+
+        mock.expectedBodiesReceived("Hello World");
+
+        // the done file arriving later makes the file ready
+        template.sendBodyAndHeader("file:target/watch/done?tempPrefix=.inprogress-", "", Exchange.FILE_NAME, "hello.ready");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testWatchDirectoryMaxMessagesPerPoll() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:max");
+        mock.expectedMessageCount(5);
+
+        for (int i = 0; i < 5; i++) {
+            template.sendBodyAndHeader("file:target/watch/max?tempPrefix=.inprogress-", "Message " + i, Exchange.FILE_NAME, "file" + i + ".txt");
+        }
+
+        // the files exceeding the limit must be kept for the next polls
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testWatchDirectoryFileNotValidYet() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:age");
+        mock.expectedBodiesReceived("Hello World");
+
+        // the file is not accepted by the filter on the poll after it was written, and there is no further
+        // change of the file, so it must be evaluated again on the next polls
+        template.sendBodyAndHeader("file:target/watch/age?tempPrefix=.inprogress-", "Hello World", Exchange.FILE_NAME, "hello.txt");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Override
+    protected JndiRegistry createRegistry() throws Exception {
+        JndiRegistry jndi = super.createRegistry();
+        jndi.bind("ageFilter", new GenericFileFilter<File>() {
+            public boolean accept(GenericFile<File> file) {
+                // only accept files which are older than a few polls
+                return file.isDirectory() || System.currentTimeMillis() - file.getLastModified() > 200;
+            }
+        });
+        return jndi;
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                // disable the periodic full scan so changed files must be detected using the watch service
+                from("file:target/watch/in?watchDirectory=true&watchRescanInterval=0&initialDelay=0&delay=10").routeId("watch").noAutoStartup()
+                    .convertBodyTo(String.class).to("mock:result");
+
+                from("file:target/watch/recursive?watchDirectory=true&watchRescanInterval=0&recursive=true&initialDelay=0&delay=10")
+                    .convertBodyTo(String.class).to("mock:recursive");
+
+                from("file:target/watch/done?watchDirectory=true&watchRescanInterval=0&doneFileName=${file:name.noext}.ready&initialDelay=0&delay=10")
+                    .convertBodyTo(String.class).to("mock:done");
+
+                from("file:target/watch/max?watchDirectory=true&watchRescanInterval=0&maxMessagesPerPoll=2&initialDelay=0&delay=10")
+                    .convertBodyTo(String.class).to("mock:max");
+
+                from("file:target/watch/age?watchDirectory=true&watchRescanInterval=0&filter=#ageFilter&initialDelay=0&delay=10")
+                    .convertBodyTo(String.class).to("mock:age");
+            }
+        };
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.file;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+
+/**
+ * Unit test for writing file and file stream bodies which are transferred using file channels
+ */
+public class FileProducerTransferFileTest extends ContextTestSupport {
+
+    private byte[] data;
+    private File source;
+
+    @Override
+    protected void setUp() throws Exception {
+        deleteDirectory("target/transfer");
+        createDirectory("target/transfer/source");
+
+        // use a file which is larger than the buffer size
+        data = new byte[3 * 1024 * 1024 + 17];
+        new Random(42).nextBytes(data);
+        source = new File("target/transfer/source/data.bin");
+        Files.write(source.toPath(), data);
+
+        super.setUp();
+    }
+
+    public void testTransferFile() throws Exception {
+        template.sendBodyAndHeader("file:target/transfer/target", source, Exchange.FILE_NAME, "data.bin");
+
+        assertTrue(Arrays.equals(data, Files.readAllBytes(new File("target/transfer/target/data.bin").toPath())));
+    }
+
+    public void testTransferGenericFile() throws Exception {
+        GenericFile<File> file = FileConsumer.asGenericFile("target/transfer/source", source, null, false);
+        template.sendBodyAndHeader("file:target/transfer/target", file, Exchange.FILE_NAME, "data.bin");
+
+        assertTrue(Arrays.equals(data, Files.readAllBytes(new File("target/transfer/target/data.bin").toPath())));
+    }
+
+    public void testTransferFileOverrideExisting() throws Exception {
+        template.sendBodyAndHeader("file:target/transfer/target", "This is a longer existing content", Exchange.FILE_NAME, "hello.txt");
+
+        File hello = new File("target/transfer/source/hello.txt");
+        Files.write(hello.toPath(), "Hello World".getBytes());
+        template.sendBodyAndHeader("file:target/transfer/target", hello, Exchange.FILE_NAME, "hello.txt");
+
+        assertFileExists("target/transfer/target/hello.txt");
+        assertEquals("Hello World", new String(Files.readAllBytes(new File("target/transfer/target/hello.txt").toPath())));
+    }
+
+    public void testTransferFileAppend() throws Exception {
+        template.sendBodyAndHeader("file:target/transfer/target", "Hello World\n", Exchange.FILE_NAME, "hello.txt");
+
+        File bye = new File("target/transfer/source/bye.txt");
+        Files.write(bye.toPath(), "Bye World".getBytes());
+        template.sendBodyAndHeader("file:target/transfer/target?fileExist=Append", bye, Exchange.FILE_NAME, "hello.txt");
+
+        assertEquals("Hello World\nBye World", new String(Files.readAllBytes(new File("target/transfer/target/hello.txt").toPath())));
+    }
+
+    public void testTransferFileInputStream() throws Exception {
+        FileInputStream fis = new FileInputStream(source);
+        // skip the first bytes which should not be written
+        assertEquals(17, fis.skip(17));
+        template.sendBodyAndHeader("file:target/transfer/target", fis, Exchange.FILE_NAME, "data.bin");
+
+        assertTrue(Arrays.equals(Arrays.copyOfRange(data, 17, data.length), Files.readAllBytes(new File("target/transfer/target/data.bin").toPath())));
+    }
+}
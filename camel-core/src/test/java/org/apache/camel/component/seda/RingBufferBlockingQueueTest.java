@@ -0,0 +1,150 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.seda;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+/**
+ * @version
+ */
+public class RingBufferBlockingQueueTest extends TestCase {
+
+    public void testOfferAndPoll() throws Exception {
+        RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<String>(3);
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+
+        assertTrue(queue.offer("A"));
+        assertTrue(queue.offer("B"));
+        assertTrue(queue.offer("C"));
+        assertFalse("Should be full", queue.offer("D"));
+        assertEquals(3, queue.size());
+        assertEquals(0, queue.remainingCapacity());
+        assertEquals("A", queue.peek());
+
+        assertEquals("A", queue.poll());
+        assertTrue(queue.offer("D"));
+        assertEquals("B", queue.poll());
+        assertEquals("C", queue.poll());
+        assertEquals("D", queue.poll());
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    public void testRemoveAndIterator() throws Exception {
+        RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<String>(5);
+        queue.add("A");
+        queue.add("B");
+        queue.add("C");
+
+        assertTrue(queue.remove("B"));
+        assertFalse(queue.remove("B"));
+
+        List<String> list = new ArrayList<String>(queue);
+        assertEquals(2, list.size());
+        assertEquals("A", list.get(0));
+        assertEquals("C", list.get(1));
+
+        // the removed element is skipped
+        assertEquals("A", queue.poll());
+        assertEquals("C", queue.poll());
+        assertNull(queue.poll());
+    }
+
+    public void testDrainTo() throws Exception {
+        RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<String>(5);
+        queue.add("A");
+        queue.add("B");
+        queue.add("C");
+
+        List<String> list = new ArrayList<String>();
+        assertEquals(2, queue.drainTo(list, 2));
+        assertEquals("[A, B]", list.toString());
+        assertEquals(1, queue.drainTo(list));
+        assertEquals("[A, B, C]", list.toString());
+    }
+
+    public void testPollTimeout() throws Exception {
+        RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<String>(1);
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+
+        queue.put("A");
+        assertFalse(queue.offer("B", 10, TimeUnit.MILLISECONDS));
+    }
+
+    public void testBlockingConcurrentProducersAndConsumers() throws Exception {
+        doTestConcurrentProducersAndConsumers(RingBufferBlockingQueue.WaitStrategy.Blocking, 4, 2);
+    }
+
+    public void testYieldingConcurrentProducersAndConsumers() throws Exception {
+        doTestConcurrentProducersAndConsumers(RingBufferBlockingQueue.WaitStrategy.Yielding, 4, 2);
+    }
+
+    public void testBusySpinConcurrentProducersAndConsumers() throws Exception {
+        // busy spin is only fast with a core per thread so keep the threads to a minimum
+        doTestConcurrentProducersAndConsumers(RingBufferBlockingQueue.WaitStrategy.BusySpin, 1, 1);
+    }
+
+    private void doTestConcurrentProducersAndConsumers(RingBufferBlockingQueue.WaitStrategy waitStrategy,
+                                                       final int producers, final int consumers) throws Exception {
+        final int messages = 10000;
+        // use a small queue so the producers must wait for the consumers
+        final RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<String>(16, waitStrategy);
+        final Set<String> received = ConcurrentHashMap.newKeySet();
+        final CountDownLatch latch = new CountDownLatch(producers * messages);
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+        try {
+            for (int i = 0; i < consumers; i++) {
+                executor.submit(() -> {
+                    while (!Thread.currentThread().isInterrupted()) {
+                        String body = queue.poll(100, TimeUnit.MILLISECONDS);
+                        if (body != null) {
+                            received.add(body);
+                            latch.countDown();
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (int i = 0; i < producers; i++) {
+                final int producer = i;
+                executor.submit(() -> {
+                    for (int j = 0; j < messages; j++) {
+                        queue.put(producer + "-" + j);
+                    }
+                    return null;
+                });
+            }
+
+            assertTrue("Should receive all messages", latch.await(20, TimeUnit.SECONDS));
+            assertEquals(producers * messages, received.size());
+            assertTrue(queue.isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.seda;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.impl.JndiRegistry;
+
+/**
+ * @version
+ */
+public class SedaMaxMessagesPerPollTest extends ContextTestSupport {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch latch = new CountDownLatch(1);
+
+    @Override
+    protected JndiRegistry createRegistry() throws Exception {
+        JndiRegistry jndi = super.createRegistry();
+        RingBufferBlockingQueueFactory<Exchange> factory = new RingBufferBlockingQueueFactory<Exchange>();
+        factory.setWaitStrategy(RingBufferBlockingQueue.WaitStrategy.Yielding);
+        jndi.bind("ringBufferQueueFactory", factory);
+        return jndi;
+    }
+
+    public void testMaxMessagesPerPoll() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(200);
+
+        for (int i = 0; i < 200; i++) {
+            template.sendBody("seda:foo", "Message " + i);
+        }
+
+        assertMockEndpointsSatisfied();
+
+        SedaEndpoint seda = (SedaEndpoint) context.getRoutes().get(0).getEndpoint();
+        assertEquals(10, seda.getMaxMessagesPerPoll());
+        assertEquals(0, seda.getCurrentQueueSize());
+    }
+
+    public void testMaxMessagesPerPollInOut() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            assertEquals("Bye " + i, template.requestBody("seda:foo", "" + i));
+        }
+    }
+
+    public void testPendingExchangesIncludeDrainedExchanges() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:slow");
+        mock.expectedMessageCount(10);
+
+        for (int i = 0; i < 10; i++) {
+            template.sendBody("seda:slow", "Message " + i);
+        }
+        context.startRoute("slow");
+
+        // the first exchange is being processed and the others have been drained from the queue
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        SedaConsumer consumer = (SedaConsumer) context.getRoute("slow").getConsumer();
+        assertEquals(0, ((SedaEndpoint) consumer.getEndpoint()).getCurrentQueueSize());
+        assertEquals(9, consumer.getPendingExchangesSize());
+
+        latch.countDown();
+        assertMockEndpointsSatisfied();
+        assertEquals(0, consumer.getPendingExchangesSize());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("seda:foo?queueFactory=#ringBufferQueueFactory&concurrentConsumers=2&maxMessagesPerPoll=10")
+                    .to("mock:result")
+                    .transform(body().prepend("Bye "));
+
+                from("seda:slow?maxMessagesPerPoll=10").routeId("slow").noAutoStartup()
+                    .process(exchange -> {
+                        started.countDown();
+                        latch.await(10, TimeUnit.SECONDS);
+                    })
+                    .to("mock:slow");
+            }
+        };
+    }
+}
@@ -31,11 +31,13 @@ import org.apache.camel.impl.SimpleRegistry;
  */
 public class SedaQueueFactoryTest extends ContextTestSupport {
     private final ArrayBlockingQueueFactory<Exchange> arrayQueueFactory = new ArrayBlockingQueueFactory<Exchange>();
+    private final RingBufferBlockingQueueFactory<Exchange> ringBufferQueueFactory = new RingBufferBlockingQueueFactory<Exchange>();
 
     @Override
     protected CamelContext createCamelContext() throws Exception {
         SimpleRegistry simpleRegistry = new SimpleRegistry();
         simpleRegistry.put("arrayQueueFactory", arrayQueueFactory);
+        simpleRegistry.put("ringBufferQueueFactory", ringBufferQueueFactory);
         return new DefaultCamelContext(simpleRegistry);
     }
 
@@ -62,4 +64,22 @@ public class SedaQueueFactoryTest extends ContextTestSupport {
         BlockingQueue<Exchange> queue = endpoint.getQueue();
         assertIsInstanceOf(LinkedBlockingQueue.class, queue);
     }
+
+    @SuppressWarnings("unchecked")
+    public void testRingBufferBlockingQueueFactory() throws Exception {
+        SedaEndpoint endpoint = resolveMandatoryEndpoint("seda:ringBufferQueue?queueFactory=#ringBufferQueueFactory", SedaEndpoint.class);
+
+        BlockingQueue<Exchange> queue = endpoint.getQueue();
+        RingBufferBlockingQueue<Exchange> ringBuffer = assertIsInstanceOf(RingBufferBlockingQueue.class, queue);
+        assertEquals("remainingCapacity", ringBufferQueueFactory.getDefaultCapacity(), ringBuffer.remainingCapacity());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testRingBufferBlockingQueueFactoryAndSize() throws Exception {
+        SedaEndpoint endpoint = resolveMandatoryEndpoint("seda:ringBufferQueue50?queueFactory=#ringBufferQueueFactory&size=50", SedaEndpoint.class);
+
+        BlockingQueue<Exchange> queue = endpoint.getQueue();
+        RingBufferBlockingQueue<Exchange> ringBuffer = assertIsInstanceOf(RingBufferBlockingQueue.class, queue);
+        assertEquals("remainingCapacity", 50, ringBuffer.remainingCapacity());
+    }
 }
@@ -0,0 +1,80 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.xslt;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+
+public class XsltTransformerCachePreCompileTest extends ContextTestSupport {
+
+    public void testPreCompile() throws Exception {
+        XsltEndpoint endpoint = context.getEndpoint("xslt:org/apache/camel/component/xslt/example.xsl?transformerCacheSize=3&preCompile=true",
+            XsltEndpoint.class);
+        assertEquals(3, endpoint.getTransformerCacheIdle());
+
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(5);
+
+        for (int i = 0; i < 5; i++) {
+            template.sendBody("direct:start", "<hello>world!</hello>");
+        }
+
+        assertMockEndpointsSatisfied();
+
+        assertEquals(5, endpoint.getTransformerCacheHits());
+        assertEquals(0, endpoint.getTransformerCacheMisses());
+        assertEquals(3, endpoint.getTransformerCacheIdle());
+
+        endpoint.resetTransformerCacheStatistics();
+        assertEquals(0, endpoint.getTransformerCacheHits());
+    }
+
+    public void testNoPreCompile() throws Exception {
+        XsltEndpoint endpoint = context.getEndpoint("xslt:org/apache/camel/component/xslt/example.xsl?transformerCacheSize=3",
+            XsltEndpoint.class);
+        assertEquals(0, endpoint.getTransformerCacheIdle());
+
+        MockEndpoint mock = getMockEndpoint("mock:other");
+        mock.expectedMessageCount(2);
+
+        template.sendBody("direct:other", "<hello>world!</hello>");
+        template.sendBody("direct:other", "<hello>world!</hello>");
+
+        assertMockEndpointsSatisfied();
+
+        assertEquals(1, endpoint.getTransformerCacheHits());
+        assertEquals(1, endpoint.getTransformerCacheMisses());
+        assertEquals(1, endpoint.getTransformerCacheIdle());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .to("xslt:org/apache/camel/component/xslt/example.xsl?transformerCacheSize=3&preCompile=true")
+                    .to("mock:result");
+
+                from("direct:other")
+                    .to("xslt:org/apache/camel/component/xslt/example.xsl?transformerCacheSize=3")
+                    .to("mock:other");
+            }
+        };
+    }
+}
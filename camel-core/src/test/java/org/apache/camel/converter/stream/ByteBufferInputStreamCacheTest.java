@@ -0,0 +1,248 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.StreamCache;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.impl.DefaultUnitOfWork;
+import org.apache.camel.spi.StreamCachingStrategy;
+import org.apache.camel.util.IOHelper;
+
+public class ByteBufferInputStreamCacheTest extends ContextTestSupport {
+
+    private Exchange exchange;
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.setStreamCaching(true);
+        context.getStreamCachingStrategy().setSpoolDirectory("target/cachedir");
+        context.getStreamCachingStrategy().setSpoolThreshold(1024);
+        context.getStreamCachingStrategy().setBufferSize(64);
+        context.getStreamCachingStrategy().setPooled(true);
+        context.getStreamCachingStrategy().getStatistics().setStatisticsEnabled(true);
+        return context;
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        deleteDirectory("target/cachedir");
+        createDirectory("target/cachedir");
+
+        exchange = createExchange();
+    }
+
+    @Override
+    public boolean isUseRouteBuilder() {
+        return false;
+    }
+
+    private Exchange createExchange() {
+        Exchange answer = new DefaultExchange(context);
+        answer.setUnitOfWork(new DefaultUnitOfWork(answer));
+        return answer;
+    }
+
+    private static byte[] data(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+
+    private static byte[] read(InputStream is) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        IOHelper.copy(is, bos);
+        return bos.toByteArray();
+    }
+
+    public void testPooledInMemory() throws Exception {
+        context.start();
+        StreamCachingStrategy.Statistics statistics = context.getStreamCachingStrategy().getStatistics();
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(data(200));
+
+        StreamCache cache = cos.newStreamCache();
+        assertTrue("Should get the ByteBufferInputStreamCache", cache instanceof ByteBufferInputStreamCache);
+        assertTrue(cache.inMemory());
+        assertEquals(200, cache.length());
+        assertEquals(0, new File("target/cachedir").list().length);
+        assertEquals(4, statistics.getPoolAllocatedCounter());
+        assertEquals(4 * 64, statistics.getPoolInUseSize());
+
+        InputStream is = (InputStream) cache;
+        assertEquals(0, is.read());
+        assertEquals(1, is.read());
+        assertTrue(Arrays.equals(Arrays.copyOfRange(data(200), 2, 200), read(is)));
+        assertEquals(-1, is.read());
+        cache.reset();
+        assertEquals(100, is.skip(100));
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        cache.writeTo(bos);
+        assertTrue(Arrays.equals(Arrays.copyOfRange(data(200), 100, 200), bos.toByteArray()));
+
+        // a copy shares the buffers, so they are not released before the other exchange is done
+        Exchange other = createExchange();
+        StreamCache copy = cache.copy(other);
+        exchange.getUnitOfWork().done(exchange);
+        assertEquals(4 * 64, statistics.getPoolInUseSize());
+        assertTrue(Arrays.equals(data(200), read((InputStream) copy)));
+
+        // the buffers are released to the pool when the last exchange is done
+        other.getUnitOfWork().done(other);
+        assertEquals(0, statistics.getPoolInUseSize());
+        assertEquals(4 * 64, statistics.getPoolIdleSize());
+        copy.reset();
+        try {
+            read((InputStream) copy);
+            fail("Should have thrown an exception");
+        } catch (IOException e) {
+            // expected as the buffers may be reused
+        }
+
+        // the next stream cache should reuse the buffers
+        Exchange another = createExchange();
+        CachedOutputStream cos3 = new CachedOutputStream(another);
+        cos3.write(data(100));
+        assertTrue(Arrays.equals(data(100), read((InputStream) cos3.newStreamCache())));
+        assertEquals(4, statistics.getPoolAllocatedCounter());
+        assertEquals(2, statistics.getPoolReusedCounter());
+        another.getUnitOfWork().done(another);
+
+        IOHelper.close(cos, cos3);
+    }
+
+    public void testPooledSpoolToMappedFile() throws Exception {
+        context.start();
+        StreamCachingStrategy.Statistics statistics = context.getStreamCachingStrategy().getStatistics();
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(data(500));
+        cos.write(data(5000));
+        cos.write(42);
+
+        File file = new File("target/cachedir");
+        String[] files = file.list();
+        assertEquals("we should have a temp file", 1, files.length);
+        assertTrue("The file name should start with cos", files[0].startsWith("cos"));
+        // the pooled buffers are released when spooling to the file
+        assertEquals(0, statistics.getPoolInUseSize());
+
+        StreamCache cache = cos.newStreamCache();
+        assertTrue("Should get the ByteBufferInputStreamCache", cache instanceof ByteBufferInputStreamCache);
+        assertFalse(cache.inMemory());
+        assertEquals(5501, cache.length());
+
+        byte[] content = read((InputStream) cache);
+        assertEquals(5501, content.length);
+        assertTrue(Arrays.equals(data(500), Arrays.copyOfRange(content, 0, 500)));
+        assertTrue(Arrays.equals(data(5000), Arrays.copyOfRange(content, 500, 5500)));
+        assertEquals(42, content[5500]);
+
+        exchange.getUnitOfWork().done(exchange);
+        assertEquals("we should have no temp file", 0, file.list().length);
+
+        IOHelper.close(cos);
+    }
+
+    public void testCopyIsReleasedWhenAllExchangesAreDone() throws Exception {
+        context.start();
+        StreamCachingStrategy.Statistics statistics = context.getStreamCachingStrategy().getStatistics();
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(data(2000));
+        StreamCache cache = cos.newStreamCache();
+
+        Exchange other = createExchange();
+        StreamCache copy = cache.copy(other);
+        assertEquals(2000, copy.length());
+        assertTrue(Arrays.equals(data(2000), read((InputStream) cache)));
+
+        exchange.getUnitOfWork().done(exchange);
+        assertEquals("we should have a temp file", 1, new File("target/cachedir").list().length);
+        // the copy can still be read as the other exchange is not done
+        assertTrue(Arrays.equals(data(2000), read((InputStream) copy)));
+
+        other.getUnitOfWork().done(other);
+        assertEquals("we should have no temp file", 0, new File("target/cachedir").list().length);
+        assertEquals(0, statistics.getPoolInUseSize());
+
+        IOHelper.close(cos);
+    }
+
+    public void testSharedBuffersAreRetainedWhenSpooled() throws Exception {
+        context.start();
+        StreamCachingStrategy.Statistics statistics = context.getStreamCachingStrategy().getStatistics();
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(data(200));
+        StreamCache cache = cos.newStreamCache();
+        // spool while the in-memory stream cache shares the buffers
+        cos.write(data(2000));
+        assertEquals(4 * 64, statistics.getPoolInUseSize());
+        assertTrue(Arrays.equals(data(200), read((InputStream) cache)));
+
+        exchange.getUnitOfWork().done(exchange);
+        assertEquals(0, statistics.getPoolInUseSize());
+
+        IOHelper.close(cos);
+    }
+
+    public void testNotClosedOnCompletionIsReleasedOnClose() throws Exception {
+        context.start();
+        StreamCachingStrategy.Statistics statistics = context.getStreamCachingStrategy().getStatistics();
+
+        CachedOutputStream cos = new CachedOutputStream(exchange, false);
+        cos.write(data(200));
+        StreamCache cache = cos.newStreamCache();
+        exchange.getUnitOfWork().done(exchange);
+        assertTrue(Arrays.equals(data(200), read((InputStream) cache)));
+
+        cos.close();
+        assertEquals(0, statistics.getPoolInUseSize());
+        // closing again must not release the buffers twice
+        cos.close();
+        assertEquals(4 * 64, statistics.getPoolIdleSize());
+    }
+
+    public void testNotPooledWithChiper() throws Exception {
+        context.getStreamCachingStrategy().setSpoolChiper("RC4");
+        context.start();
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(data(2000));
+        StreamCache cache = cos.newStreamCache();
+        assertTrue("Should get the FileInputStreamCache", cache instanceof FileInputStreamCache);
+        assertTrue(Arrays.equals(data(2000), read((InputStream) cache)));
+
+        exchange.getUnitOfWork().done(exchange);
+        IOHelper.close(cos);
+    }
+
+}
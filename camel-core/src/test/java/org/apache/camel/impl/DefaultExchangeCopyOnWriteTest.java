@@ -0,0 +1,126 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangeTestSupport;
+
+/**
+ * @version 
+ */
+public class DefaultExchangeCopyOnWriteTest extends ExchangeTestSupport {
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.setCopyOnWriteExchange(true);
+        return context;
+    }
+
+    public void testCopySharesHeadersAndProperties() throws Exception {
+        Exchange copy = exchange.copy(true);
+
+        assertEquals("abc", copy.getIn().getHeader("foo"));
+        assertEquals(123, copy.getIn().getHeader("bar"));
+        assertEquals("cba", copy.getProperty("foobar"));
+        assertEquals("<hello id='m123'>world!</hello>", copy.getIn().getBody());
+        assertEquals(exchange.getIn().getMessageId(), copy.getIn().getMessageId());
+    }
+
+    public void testChangeCopy() throws Exception {
+        Exchange copy = exchange.copy();
+
+        copy.getIn().setHeader("foo", "changed");
+        copy.getIn().removeHeader("bar");
+        copy.setProperty("foobar", "changed");
+
+        assertEquals("changed", copy.getIn().getHeader("foo"));
+        assertNull(copy.getIn().getHeader("bar"));
+        assertEquals("changed", copy.getProperty("foobar"));
+
+        assertEquals("abc", exchange.getIn().getHeader("foo"));
+        assertEquals(123, exchange.getIn().getHeader("bar"));
+        assertEquals("cba", exchange.getProperty("foobar"));
+    }
+
+    public void testChangeOriginal() throws Exception {
+        Exchange copy = exchange.copy(true);
+
+        exchange.getIn().getHeaders().put("foo", "changed");
+        exchange.getProperties().remove("foobar");
+
+        assertEquals("changed", exchange.getIn().getHeader("foo"));
+        assertNull(exchange.getProperty("foobar"));
+
+        assertEquals("abc", copy.getIn().getHeader("foo"));
+        assertEquals("cba", copy.getProperty("foobar"));
+    }
+
+    public void testRemoveHeadersOnCopy() throws Exception {
+        Exchange copy = exchange.copy(true);
+
+        assertFalse(copy.getIn().removeHeaders("xyz*"));
+        assertTrue(copy.getIn().removeHeaders("f*"));
+        assertTrue(copy.removeProperties("foo*"));
+
+        assertNull(copy.getIn().getHeader("foo"));
+        assertNull(copy.getProperty("foobar"));
+        assertEquals("abc", exchange.getIn().getHeader("foo"));
+        assertEquals("cba", exchange.getProperty("foobar"));
+    }
+
+    public void testCopyOut() throws Exception {
+        exchange.getOut().setBody("Bye World");
+        exchange.getOut().setHeader("beer", "Carlsberg");
+
+        Exchange copy = exchange.copy(true);
+        assertTrue(copy.hasOut());
+        assertEquals("Bye World", copy.getOut().getBody());
+
+        copy.getOut().setHeader("beer", "Heineken");
+        assertEquals("Heineken", copy.getOut().getHeader("beer"));
+        assertEquals("Carlsberg", exchange.getOut().getHeader("beer"));
+    }
+
+    public void testCopyCustomMessage() throws Exception {
+        Exchange copy = exchange.copy();
+        copy.setIn(new MyMessage(context));
+        copy.getIn().setHeader("foo", "abc");
+
+        // the message is copied but the properties are still shared
+        Exchange copy2 = copy.copy();
+        assertIsInstanceOf(MyMessage.class, copy2.getIn());
+        copy2.getIn().setHeader("foo", "changed");
+        copy2.setProperty("foobar", "changed");
+        assertEquals("abc", copy.getIn().getHeader("foo"));
+        assertEquals("cba", copy.getProperty("foobar"));
+    }
+
+    private static class MyMessage extends DefaultMessage {
+
+        MyMessage(CamelContext camelContext) {
+            super(camelContext);
+        }
+
+        @Override
+        public MyMessage newInstance() {
+            return new MyMessage(getCamelContext());
+        }
+    }
+
+}
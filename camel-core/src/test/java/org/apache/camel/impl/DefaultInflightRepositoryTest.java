@@ -16,6 +16,9 @@
  */
 package org.apache.camel.impl;
 
+import java.util.Date;
+
+import org.apache.camel.CamelContext;
 import org.apache.camel.ContextTestSupport;
 import org.apache.camel.Exchange;
 import org.apache.camel.spi.InflightRepository;
@@ -44,4 +47,180 @@ public class DefaultInflightRepositoryTest extends ContextTestSupport {
         repo.remove(e1);
         assertEquals(0, repo.size());
     }
+
+    public void testDefaultInflightRepositoryRouteCount() throws Exception {
+        InflightRepository repo = new DefaultInflightRepository();
+        repo.addRoute("foo");
+
+        Exchange e1 = new DefaultExchange(context);
+        repo.add(e1, "foo");
+        repo.add(e1, "bar");
+        assertEquals(1, repo.size("foo"));
+        assertEquals(0, repo.size("bar"));
+
+        repo.remove(e1, "foo");
+        assertEquals(0, repo.size("foo"));
+
+        repo.removeRoute("foo");
+        assertEquals(0, repo.size("foo"));
+    }
+
+    public void testDefaultInflightRepositoryOldest() throws Exception {
+        InflightRepository repo = new DefaultInflightRepository();
+        repo.addRoute("foo");
+        repo.addRoute("bar");
+        assertNull(repo.oldest(null));
+
+        Exchange e1 = createExchange("foo", 3000);
+        Exchange e2 = createExchange("bar", 2000);
+        Exchange e3 = createExchange("foo", 1000);
+        Exchange e4 = createExchange(null, 4000);
+        // added in another order than they were created
+        repo.add(e3);
+        repo.add(e2);
+        repo.add(e1);
+        repo.add(e4);
+
+        assertSame(e1, repo.oldest("foo").getExchange());
+        assertSame(e2, repo.oldest("bar").getExchange());
+        assertSame(e4, repo.oldest(null).getExchange());
+        assertNull(repo.oldest("baz"));
+        assertEquals(2, repo.browse("foo").size());
+
+        // the route an exchange started from may be set after it was added, such as when sent using a producer template
+        e4.setFromRouteId("foo");
+        assertSame(e4, repo.oldest("foo").getExchange());
+        repo.add(e4, "foo");
+        assertSame(e4, repo.oldest("foo").getExchange());
+        assertEquals(3, repo.browse("foo").size());
+
+        repo.remove(e4);
+        assertSame(e1, repo.oldest("foo").getExchange());
+        repo.remove(e1);
+        assertSame(e3, repo.oldest("foo").getExchange());
+        assertSame(e2, repo.oldest(null).getExchange());
+        repo.remove(e3);
+        assertNull(repo.oldest("foo"));
+        assertSame(e2, repo.oldest(null).getExchange());
+        assertEquals(1, repo.size());
+
+        // the exchanges of a removed route can still be found
+        repo.removeRoute("bar");
+        assertSame(e2, repo.oldest("bar").getExchange());
+        assertSame(e2, repo.oldest(null).getExchange());
+        repo.remove(e2);
+        assertNull(repo.oldest(null));
+        assertEquals(0, repo.size());
+    }
+
+    public void testDefaultInflightRepositoryOldestSameCreated() throws Exception {
+        InflightRepository repo = new DefaultInflightRepository();
+        repo.addRoute("foo");
+
+        Date created = new Date(System.currentTimeMillis() - 1000);
+        Exchange e1 = createExchange("foo", created);
+        Exchange e2 = createExchange("foo", created);
+        Exchange e3 = createExchange("foo", 500);
+        repo.add(e3);
+        repo.add(e1);
+        repo.add(e2);
+
+        Exchange oldest = repo.oldest("foo").getExchange();
+        assertTrue(oldest == e1 || oldest == e2);
+        repo.remove(oldest);
+        assertSame(oldest == e1 ? e2 : e1, repo.oldest("foo").getExchange());
+        assertEquals(2, repo.browse("foo").size());
+    }
+
+    public void testDefaultInflightRepositoryBrowseDisabled() throws Exception {
+        DefaultInflightRepository repo = new DefaultInflightRepository();
+        assertTrue(repo.isInflightBrowseEnabled());
+        repo.setInflightBrowseEnabled(false);
+        repo.addRoute("foo");
+
+        Exchange e1 = createExchange("foo", 1000);
+        repo.add(e1);
+        repo.add(e1, "foo");
+        assertEquals(1, repo.size());
+        assertEquals(1, repo.size("foo"));
+        assertEquals(0, repo.browse().size());
+        assertNull(repo.oldest("foo"));
+
+        repo.remove(e1, "foo");
+        repo.remove(e1);
+        assertEquals(0, repo.size());
+        assertEquals(0, repo.size("foo"));
+    }
+
+    public void testDefaultInflightRepositoryBrowseEnabledAfterStart() throws Exception {
+        DefaultInflightRepository repo = new DefaultInflightRepository();
+        repo.start();
+        try {
+            repo.setInflightBrowseEnabled(false);
+            fail("Should have thrown an exception");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertTrue(repo.isInflightBrowseEnabled());
+        repo.stop();
+
+        assertTrue(context.isInflightRepositoryBrowseEnabled());
+        try {
+            context.setInflightRepositoryBrowseEnabled(false);
+            fail("Should have thrown an exception");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertTrue(context.isInflightRepositoryBrowseEnabled());
+        assertTrue(context.getInflightRepository().isInflightBrowseEnabled());
+    }
+
+    public void testInflightRepositoryBrowseDisabledOnCamelContext() throws Exception {
+        CamelContext camel = new DefaultCamelContext();
+        camel.setInflightRepositoryBrowseEnabled(false);
+        camel.start();
+        try {
+            assertFalse(camel.getInflightRepository().isInflightBrowseEnabled());
+        } finally {
+            camel.stop();
+        }
+    }
+
+    public void testDefaultInflightRepositoryConcurrent() throws Exception {
+        final InflightRepository repo = new DefaultInflightRepository();
+        repo.addRoute("foo");
+        final Exchange oldest = createExchange("foo", 10000);
+        repo.add(oldest);
+
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    Exchange exchange = new DefaultExchange(context);
+                    exchange.setFromRouteId("foo");
+                    repo.add(exchange);
+                    repo.remove(exchange);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, repo.size());
+        assertSame(oldest, repo.oldest("foo").getExchange());
+        assertEquals(1, repo.browse("foo").size());
+    }
+
+    private Exchange createExchange(String fromRouteId, long age) {
+        return createExchange(fromRouteId, new Date(System.currentTimeMillis() - age));
+    }
+
+    private Exchange createExchange(String fromRouteId, Date created) {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.setFromRouteId(fromRouteId);
+        exchange.setProperty(Exchange.CREATED_TIMESTAMP, created);
+        return exchange;
+    }
 }
@@ -0,0 +1,188 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangePattern;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+
+public class PooledExchangeFactoryTest extends ContextTestSupport {
+
+    private final PooledExchangeFactory factory = new PooledExchangeFactory(2);
+    private final AtomicInteger stale = new AtomicInteger();
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.setExchangeFactory(factory);
+        return context;
+    }
+
+    public void testReuse() throws Exception {
+        Endpoint endpoint = context.getEndpoint("direct:start");
+
+        Exchange exchange = factory.create(endpoint);
+        String id = exchange.getExchangeId();
+        exchange.getIn().setBody("Hello World");
+        exchange.getIn().setHeader("foo", 123);
+        exchange.setProperty("bar", "yes");
+        exchange.getOut().setBody("Bye World");
+        exchange.setException(new IllegalArgumentException("Forced"));
+        exchange.setPattern(ExchangePattern.InOut);
+        assertTrue(factory.release(exchange));
+
+        Exchange reused = factory.create(endpoint);
+        assertSame(exchange, reused);
+        assertNotSame(id, reused.getExchangeId());
+        assertNull(reused.getIn().getBody());
+        assertFalse(reused.getIn().hasHeaders());
+        assertFalse(reused.hasProperties());
+        assertFalse(reused.hasOut());
+        assertNull(reused.getException());
+        assertEquals(ExchangePattern.InOnly, reused.getPattern());
+        assertSame(endpoint, reused.getFromEndpoint());
+        assertSame(reused, reused.getIn().getExchange());
+
+        assertEquals(1, factory.getCreatedCounter());
+        assertEquals(1, factory.getAcquiredCounter());
+        assertEquals(1, factory.getReleasedCounter());
+        assertEquals(1, factory.getInUseCount());
+    }
+
+    public void testReleaseTwiceAndCapacity() throws Exception {
+        Endpoint endpoint = context.getEndpoint("direct:start");
+
+        Exchange e1 = factory.create(endpoint);
+        Exchange e2 = factory.create(endpoint);
+        Exchange e3 = factory.create(endpoint);
+        assertEquals(3, factory.getInUseCount());
+
+        assertTrue(factory.release(e1));
+        assertFalse("Should detect release twice", factory.release(e1));
+        assertEquals(1, factory.getDoubleReleasedCounter());
+
+        assertTrue(factory.release(e2));
+        assertFalse("Pool is full", factory.release(e3));
+        assertEquals(1, factory.getDiscardedCounter());
+        assertEquals(0, factory.getInUseCount());
+    }
+
+    public void testNotPoolableEndpoint() throws Exception {
+        Endpoint endpoint = new DefaultEndpoint("custom:foo", context.getComponent("direct")) {
+            @Override
+            public Exchange createExchange(ExchangePattern pattern) {
+                Exchange answer = super.createExchange(pattern);
+                answer.getIn().setHeader("custom", true);
+                return answer;
+            }
+
+            public org.apache.camel.Producer createProducer() throws Exception {
+                return null;
+            }
+
+            public org.apache.camel.Consumer createConsumer(Processor processor) throws Exception {
+                return null;
+            }
+
+            public boolean isSingleton() {
+                return true;
+            }
+        };
+
+        Exchange exchange = factory.create(endpoint);
+        factory.release(exchange);
+
+        // the endpoint customizes its exchanges so it should not reuse
+        Exchange other = factory.create(endpoint);
+        assertNotSame(exchange, other);
+        assertEquals(Boolean.TRUE, other.getIn().getHeader("custom"));
+    }
+
+    public void testConsumerPool() throws Exception {
+        final PooledExchangeFactory pool = (PooledExchangeFactory) factory.newExchangeFactory(null);
+        pool.start();
+        Endpoint endpoint = context.getEndpoint("direct:start");
+
+        // the exchange is released by another thread, such as when routed asynchronously
+        final Exchange exchange = pool.create(endpoint);
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                pool.release(exchange);
+            }
+        });
+        thread.start();
+        thread.join();
+        assertSame(exchange, pool.create(endpoint));
+        assertTrue(pool.release(exchange));
+
+        // the pool is discarded when stopped
+        pool.stop();
+        assertNotSame(exchange, pool.create(endpoint));
+        assertFalse(pool.release(exchange));
+
+        // the statistics are shared
+        assertEquals(2, factory.getCreatedCounter());
+        assertEquals(1, factory.getAcquiredCounter());
+    }
+
+    public void testSetAfterStart() throws Exception {
+        PooledExchangeFactory other = new PooledExchangeFactory();
+        context.setExchangeFactory(other);
+        assertTrue(other.isStarted());
+
+        Exchange exchange = other.create(context.getEndpoint("direct:start"));
+        assertTrue(other.release(exchange));
+    }
+
+    public void testTimerRoute() throws Exception {
+        getMockEndpoint("mock:result").expectedMessageCount(20);
+
+        context.startRoute("timer");
+
+        assertMockEndpointsSatisfied();
+
+        assertEquals("Should not see state from a previous message", 0, stale.get());
+        assertTrue("Should reuse exchanges", factory.getAcquiredCounter() > 0);
+        assertEquals(20, factory.getCreatedCounter() + factory.getAcquiredCounter());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("timer:foo?period=1&repeatCount=20").routeId("timer").autoStartup(false)
+                    .process(new Processor() {
+                        public void process(Exchange exchange) throws Exception {
+                            if (exchange.getIn().getHeader("seen") != null || exchange.getProperty("seen") != null) {
+                                stale.incrementAndGet();
+                            }
+                            exchange.getIn().setHeader("seen", true);
+                            exchange.setProperty("seen", true);
+                        }
+                    })
+                    .to("mock:result");
+            }
+        };
+    }
+}
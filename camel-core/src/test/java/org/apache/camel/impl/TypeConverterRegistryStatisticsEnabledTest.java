@@ -18,8 +18,11 @@ package org.apache.camel.impl;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.TypeConversionException;
 import org.apache.camel.builder.RouteBuilder;
 import org.apache.camel.spi.TypeConverterRegistry;
+import org.apache.camel.support.TypeConverterSupport;
 
 /**
  * @version 
@@ -71,6 +74,44 @@ public class TypeConverterRegistryStatisticsEnabledTest extends ContextTestSuppo
         assertEquals(0, miss.intValue());
     }
 
+    public void testTypeConverterRegistryDispatchTable() throws Exception {
+        TypeConverterRegistry reg = context.getTypeConverterRegistry();
+        reg.addTypeConverter(MyOrder.class, CharSequence.class, new TypeConverterSupport() {
+            @Override
+            public <T> T convertTo(Class<T> type, Exchange exchange, Object value) throws TypeConversionException {
+                return type.cast(new MyOrder(value.toString()));
+            }
+        });
+        reg.getStatistics().reset();
+
+        // the converter is resolved from the interface of the value type the first time
+        assertEquals("123", context.getTypeConverter().convertTo(MyOrder.class, "123").getId());
+        assertEquals(0, reg.getStatistics().getDispatchHitCounter());
+
+        // and then from the dispatch table
+        assertEquals("456", context.getTypeConverter().convertTo(MyOrder.class, "456").getId());
+        assertEquals("789", context.getTypeConverter().convertTo(MyOrder.class, new StringBuilder("789")).getId());
+        assertEquals(1, reg.getStatistics().getDispatchHitCounter());
+        assertEquals(3, reg.getStatistics().getHitCounter());
+
+        // a miss is remembered in the negative cache
+        assertNull(context.getTypeConverter().convertTo(MyOrder.class, 123L));
+        assertEquals(0, reg.getStatistics().getNegativeCacheHitCounter());
+        assertNull(context.getTypeConverter().convertTo(MyOrder.class, 456L));
+        assertEquals(1, reg.getStatistics().getNegativeCacheHitCounter());
+        assertEquals(2, reg.getStatistics().getMissCounter());
+
+        // until a new type converter is added
+        reg.addTypeConverter(MyOrder.class, Long.class, new TypeConverterSupport() {
+            @Override
+            public <T> T convertTo(Class<T> type, Exchange exchange, Object value) throws TypeConversionException {
+                return type.cast(new MyOrder("L" + value));
+            }
+        });
+        assertEquals("L789", context.getTypeConverter().convertTo(MyOrder.class, 789L).getId());
+        assertEquals(1, reg.getStatistics().getNegativeCacheHitCounter());
+    }
+
     @Override
     protected RouteBuilder createRouteBuilder() throws Exception {
         return new RouteBuilder() {
@@ -83,4 +124,16 @@ public class TypeConverterRegistryStatisticsEnabledTest extends ContextTestSuppo
         };
     }
 
+    private static final class MyOrder {
+        private final String id;
+
+        MyOrder(String id) {
+            this.id = id;
+        }
+
+        String getId() {
+            return id;
+        }
+    }
+
 }
@@ -0,0 +1,70 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.converter;
+
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import junit.framework.TestCase;
+
+public class TypeConverterDispatchTableTest extends TestCase {
+
+    public void testGetAndPut() throws Exception {
+        TypeConverterDispatchTable table = new TypeConverterDispatchTable(1);
+        assertNull(table.get(String.class, Integer.class));
+
+        table.put(String.class, Integer.class, new ToStringTypeConverter());
+        assertTrue(table.get(String.class, Integer.class) instanceof ToStringTypeConverter);
+        assertNull(table.get(Integer.class, String.class));
+
+        assertTrue(table.putNegative(Integer.class, String.class, TypeConverterDispatchTable.MISS));
+        assertSame(TypeConverterDispatchTable.MISS, table.get(Integer.class, String.class));
+        assertEquals(1, table.getNegativeSize());
+
+        // the negative cache is full
+        assertFalse(table.putNegative(Long.class, String.class, TypeConverterDispatchTable.MISS));
+        assertNull(table.get(Long.class, String.class));
+    }
+
+    public void testClassesCanBeUndeployed() throws Exception {
+        TypeConverterDispatchTable table = new TypeConverterDispatchTable(100);
+        WeakReference<ClassLoader> loader = putUndeployableClass(table);
+
+        for (int i = 0; i < 50 && loader.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull("The class loader should be garbage collected", loader.get());
+    }
+
+    private static WeakReference<ClassLoader> putUndeployableClass(TypeConverterDispatchTable table) throws Exception {
+        URL classes = MyOrder.class.getProtectionDomain().getCodeSource().getLocation();
+        ClassLoader loader = new URLClassLoader(new URL[]{classes}, null);
+        Class<?> type = loader.loadClass(MyOrder.class.getName());
+        assertNotSame(MyOrder.class, type);
+
+        table.put(String.class, type, new ToStringTypeConverter());
+        table.putNegative(type, String.class, TypeConverterDispatchTable.MISS);
+        assertNotNull(table.get(String.class, type));
+        return new WeakReference<>(loader);
+    }
+
+    public static class MyOrder {
+    }
+
+}
@@ -18,6 +18,7 @@ package org.apache.camel.language.simple;
 
 import org.apache.camel.Exchange;
 import org.apache.camel.LanguageTestSupport;
+import org.apache.camel.Predicate;
 import org.apache.camel.impl.JndiRegistry;
 import org.apache.camel.language.simple.types.SimpleIllegalSyntaxException;
 
@@ -392,6 +393,20 @@ public class SimpleOperatorTest extends LanguageTestSupport {
         assertPredicate("${in.header.bar} regex '^\\d{2}'", false);
     }
 
+    public void testPredicateWithLiteralIsReused() throws Exception {
+        Predicate predicate = context.resolveLanguage("simple").createPredicate("${in.header.foo} in 'abc,def' && ${in.header.bar} range '100..199'");
+        assertTrue(predicate.matches(exchange));
+
+        exchange.getIn().setHeader("foo", "ghi");
+        assertFalse(predicate.matches(exchange));
+
+        exchange.getIn().setHeader("foo", "def");
+        assertTrue(predicate.matches(exchange));
+
+        exchange.getIn().setHeader("bar", 200);
+        assertFalse(predicate.matches(exchange));
+    }
+
     public void testNotRegex() throws Exception {
         assertPredicate("${in.header.foo} not regex '^a..$'", false);
         assertPredicate("${in.header.foo} not regex '^ab.$'", false);
@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.processor.BodyInAggregatingStrategy;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class ManagedAggregateLockStripesTest extends ManagementTestSupport {
+
+    @Test
+    public void testLockStripeStatistics() throws Exception {
+        // JMX tests dont work well on AIX CI servers (hangs them)
+        if (isPlatform("aix")) {
+            return;
+        }
+
+        MBeanServer mbeanServer = getMBeanServer();
+
+        ObjectName on = ObjectName.getInstance("org.apache.camel:context=camel-1,type=processors,name=\"myAggregator\"");
+        assertTrue(mbeanServer.isRegistered(on));
+
+        getMockEndpoint("mock:aggregated").expectedMessageCount(10);
+
+        for (int i = 0; i < 10; i++) {
+            template.sendBodyAndHeader("direct:start", "A", "id", i);
+            template.sendBodyAndHeader("direct:start", "B", "id", i);
+        }
+
+        assertMockEndpointsSatisfied();
+
+        Integer stripes = (Integer) mbeanServer.getAttribute(on, "LockStripes");
+        assertEquals(4, stripes.intValue());
+
+        TabularData data = (TabularData) mbeanServer.invoke(on, "lockStripeStatistics", null, null);
+        assertEquals(4, data.size());
+
+        long in = 0;
+        long completed = 0;
+        for (Object row : data.values()) {
+            CompositeData stripe = (CompositeData) row;
+            in += (Long) stripe.get("totalIn");
+            completed += (Long) stripe.get("totalCompleted");
+            assertTrue((Long) stripe.get("contended") >= 0);
+            assertEquals(0, ((Integer) stripe.get("pendingTimeouts")).intValue());
+        }
+        assertEquals(20, in);
+        assertEquals(10, completed);
+
+        mbeanServer.invoke(on, "resetStatistics", null, null);
+        data = (TabularData) mbeanServer.invoke(on, "lockStripeStatistics", null, null);
+        for (Object row : data.values()) {
+            assertEquals(0L, ((CompositeData) row).get("totalIn"));
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .aggregate(header("id"), new BodyInAggregatingStrategy()).id("myAggregator")
+                        .lockStripes(4)
+                        .completionSize(2)
+                    .to("mock:aggregated");
+            }
+        };
+    }
+}
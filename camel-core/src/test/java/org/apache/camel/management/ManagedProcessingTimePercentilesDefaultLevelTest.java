@@ -0,0 +1,65 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management;
+
+import java.io.StringReader;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.xml.bind.JAXBContext;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.util.RouteStatDump;
+
+/**
+ * @version 
+ */
+public class ManagedProcessingTimePercentilesDefaultLevelTest extends ManagementTestSupport {
+
+    public void testNoPercentilesWithDefaultStatisticsLevel() throws Exception {
+        // JMX tests dont work well on AIX CI servers (hangs them)
+        if (isPlatform("aix")) {
+            return;
+        }
+
+        MBeanServer mbeanServer = getMBeanServer();
+        ObjectName route = ObjectName.getInstance("org.apache.camel:context=camel-1,type=routes,name=\"route1\"");
+
+        getMockEndpoint("mock:result").expectedMessageCount(2);
+        template.sendBody("direct:start", "Hello World");
+        template.sendBody("direct:start", "Bye World");
+        assertMockEndpointsSatisfied();
+
+        // the percentiles are only recorded with extended statistics
+        assertEquals(0L, mbeanServer.getAttribute(route, "ProcessingTimeP99"));
+        String xml = (String) mbeanServer.invoke(route, "dumpRouteStatsAsXml", new Object[]{false, true}, new String[]{"boolean", "boolean"});
+        RouteStatDump routeStat = (RouteStatDump) JAXBContext.newInstance(RouteStatDump.class).createUnmarshaller().unmarshal(new StringReader(xml));
+        assertEquals(Long.valueOf(2), routeStat.getExchangesCompleted());
+        assertNull(routeStat.getProcessingTimeP99());
+        assertEquals("<processingTimeInterval/>", mbeanServer.invoke(route, "dumpProcessingTimeIntervalAsXml", null, null));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start").to("mock:result");
+            }
+        };
+    }
+
+}
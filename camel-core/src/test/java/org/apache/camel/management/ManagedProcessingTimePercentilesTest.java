@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management;
+
+import java.io.StringReader;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.xml.bind.JAXBContext;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ManagementStatisticsLevel;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.util.ProcessorStatDump;
+import org.apache.camel.util.RouteStatDump;
+
+/**
+ * @version 
+ */
+public class ManagedProcessingTimePercentilesTest extends ManagementTestSupport {
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        // the percentiles requires extended statistics
+        context.getManagementStrategy().getManagementAgent().setStatisticsLevel(ManagementStatisticsLevel.Extended);
+        return context;
+    }
+
+    public void testProcessingTimePercentiles() throws Exception {
+        // JMX tests dont work well on AIX CI servers (hangs them)
+        if (isPlatform("aix")) {
+            return;
+        }
+
+        MBeanServer mbeanServer = getMBeanServer();
+        ObjectName route = ObjectName.getInstance("org.apache.camel:context=camel-1,type=routes,name=\"route1\"");
+        ObjectName processor = ObjectName.getInstance("org.apache.camel:context=camel-1,type=processors,name=\"mysleep\"");
+
+        assertEquals(0L, mbeanServer.getAttribute(route, "ProcessingTimeP99"));
+
+        getMockEndpoint("mock:result").expectedMessageCount(5);
+        for (int i = 0; i < 5; i++) {
+            template.sendBody("direct:start", "Hello World");
+        }
+        assertMockEndpointsSatisfied();
+
+        // the percentiles are in micros
+        Long p50 = (Long) mbeanServer.getAttribute(route, "ProcessingTimeP50");
+        Long p99 = (Long) mbeanServer.getAttribute(route, "ProcessingTimeP99");
+        Long p999 = (Long) mbeanServer.getAttribute(route, "ProcessingTimeP999");
+        assertTrue("Should take at least 50 millis: was " + p50, p50 >= 50000);
+        assertTrue(p99 >= p50);
+        assertTrue(p999 >= p99);
+
+        Long processorP90 = (Long) mbeanServer.getAttribute(processor, "ProcessingTimeP90");
+        assertTrue("Should take at least 50 millis: was " + processorP90, processorP90 >= 50000);
+        Long percentile = (Long) mbeanServer.invoke(processor, "processingTimePercentile", new Object[]{75.0}, new String[]{"double"});
+        assertTrue("Should take at least 50 millis: was " + percentile, percentile >= 50000);
+
+        // the percentiles are included in the route stat dump
+        String xml = (String) mbeanServer.invoke(route, "dumpRouteStatsAsXml", new Object[]{false, true}, new String[]{"boolean", "boolean"});
+        RouteStatDump routeStat = (RouteStatDump) JAXBContext.newInstance(RouteStatDump.class).createUnmarshaller().unmarshal(new StringReader(xml));
+        assertEquals(p99, routeStat.getProcessingTimeP99());
+        ProcessorStatDump processorStat = null;
+        for (ProcessorStatDump stat : routeStat.getProcessorStats()) {
+            if ("mysleep".equals(stat.getId())) {
+                processorStat = stat;
+            }
+        }
+        assertNotNull(processorStat);
+        assertTrue(processorStat.getProcessingTimeP999() >= 50000);
+
+        // the interval only includes the exchanges since the previous interval
+        String interval = (String) mbeanServer.invoke(route, "dumpProcessingTimeIntervalAsXml", null, null);
+        assertTrue(interval, interval.startsWith("<processingTimeInterval exchangesCompleted=\"5\""));
+        interval = (String) mbeanServer.invoke(route, "dumpProcessingTimeIntervalAsXml", null, null);
+        assertTrue(interval, interval.startsWith("<processingTimeInterval exchangesCompleted=\"0\""));
+
+        mbeanServer.invoke(route, "reset", null, null);
+        assertEquals(0L, mbeanServer.getAttribute(route, "ProcessingTimeP99"));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start").delay(50).id("mysleep").to("mock:result");
+            }
+        };
+    }
+
+}
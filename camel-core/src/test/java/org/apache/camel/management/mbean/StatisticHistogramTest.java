@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management.mbean;
+
+import junit.framework.TestCase;
+
+/**
+ * @version 
+ */
+public class StatisticHistogramTest extends TestCase {
+
+    public void testEmpty() {
+        StatisticHistogram histogram = new StatisticHistogram();
+        assertEquals(0, histogram.getValue());
+        assertFalse(histogram.isUpdated());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        assertEquals(0, histogram.snapshot().getMaxValue());
+    }
+
+    public void testPercentiles() {
+        StatisticHistogram histogram = new StatisticHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.updateValue(i);
+        }
+
+        assertEquals(1000, histogram.getValue());
+        assertTrue(histogram.isUpdated());
+        assertWithinPrecision(500, histogram.getValueAtPercentile(50));
+        assertWithinPrecision(900, histogram.getValueAtPercentile(90));
+        assertWithinPrecision(990, histogram.getValueAtPercentile(99));
+        assertWithinPrecision(999, histogram.getValueAtPercentile(99.9));
+        assertWithinPrecision(1000, histogram.getValueAtPercentile(100));
+        assertWithinPrecision(1000, histogram.snapshot().getMaxValue());
+        assertEquals(1, histogram.getValueAtPercentile(0));
+    }
+
+    public void testPercentilesFromOneSnapshot() {
+        StatisticHistogram histogram = new StatisticHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.updateValue(i);
+        }
+
+        StatisticHistogram.Snapshot snapshot = histogram.snapshot();
+        long[] values = snapshot.getValuesAtPercentiles(50, 90, 99, 99.9);
+        assertEquals(4, values.length);
+        assertEquals(snapshot.getValueAtPercentile(50), values[0]);
+        assertEquals(snapshot.getValueAtPercentile(90), values[1]);
+        assertEquals(snapshot.getValueAtPercentile(99), values[2]);
+        assertEquals(snapshot.getValueAtPercentile(99.9), values[3]);
+
+        try {
+            snapshot.getValuesAtPercentiles(99, 50);
+            fail("Should throw exception");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    public void testTailLatency() {
+        StatisticHistogram histogram = new StatisticHistogram();
+        for (int i = 0; i < 990; i++) {
+            histogram.updateValue(100);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.updateValue(50000);
+        }
+
+        assertEquals(100, histogram.getValueAtPercentile(50));
+        assertEquals(100, histogram.getValueAtPercentile(99));
+        assertWithinPrecision(50000, histogram.getValueAtPercentile(99.9));
+    }
+
+    public void testBuckets() {
+        long previous = -1;
+        for (long value : new long[]{0, 1, 127, 128, 129, 255, 256, 1000, 123456, 987654321L, (1L << 37) - 1}) {
+            int index = StatisticHistogram.indexOf(value);
+            long highest = StatisticHistogram.highestValueOf(index);
+            assertTrue("Value " + value + " should be in bucket up to " + highest, value <= highest);
+            assertWithinPrecision(value, highest);
+            assertTrue(highest >= previous);
+            previous = highest;
+        }
+
+        // larger values are recorded as the largest value
+        assertEquals(StatisticHistogram.indexOf((1L << 37) - 1), StatisticHistogram.indexOf(Long.MAX_VALUE));
+        assertEquals(0, StatisticHistogram.indexOf(-5));
+    }
+
+    public void testIntervalSnapshot() {
+        StatisticHistogram histogram = new StatisticHistogram();
+        histogram.updateValue(10);
+        histogram.updateValue(20);
+
+        StatisticHistogram.Snapshot snapshot = histogram.intervalSnapshot();
+        assertEquals(2, snapshot.getCount());
+        assertEquals(20, snapshot.getMaxValue());
+
+        histogram.updateValue(30);
+        snapshot = histogram.intervalSnapshot();
+        assertEquals(1, snapshot.getCount());
+        assertEquals(30, snapshot.getValueAtPercentile(50));
+
+        snapshot = histogram.intervalSnapshot();
+        assertEquals(0, snapshot.getCount());
+
+        // all the values are still kept
+        assertEquals(3, histogram.getValue());
+    }
+
+    public void testReset() {
+        StatisticHistogram histogram = new StatisticHistogram();
+        histogram.updateValue(10);
+        histogram.intervalSnapshot();
+        histogram.reset();
+
+        assertEquals(0, histogram.getValue());
+        histogram.updateValue(40);
+        assertEquals(1, histogram.intervalSnapshot().getCount());
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue("Expected " + expected + " but was " + actual, Math.abs(expected - actual) <= Math.max(1, expected * 2 / 100));
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.MessageHistory;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.util.ServiceHelper;
+
+/**
+ * @version 
+ */
+public class CamelInternalProcessorAdviceFusionTest extends ContextTestSupport {
+
+    private final List<String> events = new ArrayList<String>();
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.setAdviceFusion(true);
+        context.setMessageHistory(true);
+        return context;
+    }
+
+    public void testRouteWithAdviceFusion() throws Exception {
+        getMockEndpoint("mock:a").expectedBodiesReceived("Hello World");
+        getMockEndpoint("mock:result").expectedBodiesReceived("Bye World");
+
+        Exchange out = template.request("direct:start", e -> e.getIn().setBody("Hello World"));
+
+        assertMockEndpointsSatisfied();
+
+        List<MessageHistory> history = out.getProperty(Exchange.MESSAGE_HISTORY, List.class);
+        assertNotNull(history);
+        assertEquals(3, history.size());
+        assertEquals("a", history.get(0).getNode().getId());
+        assertEquals("bye", history.get(1).getNode().getId());
+        assertEquals("result", history.get(2).getNode().getId());
+    }
+
+    public void testSkipDisabledAdvices() throws Exception {
+        CamelInternalProcessor internal = createInternalProcessor(true,
+                new MyAdvice("a", true), new MyAdvice("b", false), new MyAdvice("c", true), new MyAdvice("d", false));
+
+        internal.process(new DefaultExchange(context));
+
+        assertEquals("[before-a, before-c, process, after-c, after-a]", events.toString());
+        ServiceHelper.stopService(internal);
+    }
+
+    public void testSingleAdvice() throws Exception {
+        CamelInternalProcessor internal = createInternalProcessor(true, new MyAdvice("a", true), new MyAdvice("b", false));
+
+        internal.process(new DefaultExchange(context));
+
+        assertEquals("[before-a, process, after-a]", events.toString());
+        ServiceHelper.stopService(internal);
+    }
+
+    public void testNoAdvices() throws Exception {
+        CamelInternalProcessor internal = createInternalProcessor(true, new MyAdvice("a", false));
+
+        internal.process(new DefaultExchange(context));
+
+        assertEquals("[process]", events.toString());
+        ServiceHelper.stopService(internal);
+    }
+
+    public void testManyAdvices() throws Exception {
+        CamelInternalProcessor internal = createInternalProcessor(true,
+                new MyAdvice("a", true), new MyAdvice("b", true), new MyAdvice("c", true));
+
+        internal.process(new DefaultExchange(context));
+
+        assertEquals("[before-a, before-b, before-c, process, after-c, after-b, after-a]", events.toString());
+        ServiceHelper.stopService(internal);
+    }
+
+    public void testDisabledAdvicesNotSkippedWithoutFusion() throws Exception {
+        CamelInternalProcessor internal = createInternalProcessor(false, new MyAdvice("a", true), new MyAdvice("b", false));
+
+        internal.process(new DefaultExchange(context));
+
+        assertEquals("[before-a, before-b, process, after-b, after-a]", events.toString());
+        ServiceHelper.stopService(internal);
+    }
+
+    public void testExceptionInAfterAdvice() throws Exception {
+        MyAdvice failing = new MyAdvice("b", true) {
+            @Override
+            public void after(Exchange exchange, String data) throws Exception {
+                super.after(exchange, data);
+                throw new IllegalArgumentException("Forced");
+            }
+        };
+        CamelInternalProcessor internal = createInternalProcessor(true, new MyAdvice("a", true), failing);
+
+        Exchange exchange = new DefaultExchange(context);
+        internal.process(exchange);
+
+        // the first advice must still be completed
+        assertEquals("[before-a, before-b, process, after-b, after-a]", events.toString());
+        assertIsInstanceOf(IllegalArgumentException.class, exchange.getException());
+        ServiceHelper.stopService(internal);
+    }
+
+    private CamelInternalProcessor createInternalProcessor(boolean fusion, MyAdvice... advices) throws Exception {
+        CamelInternalProcessor internal = new CamelInternalProcessor(exchange -> events.add("process"));
+        internal.setAdviceFusion(fusion);
+        for (MyAdvice advice : advices) {
+            internal.addAdvice(advice);
+        }
+        ServiceHelper.startService(internal);
+        return internal;
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .to("mock:a").id("a")
+                    .transform(simple("Bye World")).id("bye")
+                    .to("mock:result").id("result");
+            }
+        };
+    }
+
+    private class MyAdvice implements CamelInternalProcessorAdvice<String> {
+
+        private final String name;
+        private final boolean enabled;
+
+        MyAdvice(String name, boolean enabled) {
+            this.name = name;
+            this.enabled = enabled;
+        }
+
+        @Override
+        public String before(Exchange exchange) throws Exception {
+            events.add("before-" + name);
+            return name;
+        }
+
+        @Override
+        public void after(Exchange exchange, String data) throws Exception {
+            assertEquals(name, data);
+            events.add("after-" + data);
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return enabled;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.processor.idempotent.MappedFileIdempotentRepository;
+
+/**
+ * @version 
+ */
+public class MappedFileIdempotentRepositoryTest extends ContextTestSupport {
+
+    private File store = new File("target/mappedidempotentfilestore.dat");
+    private MappedFileIdempotentRepository repo;
+
+    @Override
+    protected void setUp() throws Exception {
+        // delete file store before testing
+        deleteDirectory("target/mappedidempotentfilestore.dat");
+        repo = new MappedFileIdempotentRepository(store);
+        // use small segments so the keys span several segments
+        repo.setSegmentSize(1024);
+        repo.setInitialCapacity(16);
+        repo.setCompactionInterval(0);
+
+        super.setUp();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        repo.stop();
+    }
+
+    public void testDuplicateMessagesAreFilteredOut() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceived("one", "two", "three");
+
+        template.sendBodyAndHeader("direct:start", "one", "messageId", "1");
+        template.sendBodyAndHeader("direct:start", "two", "messageId", "2");
+        template.sendBodyAndHeader("direct:start", "one", "messageId", "1");
+        template.sendBodyAndHeader("direct:start", "two", "messageId", "2");
+        template.sendBodyAndHeader("direct:start", "three", "messageId", "3");
+
+        assertMockEndpointsSatisfied();
+        assertEquals(3, repo.getSize());
+    }
+
+    public void testRecoverOnRestart() throws Exception {
+        for (int i = 0; i < 500; i++) {
+            assertTrue(repo.add("file-" + i + ".txt"));
+        }
+        assertTrue(repo.remove("file-7.txt"));
+        assertFalse(repo.add("file-8.txt"));
+
+        repo.stop();
+        repo.start();
+
+        assertEquals(499, repo.getSize());
+        assertFalse(repo.contains("file-7.txt"));
+        for (int i = 0; i < 500; i++) {
+            if (i != 7) {
+                assertTrue("Should contain file-" + i, repo.contains("file-" + i + ".txt"));
+            }
+        }
+    }
+
+    public void testDiscardTornRecord() throws Exception {
+        assertTrue(repo.add("A"));
+        assertTrue(repo.add("B"));
+        long end = repo.getFileStoreSize();
+        assertTrue(repo.add("C"));
+        repo.stop();
+
+        // corrupt the last record as if the JVM crashed while appending it
+        RandomAccessFile raf = new RandomAccessFile(store, "rw");
+        try {
+            raf.seek(end + 9);
+            raf.write('X');
+        } finally {
+            raf.close();
+        }
+
+        repo.start();
+        assertEquals(2, repo.getSize());
+        assertTrue(repo.contains("A"));
+        assertTrue(repo.contains("B"));
+        assertFalse(repo.contains("C"));
+        assertEquals(end, repo.getFileStoreSize());
+
+        // and we can add after the recovered end
+        assertTrue(repo.add("C"));
+        repo.stop();
+        repo.start();
+        assertEquals(3, repo.getSize());
+        assertTrue(repo.contains("C"));
+    }
+
+    public void testCompact() throws Exception {
+        for (int i = 0; i < 200; i++) {
+            assertTrue(repo.add("key-" + i));
+        }
+        for (int i = 0; i < 200; i += 2) {
+            assertTrue(repo.remove("key-" + i));
+        }
+        long size = repo.getFileStoreSize();
+        long removed = repo.getRemovedBytes();
+        assertTrue(removed > 0);
+
+        repo.compact();
+
+        // only the padding at the end of the segments is left
+        assertTrue(repo.getRemovedBytes() < removed / 10);
+        assertTrue(repo.getFileStoreSize() < size / 2);
+        assertEquals(100, repo.getSize());
+        assertFalse(new File(store.getPath() + ".compact").exists());
+
+        repo.stop();
+        repo.start();
+        assertEquals(100, repo.getSize());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i % 2 == 1, repo.contains("key-" + i));
+        }
+    }
+
+    public void testClear() throws Exception {
+        assertTrue(repo.add("A"));
+        repo.clear();
+        assertFalse(repo.contains("A"));
+        assertTrue(repo.add("A"));
+
+        repo.stop();
+        repo.start();
+        assertEquals(1, repo.getSize());
+    }
+
+    public void testCompactInBackground() throws Exception {
+        repo.stop();
+        repo.setCompactionInterval(100);
+        repo.start();
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(repo.add("key-" + i));
+            assertTrue(repo.remove("key-" + i));
+        }
+        assertTrue(repo.getRemovedBytes() > 0);
+
+        for (int i = 0; i < 50 && repo.getRemovedBytes() > 0; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(0, repo.getRemovedBytes());
+        assertEquals(0, repo.getSize());
+    }
+
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            public void configure() {
+                from("direct:start")
+                    .idempotentConsumer(header("messageId"), repo)
+                    .to("mock:result");
+            }
+        };
+    }
+
+}
@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.processor.aggregate.UseLatestAggregationStrategy;
+
+public class MulticastParallelAggregateOnTheFlyTest extends ContextTestSupport {
+
+    private final ExecutorService executorService = new SlowSubmitThreadPoolExecutor();
+
+    @Override
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        executorService.shutdownNow();
+    }
+
+    public void testAllTasksAggregatedBeforeAllTasksSubmitted() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(3);
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 3; i++) {
+            template.sendBody("direct:start", "Hello");
+        }
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertMockEndpointsSatisfied();
+        // the on-the-fly aggregation has aggregated all the tasks before the multicast has signaled that all the tasks
+        // has been submitted, and must then be woken up instead of waiting for the next completed task
+        assertTrue("Should not wait for more completed tasks, was " + elapsed + "ms", elapsed < 2000);
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .multicast(new UseLatestAggregationStrategy()).parallelProcessing().executorService(executorService)
+                        .to("direct:a", "direct:b", "direct:c")
+                    .end()
+                    .to("mock:result");
+
+                from("direct:a").setHeader("a", constant("1"));
+                from("direct:b").setHeader("b", constant("2"));
+                from("direct:c").setHeader("c", constant("3"));
+            }
+        };
+    }
+
+    /**
+     * A thread pool which is slow to return when submitting a task, so the tasks are done before the next task is submitted.
+     */
+    private static final class SlowSubmitThreadPoolExecutor extends ThreadPoolExecutor {
+
+        SlowSubmitThreadPoolExecutor() {
+            super(3, 3, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            super.execute(command);
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,218 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.DefaultErrorHandlerBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.impl.DefaultRouteContext;
+import org.apache.camel.impl.JndiRegistry;
+import org.apache.camel.spi.RouteContext;
+
+/**
+ * @version 
+ */
+public class RedeliveryErrorHandlerTimingWheelTest extends ContextTestSupport {
+
+    private static volatile int attempt;
+
+    public void testRedeliveryTimingWheel() throws Exception {
+        // we use NON blocked redelivery delay so the messages arrive which completes first
+        MockEndpoint result = getMockEndpoint("mock:result");
+        result.expectedBodiesReceived("Hello Camel", "Hello World");
+
+        template.sendBody("seda:start", "World");
+        template.sendBody("seda:start", "Camel");
+
+        assertMockEndpointsSatisfied();
+
+        RedeliveryTimingWheel wheel = context.hasService(RedeliveryTimingWheel.class);
+        assertNotNull("Should use the timing wheel", wheel);
+        assertEquals(0, wheel.getPendingCount());
+    }
+
+    public void testMaximumPendingRedeliveries() throws Exception {
+        // only 2 can be pending for redelivery, the others are rejected
+        getMockEndpoint("mock:budget").expectedMessageCount(2);
+        MockEndpoint dead = getMockEndpoint("mock:dead");
+        dead.expectedMessageCount(3);
+
+        for (int i = 0; i < 5; i++) {
+            template.sendBody("seda:budget", "Message " + i);
+        }
+
+        assertMockEndpointsSatisfied();
+
+        for (Exchange exchange : dead.getReceivedExchanges()) {
+            Throwable cause = exchange.getProperty(Exchange.EXCEPTION_CAUGHT, Throwable.class);
+            assertIsInstanceOf(RejectedExecutionException.class, cause);
+            // the original exception is kept as suppressed
+            assertEquals(1, cause.getSuppressed().length);
+            assertEquals("Forced", cause.getSuppressed()[0].getMessage());
+        }
+    }
+
+    public void testMaximumPendingRedeliveriesPerRoute() throws Exception {
+        DefaultErrorHandlerBuilder builder = new DefaultErrorHandlerBuilder().asyncDelayedRedelivery().maximumPendingRedeliveries(2);
+        RouteContext routeContext = new DefaultRouteContext(context);
+        RouteContext otherRouteContext = new DefaultRouteContext(context);
+
+        RedeliveryErrorHandler first = (RedeliveryErrorHandler) builder.createErrorHandler(routeContext, new SendProcessor(context.getEndpoint("mock:a")));
+        RedeliveryErrorHandler second = (RedeliveryErrorHandler) builder.createErrorHandler(routeContext, new SendProcessor(context.getEndpoint("mock:b")));
+        RedeliveryErrorHandler other = (RedeliveryErrorHandler) builder.createErrorHandler(otherRouteContext, new SendProcessor(context.getEndpoint("mock:c")));
+
+        // the error handlers of the nodes in the same route share the pending redeliveries
+        assertSame(first.getPendingRedeliveries(), second.getPendingRedeliveries());
+        assertNotSame(first.getPendingRedeliveries(), other.getPendingRedeliveries());
+
+        assertTrue(first.getPendingRedeliveries().acquire());
+        assertTrue(second.getPendingRedeliveries().acquire());
+        assertFalse(first.getPendingRedeliveries().acquire());
+        assertEquals(2, second.getPendingRedeliveryCount());
+        assertEquals(1, second.getRejectedRedeliveryCount());
+        assertTrue(other.getPendingRedeliveries().acquire());
+
+        // changing the maximum (such as from JMX) changes the limit of the route
+        second.setMaximumPendingRedeliveries(3);
+        assertEquals(3, first.getMaximumPendingRedeliveries());
+        assertEquals(2, other.getMaximumPendingRedeliveries());
+        assertTrue(first.getPendingRedeliveries().acquire());
+    }
+
+    public void testRejectedRedelivery() throws Exception {
+        ScheduledExecutorService pool = context.getExecutorServiceManager().newScheduledThreadPool(this, "Redelivery", 1);
+        context.getRegistry(JndiRegistry.class).bind("redeliveryPool", pool);
+
+        Processor failing = new Processor() {
+            public void process(Exchange exchange) throws Exception {
+                throw new IllegalArgumentException("Forced");
+            }
+        };
+        RedeliveryErrorHandler wheel = (RedeliveryErrorHandler) new DefaultErrorHandlerBuilder().maximumRedeliveries(1).redeliveryDelay(200)
+            .asyncDelayedRedelivery().redeliveryTimingWheel().executorServiceRef("redeliveryPool")
+            .createErrorHandler(new DefaultRouteContext(context), failing);
+        RedeliveryErrorHandler scheduled = (RedeliveryErrorHandler) new DefaultErrorHandlerBuilder().maximumRedeliveries(1).redeliveryDelay(200)
+            .asyncDelayedRedelivery().executorServiceRef("redeliveryPool")
+            .createErrorHandler(new DefaultRouteContext(context), failing);
+        context.addService(wheel);
+        context.addService(scheduled);
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        Exchange exchange = new DefaultExchange(context);
+        assertFalse(wheel.process(exchange, new AsyncCallback() {
+            public void done(boolean doneSync) {
+                latch.countDown();
+            }
+        }));
+        assertEquals(1, wheel.getPendingRedeliveryCount());
+
+        // the thread pool is shutdown while the redelivery is waiting on the timing wheel
+        pool.shutdownNow();
+
+        assertTrue("The exchange should be failed", latch.await(5, TimeUnit.SECONDS));
+        assertIsInstanceOf(RejectedExecutionException.class, exchange.getException());
+        assertEquals(0, wheel.getPendingRedeliveryCount());
+
+        // and the redelivery cannot be scheduled on the thread pool which is shutdown
+        final CountDownLatch rejected = new CountDownLatch(1);
+        exchange = new DefaultExchange(context);
+        scheduled.process(exchange, new AsyncCallback() {
+            public void done(boolean doneSync) {
+                rejected.countDown();
+            }
+        });
+        assertTrue("The exchange should be failed", rejected.await(5, TimeUnit.SECONDS));
+        assertIsInstanceOf(RejectedExecutionException.class, exchange.getException());
+        assertEquals(0, scheduled.getPendingRedeliveryCount());
+    }
+
+    public void testTimingWheelOrder() throws Exception {
+        // a small tick so the tasks are cascaded down from the higher levels of the wheel
+        RedeliveryTimingWheel wheel = new RedeliveryTimingWheel(context, 1);
+        wheel.start();
+        try {
+            final List<Long> order = new CopyOnWriteArrayList<>();
+            final CountDownLatch latch = new CountDownLatch(4);
+            for (final long delay : new long[]{200, 20, 0, 100}) {
+                wheel.schedule(new Runnable() {
+                    public void run() {
+                        order.add(delay);
+                        latch.countDown();
+                    }
+                }, delay);
+            }
+            assertEquals(4, wheel.getPendingCount());
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals("[0, 20, 100, 200]", order.toString());
+            assertEquals(0, wheel.getPendingCount());
+        } finally {
+            wheel.stop();
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                // use async delayed on the timing wheel which means non blocking
+                errorHandler(defaultErrorHandler().maximumRedeliveries(5).redeliveryDelay(50).asyncDelayedRedelivery().redeliveryTimingWheel());
+
+                from("seda:start")
+                    .process(new Processor() {
+                        public void process(Exchange exchange) throws Exception {
+                            String body = exchange.getIn().getBody(String.class);
+                            if (body.contains("World")) {
+                                if (++attempt <= 2) {
+                                    throw new IllegalArgumentException("Damn");
+                                }
+                            }
+
+                            exchange.getIn().setBody("Hello " + body);
+                        }
+                    })
+                    .to("mock:result");
+
+                from("seda:budget")
+                    .errorHandler(deadLetterChannel("mock:dead").maximumRedeliveries(1).redeliveryDelay(1000)
+                        .asyncDelayedRedelivery().redeliveryTimingWheel().maximumPendingRedeliveries(2))
+                    .process(new Processor() {
+                        public void process(Exchange exchange) throws Exception {
+                            // fail the first attempt
+                            if (!exchange.getIn().getHeader(Exchange.REDELIVERED, false, Boolean.class)) {
+                                throw new IllegalArgumentException("Forced");
+                            }
+                        }
+                    })
+                    .to("mock:budget");
+            }
+        };
+    }
+}
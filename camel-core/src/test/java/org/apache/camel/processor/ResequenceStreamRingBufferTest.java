@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+
+/**
+ * @version 
+ */
+public class ResequenceStreamRingBufferTest extends ContextTestSupport {
+
+    public void testSendMessagesInWrongOrder() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceived("msg1", "msg2", "msg3", "msg4");
+
+        template.sendBodyAndHeader("direct:start", "msg4", "seqnum", 4L);
+        template.sendBodyAndHeader("direct:start", "msg1", "seqnum", 1L);
+        template.sendBodyAndHeader("direct:start", "msg3", "seqnum", 3L);
+        template.sendBodyAndHeader("direct:start", "msg2", "seqnum", 2L);
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testSendManyMessages() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(200);
+        for (int i = 0; i < 200; i++) {
+            mock.message(i).header("seqnum").isEqualTo((long) i);
+        }
+
+        for (int i = 0; i < 200; i += 2) {
+            template.sendBodyAndHeader("direct:start", "msg" + (i + 1), "seqnum", (long) i + 1);
+            template.sendBodyAndHeader("direct:start", "msg" + i, "seqnum", (long) i);
+        }
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testGapTimeout() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceived("msg1", "msg3");
+
+        template.sendBodyAndHeader("direct:start", "msg1", "seqnum", 1L);
+        template.sendBodyAndHeader("direct:start", "msg3", "seqnum", 3L);
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testGapTimeoutBeforeDeliveryAttempt() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:slow");
+        mock.expectedBodiesReceived("msg1", "msg3");
+        // the delivery must wake up when the gap times out, instead of at the next delivery attempt
+        mock.setResultWaitTime(3000);
+
+        template.sendBodyAndHeader("direct:slow", "msg1", "seqnum", 1L);
+        template.sendBodyAndHeader("direct:slow", "msg3", "seqnum", 3L);
+
+        assertMockEndpointsSatisfied();
+    }
+
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            public void configure() {
+                from("direct:start")
+                    .resequence(header("seqnum")).stream().ringBuffer().capacity(64).timeout(100).deliveryAttemptInterval(10)
+                    .to("mock:result");
+
+                from("direct:slow")
+                    .resequence(header("seqnum")).stream().ringBuffer().capacity(64).timeout(100).deliveryAttemptInterval(10000)
+                    .to("mock:slow");
+            }
+        };
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.CamelExecutionException;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.processor.aggregate.AggregationStrategy;
+
+public class SplitterParallelMaxInFlightTest extends ContextTestSupport {
+
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+
+    public void testMaxInFlightInOrder() throws Exception {
+        StringBuilder body = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            body.append(i > 0 ? "," : "").append(i);
+            expected.append(i > 0 ? "+" : "").append(i);
+        }
+
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceived(expected.toString());
+
+        template.sendBody("direct:start", body.toString());
+
+        assertMockEndpointsSatisfied();
+        assertTrue("Should not have more than 3 in flight, was " + peak.get(), peak.get() <= 3);
+
+        MulticastProcessor splitter = (MulticastProcessor) context.getProcessor("mySplitter");
+        assertEquals(3, splitter.getMaxInFlight());
+        assertTrue(splitter.isAggregateInOrder());
+        assertEquals(0, splitter.getInFlight());
+        assertTrue(splitter.getPeakInFlight() <= 3);
+        assertTrue(splitter.getInFlightWaitCounter() > 0);
+    }
+
+    public void testMaxInFlightStopOnException() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            body.append(i > 0 ? "," : "").append(i == 10 ? "Kaboom" : "" + i);
+        }
+
+        getMockEndpoint("mock:end").expectedMessageCount(0);
+
+        try {
+            template.sendBody("direct:stop", body.toString());
+            fail("Should have thrown exception");
+        } catch (CamelExecutionException e) {
+            assertEquals("Forced", e.getCause().getCause().getMessage());
+        }
+
+        assertMockEndpointsSatisfied();
+        assertTrue("Should stop splitting, but processed " + getMockEndpoint("mock:split").getReceivedCounter(),
+            getMockEndpoint("mock:split").getReceivedCounter() < 100);
+
+        MulticastProcessor splitter = (MulticastProcessor) context.getProcessor("myStopSplitter");
+        assertEquals(0, splitter.getInFlight());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .split(body().tokenize(","), new MyAggregationStrategy())
+                        .streaming().parallelProcessing().maxInFlight(3).aggregateInOrder().id("mySplitter")
+                        .process(new Processor() {
+                            private final Random random = new Random();
+
+                            public void process(Exchange exchange) throws Exception {
+                                int current = concurrent.incrementAndGet();
+                                int max = peak.get();
+                                while (current > max && !peak.compareAndSet(max, current)) {
+                                    max = peak.get();
+                                }
+                                Thread.sleep(random.nextInt(10));
+                                concurrent.decrementAndGet();
+                            }
+                        })
+                    .end()
+                    .to("mock:result");
+
+                from("direct:stop")
+                    .split(body().tokenize(",")).streaming().parallelProcessing().maxInFlight(2).stopOnException().id("myStopSplitter")
+                        .to("mock:split")
+                        .process(new Processor() {
+                            public void process(Exchange exchange) throws Exception {
+                                if ("Kaboom".equals(exchange.getIn().getBody(String.class))) {
+                                    throw new IllegalArgumentException("Forced");
+                                }
+                            }
+                        })
+                    .end()
+                    .to("mock:end");
+            }
+        };
+    }
+
+    private static class MyAggregationStrategy implements AggregationStrategy {
+
+        public Exchange aggregate(Exchange oldExchange, Exchange newExchange) {
+            if (oldExchange == null) {
+                return newExchange;
+            }
+            String body = oldExchange.getIn().getBody(String.class) + "+" + newExchange.getIn().getBody(String.class);
+            oldExchange.getIn().setBody(body);
+            return oldExchange;
+        }
+    }
+
+}
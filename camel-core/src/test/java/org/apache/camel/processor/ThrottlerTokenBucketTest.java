@@ -0,0 +1,194 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.CamelExecutionException;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+
+/**
+ * @version 
+ */
+public class ThrottlerTokenBucketTest extends ContextTestSupport {
+    private static final int INTERVAL = 500;
+
+    public void testSendLotsOfMessages() throws Exception {
+        MockEndpoint resultEndpoint = getMockEndpoint("mock:result");
+        resultEndpoint.expectedMessageCount(6);
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 6; i++) {
+            template.sendBody("direct:a", "<message>" + i + "</message>");
+        }
+        long elapsed = System.currentTimeMillis() - start;
+
+        resultEndpoint.assertIsSatisfied();
+
+        // the first 3 messages are a burst, and the last 3 are throttled to one per 1/3 of the interval
+        assertTrue("Should be throttled, was " + elapsed + "ms", elapsed >= INTERVAL - 100);
+    }
+
+    public void testDelayedOnThrottlerThread() throws Exception {
+        MockEndpoint resultEndpoint = getMockEndpoint("mock:result");
+        resultEndpoint.expectedMessageCount(4);
+
+        for (int i = 0; i < 4; i++) {
+            template.sendBody("direct:a", "<message>" + i + "</message>");
+        }
+
+        resultEndpoint.assertIsSatisfied();
+
+        // the throttled message must not block the caller thread but continue on the thread pool
+        String caller = resultEndpoint.getReceivedExchanges().get(0).getIn().getHeader("thread", String.class);
+        String delayed = resultEndpoint.getReceivedExchanges().get(3).getIn().getHeader("thread", String.class);
+        assertEquals(Thread.currentThread().getName(), caller);
+        assertTrue("Should continue on the throttle thread, was " + delayed, delayed.contains("Throttle"));
+    }
+
+    public void testRejectExecution() throws Exception {
+        getMockEndpoint("mock:reject").expectedMessageCount(2);
+
+        template.sendBody("direct:reject", "A");
+        template.sendBody("direct:reject", "B");
+        try {
+            template.sendBody("direct:reject", "C");
+            fail("Should have thrown exception");
+        } catch (CamelExecutionException e) {
+            assertIsInstanceOf(ThrottlerRejectedExecutionException.class, e.getCause());
+        }
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testThrottlePerCorrelationKey() throws Exception {
+        getMockEndpoint("mock:tenant").expectedBodiesReceived("A1", "B1", "C1", "default");
+
+        template.sendBodyAndHeader("direct:tenant", "A1", "tenant", "A");
+        template.sendBodyAndHeader("direct:tenant", "B1", "tenant", "B");
+        template.sendBodyAndHeader("direct:tenant", "C1", "tenant", "C");
+        template.sendBody("direct:tenant", "default");
+        try {
+            template.sendBodyAndHeader("direct:tenant", "A2", "tenant", "A");
+            fail("Should have thrown exception");
+        } catch (CamelExecutionException e) {
+            assertIsInstanceOf(ThrottlerRejectedExecutionException.class, e.getCause());
+        }
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testMaximumDelay() throws Exception {
+        getMockEndpoint("mock:maxDelay").expectedBodiesReceived("A");
+
+        template.sendBody("direct:maxDelay", "A");
+        try {
+            // the next token is not available until 10 seconds later, which is more than the maximum delay
+            template.sendBody("direct:maxDelay", "B");
+            fail("Should have thrown exception");
+        } catch (CamelExecutionException e) {
+            ThrottlerRejectedExecutionException cause = assertIsInstanceOf(ThrottlerRejectedExecutionException.class, e.getCause());
+            assertTrue(cause.getMessage().contains("maximum delay"));
+        }
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testStopRejectsDelayedExchanges() throws Exception {
+        getMockEndpoint("mock:stop").expectedBodiesReceived("A");
+
+        template.sendBody("direct:stop", "A");
+        Future<Object> delayed = template.asyncRequestBody("direct:stop", "B");
+        // give time for the exchange to be queued on the token bucket, as the next token is a minute away
+        Thread.sleep(500);
+        assertFalse(delayed.isDone());
+
+        context.getProcessor("stopThrottler", Throttler.class).stop();
+        try {
+            delayed.get(5, TimeUnit.SECONDS);
+            fail("Should have thrown exception");
+        } catch (ExecutionException e) {
+            assertIsInstanceOf(RejectedExecutionException.class, e.getCause().getCause());
+        }
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testWaitingTokenBucketIsNotEvicted() throws Exception {
+        getMockEndpoint("mock:evict").expectedBodiesReceived("A1", "B1");
+
+        template.sendBodyAndHeader("direct:evict", "A1", "tenant", "A");
+        Future<Object> a2 = template.asyncRequestBodyAndHeader("direct:evict", "A2", "tenant", "A");
+        // give time for the exchange to be queued on the token bucket, as the next token is a minute away
+        Thread.sleep(500);
+        // the bucket of tenant A is evicted as only one key is kept, but A2 is still waiting for its token
+        template.sendBodyAndHeader("direct:evict", "B1", "tenant", "B");
+        Throttler throttler = context.getProcessor("evictThrottler", Throttler.class);
+        for (int i = 0; i < 50 && throttler.getCorrelationKeysSize() > 1; i++) {
+            Thread.sleep(20);
+        }
+
+        // tenant A must use the same bucket, so A3 is throttled as well
+        Future<Object> a3 = template.asyncRequestBodyAndHeader("direct:evict", "A3", "tenant", "A");
+        Thread.sleep(500);
+        assertFalse(a2.isDone());
+        assertFalse(a3.isDone());
+
+        assertMockEndpointsSatisfied();
+    }
+
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            public void configure() {
+                // START SNIPPET: ex
+                from("direct:a").throttle(3).timePeriodMillis(INTERVAL).tokenBucket()
+                    .process(new Processor() {
+                        public void process(Exchange exchange) throws Exception {
+                            exchange.getIn().setHeader("thread", Thread.currentThread().getName());
+                        }
+                    })
+                    .to("log:result", "mock:result");
+
+                // throttle per tenant and keep the token buckets for at most 1000 tenants
+                from("direct:tenant").throttle(1).timePeriodMillis(10000).correlationExpression(header("tenant"))
+                    .maximumCorrelationKeys(1000).rejectExecution(true)
+                    .to("mock:tenant");
+                // END SNIPPET: ex
+
+                from("direct:reject").throttle(2).timePeriodMillis(10000).tokenBucket().rejectExecution(true)
+                    .to("mock:reject");
+
+                from("direct:maxDelay").throttle(1).timePeriodMillis(10000).tokenBucket().maximumDelay(1000)
+                    .to("mock:maxDelay");
+
+                from("direct:evict").throttle(1).timePeriodMillis(60000).correlationExpression(header("tenant"))
+                    .maximumCorrelationKeys(1).id("evictThrottler")
+                    .to("mock:evict");
+
+                from("direct:stop").throttle(1).timePeriodMillis(60000).tokenBucket().id("stopThrottler")
+                    .to("mock:stop");
+            }
+        };
+    }
+}
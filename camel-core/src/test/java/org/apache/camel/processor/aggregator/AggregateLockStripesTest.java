@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregator;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.processor.BodyInAggregatingStrategy;
+import org.apache.camel.processor.aggregate.AggregateProcessor;
+import org.apache.camel.processor.aggregate.AggregateProcessorStatistics;
+import org.apache.camel.processor.aggregate.AggregationStrategy;
+
+/**
+ * @version
+ */
+public class AggregateLockStripesTest extends ContextTestSupport {
+
+    private static final int KEYS = 50;
+
+    public void testAggregateLockStripesConcurrent() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:size");
+        mock.expectedMessageCount(KEYS);
+        mock.expectedPropertyReceived(Exchange.AGGREGATED_COMPLETED_BY, "size");
+
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        for (int i = 0; i < KEYS * 3; i++) {
+            final int key = i % KEYS;
+            executor.submit(new Runnable() {
+                public void run() {
+                    template.sendBodyAndHeader("direct:size", "A", "id", key);
+                }
+            });
+        }
+
+        assertMockEndpointsSatisfied();
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        for (Exchange exchange : mock.getReceivedExchanges()) {
+            assertEquals("A+A+A", exchange.getIn().getBody());
+        }
+
+        AggregateProcessorStatistics statistics = getAggregateProcessorStatistics("size");
+        assertEquals(KEYS * 3, statistics.getTotalIn());
+        assertEquals(8, statistics.getLockStripeStatistics().size());
+
+        long in = 0;
+        long completed = 0;
+        int used = 0;
+        for (AggregateProcessorStatistics.LockStripeStatistics stripe : statistics.getLockStripeStatistics()) {
+            in += stripe.getTotalIn();
+            completed += stripe.getTotalCompleted();
+            if (stripe.getTotalIn() > 0) {
+                used++;
+            }
+            assertEquals(0, stripe.getPendingTimeouts());
+        }
+        assertEquals(KEYS * 3, in);
+        assertEquals(KEYS, completed);
+        // the keys should be spread over more than one stripe
+        assertTrue("Should use more than one stripe, was " + used, used > 1);
+    }
+
+    public void testAggregateLockStripesTimeout() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:timeout");
+        mock.expectedMessageCount(KEYS);
+        mock.expectedPropertyReceived(Exchange.AGGREGATED_COMPLETED_BY, "timeout");
+
+        for (int i = 0; i < KEYS; i++) {
+            template.sendBodyAndHeader("direct:timeout", "A", "id", i);
+            template.sendBodyAndHeader("direct:timeout", "B", "id", i);
+        }
+
+        assertMockEndpointsSatisfied();
+
+        for (Exchange exchange : mock.getReceivedExchanges()) {
+            assertEquals("A+B", exchange.getIn().getBody());
+        }
+
+        int pending = 0;
+        for (AggregateProcessorStatistics.LockStripeStatistics stripe : getAggregateProcessorStatistics("timeout").getLockStripeStatistics()) {
+            pending += stripe.getPendingTimeouts();
+        }
+        assertEquals(0, pending);
+    }
+
+    public void testAggregateLockStripesForceCompletion() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:size");
+        mock.expectedMessageCount(KEYS);
+        mock.expectedPropertyReceived(Exchange.AGGREGATED_COMPLETED_BY, "force");
+
+        for (int i = 0; i < KEYS; i++) {
+            template.sendBodyAndHeader("direct:size", "A", "id", i);
+        }
+        template.sendBodyAndHeader("direct:size", "B", Exchange.AGGREGATION_COMPLETE_ALL_GROUPS, true);
+
+        assertMockEndpointsSatisfied();
+    }
+
+    private AggregateProcessorStatistics getAggregateProcessorStatistics(String id) {
+        return context.getProcessor(id, AggregateProcessor.class).getStatistics();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                AggregationStrategy strategy = new BodyInAggregatingStrategy();
+
+                from("direct:size")
+                    .aggregate(header("id"), strategy).id("size")
+                        .lockStripes(8)
+                        .completionSize(3)
+                        .to("mock:size");
+
+                from("direct:timeout")
+                    .aggregate(header("id"), strategy).id("timeout")
+                        .lockStripes(4)
+                        .completionTimeout(100).completionTimeoutCheckerInterval(10)
+                        .to("mock:timeout");
+            }
+        };
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregator;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.processor.BodyInAggregatingStrategy;
+import org.apache.camel.processor.aggregate.OffHeapAggregationRepository;
+
+import static org.awaitility.Awaitility.await;
+
+/**
+ * @version 
+ */
+public class OffHeapAggregationRepositoryTest extends ContextTestSupport {
+
+    private static final String STORE = "target/offheapaggregation/aggregation.dat";
+
+    private OffHeapAggregationRepository repo;
+
+    @Override
+    protected void setUp() throws Exception {
+        deleteDirectory("target/offheapaggregation");
+        repo = new OffHeapAggregationRepository();
+        // keep only a few exchanges on and off the heap so most of them are spilled
+        repo.setHotSetSize(2);
+        repo.setMaximumOffHeapSize(2048);
+        super.setUp();
+    }
+
+    public void testAggregateAndSpill() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:aggregated");
+        mock.expectedMessageCount(50);
+
+        for (int i = 0; i < 3; i++) {
+            for (int key = 0; key < 50; key++) {
+                template.sendBodyAndHeader("direct:start", "K" + key + "-" + i, "id", key);
+            }
+        }
+
+        assertEquals(50, repo.getKeys().size());
+        assertTrue("Should have spilled", repo.getSpilledCount() > 0);
+        assertTrue(repo.getOffHeapUsed() <= 2048);
+
+        for (int key = 0; key < 50; key++) {
+            template.sendBodyAndHeader("direct:start", "K" + key + "-3", "id", key);
+        }
+
+        assertMockEndpointsSatisfied();
+        for (Exchange exchange : mock.getReceivedExchanges()) {
+            String body = exchange.getIn().getBody(String.class);
+            String key = body.substring(0, body.indexOf('-'));
+            assertEquals(key + "-0+" + key + "-1+" + key + "-2+" + key + "-3", body);
+        }
+
+        // the completed exchanges are confirmed
+        await().atMost(5, TimeUnit.SECONDS).until(() -> repo.scan(context).isEmpty());
+        assertEquals(0, repo.getKeys().size());
+    }
+
+    public void testKeepExchangesWhenStopped() throws Exception {
+        OffHeapAggregationRepository store = new OffHeapAggregationRepository(STORE);
+        store.setHotSetSize(1);
+        store.setMaximumOffHeapSize(200);
+        store.start();
+
+        store.add(context, "A", createExchange("Hello A"));
+        store.add(context, "B", createExchange("Hello B"));
+        store.add(context, "C", createExchange("Hello C"));
+        Exchange completed = createExchange("Bye World");
+        store.remove(context, "D", completed);
+        store.stop();
+
+        store = new OffHeapAggregationRepository(STORE);
+        store.start();
+        assertEquals(3, store.getKeys().size());
+        assertEquals("Hello A", store.get(context, "A").getIn().getBody());
+        assertEquals("Hello B", store.get(context, "B").getIn().getBody());
+        assertEquals("Hello C", store.get(context, "C").getIn().getBody());
+
+        // and the completed exchange can be recovered until its confirmed
+        assertEquals(1, store.scan(context).size());
+        assertEquals("Bye World", store.recover(context, completed.getExchangeId()).getIn().getBody());
+        store.confirm(context, completed.getExchangeId());
+        assertEquals(0, store.scan(context).size());
+        store.stop();
+    }
+
+    private Exchange createExchange(String body) {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody(body);
+        return exchange;
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .aggregate(header("id"), new BodyInAggregatingStrategy())
+                        .aggregationRepository(repo)
+                        .completionSize(4)
+                    .to("mock:aggregated");
+            }
+        };
+    }
+}
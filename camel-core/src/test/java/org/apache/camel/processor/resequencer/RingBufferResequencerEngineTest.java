@@ -0,0 +1,240 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.resequencer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.camel.TestSupport;
+
+public class RingBufferResequencerEngineTest extends TestSupport {
+
+    private RingBufferResequencerEngine<Integer> resequencer;
+    private SequenceBuffer<Integer> buffer;
+
+    public void testRingBufferSize() throws Exception {
+        assertEquals(16, new RingBufferResequencerEngine<Integer>(new NumericIntegerComparator(), 10).getRingBufferSize());
+        assertEquals(16, new RingBufferResequencerEngine<Integer>(new NumericIntegerComparator(), 16).getRingBufferSize());
+        assertEquals(2, new RingBufferResequencerEngine<Integer>(new NumericIntegerComparator(), 1).getRingBufferSize());
+    }
+
+    public void testTimeout() throws Exception {
+        initResequencer(100, 10);
+        resequencer.insert(4);
+        resequencer.deliver();
+        assertEquals(0, buffer.size());
+
+        Thread.sleep(150);
+        resequencer.deliver();
+        assertEquals((Integer) 4, buffer.poll(0));
+        assertEquals((Integer) 4, resequencer.getLastDelivered());
+    }
+
+    public void testInSequence() throws Exception {
+        initResequencer(1000, 10);
+        resequencer.setLastDelivered(2);
+        resequencer.insert(4);
+        resequencer.deliver();
+        assertEquals(0, buffer.size());
+
+        resequencer.insert(3);
+        resequencer.deliver();
+        assertEquals((Integer) 3, buffer.poll(0));
+        assertEquals((Integer) 4, buffer.poll(0));
+        assertEquals((Integer) 4, resequencer.getLastDelivered());
+        assertEquals(0, resequencer.size());
+    }
+
+    public void testDeliverNext() throws Exception {
+        initResequencer(1000, 10);
+        resequencer.setLastDelivered(0);
+        resequencer.insert(2);
+        resequencer.insert(1);
+        assertTrue(resequencer.deliverNext());
+        assertEquals((Integer) 1, buffer.poll(0));
+        assertEquals(1, resequencer.size());
+        assertTrue(resequencer.deliverNext());
+        assertEquals((Integer) 2, buffer.poll(0));
+        assertFalse(resequencer.deliverNext());
+    }
+
+    public void testGapTimeout() throws Exception {
+        initResequencer(100, 10);
+        resequencer.setLastDelivered(0);
+        resequencer.insert(1);
+        resequencer.insert(3);
+        resequencer.insert(4);
+        resequencer.deliver();
+        assertEquals((Integer) 1, buffer.poll(0));
+        assertEquals(0, buffer.size());
+
+        Thread.sleep(150);
+        resequencer.deliver();
+        assertEquals((Integer) 3, buffer.poll(0));
+        assertEquals((Integer) 4, buffer.poll(0));
+        assertEquals((Integer) 4, resequencer.getLastDelivered());
+    }
+
+    public void testNextDeliveryTime() throws Exception {
+        initResequencer(100, 10);
+        resequencer.setLastDelivered(0);
+        assertEquals(0, resequencer.getNextDeliveryTime());
+
+        long before = System.currentTimeMillis();
+        resequencer.insert(2);
+        resequencer.deliver();
+        // the gap at 1 times out when the element after the gap has been kept for the timeout
+        long deliveryTime = resequencer.getNextDeliveryTime();
+        assertTrue("Should be after the timeout: " + deliveryTime, deliveryTime >= before + 100);
+        assertTrue("Should be at the timeout: " + deliveryTime, deliveryTime <= System.currentTimeMillis() + 100);
+
+        resequencer.insert(1);
+        resequencer.deliver();
+        assertEquals(0, resequencer.getNextDeliveryTime());
+    }
+
+    public void testGapTimeoutAfterLowestDelivered() throws Exception {
+        initResequencer(100, 16);
+        resequencer.setLastDelivered(0);
+        resequencer.insert(1);
+        resequencer.insert(5);
+        resequencer.insert(9);
+        // in the overflow
+        resequencer.insert(40);
+        resequencer.deliver();
+        assertEquals((Integer) 1, buffer.poll(0));
+        assertEquals(0, buffer.size());
+
+        // the elements after the gaps are found after the lowest element has been delivered
+        Thread.sleep(150);
+        resequencer.deliver();
+        assertEquals((Integer) 5, buffer.poll(0));
+        assertEquals((Integer) 9, buffer.poll(0));
+        assertEquals((Integer) 40, buffer.poll(0));
+        assertEquals(0, resequencer.size());
+
+        // and a lower element inserted after the lowest element was found is delivered first
+        resequencer.insert(45);
+        resequencer.deliver();
+        resequencer.insert(43);
+        Thread.sleep(150);
+        resequencer.deliver();
+        assertEquals((Integer) 43, buffer.poll(0));
+        assertEquals((Integer) 45, buffer.poll(0));
+    }
+
+    public void testOverflow() throws Exception {
+        initResequencer(1000, 4);
+        resequencer.setLastDelivered(0);
+        for (int i = 10; i > 0; i--) {
+            resequencer.insert(i);
+        }
+        assertEquals(10, resequencer.size());
+        resequencer.deliver();
+        for (int i = 1; i <= 10; i++) {
+            assertEquals((Integer) i, buffer.poll(0));
+        }
+        assertEquals(0, resequencer.size());
+    }
+
+    public void testDuplicate() throws Exception {
+        initResequencer(1000, 10);
+        resequencer.setLastDelivered(0);
+        resequencer.insert(2);
+        resequencer.insert(2);
+        resequencer.insert(20);
+        resequencer.insert(20);
+        assertEquals(2, resequencer.size());
+    }
+
+    public void testLate() throws Exception {
+        initResequencer(1000, 10);
+        resequencer.setLastDelivered(5);
+        resequencer.insert(3);
+        resequencer.deliver();
+        assertEquals((Integer) 3, buffer.poll(0));
+        assertEquals((Integer) 5, resequencer.getLastDelivered());
+    }
+
+    public void testRejectOld() throws Exception {
+        initResequencer(1000, 10);
+        resequencer.setRejectOld(true);
+        resequencer.setLastDelivered(5);
+        try {
+            resequencer.insert(3);
+            fail("Should have thrown exception");
+        } catch (MessageRejectedException e) {
+            // expected
+        }
+        assertEquals(0, resequencer.size());
+    }
+
+    public void testConcurrentInsert() throws Exception {
+        final int threads = 4;
+        final int count = 5000;
+        initResequencer(5000, 64);
+        resequencer.setLastDelivered(-1);
+
+        final CountDownLatch latch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            final List<Integer> numbers = new ArrayList<Integer>();
+            for (int i = t; i < count; i += threads) {
+                numbers.add(i);
+            }
+            Collections.shuffle(numbers);
+            new Thread(new Runnable() {
+                public void run() {
+                    for (Integer number : numbers) {
+                        resequencer.insert(number);
+                    }
+                    latch.countDown();
+                }
+            }).start();
+        }
+
+        // deliver while inserting
+        while (latch.getCount() > 0) {
+            resequencer.deliver();
+        }
+        resequencer.deliver();
+
+        for (int i = 0; i < count; i++) {
+            assertEquals((Integer) i, buffer.poll(0));
+        }
+        assertEquals(0, buffer.size());
+        assertEquals(0, resequencer.size());
+    }
+
+    private void initResequencer(long timeout, int capacity) {
+        buffer = new SequenceBuffer<Integer>();
+        resequencer = new RingBufferResequencerEngine<Integer>(new NumericIntegerComparator(), capacity);
+        resequencer.setSequenceSender(buffer);
+        resequencer.setTimeout(timeout);
+        resequencer.start();
+    }
+
+    private static class NumericIntegerComparator extends IntegerComparator implements NumericSequenceElementComparator<Integer> {
+
+        @Override
+        public long getSequenceNumber(Integer o1) {
+            return o1;
+        }
+
+    }
+}
@@ -259,4 +259,68 @@ public class DefaultTimeoutMapTest extends TestCase {
         map.stop();
     }
 
+    public void testTimingWheelPurge() throws Exception {
+        DefaultTimeoutMap<String, Integer> map = new DefaultTimeoutMap<String, Integer>(executor, 100, true, true);
+        map.start();
+        assertTrue(map.isUseTimingWheel());
+
+        map.put("A", 123, 50);
+        map.put("B", 456, 50);
+        map.put("C", 789, 5000);
+        assertEquals(3, map.size());
+
+        // remove before timeout
+        assertEquals(456, (int) map.remove("B"));
+        assertEquals(2, map.size());
+
+        await().atMost(2, TimeUnit.SECONDS).untilAsserted(() ->
+            assertEquals(1, map.size()));
+        assertEquals(789, (int) map.get("C"));
+
+        map.stop();
+        assertEquals(0, map.size());
+    }
+
+    public void testTimingWheelExpiredInCorrectOrder() throws Exception {
+        final List<String> keys = new ArrayList<String>();
+
+        DefaultTimeoutMap<String, Integer> map = new DefaultTimeoutMap<String, Integer>(executor, 100, true, true) {
+            @Override
+            public boolean onEviction(String key, Integer value) {
+                // do not evict special key
+                if ("gold".equals(key)) {
+                    return false;
+                }
+                keys.add(key);
+                return true;
+            }
+        };
+        map.start();
+
+        map.put("A", 1, 50);
+        map.put("B", 2, 30);
+        map.put("gold", 9, 35);
+        map.put("C", 3, 40);
+        // replace with a longer timeout so its not expired
+        map.put("D", 4, 20);
+        map.put("D", 4, 800);
+
+        Thread.sleep(250);
+
+        // force purge
+        map.purge();
+
+        assertEquals(3, keys.size());
+        assertEquals("B", keys.get(0));
+        assertEquals("C", keys.get(1));
+        assertEquals("A", keys.get(2));
+
+        // and keep the gold and D in the map, where gold is retried on next purge
+        assertEquals(2, map.size());
+        assertEquals(Integer.valueOf(9), map.get("gold"));
+        assertEquals(Integer.valueOf(4), map.get("D"));
+
+        map.stop();
+    }
+
 }
@@ -0,0 +1,170 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * @version 
+ */
+public class TimeoutMapTimingWheelTest extends TestCase {
+
+    private static final long TICK = 10;
+
+    public void testExpireAtFirstTickAfterExpireTime() throws Exception {
+        TimeoutMapTimingWheel<String, Integer> wheel = new TimeoutMapTimingWheel<String, Integer>(TICK);
+        long now = 1000000;
+
+        Random random = new Random(42);
+        Map<String, Long> expireTimes = new HashMap<String, Long>();
+        for (int i = 0; i < 5000; i++) {
+            // timeouts which spans all the levels of the wheel
+            long timeout = 1 + (long) Math.pow(2, random.nextInt(26)) + random.nextInt(1000);
+            add(wheel, "K" + i, i, timeout, now);
+            expireTimes.put("K" + i, now + timeout);
+        }
+        assertEquals(5000, wheel.size());
+
+        List<TimeoutMapEntry<String, Integer>> expired = new ArrayList<TimeoutMapEntry<String, Integer>>();
+        while (wheel.size() > 0) {
+            // advance with some irregular steps as the background task may not run exactly each tick
+            now += TICK * (1 + random.nextInt(5000));
+            expired.clear();
+            wheel.expire(now, expired);
+            for (TimeoutMapEntry<String, Integer> entry : expired) {
+                long expireTime = expireTimes.remove(entry.getKey());
+                assertTrue("Entry " + entry + " expired too early", expireTime < now);
+            }
+        }
+        assertTrue("Entries not expired: " + expireTimes.keySet(), expireTimes.isEmpty());
+    }
+
+    public void testNotExpiredBeforeDue() throws Exception {
+        TimeoutMapTimingWheel<String, Integer> wheel = new TimeoutMapTimingWheel<String, Integer>(TICK);
+        long now = 5000;
+
+        add(wheel, "A", 1, 25, now);
+        add(wheel, "B", 2, 1000, now);
+        add(wheel, "C", 3, 100000, now);
+
+        List<TimeoutMapEntry<String, Integer>> expired = new ArrayList<TimeoutMapEntry<String, Integer>>();
+        long end = now + 200000;
+        for (long time = now; time < end; time += TICK) {
+            wheel.expire(time, expired);
+            for (TimeoutMapEntry<String, Integer> entry : expired) {
+                long expireTime = entry.getExpireTime();
+                assertTrue(expireTime < time);
+                // should expire within a tick
+                assertTrue("Entry " + entry + " expired too late at " + time, time - expireTime <= TICK);
+            }
+            expired.clear();
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    public void testRemove() throws Exception {
+        TimeoutMapTimingWheel<String, Integer> wheel = new TimeoutMapTimingWheel<String, Integer>(TICK);
+        long now = 5000;
+
+        TimeoutMapTimingWheel.Entry<String, Integer> a = add(wheel, "A", 1, 50, now);
+        TimeoutMapTimingWheel.Entry<String, Integer> b = add(wheel, "B", 2, 50, now);
+        TimeoutMapTimingWheel.Entry<String, Integer> c = add(wheel, "C", 3, 50000, now);
+        assertEquals(3, wheel.size());
+
+        wheel.remove(a);
+        wheel.remove(c);
+        // removing again should do nothing
+        wheel.remove(a);
+        assertEquals(1, wheel.size());
+
+        List<TimeoutMapEntry<String, Integer>> expired = new ArrayList<TimeoutMapEntry<String, Integer>>();
+        wheel.expire(now + 100000, expired);
+        assertEquals(1, expired.size());
+        assertSame(b, expired.get(0));
+        assertEquals(0, wheel.size());
+    }
+
+    public void testExtendedExpireTime() throws Exception {
+        TimeoutMapTimingWheel<String, Integer> wheel = new TimeoutMapTimingWheel<String, Integer>(TICK);
+        long now = 5000;
+
+        TimeoutMapTimingWheel.Entry<String, Integer> a = add(wheel, "A", 1, 50, now);
+        // extend the expire time as if the entry was accessed
+        a.setExpireTime(now + 500);
+
+        List<TimeoutMapEntry<String, Integer>> expired = new ArrayList<TimeoutMapEntry<String, Integer>>();
+        wheel.expire(now + 100, expired);
+        assertEquals(0, expired.size());
+        assertEquals(1, wheel.size());
+
+        wheel.expire(now + 510, expired);
+        assertEquals(1, expired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    public void testRetry() throws Exception {
+        TimeoutMapTimingWheel<String, Integer> wheel = new TimeoutMapTimingWheel<String, Integer>(TICK);
+        long now = 5000;
+
+        add(wheel, "A", 1, 50, now);
+
+        List<TimeoutMapEntry<String, Integer>> expired = new ArrayList<TimeoutMapEntry<String, Integer>>();
+        wheel.expire(now + 100, expired);
+        assertEquals(1, expired.size());
+
+        // veto the eviction so it should be due at next tick
+        wheel.retry(expired.get(0));
+        assertEquals(1, wheel.size());
+        expired.clear();
+
+        wheel.expire(now + 100 + TICK, expired);
+        assertEquals(1, expired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    public void testTimeoutBeyondWheel() throws Exception {
+        TimeoutMapTimingWheel<String, Integer> wheel = new TimeoutMapTimingWheel<String, Integer>(1);
+        long now = 5000;
+
+        // longer than the range of the wheel
+        long timeout = Integer.MAX_VALUE;
+        add(wheel, "A", 1, timeout, now);
+
+        List<TimeoutMapEntry<String, Integer>> expired = new ArrayList<TimeoutMapEntry<String, Integer>>();
+        wheel.expire(now + timeout - 1, expired);
+        assertEquals(0, expired.size());
+        assertEquals(1, wheel.size());
+
+        wheel.expire(now + timeout + 1, expired);
+        assertEquals(1, expired.size());
+    }
+
+    private static TimeoutMapTimingWheel.Entry<String, Integer> add(TimeoutMapTimingWheel<String, Integer> wheel,
+                                                                   String key, int value, long timeout, long now) {
+        TimeoutMapTimingWheel.Entry<String, Integer> entry = new TimeoutMapTimingWheel.Entry<String, Integer>(key, value, timeout);
+        entry.setExpireTime(now + timeout);
+        wheel.add(entry, now);
+        return entry;
+    }
+
+}
@@ -0,0 +1,85 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * @version 
+ */
+public class HashedTimingWheelTest extends TestCase {
+
+    private static final long TICK = 10;
+
+    public void testDueAtFirstTickAfterDeadline() throws Exception {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<String>(TICK);
+        HashedTimingWheel.Timeout<String> a = wheel.newTimeout("A");
+        wheel.schedule(a, 1025, 1000);
+        assertTrue(a.isScheduled());
+
+        List<HashedTimingWheel.Timeout<String>> due = new ArrayList<HashedTimingWheel.Timeout<String>>();
+        wheel.advance(1020, due);
+        assertEquals(0, due.size());
+        wheel.advance(1030, due);
+        assertEquals(1, due.size());
+        assertEquals("A", due.get(0).getValue());
+        assertFalse(a.isScheduled());
+        assertEquals(0, wheel.size());
+    }
+
+    public void testDeadlineBeyondWheel() throws Exception {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<String>(1);
+        HashedTimingWheel.Timeout<String> a = wheel.newTimeout("A");
+        // more than the 2^24 ticks the wheel can hold at once
+        long deadline = 1L << 26;
+        wheel.schedule(a, deadline, 0);
+
+        List<HashedTimingWheel.Timeout<String>> due = new ArrayList<HashedTimingWheel.Timeout<String>>();
+        wheel.advance(deadline, due);
+        assertEquals(0, due.size());
+        assertEquals(1, wheel.size());
+        wheel.advance(deadline + 1, due);
+        assertEquals(1, due.size());
+    }
+
+    public void testCancelAndDrain() throws Exception {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<String>(TICK);
+        HashedTimingWheel.Timeout<String> a = wheel.newTimeout("A");
+        HashedTimingWheel.Timeout<String> b = wheel.newTimeout("B");
+        HashedTimingWheel.Timeout<String> c = wheel.newTimeout("C");
+        wheel.schedule(a, 50, 0);
+        wheel.schedule(b, 5000, 0);
+        wheel.schedule(c, 500000, 0);
+        assertEquals(3, wheel.size());
+
+        wheel.cancel(a);
+        // cancel again does nothing
+        wheel.cancel(a);
+        assertEquals(2, wheel.size());
+
+        List<HashedTimingWheel.Timeout<String>> drained = new ArrayList<HashedTimingWheel.Timeout<String>>();
+        wheel.drain(drained);
+        assertEquals(2, drained.size());
+        assertEquals(0, wheel.size());
+        assertFalse(b.isScheduled());
+        assertFalse(c.isScheduled());
+    }
+
+}
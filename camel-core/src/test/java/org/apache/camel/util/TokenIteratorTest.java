@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.MalformedInputException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Scanner;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.TestSupport;
+import org.apache.camel.builder.ExpressionBuilder;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+
+public class TokenIteratorTest extends TestSupport {
+
+    private static List<String> scan(String text, String delimiter) {
+        Scanner scanner = new Scanner(text).useDelimiter(delimiter);
+        List<String> answer = new ArrayList<String>();
+        while (scanner.hasNext()) {
+            answer.add(scanner.next());
+        }
+        scanner.close();
+        return answer;
+    }
+
+    private static List<String> tokens(Iterator<String> it) throws IOException {
+        List<String> answer = new ArrayList<String>();
+        while (it.hasNext()) {
+            answer.add(it.next());
+        }
+        IOHelper.close((TokenIterator) it);
+        return answer;
+    }
+
+    public void testIsLiteral() {
+        assertTrue(TokenIterator.isLiteral("\n"));
+        assertTrue(TokenIterator.isLiteral(","));
+        assertTrue(TokenIterator.isLiteral("@@"));
+        assertFalse(TokenIterator.isLiteral(""));
+        assertFalse(TokenIterator.isLiteral(null));
+        assertFalse(TokenIterator.isLiteral("|"));
+        assertFalse(TokenIterator.isLiteral("\\n"));
+        assertFalse(TokenIterator.isLiteral("[,;]"));
+    }
+
+    public void testSameTokensAsScanner() throws Exception {
+        String[] texts = {"", ",", ",,", "a", "a,", "a,,", ",a", "a,,b", ",,a,b,,", "Camel,Rider,,Donkey"};
+        for (String text : texts) {
+            assertEquals(text, scan(text, ","), tokens(TokenIterator.create(text, ",")));
+            assertEquals(text, scan(text, ","), tokens(TokenIterator.create(new StringReader(text), ",")));
+            assertEquals(text, scan(text, ","), tokens(TokenIterator.create(new ByteArrayInputStream(text.getBytes("UTF-8")), "UTF-8", ",", true)));
+            assertEquals(text, scan(text, ","), tokens(TokenIterator.create(new ByteArrayInputStream(text.getBytes("UTF-16")), "UTF-16", ",", true)));
+        }
+        assertEquals(scan("a--b---c", "--"), tokens(TokenIterator.create("a--b---c", "--")));
+    }
+
+    public void testLongTokens() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < i * 20000; j++) {
+                sb.append((char) ('a' + j % 26));
+            }
+            sb.append("\u00e6\u00f8\u00e5\r\n");
+        }
+        String text = sb.toString();
+        List<String> expected = scan(text, "\r\n");
+        assertEquals(10, expected.size());
+        assertEquals(expected, tokens(TokenIterator.create(new ByteArrayInputStream(text.getBytes("UTF-8")), "UTF-8", "\r\n", true)));
+        assertEquals(expected, tokens(TokenIterator.create(new ByteArrayInputStream(text.getBytes("ISO-8859-1")), "ISO-8859-1", "\r\n", true)));
+        assertEquals(expected, tokens(TokenIterator.create(new StringReader(text), "\r\n")));
+    }
+
+    public void testMalformedInput() throws Exception {
+        byte[] data = {'a', '\n', (byte) 0xff, '\n', 'b'};
+
+        TokenIterator it = TokenIterator.create(new ByteArrayInputStream(data), "UTF-8", "\n", true);
+        assertEquals("a", it.next());
+        assertFalse(it.hasNext());
+        assertTrue(it.ioException() instanceof MalformedInputException);
+        try {
+            it.close();
+            fail("Should have thrown exception");
+        } catch (MalformedInputException e) {
+            // expected
+        }
+
+        it = TokenIterator.create(new ByteArrayInputStream(data), "UTF-8", "\n", false);
+        assertEquals("a", it.next());
+        assertEquals("\uFFFD", it.next());
+        assertEquals("b", it.next());
+        assertFalse(it.hasNext());
+        it.close();
+    }
+
+    public void testTokenizeExpression() throws Exception {
+        CamelContext context = new DefaultCamelContext();
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody(new ByteArrayInputStream("Camel\nRider\nDonkey".getBytes("UTF-8")));
+
+        Expression expression = ExpressionBuilder.tokenizeExpression(ExpressionBuilder.bodyExpression(), "\n");
+        Object value = expression.evaluate(exchange, Object.class);
+        assertIsInstanceOf(TokenIterator.class, value);
+
+        List<String> tokens = new ArrayList<String>();
+        for (Iterator<?> it = (Iterator<?>) value; it.hasNext();) {
+            tokens.add((String) it.next());
+        }
+        assertEquals(3, tokens.size());
+        assertEquals("Rider", tokens.get(1));
+
+        // uses the scanner if the token is a regular expression
+        exchange.getIn().setBody("Camel|Rider");
+        expression = ExpressionBuilder.tokenizeExpression(ExpressionBuilder.bodyExpression(), "\\|");
+        assertIsInstanceOf(Scanner.class, expression.evaluate(exchange, Object.class));
+    }
+
+}
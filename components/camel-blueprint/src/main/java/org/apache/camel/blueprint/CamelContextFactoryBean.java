@@ -115,6 +115,8 @@ public class CamelContextFactoryBean extends AbstractCamelContextFactoryBean<Blu
     @XmlAttribute
     private String allowUseOriginalMessage;
     @XmlAttribute
+    private String inflightRepositoryBrowseEnabled;
+    @XmlAttribute
     private String runtimeEndpointRegistryEnabled;
     @XmlAttribute
     private String managementNamePattern;
@@ -411,6 +413,14 @@ public class CamelContextFactoryBean extends AbstractCamelContextFactoryBean<Blu
         this.allowUseOriginalMessage = allowUseOriginalMessage;
     }
 
+    public String getInflightRepositoryBrowseEnabled() {
+        return inflightRepositoryBrowseEnabled;
+    }
+
+    public void setInflightRepositoryBrowseEnabled(String inflightRepositoryBrowseEnabled) {
+        this.inflightRepositoryBrowseEnabled = inflightRepositoryBrowseEnabled;
+    }
+
     public String getRuntimeEndpointRegistryEnabled() {
         return runtimeEndpointRegistryEnabled;
     }
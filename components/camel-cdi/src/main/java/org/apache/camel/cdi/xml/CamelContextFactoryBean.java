@@ -116,6 +116,9 @@ public class CamelContextFactoryBean extends AbstractCamelContextFactoryBean<Def
     @XmlAttribute
     private String allowUseOriginalMessage;
 
+    @XmlAttribute
+    private String inflightRepositoryBrowseEnabled;
+
     @XmlAttribute
     private String runtimeEndpointRegistryEnabled;
 
@@ -641,6 +644,14 @@ public class CamelContextFactoryBean extends AbstractCamelContextFactoryBean<Def
         this.allowUseOriginalMessage = allowUseOriginalMessage;
     }
 
+    public String getInflightRepositoryBrowseEnabled() {
+        return inflightRepositoryBrowseEnabled;
+    }
+
+    public void setInflightRepositoryBrowseEnabled(String inflightRepositoryBrowseEnabled) {
+        this.inflightRepositoryBrowseEnabled = inflightRepositoryBrowseEnabled;
+    }
+
     public String getRuntimeEndpointRegistryEnabled() {
         return runtimeEndpointRegistryEnabled;
     }
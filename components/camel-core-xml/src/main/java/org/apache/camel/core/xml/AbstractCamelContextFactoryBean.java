@@ -618,6 +618,10 @@ public abstract class AbstractCamelContextFactoryBean<T extends ModelCamelContex
         if (anySpoolRules != null) {
             getContext().getStreamCachingStrategy().setAnySpoolRules(anySpoolRules);
         }
+        Boolean pooled = CamelContextHelper.parseBoolean(getContext(), streamCaching.getPooled());
+        if (pooled != null) {
+            getContext().getStreamCachingStrategy().setPooled(pooled);
+        }
         String spoolRules = CamelContextHelper.parseText(getContext(), streamCaching.getSpoolRules());
         if (spoolRules != null) {
             Iterator<Object> it = ObjectHelper.createIterator(spoolRules);
@@ -802,6 +806,8 @@ public abstract class AbstractCamelContextFactoryBean<T extends ModelCamelContex
 
     public abstract String getAllowUseOriginalMessage();
 
+    public abstract String getInflightRepositoryBrowseEnabled();
+
     public abstract String getRuntimeEndpointRegistryEnabled();
 
     public abstract String getManagementNamePattern();
@@ -915,6 +921,9 @@ public abstract class AbstractCamelContextFactoryBean<T extends ModelCamelContex
         if (getAllowUseOriginalMessage() != null) {
             ctx.setAllowUseOriginalMessage(CamelContextHelper.parseBoolean(context, getAllowUseOriginalMessage()));
         }
+        if (getInflightRepositoryBrowseEnabled() != null) {
+            ctx.setInflightRepositoryBrowseEnabled(CamelContextHelper.parseBoolean(context, getInflightRepositoryBrowseEnabled()));
+        }
         if (getRuntimeEndpointRegistryEnabled() != null) {
             ctx.getRuntimeEndpointRegistry().setEnabled(CamelContextHelper.parseBoolean(context, getRuntimeEndpointRegistryEnabled()));
         }
@@ -56,6 +56,8 @@ public class CamelStreamCachingStrategyDefinition extends IdentifiedType {
     private String statisticsEnabled;
     @XmlAttribute @Metadata(defaultValue = "false")
     private String anySpoolRules;
+    @XmlAttribute @Metadata(defaultValue = "false")
+    private String pooled;
 
     public String getEnabled() {
         return enabled;
@@ -199,4 +201,22 @@ public class CamelStreamCachingStrategyDefinition extends IdentifiedType {
         this.anySpoolRules = anySpoolRules;
     }
 
+    public String getPooled() {
+        return pooled;
+    }
+
+    /**
+     * Sets whether in-memory stream caches should be stored in pooled direct (off heap) buffers, and
+     * spooled to a memory mapped file.
+     * <p/>
+     * The cached data is shared (not copied) among the copies of the stream cache, and the buffers are
+     * released back to the pool when all the exchanges using the stream cache are done.
+     * Pooling is not in use if a spool chiper has been configured.
+     * <p/>
+     * This option is default <tt>false</tt>
+     */
+    public void setPooled(String pooled) {
+        this.pooled = pooled;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,326 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.headersmap;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import com.cedarsoftware.util.CaseInsensitiveMap;
+
+/**
+ * A case-insensitive headers map, which stores the well known header names in integer slots.
+ * <p/>
+ * The well known headers (such as the constants from {@link org.apache.camel.Exchange}) are stored in a small
+ * open-addressing array keyed by their slot, which makes looking up, adding and removing these headers
+ * constant-time and allocation free. Any other headers are stored in a {@link CaseInsensitiveMap}.
+ * <p/>
+ * This map is <b>not</b> designed to be thread safe as concurrent access to it is not supposed to be performed
+ * by the Camel routing engine.
+ *
+ * @see InternedHeadersMapFactory
+ */
+public class InternedHeadersMap extends AbstractMap<String, Object> {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final KnownHeaderNames names;
+    // open-addressing table which stores the slot + 1 (as 0 is used as empty marker)
+    private int[] slots;
+    private String[] keys;
+    private Object[] values;
+    private int size;
+    private Map<String, Object> others;
+    private transient Set<Entry<String, Object>> entrySet;
+
+    InternedHeadersMap(KnownHeaderNames names) {
+        this.names = names;
+    }
+
+    InternedHeadersMap(KnownHeaderNames names, Map<String, Object> map) {
+        this.names = names;
+        if (map instanceof InternedHeadersMap && ((InternedHeadersMap) map).names == names) {
+            // fast copy as the slots are the same
+            InternedHeadersMap other = (InternedHeadersMap) map;
+            if (other.size > 0) {
+                this.slots = other.slots.clone();
+                this.keys = other.keys.clone();
+                this.values = other.values.clone();
+                this.size = other.size;
+            }
+            if (other.others != null && !other.others.isEmpty()) {
+                this.others = new CaseInsensitiveMap<>(other.others);
+            }
+        } else {
+            putAll(map);
+        }
+    }
+
+    @Override
+    public int size() {
+        return others != null ? size + others.size() : size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0 && (others == null || others.isEmpty());
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int slot = slotOf(key);
+        if (slot < 0) {
+            return others != null && others.containsKey(key);
+        }
+        return indexOf(slot) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int slot = slotOf(key);
+        if (slot < 0) {
+            return others != null ? others.get(key) : null;
+        }
+        int index = indexOf(slot);
+        return index >= 0 ? values[index] : null;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        int slot = names.slotOf(key);
+        if (slot < 0) {
+            if (others == null) {
+                others = new CaseInsensitiveMap<>();
+            }
+            return others.put(key, value);
+        }
+
+        if (slots == null) {
+            slots = new int[INITIAL_CAPACITY];
+            keys = new String[INITIAL_CAPACITY];
+            values = new Object[INITIAL_CAPACITY];
+        }
+        int mask = slots.length - 1;
+        int i = KnownHeaderNames.mix(slot) & mask;
+        int entry;
+        while ((entry = slots[i]) != 0) {
+            if (entry == slot + 1) {
+                // keep the existing key as a case-insensitive map does
+                Object answer = values[i];
+                values[i] = value;
+                return answer;
+            }
+            i = (i + 1) & mask;
+        }
+        slots[i] = slot + 1;
+        keys[i] = key;
+        values[i] = value;
+        // keep the load factor at max 0.5
+        if (++size > slots.length >> 1) {
+            resize(slots.length << 1);
+        }
+        return null;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int slot = slotOf(key);
+        if (slot < 0) {
+            return others != null ? others.remove(key) : null;
+        }
+        int index = indexOf(slot);
+        if (index < 0) {
+            return null;
+        }
+        Object answer = values[index];
+        removeAt(index);
+        return answer;
+    }
+
+    @Override
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(slots, 0);
+            Arrays.fill(keys, null);
+            Arrays.fill(values, null);
+            size = 0;
+        }
+        others = null;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private int slotOf(Object key) {
+        return key instanceof String ? names.slotOf((String) key) : -1;
+    }
+
+    private int indexOf(int slot) {
+        if (size == 0) {
+            return -1;
+        }
+        int mask = slots.length - 1;
+        int i = KnownHeaderNames.mix(slot) & mask;
+        int entry;
+        while ((entry = slots[i]) != 0) {
+            if (entry == slot + 1) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void resize(int capacity) {
+        int[] oldSlots = slots;
+        String[] oldKeys = keys;
+        Object[] oldValues = values;
+        slots = new int[capacity];
+        keys = new String[capacity];
+        values = new Object[capacity];
+
+        int mask = capacity - 1;
+        for (int j = 0; j < oldSlots.length; j++) {
+            if (oldSlots[j] != 0) {
+                int i = KnownHeaderNames.mix(oldSlots[j] - 1) & mask;
+                while (slots[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                slots[i] = oldSlots[j];
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private void removeAt(int index) {
+        // shift back the following entries in the probe sequence so we do not need tombstones
+        int mask = slots.length - 1;
+        int i = index;
+        int j = index;
+        while (true) {
+            j = (j + 1) & mask;
+            if (slots[j] == 0) {
+                break;
+            }
+            int ideal = KnownHeaderNames.mix(slots[j] - 1) & mask;
+            boolean move = j > i ? (ideal <= i || ideal > j) : (ideal <= i && ideal > j);
+            if (move) {
+                slots[i] = slots[j];
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        slots[i] = 0;
+        keys[i] = null;
+        values[i] = null;
+        size--;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<String, Object>> {
+
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return InternedHeadersMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            InternedHeadersMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<String, Object>> {
+
+        // take a snapshot of the keys in the slots so the map can be changed while iterating
+        private final String[] known;
+        private int next;
+        private String current;
+        private final Iterator<Entry<String, Object>> othersIterator;
+
+        EntryIterator() {
+            known = new String[size];
+            int n = 0;
+            for (int i = 0; size > 0 && i < slots.length; i++) {
+                if (slots[i] != 0) {
+                    known[n++] = keys[i];
+                }
+            }
+            othersIterator = others != null ? others.entrySet().iterator() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < known.length || (othersIterator != null && othersIterator.hasNext());
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (next < known.length) {
+                current = known[next++];
+                return new KnownEntry(current, get(current));
+            }
+            current = null;
+            if (othersIterator == null) {
+                throw new NoSuchElementException();
+            }
+            return othersIterator.next();
+        }
+
+        @Override
+        public void remove() {
+            if (current != null) {
+                InternedHeadersMap.this.remove(current);
+                current = null;
+            } else if (othersIterator != null) {
+                othersIterator.remove();
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+    }
+
+    private final class KnownEntry extends SimpleEntry<String, Object> {
+
+        private static final long serialVersionUID = 1L;
+
+        KnownEntry(String key, Object value) {
+            super(key, value);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            put(getKey(), value);
+            return super.setValue(value);
+        }
+    }
+}
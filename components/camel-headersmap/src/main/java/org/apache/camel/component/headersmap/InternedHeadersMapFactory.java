@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.headersmap;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.spi.HeadersMapFactory;
+
+/**
+ * A {@link HeadersMapFactory} which is using the {@link InternedHeadersMap} map implementation.
+ * <p/>
+ * The names of the constants from {@link Exchange} are well known header names, which are interned into integer slots
+ * so looking up these headers does not need to hash or lower-case the header names. Additional well known header names
+ * can be added from the constants classes of the Camel components in use, such as <tt>FileConstants</tt> or <tt>JmsConstants</tt>.
+ */
+public class InternedHeadersMapFactory implements HeadersMapFactory {
+
+    private final KnownHeaderNames names;
+
+    public InternedHeadersMapFactory() {
+        this(new Class<?>[0]);
+    }
+
+    /**
+     * Creates the factory with the names of the <tt>public static final String</tt> constants from
+     * the given classes as additional well known header names.
+     *
+     * @param constantsClasses the classes with header name constants, such as <tt>FileConstants</tt>
+     */
+    public InternedHeadersMapFactory(Class<?>... constantsClasses) {
+        Set<String> known = KnownHeaderNames.constantsOf(Exchange.class);
+        known.addAll(KnownHeaderNames.constantsOf(constantsClasses));
+        this.names = new KnownHeaderNames(known);
+    }
+
+    @Override
+    public Map<String, Object> newMap() {
+        return new InternedHeadersMap(names);
+    }
+
+    @Override
+    public Map<String, Object> newMap(Map<String, Object> map) {
+        return new InternedHeadersMap(names, map);
+    }
+
+    @Override
+    public boolean isInstanceOf(Map<String, Object> map) {
+        return map instanceof InternedHeadersMap;
+    }
+
+    @Override
+    public boolean isCaseInsensitive() {
+        return true;
+    }
+
+    /**
+     * Number of well known header names which are interned
+     */
+    public int getKnownHeaderNamesSize() {
+        return names.size();
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.headersmap;
+
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * An immutable table of well known header names, where each name is interned into an integer slot.
+ * <p/>
+ * The names are stored in two open-addressing tables, one keyed by the (cached) {@link String#hashCode()}
+ * for the fast path where the header name is used with the exact same case, and one keyed by a case-insensitive
+ * hash for the slower path. Neither lookup allocates any objects.
+ */
+final class KnownHeaderNames implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String[] names;
+    // open-addressing tables which stores the slot + 1 (as 0 is used as empty marker)
+    private final int[] exactTable;
+    private final int[] foldTable;
+    private final int mask;
+
+    KnownHeaderNames(Collection<String> names) {
+        // remove duplicates and names which are equal ignoring case
+        Set<String> unique = new LinkedHashSet<>();
+        for (String name : names) {
+            if (ObjectHelper.isNotEmpty(name) && !containsIgnoreCase(unique, name)) {
+                unique.add(name);
+            }
+        }
+        this.names = unique.toArray(new String[unique.size()]);
+
+        // use a load factor of max 0.25 to keep the probe sequences short
+        int capacity = Integer.highestOneBit(Math.max(4, this.names.length * 4) - 1) << 1;
+        this.exactTable = new int[capacity];
+        this.foldTable = new int[capacity];
+        this.mask = capacity - 1;
+
+        for (int slot = 0; slot < this.names.length; slot++) {
+            String name = this.names[slot];
+            insert(exactTable, mix(name.hashCode()), slot);
+            insert(foldTable, mix(foldHash(name)), slot);
+        }
+    }
+
+    /**
+     * Creates the names from the <tt>public static final String</tt> constants of the given classes,
+     * such as {@link org.apache.camel.Exchange} or the <tt>*Constants</tt> classes of the Camel components.
+     */
+    static Set<String> constantsOf(Class<?>... classes) {
+        Set<String> answer = new LinkedHashSet<>();
+        for (Class<?> clazz : classes) {
+            for (Field field : clazz.getFields()) {
+                int modifiers = field.getModifiers();
+                if (field.getType() == String.class && Modifier.isStatic(modifiers) && Modifier.isFinal(modifiers)) {
+                    try {
+                        answer.add((String) field.get(null));
+                    } catch (IllegalAccessException e) {
+                        // ignore as it cannot be a well known header then
+                    }
+                }
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Number of slots
+     */
+    int size() {
+        return names.length;
+    }
+
+    /**
+     * The well known name for the given slot
+     */
+    String name(int slot) {
+        return names[slot];
+    }
+
+    /**
+     * Gets the slot of the given header name, matching the name case-insensitive.
+     *
+     * @return the slot, or <tt>-1</tt> if the name is not a well known name
+     */
+    int slotOf(String key) {
+        if (key == null) {
+            return -1;
+        }
+
+        // fast path where the key is used in the exact same case
+        int i = mix(key.hashCode()) & mask;
+        int entry;
+        while ((entry = exactTable[i]) != 0) {
+            String name = names[entry - 1];
+            if (name == key || name.equals(key)) {
+                return entry - 1;
+            }
+            i = (i + 1) & mask;
+        }
+
+        // slow path where the key is used with another case
+        i = mix(foldHash(key)) & mask;
+        while ((entry = foldTable[i]) != 0) {
+            if (names[entry - 1].equalsIgnoreCase(key)) {
+                return entry - 1;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void insert(int[] table, int hash, int slot) {
+        int i = hash & mask;
+        while (table[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        table[i] = slot + 1;
+    }
+
+    private static boolean containsIgnoreCase(Set<String> names, String name) {
+        for (String other : names) {
+            if (other.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A hash code which is equal for strings that are equal ignoring case, as defined by {@link String#equalsIgnoreCase(String)}
+     */
+    static int foldHash(String key) {
+        int h = 0;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < 128) {
+                if (c >= 'A' && c <= 'Z') {
+                    c += 'a' - 'A';
+                }
+            } else {
+                c = Character.toLowerCase(Character.toUpperCase(c));
+            }
+            h = 31 * h + c;
+        }
+        return h;
+    }
+
+    /**
+     * Spreads the bits of the hash code, as many of the header names share the same prefix
+     */
+    static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.headersmap;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import junit.framework.TestCase;
+import org.apache.camel.Exchange;
+
+public class InternedHeadersMapFactoryTest extends TestCase {
+
+    public static final class MyConstants {
+        public static final String MY_HEADER = "CamelMyHeader";
+    }
+
+    public void testLookupCaseAgnostic() {
+        Map<String, Object> map = new InternedHeadersMapFactory().newMap();
+        assertNull(map.get("foo"));
+
+        map.put("foo", "cheese");
+        map.put(Exchange.FILE_NAME, "hello.txt");
+
+        assertEquals("cheese", map.get("foo"));
+        assertEquals("cheese", map.get("Foo"));
+        assertEquals("cheese", map.get("FOO"));
+
+        assertEquals("hello.txt", map.get("CamelFileName"));
+        assertEquals("hello.txt", map.get("camelfilename"));
+        assertEquals("hello.txt", map.get("CAMELFILENAME"));
+        assertEquals(2, map.size());
+    }
+
+    public void testPutKeepsExistingKey() {
+        Map<String, Object> map = new InternedHeadersMapFactory().newMap();
+        map.put("camelfilename", "hello.txt");
+        assertEquals("hello.txt", map.put(Exchange.FILE_NAME, "bye.txt"));
+
+        assertEquals(1, map.size());
+        assertEquals("camelfilename", map.keySet().iterator().next());
+        assertEquals("bye.txt", map.get(Exchange.FILE_NAME));
+    }
+
+    public void testNullValue() {
+        Map<String, Object> map = new InternedHeadersMapFactory().newMap();
+        map.put(Exchange.FILE_NAME, null);
+
+        assertTrue(map.containsKey(Exchange.FILE_NAME));
+        assertNull(map.get(Exchange.FILE_NAME));
+        assertEquals(1, map.size());
+    }
+
+    public void testRemove() {
+        Map<String, Object> map = new InternedHeadersMapFactory().newMap();
+        map.put("foo", "cheese");
+        map.put(Exchange.FILE_NAME, "hello.txt");
+        map.put(Exchange.CONTENT_TYPE, "text/plain");
+
+        assertEquals("hello.txt", map.remove("CAMELFILENAME"));
+        assertNull(map.remove(Exchange.FILE_NAME));
+        assertEquals("cheese", map.remove("FOO"));
+
+        assertEquals(1, map.size());
+        assertEquals("text/plain", map.get(Exchange.CONTENT_TYPE));
+    }
+
+    public void testManyKnownHeaders() {
+        Map<String, Object> map = new InternedHeadersMapFactory().newMap();
+        String[] keys = {Exchange.FILE_NAME, Exchange.FILE_PATH, Exchange.CONTENT_TYPE, Exchange.CONTENT_LENGTH,
+            Exchange.HTTP_METHOD, Exchange.HTTP_URI, Exchange.HTTP_PATH, Exchange.HTTP_QUERY, Exchange.HTTP_RESPONSE_CODE,
+            Exchange.BREADCRUMB_ID, Exchange.CORRELATION_ID, Exchange.SPLIT_INDEX, Exchange.SPLIT_SIZE, Exchange.CHARSET_NAME};
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+        }
+        assertEquals(keys.length, map.size());
+
+        // remove every second to exercise removing from the middle of the probe sequences
+        for (int i = 0; i < keys.length; i += 2) {
+            assertEquals(i, map.remove(keys[i]));
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (i % 2 == 0) {
+                assertFalse(map.containsKey(keys[i]));
+            } else {
+                assertEquals(i, map.get(keys[i].toLowerCase()));
+            }
+        }
+        assertEquals(keys.length / 2, map.size());
+    }
+
+    public void testIterator() {
+        Map<String, Object> map = new InternedHeadersMapFactory().newMap();
+        map.put("foo", "cheese");
+        map.put(Exchange.FILE_NAME, "hello.txt");
+        map.put(Exchange.CONTENT_TYPE, "text/plain");
+
+        Map<String, Object> copy = new HashMap<>();
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue());
+            if (entry.getKey().equals(Exchange.CONTENT_TYPE)) {
+                entry.setValue("text/xml");
+            }
+        }
+        assertEquals(3, copy.size());
+        assertEquals("hello.txt", copy.get(Exchange.FILE_NAME));
+        assertEquals("text/xml", map.get(Exchange.CONTENT_TYPE));
+
+        Iterator<String> it = map.keySet().iterator();
+        while (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+        assertTrue(map.isEmpty());
+    }
+
+    public void testConstructFromOther() {
+        Map<String, Object> other = new InternedHeadersMapFactory().newMap();
+        other.put("Foo", "cheese");
+        other.put("bar", 123);
+        other.put(Exchange.FILE_NAME, "hello.txt");
+
+        Map<String, Object> map = new InternedHeadersMapFactory().newMap(other);
+
+        assertEquals("cheese", map.get("FOO"));
+        assertEquals(123, map.get("BaR"));
+        assertEquals("hello.txt", map.get("camelFileName"));
+        assertEquals(other, map);
+
+        // the copy must be a defensive copy
+        map.put(Exchange.FILE_NAME, "bye.txt");
+        map.put("bar", 456);
+        assertEquals("hello.txt", other.get(Exchange.FILE_NAME));
+        assertEquals(123, other.get("bar"));
+    }
+
+    public void testCustomConstants() {
+        InternedHeadersMapFactory factory = new InternedHeadersMapFactory(MyConstants.class);
+        assertEquals(new InternedHeadersMapFactory().getKnownHeaderNamesSize() + 1, factory.getKnownHeaderNamesSize());
+
+        Map<String, Object> map = factory.newMap();
+        map.put("CamelMyHeader", "cheese");
+        assertEquals("cheese", map.get("camelmyheader"));
+    }
+
+    public void testIsInstance() {
+        Map<String, Object> map = new InternedHeadersMapFactory().newMap();
+
+        Map<String, Object> other = new InternedHeadersMapFactory().newMap(map);
+        other.put("Foo", "cheese");
+        other.put("bar", 123);
+
+        assertTrue(new InternedHeadersMapFactory().isInstanceOf(map));
+        assertTrue(new InternedHeadersMapFactory().isInstanceOf(other));
+        assertFalse(new InternedHeadersMapFactory().isInstanceOf(new HashMap<>()));
+    }
+
+}
@@ -810,6 +810,21 @@ public class JmsComponent extends HeaderFilterStrategyComponent implements Appli
         getConfiguration().setRequestTimeoutCheckerInterval(requestTimeoutCheckerInterval);
     }
 
+    /**
+     * Whether to use a hashed hierarchical timing wheel to check for timed out Exchanges when doing request/reply over JMS,
+     * which only visits the Exchanges which are due, instead of scanning all the Exchanges waiting for a reply.
+     * This keeps the cost of the timeout checker flat when there are a lot of outstanding request/reply Exchanges.
+     * The timing wheel uses the requestTimeoutCheckerInterval as its tick, so the timeouts have the same precision.
+     */
+    @Metadata(defaultValue = "false", label = "advanced",
+            description = "Whether to use a hashed hierarchical timing wheel to check for timed out Exchanges when doing request/reply over JMS,"
+                    + " which only visits the Exchanges which are due, instead of scanning all the Exchanges waiting for a reply."
+                    + " This keeps the cost of the timeout checker flat when there are a lot of outstanding request/reply Exchanges."
+                    + " The timing wheel uses the requestTimeoutCheckerInterval as its tick, so the timeouts have the same precision.")
+    public void setRequestTimeoutTimingWheel(boolean requestTimeoutTimingWheel) {
+        getConfiguration().setRequestTimeoutTimingWheel(requestTimeoutTimingWheel);
+    }
+
     /**
      * You can transfer the exchange over the wire instead of just the body and headers.
      * The following fields are transferred: In body, Out body, Fault body, In headers, Out headers, Fault headers,
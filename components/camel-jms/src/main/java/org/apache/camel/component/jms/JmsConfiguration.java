@@ -176,6 +176,12 @@ public class JmsConfiguration implements Cloneable {
                     + " By default Camel checks once per second. But if you must react faster when a timeout occurs,"
                     + " then you can lower this interval, to check more frequently. The timeout is determined by the option requestTimeout.")
     private long requestTimeoutCheckerInterval = 1000L;
+    @UriParam(label = "advanced",
+            description = "Whether to use a hashed hierarchical timing wheel to check for timed out Exchanges when doing request/reply over JMS,"
+                    + " which only visits the Exchanges which are due, instead of scanning all the Exchanges waiting for a reply."
+                    + " This keeps the cost of the timeout checker flat when there are a lot of outstanding request/reply Exchanges."
+                    + " The timing wheel uses the requestTimeoutCheckerInterval as its tick, so the timeouts have the same precision.")
+    private boolean requestTimeoutTimingWheel;
     @UriParam(defaultValue = "1", label = "advanced",
             description = "Specifies the limit for idle executions of a receive task, not having received any message within its execution."
                     + " If this limit is reached, the task will shut down and leave receiving to other executing tasks"
@@ -1746,6 +1752,20 @@ public class JmsConfiguration implements Cloneable {
         this.requestTimeoutCheckerInterval = requestTimeoutCheckerInterval;
     }
 
+    public boolean isRequestTimeoutTimingWheel() {
+        return requestTimeoutTimingWheel;
+    }
+
+    /**
+     * Whether to use a hashed hierarchical timing wheel to check for timed out Exchanges when doing request/reply over JMS,
+     * which only visits the Exchanges which are due, instead of scanning all the Exchanges waiting for a reply.
+     * This keeps the cost of the timeout checker flat when there are a lot of outstanding request/reply Exchanges.
+     * The timing wheel uses the requestTimeoutCheckerInterval as its tick, so the timeouts have the same precision.
+     */
+    public void setRequestTimeoutTimingWheel(boolean requestTimeoutTimingWheel) {
+        this.requestTimeoutTimingWheel = requestTimeoutTimingWheel;
+    }
+
     public String getReplyTo() {
         return replyTo;
     }
@@ -34,7 +34,12 @@ public class CorrelationTimeoutMap extends DefaultTimeoutMap<String, ReplyHandle
     private ExecutorService executorService;
 
     public CorrelationTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis, ExecutorService executorService) {
-        super(executor, requestMapPollTimeMillis);
+        this(executor, requestMapPollTimeMillis, executorService, false);
+    }
+
+    public CorrelationTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis, ExecutorService executorService,
+                                 boolean useTimingWheel) {
+        super(executor, requestMapPollTimeMillis, true, useTimingWheel);
         this.executorService = executorService;
     }
 
@@ -106,6 +106,8 @@ public class NettyConfiguration extends NettyServerBootstrapConfiguration implem
     private boolean clientMode;
     @UriParam(label = "producer,advanced")
     private boolean useByteBuf;
+    @UriParam(label = "producer,advanced")
+    private boolean useFileRegion;
     @UriParam(label = "advanced")
     private boolean udpByteArrayCodec;
     @UriParam(label = "common")
@@ -627,6 +629,20 @@ public class NettyConfiguration extends NettyServerBootstrapConfiguration implem
         this.useByteBuf = useByteBuf;
     }
 
+    public boolean isUseFileRegion() {
+        return useFileRegion;
+    }
+
+    /**
+     * If the useFileRegion is true, and the message body is a file, then netty producer will send the file as a
+     * {@link io.netty.channel.FileRegion} which allows the transport to send the file without reading its content
+     * into memory (zero copy). This is only in use with TCP without SSL and textline, and as the file region is not
+     * encoded, the configured encoders must accept the content of the file as-is.
+     */
+    public void setUseFileRegion(boolean useFileRegion) {
+        this.useFileRegion = useFileRegion;
+    }
+
     public boolean isUdpByteArrayCodec() {
         return udpByteArrayCodec;
     }
@@ -16,11 +16,15 @@
  */
 package org.apache.camel.component.netty4;
 
+import java.io.File;
 import java.net.InetSocketAddress;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.AddressedEnvelope;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.channel.FileRegion;
 import org.apache.camel.Exchange;
+import org.apache.camel.WrappedFile;
 import org.apache.camel.impl.DefaultExchangeHolder;
 
 /**
@@ -43,6 +47,13 @@ public final class NettyPayloadHelper {
             // we should transfer the entire exchange over the wire (includes in/out)
             return DefaultExchangeHolder.marshal(exchange, true, endpoint.getConfiguration().isAllowSerializedHeaders());
         } else {
+            if (endpoint.getConfiguration().isUseFileRegion()) {
+                // send files as a file region so the transport can transfer the file without copying its content
+                FileRegion region = getFileRegion(endpoint, exchange);
+                if (region != null) {
+                    return region;
+                }
+            }
             if (endpoint.getConfiguration().isUseByteBuf()) {
                 // Just leverage the type converter 
                 return exchange.getIn().getBody(ByteBuf.class);
@@ -53,6 +64,32 @@ public final class NettyPayloadHelper {
         }
     }
 
+    /**
+     * Gets the message body as a {@link FileRegion} if the body is a file, and the file can be transferred as-is,
+     * which is not the case when using UDP or SSL as the payload must be in memory, or textline as the payload is text.
+     *
+     * @return the file region, or <tt>null</tt> if the body is not a file or cannot be transferred as a file region
+     */
+    private static FileRegion getFileRegion(NettyEndpoint endpoint, Exchange exchange) {
+        NettyConfiguration configuration = endpoint.getConfiguration();
+        if (!"tcp".equalsIgnoreCase(configuration.getProtocol()) || configuration.isTextline() || configuration.isSsl()
+                || configuration.getSslHandler() != null || configuration.getSslContextParameters() != null) {
+            return null;
+        }
+
+        Object body = exchange.getIn().getBody();
+        if (body instanceof WrappedFile) {
+            body = ((WrappedFile<?>) body).getFile();
+        }
+        if (body instanceof File && ((File) body).isFile()) {
+            File file = (File) body;
+            // the file is opened lazily when written, and the region is released by netty when it has been written,
+            // or by the producer if the region was not handed over to netty
+            return new DefaultFileRegion(file, 0, file.length());
+        }
+        return null;
+    }
+
     public static Object getOut(NettyEndpoint endpoint, Exchange exchange) {
         if (endpoint.getConfiguration().isTransferExchange()) {
             // we should transfer the entire exchange over the wire (includes in/out)
@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.netty4;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.FileRegion;
+import io.netty.handler.codec.MessageToMessageEncoder;
+import io.netty.util.CharsetUtil;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.JndiRegistry;
+import org.junit.Test;
+
+/**
+ * Tests that a file body is sent as a {@link FileRegion} which is released when it has been written,
+ * and that it is only sent as a file region when enabled.
+ */
+public class NettyFileRegionTest extends BaseNettyTest {
+
+    private final RegionRecorder recorder = new RegionRecorder();
+
+    @Override
+    protected JndiRegistry createRegistry() throws Exception {
+        JndiRegistry registry = super.createRegistry();
+        registry.bind("recorder", recorder);
+        registry.bind("upperCase", new UpperCaseEncoder());
+        return registry;
+    }
+
+    @Test
+    public void testFileRegionReleased() throws Exception {
+        deleteDirectory("target/netty-region");
+        template.sendBodyAndHeader("file:target/netty-region", "Hello World\n", "CamelFileName", "hello.txt");
+
+        getMockEndpoint("mock:result").expectedBodiesReceived("Hello World");
+
+        template.sendBody("direct:start", new File("target/netty-region/hello.txt"));
+
+        assertMockEndpointsSatisfied();
+
+        assertTrue("The file region should be written", recorder.written.await(5, TimeUnit.SECONDS));
+        assertNotNull(recorder.region);
+        assertEquals("The file region should be released", 0, recorder.region.refCnt());
+    }
+
+    @Test
+    public void testFileEncodedWhenFileRegionNotEnabled() throws Exception {
+        deleteDirectory("target/netty-region");
+        template.sendBodyAndHeader("file:target/netty-region", "Hello World\n", "CamelFileName", "hello.txt");
+
+        // the file is given to the configured encoder
+        getMockEndpoint("mock:result").expectedBodiesReceived("HELLO WORLD");
+
+        template.sendBody("direct:encoded", new File("target/netty-region/hello.txt"));
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("netty4:tcp://localhost:{{port}}?sync=false&textline=true")
+                    .to("mock:result");
+
+                // the recorder is the only encoder so the file region is written as-is
+                from("direct:start")
+                    .to("netty4:tcp://localhost:{{port}}?sync=false&useFileRegion=true&encoders=#recorder");
+
+                from("direct:encoded")
+                    .to("netty4:tcp://localhost:{{port}}?sync=false&encoders=#upperCase");
+            }
+        };
+    }
+
+    /**
+     * Encodes the content of the file in upper case
+     */
+    @ChannelHandler.Sharable
+    private static final class UpperCaseEncoder extends MessageToMessageEncoder<File> {
+
+        @Override
+        protected void encode(ChannelHandlerContext ctx, File msg, List<Object> out) throws Exception {
+            String text = new String(Files.readAllBytes(msg.toPath()), StandardCharsets.UTF_8).toUpperCase(Locale.ENGLISH);
+            out.add(Unpooled.copiedBuffer(text, CharsetUtil.UTF_8));
+        }
+    }
+
+    /**
+     * Records the file region which is written to the channel
+     */
+    @ChannelHandler.Sharable
+    private static final class RegionRecorder extends ChannelOutboundHandlerAdapter {
+        private final CountDownLatch written = new CountDownLatch(1);
+        private volatile FileRegion region;
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+            if (msg instanceof FileRegion) {
+                region = (FileRegion) msg;
+                promise.addListener(new ChannelFutureListener() {
+                    @Override
+                    public void operationComplete(ChannelFuture future) throws Exception {
+                        written.countDown();
+                    }
+                });
+            }
+            ctx.write(msg, promise);
+        }
+    }
+}
@@ -170,6 +170,8 @@ public class RabbitMQEndpoint extends DefaultEndpoint implements AsyncEndpoint {
     @UriParam(label = "advanced", defaultValue = "1000")
     private long requestTimeoutCheckerInterval = 1000;
     @UriParam(label = "advanced")
+    private boolean requestTimeoutTimingWheel;
+    @UriParam(label = "advanced")
     private boolean transferException;
     @UriParam(label = "producer")
     private boolean publisherAcknowledgements;
@@ -912,6 +914,19 @@ public class RabbitMQEndpoint extends DefaultEndpoint implements AsyncEndpoint {
         return requestTimeoutCheckerInterval;
     }
 
+    /**
+     * Whether to use a timing wheel to check for timed out inOut exchanges, which only visits the exchanges which are due
+     * instead of scanning all the exchanges waiting for a reply. This keeps the cost of the timeout checker flat when
+     * there are a lot of outstanding inOut exchanges.
+     */
+    public void setRequestTimeoutTimingWheel(boolean requestTimeoutTimingWheel) {
+        this.requestTimeoutTimingWheel = requestTimeoutTimingWheel;
+    }
+
+    public boolean isRequestTimeoutTimingWheel() {
+        return requestTimeoutTimingWheel;
+    }
+
     /**
      * Get useMessageIDAsCorrelationID for inOut exchange
      */
@@ -32,7 +32,11 @@ public class CorrelationTimeoutMap extends DefaultTimeoutMap<String, ReplyHandle
     private CorrelationListener listener;
 
     public CorrelationTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis) {
-        super(executor, requestMapPollTimeMillis);
+        this(executor, requestMapPollTimeMillis, false);
+    }
+
+    public CorrelationTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis, boolean useTimingWheel) {
+        super(executor, requestMapPollTimeMillis, true, useTimingWheel);
     }
 
     public void setListener(CorrelationListener listener) {
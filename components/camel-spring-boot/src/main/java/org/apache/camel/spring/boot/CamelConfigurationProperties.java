@@ -332,6 +332,15 @@ public class CamelConfigurationProperties {
      */
     private boolean allowUseOriginalMessage;
 
+    /**
+     * Sets whether the inflight repository should allow browsing each inflight exchange.
+     * Turning this off only keeps the number of inflight exchanges, which has a slightly lower
+     * overhead under very heavy load.
+     *
+     * Default is true.
+     */
+    private boolean inflightRepositoryBrowseEnabled = true;
+
     /**
      * Sets whether endpoint runtime statistics is enabled (gathers runtime usage of each incoming and outgoing endpoints).
      *
@@ -765,6 +774,14 @@ public class CamelConfigurationProperties {
         this.allowUseOriginalMessage = allowUseOriginalMessage;
     }
 
+    public boolean isInflightRepositoryBrowseEnabled() {
+        return inflightRepositoryBrowseEnabled;
+    }
+
+    public void setInflightRepositoryBrowseEnabled(boolean inflightRepositoryBrowseEnabled) {
+        this.inflightRepositoryBrowseEnabled = inflightRepositoryBrowseEnabled;
+    }
+
     public boolean isEndpointRuntimeStatisticsEnabled() {
         return endpointRuntimeStatisticsEnabled;
     }
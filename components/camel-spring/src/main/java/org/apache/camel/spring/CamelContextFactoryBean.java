@@ -133,6 +133,8 @@ public class CamelContextFactoryBean extends AbstractCamelContextFactoryBean<Spr
     private String useBreadcrumb;
     @XmlAttribute
     private String allowUseOriginalMessage;
+    @XmlAttribute @Metadata(defaultValue = "true")
+    private String inflightRepositoryBrowseEnabled;
     @XmlAttribute
     private String runtimeEndpointRegistryEnabled;
     @XmlAttribute @Metadata(defaultValue = "#name#")
@@ -844,6 +846,20 @@ public class CamelContextFactoryBean extends AbstractCamelContextFactoryBean<Spr
         this.allowUseOriginalMessage = allowUseOriginalMessage;
     }
 
+    public String getInflightRepositoryBrowseEnabled() {
+        return inflightRepositoryBrowseEnabled;
+    }
+
+    /**
+     * Sets whether the inflight repository should allow browsing each inflight exchange.
+     * <p/>
+     * This is by default enabled. Turning this off only keeps the number of inflight exchanges,
+     * which has a slightly lower overhead under very heavy load.
+     */
+    public void setInflightRepositoryBrowseEnabled(String inflightRepositoryBrowseEnabled) {
+        this.inflightRepositoryBrowseEnabled = inflightRepositoryBrowseEnabled;
+    }
+
     public String getRuntimeEndpointRegistryEnabled() {
         return runtimeEndpointRegistryEnabled;
     }
@@ -63,6 +63,16 @@ public class XPathLanguageConfiguration
      * prevented by turning this option on.
      */
     private Boolean threadSafety = false;
+    /**
+     * Whether to evaluate the predicate using a streaming StAX based evaluator
+     * which stops reading the message as soon as the outcome is decided instead
+     * of parsing the entire message. The streaming evaluator supports a
+     * forward-only subset of XPath which is a location path of child and
+     * descendant steps (with position attribute and text predicates) that may
+     * end with an attribute or text step and may be compared to a literal.
+     * Other expressions are evaluated using the XPath engine.
+     */
+    private Boolean streaming = false;
     /**
      * Whether to trim the value to remove leading and trailing whitespaces and
      * line breaks
@@ -117,6 +127,14 @@ public class XPathLanguageConfiguration
         this.threadSafety = threadSafety;
     }
 
+    public Boolean getStreaming() {
+        return streaming;
+    }
+
+    public void setStreaming(Boolean streaming) {
+        this.streaming = streaming;
+    }
+
     public Boolean getTrim() {
         return trim;
     }
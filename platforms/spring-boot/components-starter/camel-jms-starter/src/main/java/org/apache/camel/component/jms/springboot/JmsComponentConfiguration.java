@@ -396,6 +396,16 @@ public class JmsComponentConfiguration
      * option requestTimeout.
      */
     private Long requestTimeoutCheckerInterval = 1000L;
+    /**
+     * Whether to use a hashed hierarchical timing wheel to check for timed out
+     * Exchanges when doing request/reply over JMS which only visits the
+     * Exchanges which are due instead of scanning all the Exchanges waiting for
+     * a reply. This keeps the cost of the timeout checker flat when there are a
+     * lot of outstanding request/reply Exchanges. The timing wheel uses the
+     * requestTimeoutCheckerInterval as its tick so the timeouts have the same
+     * precision.
+     */
+    private Boolean requestTimeoutTimingWheel = false;
     /**
      * You can transfer the exchange over the wire instead of just the body and
      * headers. The following fields are transferred: In body Out body Fault
@@ -1062,6 +1072,14 @@ public class JmsComponentConfiguration
         this.requestTimeoutCheckerInterval = requestTimeoutCheckerInterval;
     }
 
+    public Boolean getRequestTimeoutTimingWheel() {
+        return requestTimeoutTimingWheel;
+    }
+
+    public void setRequestTimeoutTimingWheel(Boolean requestTimeoutTimingWheel) {
+        this.requestTimeoutTimingWheel = requestTimeoutTimingWheel;
+    }
+
     public Boolean getTransferExchange() {
         return transferExchange;
     }
@@ -1650,6 +1668,16 @@ public class JmsComponentConfiguration
          * determined by the option requestTimeout.
          */
         private Long requestTimeoutCheckerInterval = 1000L;
+        /**
+         * Whether to use a hashed hierarchical timing wheel to check for timed
+         * out Exchanges when doing request/reply over JMS, which only visits
+         * the Exchanges which are due, instead of scanning all the Exchanges
+         * waiting for a reply. This keeps the cost of the timeout checker flat
+         * when there are a lot of outstanding request/reply Exchanges. The
+         * timing wheel uses the requestTimeoutCheckerInterval as its tick, so
+         * the timeouts have the same precision.
+         */
+        private Boolean requestTimeoutTimingWheel = false;
         /**
          * Provides an explicit ReplyTo destination, which overrides any
          * incoming value of Message.getJMSReplyTo().
@@ -2447,6 +2475,15 @@ public class JmsComponentConfiguration
             this.requestTimeoutCheckerInterval = requestTimeoutCheckerInterval;
         }
 
+        public Boolean getRequestTimeoutTimingWheel() {
+            return requestTimeoutTimingWheel;
+        }
+
+        public void setRequestTimeoutTimingWheel(
+                Boolean requestTimeoutTimingWheel) {
+            this.requestTimeoutTimingWheel = requestTimeoutTimingWheel;
+        }
+
         public String getReplyTo() {
             return replyTo;
         }
@@ -293,6 +293,16 @@ public class NettyComponentConfiguration
          * into {@link ByteBuf} before sending it out.
          */
         private Boolean useByteBuf = false;
+        /**
+         * If the useFileRegion is true, and the message body is a file, then
+         * netty producer will send the file as a
+         * {@link io.netty.channel.FileRegion} which allows the transport to
+         * send the file without reading its content into memory (zero copy).
+         * This is only in use with TCP without SSL and textline, and as the
+         * file region is not encoded, the configured encoders must accept the
+         * content of the file as-is.
+         */
+        private Boolean useFileRegion = false;
         /**
          * For UDP only. If enabled the using byte array codec instead of Java
          * serialization protocol.
@@ -765,6 +775,14 @@ public class NettyComponentConfiguration
             this.useByteBuf = useByteBuf;
         }
 
+        public Boolean getUseFileRegion() {
+            return useFileRegion;
+        }
+
+        public void setUseFileRegion(Boolean useFileRegion) {
+            this.useFileRegion = useFileRegion;
+        }
+
         public Boolean getUdpByteArrayCodec() {
             return udpByteArrayCodec;
         }
@@ -0,0 +1,246 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.util.IOHelper;
+import org.junit.Assert;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Support for the benchmarks of the EIP processors, which runs the benchmarks with the same settings, and compares
+ * the results with the baseline in <tt>src/test/resources/eip-baseline.json</tt> to catch performance regressions.
+ * <p/>
+ * The benchmarks measure the throughput and, using the GC profiler, the bytes allocated per operation. The allocation
+ * does not depend on the machine, so a benchmark which allocates more than 10% above its baseline fails
+ * (use <tt>-Dcamel.jmh.allocationTolerance</tt> to change this). The throughput depends on the machine, so it is only
+ * verified when a tolerance is given with <tt>-Dcamel.jmh.throughputTolerance=0.2</tt>, which should be used together
+ * with a baseline recorded on the same machine.
+ * <p/>
+ * Run the benchmarks with <tt>mvn test -P jmh -Dtest=*EipTest</tt>, and add <tt>-Dcamel.jmh.updateBaseline=true</tt>
+ * to record the results as the new baseline, such as when upgrading to a new Camel release.
+ */
+public final class EipBenchmarkSupport {
+
+    public static final String BASELINE = "eip-baseline.json";
+
+    private static final Logger LOG = LoggerFactory.getLogger(EipBenchmarkSupport.class);
+
+    private static final String ALLOCATION = "\u00b7gc.alloc.rate.norm";
+    private static final Pattern ENTRY = Pattern.compile(
+        "\\{\"benchmark\": \"([^\"]+)\", \"mode\": \"([^\"]+)\", \"unit\": \"([^\"]+)\", \"score\": ([0-9.]+), \"allocNorm\": ([0-9.]+)\\}");
+
+    private EipBenchmarkSupport() {
+    }
+
+    /**
+     * Base class for the state of the benchmarks, which starts a {@link CamelContext} with the routes
+     * of the benchmark, and a {@link ProducerTemplate} to send messages to the routes.
+     */
+    public abstract static class CamelState {
+        protected CamelContext camel;
+        protected ProducerTemplate producer;
+
+        @Setup(Level.Trial)
+        public void initialize() throws Exception {
+            camel = createCamelContext();
+            camel.addRoutes(createRouteBuilder());
+            camel.start();
+            producer = camel.createProducerTemplate();
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws Exception {
+            producer.stop();
+            camel.stop();
+        }
+
+        protected CamelContext createCamelContext() throws Exception {
+            DefaultCamelContext answer = new DefaultCamelContext();
+            // JMX is benchmarked on its own
+            answer.disableJMX();
+            return answer;
+        }
+
+        protected abstract RouteBuilder createRouteBuilder();
+    }
+
+    /**
+     * A baseline entry
+     */
+    static final class Baseline {
+        final String benchmark;
+        final String mode;
+        final String unit;
+        final double score;
+        final double allocNorm;
+
+        Baseline(String benchmark, String mode, String unit, double score, double allocNorm) {
+            this.benchmark = benchmark;
+            this.mode = mode;
+            this.unit = unit;
+            this.score = score;
+            this.allocNorm = allocNorm;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ENGLISH, "{\"benchmark\": \"%s\", \"mode\": \"%s\", \"unit\": \"%s\", \"score\": %.3f, \"allocNorm\": %.3f}",
+                benchmark, mode, unit, score, allocNorm);
+        }
+    }
+
+    /**
+     * Runs the benchmarks of the given class and verifies the results with the baseline.
+     */
+    public static void launch(Class<?> type) throws Exception {
+        new File("target/jmh").mkdirs();
+
+        Options opt = new OptionsBuilder()
+            .include(type.getName() + ".*")
+            .mode(Mode.Throughput)
+            .timeUnit(TimeUnit.MILLISECONDS)
+            .warmupTime(TimeValue.seconds(1))
+            .warmupIterations(3)
+            .measurementTime(TimeValue.seconds(1))
+            .measurementIterations(3)
+            .threads(1)
+            .forks(1)
+            .shouldFailOnError(true)
+            .shouldDoGC(true)
+            // measure the allocations per operation
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result("target/jmh/" + type.getSimpleName() + ".json")
+            .build();
+
+        Collection<RunResult> results = new Runner(opt).run();
+
+        List<Baseline> current = new ArrayList<>();
+        for (RunResult result : results) {
+            Result<?> primary = result.getPrimaryResult();
+            Result<?> alloc = result.getSecondaryResults().get(ALLOCATION);
+            current.add(new Baseline(result.getParams().getBenchmark(), result.getParams().getMode().shortLabel(),
+                primary.getScoreUnit(), primary.getScore(), alloc != null ? alloc.getScore() : 0));
+        }
+
+        if (Boolean.getBoolean("camel.jmh.updateBaseline")) {
+            updateBaseline(current);
+        } else {
+            verify(current, loadBaseline(EipBenchmarkSupport.class.getClassLoader().getResourceAsStream(BASELINE)));
+        }
+    }
+
+    static Map<String, Baseline> loadBaseline(InputStream is) throws IOException {
+        Map<String, Baseline> answer = new TreeMap<>();
+        if (is == null) {
+            return answer;
+        }
+        try {
+            Matcher matcher = ENTRY.matcher(IOHelper.loadText(is));
+            while (matcher.find()) {
+                Baseline entry = new Baseline(matcher.group(1), matcher.group(2), matcher.group(3),
+                    Double.parseDouble(matcher.group(4)), Double.parseDouble(matcher.group(5)));
+                answer.put(entry.benchmark, entry);
+            }
+        } finally {
+            IOHelper.close(is);
+        }
+        return answer;
+    }
+
+    static void verify(List<Baseline> current, Map<String, Baseline> baseline) {
+        double allocationTolerance = Double.parseDouble(System.getProperty("camel.jmh.allocationTolerance", "0.1"));
+        String throughputTolerance = System.getProperty("camel.jmh.throughputTolerance");
+
+        List<String> regressions = new ArrayList<>();
+        for (Baseline result : current) {
+            Baseline base = baseline.get(result.benchmark);
+            if (base == null) {
+                LOG.warn("No baseline for benchmark: {}", result.benchmark);
+                continue;
+            }
+            LOG.info(String.format(Locale.ENGLISH, "%s: %.1f %s (baseline %.1f), %.0f B/op (baseline %.0f)",
+                result.benchmark, result.score, result.unit, base.score, result.allocNorm, base.allocNorm));
+
+            // allow a small absolute slack as the allocation of tiny benchmarks is a bit noisy
+            if (result.allocNorm > base.allocNorm * (1 + allocationTolerance) + 64) {
+                regressions.add(String.format(Locale.ENGLISH, "%s allocates %.0f B/op, baseline is %.0f B/op",
+                    result.benchmark, result.allocNorm, base.allocNorm));
+            }
+            if (throughputTolerance != null && result.score < base.score * (1 - Double.parseDouble(throughputTolerance))) {
+                regressions.add(String.format(Locale.ENGLISH, "%s throughput is %.1f %s, baseline is %.1f %s",
+                    result.benchmark, result.score, result.unit, base.score, base.unit));
+            }
+        }
+
+        if (!regressions.isEmpty()) {
+            Assert.fail("Performance regressions compared to the baseline:\n" + String.join("\n", regressions));
+        }
+    }
+
+    static void updateBaseline(List<Baseline> current) throws IOException {
+        // merge with the existing baseline, as the benchmarks may only be run for some of the EIPs
+        File file = new File("src/test/resources/" + BASELINE);
+        Map<String, Baseline> baseline = loadBaseline(file.exists() ? new FileInputStream(file) : null);
+        for (Baseline result : current) {
+            baseline.put(result.benchmark, result);
+        }
+
+        StringBuilder sb = new StringBuilder("[\n");
+        int i = 0;
+        for (Baseline entry : baseline.values()) {
+            sb.append("  ").append(entry).append(++i < baseline.size() ? ",\n" : "\n");
+        }
+        sb.append("]\n");
+
+        Files.write(file.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+        LOG.info("Updated baseline: {}", file.getAbsolutePath());
+    }
+}
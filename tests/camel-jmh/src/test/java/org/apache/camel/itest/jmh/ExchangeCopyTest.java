@@ -0,0 +1,135 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Tests copying an {@link Exchange} with and without copy-on-write enabled.
+ * <p/>
+ * The GC profiler is enabled so the allocation rate per copied exchange (<tt>gc.alloc.rate.norm</tt>) is reported.
+ */
+public class ExchangeCopyTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        Options opt = new OptionsBuilder()
+            // Specify which benchmarks to run.
+            // You can be more specific if you'd like to run only one benchmark per test.
+            .include(this.getClass().getName() + ".*")
+            // Set the following options as needed
+            .mode(Mode.AverageTime)
+            .timeUnit(TimeUnit.NANOSECONDS)
+            .warmupTime(TimeValue.seconds(1))
+            .warmupIterations(2)
+            .measurementTime(TimeValue.seconds(5))
+            .measurementIterations(5)
+            .threads(1)
+            .forks(1)
+            .shouldFailOnError(true)
+            .shouldDoGC(true)
+            .addProfiler(GCProfiler.class)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    // The JMH samples are the best documentation for how to use it
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+        @Param({"false", "true"})
+        boolean copyOnWrite;
+
+        CamelContext camel;
+        Exchange exchange;
+
+        @Setup(Level.Trial)
+        public void initialize() {
+            camel = new DefaultCamelContext();
+            camel.setCopyOnWriteExchange(copyOnWrite);
+            try {
+                camel.start();
+                exchange = new DefaultExchange(camel);
+                exchange.getIn().setBody("Hello World");
+                for (int i = 0; i < 10; i++) {
+                    exchange.getIn().setHeader("header" + i, "value" + i);
+                    exchange.setProperty("property" + i, "value" + i);
+                }
+            } catch (Exception e) {
+                // ignore
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            try {
+                camel.stop();
+            } catch (Exception e) {
+                // ignore
+            }
+        }
+
+    }
+
+    @Benchmark
+    public void copyReadOnly(BenchmarkState state, Blackhole bh) {
+        Exchange copy = state.exchange.copy(true);
+        bh.consume(copy.getIn().getHeader("header5"));
+        bh.consume(copy.getProperty("property5"));
+    }
+
+    @Benchmark
+    public void copyAndChangeHeader(BenchmarkState state, Blackhole bh) {
+        Exchange copy = state.exchange.copy(true);
+        copy.getIn().setHeader("header5", "changed");
+        bh.consume(copy.getIn().getHeader("header5"));
+        bh.consume(copy.getProperty("property5"));
+    }
+
+    @Benchmark
+    public void copyTwelveTimes(BenchmarkState state, Blackhole bh) {
+        // simulates a route copying the exchange in each of its steps, such as when using the error handler
+        Exchange copy = state.exchange;
+        for (int i = 0; i < 12; i++) {
+            copy = copy.copy(true);
+            bh.consume(copy.getIn().getHeader("header" + (i % 10)));
+        }
+        bh.consume(copy);
+    }
+
+}
@@ -0,0 +1,59 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.processor.idempotent.MemoryIdempotentRepository;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the {@link org.apache.camel.processor.idempotent.IdempotentConsumer} EIP using the memory
+ * repository, where every second message is a duplicate.
+ */
+public class IdempotentConsumerEipTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        EipBenchmarkSupport.launch(getClass());
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkState extends EipBenchmarkSupport.CamelState {
+        long counter;
+
+        @Override
+        protected RouteBuilder createRouteBuilder() {
+            return new RouteBuilder() {
+                @Override
+                public void configure() throws Exception {
+                    from("direct:idempotent")
+                        .idempotentConsumer(header("id"), MemoryIdempotentRepository.memoryIdempotentRepository(1000))
+                            .setHeader("a", constant("1"))
+                        .end();
+                }
+            };
+        }
+    }
+
+    @Benchmark
+    public void idempotentConsumer(BenchmarkState state) {
+        state.producer.sendBodyAndHeader("direct:idempotent", "Hello World", "id", String.valueOf(state.counter++ / 2));
+    }
+}
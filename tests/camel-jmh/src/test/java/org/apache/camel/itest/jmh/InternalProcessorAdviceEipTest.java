@@ -0,0 +1,123 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the advices of the {@link org.apache.camel.processor.CamelInternalProcessor} which wraps the routes
+ * and the processors, using the same route of three processors with the default advices, and with
+ * message history, stream caching and JMX enabled, and with JMX enabled and the advices fused.
+ */
+public class InternalProcessorAdviceEipTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        EipBenchmarkSupport.launch(getClass());
+    }
+
+    @State(Scope.Thread)
+    public static class DefaultState extends EipBenchmarkSupport.CamelState {
+
+        @Override
+        protected RouteBuilder createRouteBuilder() {
+            return new RouteBuilder() {
+                @Override
+                public void configure() throws Exception {
+                    from("direct:start")
+                        .setHeader("a", constant("1"))
+                        .setHeader("b", constant("2"))
+                        .setHeader("c", constant("3"));
+                }
+            };
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class MessageHistoryState extends DefaultState {
+
+        @Override
+        protected CamelContext createCamelContext() throws Exception {
+            CamelContext answer = super.createCamelContext();
+            answer.setMessageHistory(true);
+            return answer;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class StreamCachingState extends DefaultState {
+
+        @Override
+        protected CamelContext createCamelContext() throws Exception {
+            CamelContext answer = super.createCamelContext();
+            answer.setStreamCaching(true);
+            return answer;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class JmxState extends DefaultState {
+
+        @Override
+        protected CamelContext createCamelContext() throws Exception {
+            // JMX is enabled by default
+            return new DefaultCamelContext();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class JmxFusedState extends JmxState {
+
+        @Override
+        protected CamelContext createCamelContext() throws Exception {
+            CamelContext answer = super.createCamelContext();
+            answer.setAdviceFusion(true);
+            return answer;
+        }
+    }
+
+    @Benchmark
+    public void defaults(DefaultState state) {
+        state.producer.sendBody("direct:start", "Hello World");
+    }
+
+    @Benchmark
+    public void messageHistory(MessageHistoryState state) {
+        state.producer.sendBody("direct:start", "Hello World");
+    }
+
+    @Benchmark
+    public void streamCaching(StreamCachingState state) {
+        state.producer.sendBody("direct:start", "Hello World");
+    }
+
+    @Benchmark
+    public void jmx(JmxState state) {
+        state.producer.sendBody("direct:start", "Hello World");
+    }
+
+    @Benchmark
+    public void jmxFused(JmxFusedState state) {
+        state.producer.sendBody("direct:start", "Hello World");
+    }
+}
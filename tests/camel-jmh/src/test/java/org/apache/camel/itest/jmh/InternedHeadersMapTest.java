@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.component.headersmap.FastHeadersMapFactory;
+import org.apache.camel.component.headersmap.InternedHeadersMapFactory;
+import org.apache.camel.impl.DefaultHeadersMapFactory;
+import org.apache.camel.spi.HeadersMapFactory;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Tests {@link org.apache.camel.component.headersmap.InternedHeadersMap} against the other headers map implementations
+ * using well known Camel header names.
+ */
+public class InternedHeadersMapTest {
+
+    private static final String[] HEADERS = {Exchange.FILE_NAME, Exchange.FILE_PATH, Exchange.CONTENT_TYPE,
+        Exchange.BREADCRUMB_ID, Exchange.CORRELATION_ID, Exchange.HTTP_METHOD, Exchange.HTTP_RESPONSE_CODE, Exchange.CHARSET_NAME};
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        Options opt = new OptionsBuilder()
+            // Specify which benchmarks to run.
+            // You can be more specific if you'd like to run only one benchmark per test.
+            .include(this.getClass().getName() + ".*")
+            // Set the following options as needed
+            .mode(Mode.SampleTime)
+            .timeUnit(TimeUnit.MILLISECONDS)
+            .warmupTime(TimeValue.seconds(1))
+            .warmupIterations(2)
+            .measurementTime(TimeValue.seconds(5))
+            .measurementIterations(5)
+            .threads(1)
+            .forks(1)
+            .shouldFailOnError(true)
+            .shouldDoGC(true)
+            .measurementBatchSize(1000000)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    // The JMH samples are the best documentation for how to use it
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/
+    @State(Scope.Thread)
+    public static class MapsBenchmarkState {
+        HeadersMapFactory camelFactory = new DefaultHeadersMapFactory();
+        HeadersMapFactory cedarsoftFactory = new FastHeadersMapFactory();
+        HeadersMapFactory internedFactory = new InternedHeadersMapFactory();
+        Map<String, Object> camelMap;
+        Map<String, Object> cedarsoftMap;
+        Map<String, Object> internedMap;
+
+        @Setup(Level.Trial)
+        public void initialize() {
+            camelMap = populate(camelFactory);
+            cedarsoftMap = populate(cedarsoftFactory);
+            internedMap = populate(internedFactory);
+        }
+
+        private static Map<String, Object> populate(HeadersMapFactory factory) {
+            Map<String, Object> map = factory.newMap();
+            for (String header : HEADERS) {
+                map.put(header, "Hello World");
+            }
+            map.put("foo", "Hello World");
+            return map;
+        }
+    }
+
+    @Benchmark
+    public void camelMapKnownHeaders(MapsBenchmarkState state, Blackhole bh) {
+        lookupKnownHeaders(state.camelMap, bh);
+    }
+
+    @Benchmark
+    public void cedarsoftMapKnownHeaders(MapsBenchmarkState state, Blackhole bh) {
+        lookupKnownHeaders(state.cedarsoftMap, bh);
+    }
+
+    @Benchmark
+    public void internedMapKnownHeaders(MapsBenchmarkState state, Blackhole bh) {
+        lookupKnownHeaders(state.internedMap, bh);
+    }
+
+    @Benchmark
+    public void camelMapCopy(MapsBenchmarkState state, Blackhole bh) {
+        bh.consume(state.camelFactory.newMap(state.camelMap));
+    }
+
+    @Benchmark
+    public void cedarsoftMapCopy(MapsBenchmarkState state, Blackhole bh) {
+        bh.consume(state.cedarsoftFactory.newMap(state.cedarsoftMap));
+    }
+
+    @Benchmark
+    public void internedMapCopy(MapsBenchmarkState state, Blackhole bh) {
+        bh.consume(state.internedFactory.newMap(state.internedMap));
+    }
+
+    private static void lookupKnownHeaders(Map<String, Object> map, Blackhole bh) {
+        for (String header : HEADERS) {
+            bh.consume(map.get(header));
+            bh.consume(map.put(header, "Bye World"));
+        }
+        bh.consume(map.get("foo"));
+        bh.consume(map.get("camelfilename"));
+    }
+
+}
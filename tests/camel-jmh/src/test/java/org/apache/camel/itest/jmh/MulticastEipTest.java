@@ -0,0 +1,70 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.processor.aggregate.UseLatestAggregationStrategy;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the {@link org.apache.camel.processor.MulticastProcessor} EIP sending to three endpoints,
+ * in sequence and in parallel.
+ */
+public class MulticastEipTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        EipBenchmarkSupport.launch(getClass());
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkState extends EipBenchmarkSupport.CamelState {
+
+        @Override
+        protected RouteBuilder createRouteBuilder() {
+            return new RouteBuilder() {
+                @Override
+                public void configure() throws Exception {
+                    from("direct:multicast")
+                        .multicast(new UseLatestAggregationStrategy())
+                            .to("direct:a", "direct:b", "direct:c");
+
+                    from("direct:parallel")
+                        .multicast(new UseLatestAggregationStrategy()).parallelProcessing()
+                            .to("direct:a", "direct:b", "direct:c");
+
+                    from("direct:a").setHeader("a", constant("1"));
+                    from("direct:b").setHeader("b", constant("2"));
+                    from("direct:c").setHeader("c", constant("3"));
+                }
+            };
+        }
+    }
+
+    @Benchmark
+    public void sequential(BenchmarkState state) {
+        state.producer.sendBody("direct:multicast", "Hello World");
+    }
+
+    @Benchmark
+    public void parallel(BenchmarkState state) {
+        state.producer.sendBody("direct:parallel", "Hello World");
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the {@link org.apache.camel.processor.Pipeline} EIP, with a route of five processors,
+ * and a route of a single processor where the pipeline is optimised away.
+ */
+public class PipelineEipTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        EipBenchmarkSupport.launch(getClass());
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkState extends EipBenchmarkSupport.CamelState {
+
+        @Override
+        protected RouteBuilder createRouteBuilder() {
+            return new RouteBuilder() {
+                @Override
+                public void configure() throws Exception {
+                    from("direct:pipeline")
+                        .setHeader("a", constant("1"))
+                        .setHeader("b", constant("2"))
+                        .setHeader("c", constant("3"))
+                        .setHeader("d", constant("4"))
+                        .setHeader("e", constant("5"));
+
+                    from("direct:single")
+                        .setHeader("a", constant("1"));
+                }
+            };
+        }
+    }
+
+    @Benchmark
+    public void pipeline(BenchmarkState state) {
+        state.producer.sendBody("direct:pipeline", "Hello World");
+    }
+
+    @Benchmark
+    public void single(BenchmarkState state) {
+        state.producer.sendBody("direct:single", "Hello World");
+    }
+}
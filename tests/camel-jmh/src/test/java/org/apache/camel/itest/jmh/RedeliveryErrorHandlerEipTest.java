@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.LoggingLevel;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the {@link org.apache.camel.processor.RedeliveryErrorHandler}, when the messages succeed
+ * on the first attempt, and when every message fails once and succeeds on the redelivery.
+ */
+public class RedeliveryErrorHandlerEipTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        EipBenchmarkSupport.launch(getClass());
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkState extends EipBenchmarkSupport.CamelState {
+
+        @Override
+        protected RouteBuilder createRouteBuilder() {
+            return new RouteBuilder() {
+                @Override
+                public void configure() throws Exception {
+                    errorHandler(defaultErrorHandler().maximumRedeliveries(2).redeliveryDelay(0).retryAttemptedLogLevel(LoggingLevel.DEBUG));
+
+                    from("direct:success")
+                        .setHeader("a", constant("1"));
+
+                    from("direct:redeliver")
+                        .process(exchange -> {
+                            if (!exchange.getIn().getHeader(Exchange.REDELIVERED, false, Boolean.class)) {
+                                throw new IllegalStateException("Forced");
+                            }
+                        });
+                }
+            };
+        }
+    }
+
+    @Benchmark
+    public void success(BenchmarkState state) {
+        state.producer.sendBody("direct:success", "Hello World");
+    }
+
+    @Benchmark
+    public void redeliverOnce(BenchmarkState state) {
+        state.producer.sendBody("direct:redeliver", "Hello World");
+    }
+}
@@ -20,6 +20,7 @@ import java.util.concurrent.TimeUnit;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
+import org.apache.camel.Predicate;
 import org.apache.camel.impl.DefaultCamelContext;
 import org.apache.camel.impl.DefaultExchange;
 import org.apache.camel.spi.Language;
@@ -39,7 +40,7 @@ import org.openjdk.jmh.runner.options.OptionsBuilder;
 import org.openjdk.jmh.runner.options.TimeValue;
 
 /**
- * Tests a Simple expression
+ * Tests a Simple expression and predicates as used by content based routing
  */
 public class SimpleExpressionTest {
 
@@ -71,6 +72,9 @@ public class SimpleExpressionTest {
     public static class BenchmarkState {
         CamelContext camel;
         String expression = "Hello ${body}";
+        String predicate = "${header.country} == 'DK' && ${header.amount} > 100";
+        String regexPredicate = "${header.zip} regex '\\d{4}'";
+        String inPredicate = "${header.country} in 'SE,NO,DK,FI'";
         Exchange exchange;
         Language simple;
 
@@ -81,6 +85,9 @@ public class SimpleExpressionTest {
                 camel.start();
                 exchange = new DefaultExchange(camel);
                 exchange.getIn().setBody("World");
+                exchange.getIn().setHeader("country", "DK");
+                exchange.getIn().setHeader("amount", 123);
+                exchange.getIn().setHeader("zip", "2100");
                 simple = camel.resolveLanguage("simple");
 
             } catch (Exception e) {
@@ -109,4 +116,31 @@ public class SimpleExpressionTest {
         bh.consume(out);
     }
 
+    @Benchmark
+    @Measurement(batchSize = 1000)
+    public void simplePredicate(BenchmarkState state, Blackhole bh) {
+        matches(state, state.predicate, bh);
+    }
+
+    @Benchmark
+    @Measurement(batchSize = 1000)
+    public void simpleRegexPredicate(BenchmarkState state, Blackhole bh) {
+        matches(state, state.regexPredicate, bh);
+    }
+
+    @Benchmark
+    @Measurement(batchSize = 1000)
+    public void simpleInPredicate(BenchmarkState state, Blackhole bh) {
+        matches(state, state.inPredicate, bh);
+    }
+
+    private static void matches(BenchmarkState state, String predicate, Blackhole bh) {
+        Predicate p = state.simple.createPredicate(predicate);
+        boolean out = p.matches(state.exchange);
+        if (!out) {
+            throw new IllegalArgumentException("Evaluation failed");
+        }
+        bh.consume(out);
+    }
+
 }
@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.processor.aggregate.UseLatestAggregationStrategy;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the {@link org.apache.camel.processor.Splitter} EIP splitting a list of 10 elements,
+ * with and without aggregating the replies, and tokenizing a comma separated text in streaming mode.
+ */
+public class SplitterEipTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        EipBenchmarkSupport.launch(getClass());
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkState extends EipBenchmarkSupport.CamelState {
+        final List<String> list = new ArrayList<>();
+        final String text = "A,B,C,D,E,F,G,H,I,J";
+
+        public BenchmarkState() {
+            for (int i = 0; i < 10; i++) {
+                list.add("Message " + i);
+            }
+        }
+
+        @Override
+        protected RouteBuilder createRouteBuilder() {
+            return new RouteBuilder() {
+                @Override
+                public void configure() throws Exception {
+                    from("direct:split")
+                        .split(body())
+                            .setHeader("a", constant("1"))
+                        .end();
+
+                    from("direct:aggregate")
+                        .split(body(), new UseLatestAggregationStrategy())
+                            .setHeader("a", constant("1"))
+                        .end();
+
+                    from("direct:streaming")
+                        .split(body().tokenize(",")).streaming()
+                            .setHeader("a", constant("1"))
+                        .end();
+                }
+            };
+        }
+    }
+
+    @Benchmark
+    public void split(BenchmarkState state) {
+        state.producer.sendBody("direct:split", state.list);
+    }
+
+    @Benchmark
+    public void splitAggregate(BenchmarkState state) {
+        state.producer.sendBody("direct:aggregate", state.list);
+    }
+
+    @Benchmark
+    public void splitStreaming(BenchmarkState state) {
+        state.producer.sendBody("direct:streaming", state.text);
+    }
+}
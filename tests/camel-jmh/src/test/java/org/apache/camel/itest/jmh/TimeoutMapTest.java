@@ -0,0 +1,141 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.support.DefaultTimeoutMap;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Tests the cost of the purge task of the {@link DefaultTimeoutMap} as the number of outstanding entries grows,
+ * when scanning all the entries, and when using a timing wheel.
+ */
+public class TimeoutMapTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        Options opt = new OptionsBuilder()
+            // Specify which benchmarks to run.
+            // You can be more specific if you'd like to run only one benchmark per test.
+            .include(this.getClass().getName() + ".*")
+            // Set the following options as needed
+            .mode(Mode.AverageTime)
+            .timeUnit(TimeUnit.MICROSECONDS)
+            .warmupTime(TimeValue.seconds(1))
+            .warmupIterations(2)
+            .measurementTime(TimeValue.seconds(1))
+            .measurementIterations(2)
+            .threads(1)
+            .forks(1)
+            .shouldFailOnError(true)
+            .shouldDoGC(true)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    // The JMH samples are the best documentation for how to use it
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+
+        @Param({"1000", "100000", "500000"})
+        int outstanding;
+
+        @Param({"false", "true"})
+        boolean timingWheel;
+
+        ScheduledExecutorService executor;
+        SimulatedClockTimeoutMap map;
+        Random random;
+        int counter;
+
+        @Setup(Level.Trial)
+        public void initialize() {
+            executor = Executors.newSingleThreadScheduledExecutor();
+            // the purge task is invoked by the benchmark so the map is not started
+            map = new SimulatedClockTimeoutMap(executor, timingWheel);
+            random = new Random(42);
+            for (int i = 0; i < outstanding; i++) {
+                map.put("ID-" + i, i, randomTimeout());
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            executor.shutdownNow();
+        }
+
+        long randomTimeout() {
+            // long timeouts so the outstanding entries do not expire while benchmarking
+            return TimeUnit.DAYS.toMillis(1) + random.nextInt(Integer.MAX_VALUE / 2);
+        }
+    }
+
+    /**
+     * A timeout map where time advances one poll interval each time its purged
+     */
+    static class SimulatedClockTimeoutMap extends DefaultTimeoutMap<String, Integer> {
+
+        private long clock = 1000000;
+
+        SimulatedClockTimeoutMap(ScheduledExecutorService executor, boolean timingWheel) {
+            super(executor, 1, true, timingWheel);
+        }
+
+        @Override
+        public void purge() {
+            clock += getPurgePollTime();
+            super.purge();
+        }
+
+        @Override
+        protected long currentTime() {
+            return clock;
+        }
+    }
+
+    @Benchmark
+    public void purge(BenchmarkState state) {
+        state.map.purge();
+    }
+
+    @Benchmark
+    public void putAndRemove(BenchmarkState state, Blackhole bh) {
+        String key = "NEW-" + (state.counter++ & 1023);
+        bh.consume(state.map.put(key, 1, state.randomTimeout()));
+        bh.consume(state.map.remove(key));
+    }
+
+}
@@ -77,6 +77,8 @@ public class TypeConverterTest {
         String someIntegerString = String.valueOf(someInteger);
         String xmlAsString;
         byte[] xmlAsBytes;
+        StringBuilder someBuilder = new StringBuilder("Hello World");
+        Object someObject = new Object();
 
         CamelContext camel;
 
@@ -151,4 +153,25 @@ public class TypeConverterTest {
         String string = state.camel.getTypeConverter().convertTo(String.class, state.xmlAsBytes);
         bh.consume(string);
     }
+
+    @Benchmark
+    public void typeConvertStringBuilderToInputStream(BenchmarkCamelContextState state, Blackhole bh) {
+        // resolved via the CharSequence interface of the value
+        InputStream inputStream = state.camel.getTypeConverter().convertTo(InputStream.class, state.someBuilder);
+        bh.consume(inputStream);
+    }
+
+    @Benchmark
+    public void typeConvertObjectToString(BenchmarkCamelContextState state, Blackhole bh) {
+        // no direct converter so its converted by the fallback converters
+        String string = state.camel.getTypeConverter().convertTo(String.class, state.someObject);
+        bh.consume(string);
+    }
+
+    @Benchmark
+    public void typeConvertObjectToDocumentMiss(BenchmarkCamelContextState state, Blackhole bh) {
+        // cannot be converted
+        Document document = state.camel.getTypeConverter().convertTo(Document.class, state.someObject);
+        bh.consume(document);
+    }
 }
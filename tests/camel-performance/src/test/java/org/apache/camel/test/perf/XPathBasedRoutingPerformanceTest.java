@@ -20,12 +20,14 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.builder.xml.XPathBuilder;
 import org.apache.camel.util.StopWatch;
 import org.junit.Test;
 
 public class XPathBasedRoutingPerformanceTest extends AbstractBasePerformanceTest {
 
     private final int count = 30000;
+    private XPathBuilder pooledFilter;
 
     @Test
     public void testChoice() throws InterruptedException {
@@ -59,6 +61,46 @@ public class XPathBasedRoutingPerformanceTest extends AbstractBasePerformanceTes
         log.warn("Ran {} tests in {}ms", count, watch.taken());
     }
 
+    @Test
+    public void testFilterPreCompiledPool() throws InterruptedException {
+        template.setDefaultEndpointUri("direct:filter-pooled");
+
+        // the pool is pre compiled when the route starts, so measure the first messages as well
+        resetMock(10);
+        StopWatch watch = new StopWatch();
+        execute(10);
+        assertMockEndpointsSatisfied();
+        log.warn("Ran first {} tests in {}ms", 10, watch.taken());
+
+        // warm up with 20.000 messages so that the JIT compiler kicks in
+        execute(20000);
+
+        resetMock(count);
+
+        watch = new StopWatch();
+        execute(count);
+
+        assertMockEndpointsSatisfied();
+        log.warn("Ran {} tests in {}ms (pool hits: {}, misses: {})",
+            new Object[]{count, watch.taken(), pooledFilter.getPoolHits(), pooledFilter.getPoolMisses()});
+    }
+
+    @Test
+    public void testFilterStreaming() throws InterruptedException {
+        template.setDefaultEndpointUri("direct:filter-streaming");
+
+        // warm up with 20.000 messages so that the JIT compiler kicks in
+        execute(20000);
+
+        resetMock(count);
+
+        StopWatch watch = new StopWatch();
+        execute(count);
+
+        assertMockEndpointsSatisfied();
+        log.warn("Ran {} tests in {}ms", count, watch.taken());
+    }
+
     @Override
     protected RouteBuilder createRouteBuilder() throws Exception {
         return new RouteBuilder() {
@@ -71,6 +113,22 @@ public class XPathBasedRoutingPerformanceTest extends AbstractBasePerformanceTes
                     .filter().xpath("/soapenv:Envelope/soapenv:Body/m:buyStocks/order[1]/symbol='IBM'", namespaces)
                         .to("mock:end");
 
+                pooledFilter = XPathBuilder.xpath("/soapenv:Envelope/soapenv:Body/m:buyStocks/order[1]/symbol='IBM'")
+                    .namespace("soapenv", "http://schemas.xmlsoap.org/soap/envelope/")
+                    .namespace("m", "http://services.samples/xsd")
+                    .poolSize(10).preCompile();
+
+                from("direct:filter-pooled")
+                    .filter(pooledFilter)
+                        .to("mock:end");
+
+                from("direct:filter-streaming")
+                    .filter(XPathBuilder.xpath("/soapenv:Envelope/soapenv:Body/m:buyStocks/order[1]/symbol='IBM'")
+                            .namespace("soapenv", "http://schemas.xmlsoap.org/soap/envelope/")
+                            .namespace("m", "http://services.samples/xsd")
+                            .streaming())
+                        .to("mock:end");
+
                 from("direct:choice")
                     .choice()
                         .when().xpath("/soapenv:Envelope/soapenv:Body/m:buyStocks/order[1]/symbol='IBM'", namespaces)
@@ -17,6 +17,7 @@
 package org.apache.camel.test.perf;
 
 import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.xslt.XsltEndpoint;
 import org.apache.camel.util.StopWatch;
 import org.junit.Test;
 
@@ -40,6 +41,24 @@ public class XsltPerformanceTest extends AbstractBasePerformanceTest {
         log.warn("Ran {} tests in {}ms", count, watch.taken());
     }
 
+    @Test
+    public void testXsltPreCompiledTransformerCache() throws InterruptedException {
+        template.setDefaultEndpointUri("direct:xslt-cached");
+
+        // warm up with 1.000 messages so that the JIT compiler kicks in
+        execute(1000);
+
+        resetMock(count);
+
+        StopWatch watch = new StopWatch();
+        execute(count);
+
+        assertMockEndpointsSatisfied();
+        XsltEndpoint xslt = context.getEndpoint("xslt://META-INF/xslt/transform.xslt?transformerCacheSize=10&preCompile=true", XsltEndpoint.class);
+        log.warn("Ran {} tests in {}ms (transformer cache hits: {}, misses: {})",
+            new Object[]{count, watch.taken(), xslt.getTransformerCacheHits(), xslt.getTransformerCacheMisses()});
+    }
+
     @Override
     protected RouteBuilder createRouteBuilder() throws Exception {
         return new RouteBuilder() {
@@ -47,6 +66,10 @@ public class XsltPerformanceTest extends AbstractBasePerformanceTest {
                 from("direct:xslt")
                     .to("xslt://META-INF/xslt/transform.xslt")
                     .to("mock:end");
+
+                from("direct:xslt-cached")
+                    .to("xslt://META-INF/xslt/transform.xslt?transformerCacheSize=10&preCompile=true")
+                    .to("mock:end");
             }
         };
     }